@@ -0,0 +1,155 @@
+package com.sap.olingo.jpa.metadata.core.edm.annotation.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import com.sap.olingo.jpa.metadata.core.edm.annotation.EdmEnumeration;
+
+/**
+ * Annotation processor, which creates at compile time an index of the java types the intermediate model needs, but
+ * can not find via the JPA metamodel: Enumerations annotated with {@link EdmEnumeration} and implementations of
+ * ODataFunction or ODataAction. At runtime the index replaces the scan of the class path.<p>
+ * The index is written to {@value #INDEX_RESOURCE}. It lists the packages that have been compiled with the processor
+ * and the binary names of the found types:
+ *
+ * <pre>
+ * package com.example.model
+ * type com.example.model.Status
+ * type com.example.model.Functions
+ * </pre>
+ *
+ * The processor is registered as service, so javac uses it, as soon as it is on the class path. It is not passed on
+ * by odata-jpa-metadata, so a project has to opt in, e.g. by a dependency with scope provided or via the
+ * annotationProcessorPaths of the maven-compiler-plugin. Packages compiled without the processor are scanned at
+ * runtime as before. In case only some classes are compiled, e.g. by an incremental build, the index of the previous
+ * compilation is merged into the new one.
+ * @author Oliver Grande
+ *
+ */
+public class JPAEdmTypeIndexProcessor extends AbstractProcessor {
+  public static final String INDEX_RESOURCE = "META-INF/olingo-jpa/types.index";
+  public static final String PACKAGE_ENTRY = "package ";
+  public static final String TYPE_ENTRY = "type ";
+  static final String[] OPERATION_TYPES = {
+      "com.sap.olingo.jpa.metadata.core.edm.mapper.extention.ODataFunction",
+      "com.sap.olingo.jpa.metadata.core.edm.mapper.extention.ODataAction" };
+
+  private final Set<String> packages = new TreeSet<>();
+  private final Set<String> types = new TreeSet<>();
+
+  /**
+   * Implementations of operations are found by their super type and not by an annotation, so all types are needed
+   */
+  @Override
+  public Set<String> getSupportedAnnotationTypes() {
+    return Collections.singleton("*");
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  /**
+   * Collects the types of each round and writes the index after the last round. The annotations are not claimed, so
+   * other processors get them as well.
+   */
+  @Override
+  public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      writeIndex();
+    } else {
+      for (final Element element : roundEnv.getRootElements()) {
+        if (element instanceof TypeElement) {
+          packages.add(processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString());
+          collect((TypeElement) element);
+        }
+      }
+    }
+    return false;
+  }
+
+  private void collect(final TypeElement type) {
+    if (isIndexed(type))
+      types.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+    for (final Element enclosed : type.getEnclosedElements()) {
+      if (enclosed instanceof TypeElement)
+        collect((TypeElement) enclosed);
+    }
+  }
+
+  private boolean isIndexed(final TypeElement type) {
+    if (type.getAnnotation(EdmEnumeration.class) != null)
+      return true;
+    final Elements elements = processingEnv.getElementUtils();
+    final Types typeUtils = processingEnv.getTypeUtils();
+    for (final String operationType : OPERATION_TYPES) {
+      final TypeElement operation = elements.getTypeElement(operationType);
+      if (operation != null && !operation.equals(type)
+          && typeUtils.isSubtype(typeUtils.erasure(type.asType()), typeUtils.erasure(operation.asType())))
+        return true;
+    }
+    return false;
+  }
+
+  /**
+   * Takes over the entries of the index of a previous compilation. Packages are kept, types only if they still exist
+   * and still have to be indexed.
+   */
+  private void mergePreviousIndex(final Filer filer) {
+    final Elements elements = processingEnv.getElementUtils();
+    try {
+      final FileObject previous = filer.getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+      try (BufferedReader reader = new BufferedReader(previous.openReader(true))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (line.startsWith(PACKAGE_ENTRY)) {
+            packages.add(line.substring(PACKAGE_ENTRY.length()));
+          } else if (line.startsWith(TYPE_ENTRY)) {
+            final String binaryName = line.substring(TYPE_ENTRY.length());
+            final TypeElement type = elements.getTypeElement(binaryName.replace('$', '.'));
+            if (type != null && isIndexed(type))
+              types.add(binaryName);
+          }
+        }
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      // No previous index
+    }
+  }
+
+  private void writeIndex() {
+    final Filer filer = processingEnv.getFiler();
+    if (packages.isEmpty())
+      return;
+    mergePreviousIndex(filer);
+    try {
+      final FileObject index = filer.createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+      try (Writer writer = index.openWriter()) {
+        for (final String packageName : packages)
+          writer.write(PACKAGE_ENTRY + packageName + "\n");
+        for (final String type : types)
+          writer.write(TYPE_ENTRY + type + "\n");
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Kind.ERROR, "Index " + INDEX_RESOURCE + " could not be written: "
+          + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package com.sap.olingo.jpa.metadata.core.edm.annotation.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sap.olingo.jpa.metadata.core.edm.annotation.EdmEnumeration;
+
+public class TestJPAEdmTypeIndexProcessor {
+  private static final String OPERATION_PACKAGE = "com.sap.olingo.jpa.metadata.core.edm.mapper.extention";
+  private Path sources;
+  private Path classes;
+
+  @Before
+  public void setup() throws IOException {
+    sources = Files.createTempDirectory("sources");
+    classes = Files.createTempDirectory("classes");
+    source(OPERATION_PACKAGE, "ODataOperation", "public interface ODataOperation {}");
+    source(OPERATION_PACKAGE, "ODataFunction", "public interface ODataFunction extends ODataOperation {}");
+    source(OPERATION_PACKAGE, "ODataAction", "public interface ODataAction extends ODataOperation {}");
+  }
+
+  @Test
+  public void checkAnnotatedEnumerationIndexed() throws IOException {
+    compile(source("test", "Annotated",
+        "@com.sap.olingo.jpa.metadata.core.edm.annotation.EdmEnumeration public enum Annotated { A }"),
+        source("test", "NotAnnotated", "public enum NotAnnotated { A }"));
+
+    final List<String> act = readIndex();
+    assertTrue(act.contains("type test.Annotated"));
+    assertFalse(act.contains("type test.NotAnnotated"));
+  }
+
+  @Test
+  public void checkOperationsIndexed() throws IOException {
+    compile(source("test", "Function", "public class Function implements "
+        + OPERATION_PACKAGE + ".ODataFunction {}"),
+        source("test", "Action", "public class Action implements " + OPERATION_PACKAGE + ".ODataAction {}"),
+        source("test", "SubFunction", "public class SubFunction extends Function {}"),
+        source("test", "Outer", "public class Outer { public static class Inner implements "
+            + OPERATION_PACKAGE + ".ODataFunction {} }"),
+        source("test", "Other", "public class Other {}"));
+
+    final List<String> act = readIndex();
+    assertTrue(act.contains("type test.Function"));
+    assertTrue(act.contains("type test.Action"));
+    assertTrue(act.contains("type test.SubFunction"));
+    assertTrue(act.contains("type test.Outer$Inner"));
+    assertFalse(act.contains("type test.Outer"));
+    assertFalse(act.contains("type test.Other"));
+    assertFalse(act.contains("type " + OPERATION_PACKAGE + ".ODataFunction"));
+  }
+
+  @Test
+  public void checkCompiledPackagesIndexed() throws IOException {
+    compile(source("test.one", "First", "public class First {}"),
+        source("test.two", "Second", "public class Second {}"));
+
+    final List<String> act = readIndex();
+    assertTrue(act.contains("package test.one"));
+    assertTrue(act.contains("package test.two"));
+    assertFalse(act.contains("package " + OPERATION_PACKAGE));
+  }
+
+  @Test
+  public void checkIndexIsSorted() throws IOException {
+    compile(source("test", "B", "public class B implements " + OPERATION_PACKAGE + ".ODataFunction {}"),
+        source("test", "A", "public class A implements " + OPERATION_PACKAGE + ".ODataFunction {}"));
+
+    final List<String> act = readIndex();
+    assertTrue(act.indexOf("type test.A") < act.indexOf("type test.B"));
+  }
+
+  @Test
+  public void checkPreviousIndexMerged() throws IOException {
+    compile(source("test.one", "First", "public class First implements " + OPERATION_PACKAGE + ".ODataFunction {}"));
+    compile(source("test.two", "Second", "public class Second implements " + OPERATION_PACKAGE + ".ODataAction {}"));
+
+    final List<String> act = readIndex();
+    assertTrue(act.contains("package test.one"));
+    assertTrue(act.contains("type test.one.First"));
+    assertTrue(act.contains("type test.two.Second"));
+  }
+
+  @Test
+  public void checkRemovedTypeNotMerged() throws IOException {
+    compile(source("test", "First", "public class First implements " + OPERATION_PACKAGE + ".ODataFunction {}"));
+    compile(source("test", "First", "public class First {}"));
+
+    final List<String> act = readIndex();
+    assertFalse(act.contains("type test.First"));
+    assertEquals(1, Collections.frequency(act, "package test"));
+  }
+
+  private Path source(final String packageName, final String name, final String body) throws IOException {
+    final Path file = sources.resolve(packageName.replace('.', File.separatorChar)).resolve(name + ".java");
+    Files.createDirectories(file.getParent());
+    Files.write(file, ("package " + packageName + ";\n" + body).getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+
+  private void compile(final Path... files) throws IOException {
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+      final List<File> sourceFiles = new ArrayList<>();
+      for (final Path file : files)
+        sourceFiles.add(file.toFile());
+      final String classPath = new File(EdmEnumeration.class.getProtectionDomain().getCodeSource().getLocation()
+          .getPath()).getPath() + File.pathSeparator + classes;
+      final List<String> options = Arrays.asList("-d", classes.toString(), "-classpath", classPath, "-sourcepath",
+          sources.toString(), "-implicit:class");
+      final Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(sourceFiles);
+      final CompilationTask task = compiler.getTask(null, fileManager, null, options, null, units);
+      task.setProcessors(Collections.singletonList(new JPAEdmTypeIndexProcessor()));
+      assertTrue(task.call());
+    }
+  }
+
+  private List<String> readIndex() throws IOException {
+    return Files.readAllLines(classes.resolve(JPAEdmTypeIndexProcessor.INDEX_RESOURCE), StandardCharsets.UTF_8);
+  }
+}
@@ -1,8 +1,15 @@
 package com.sap.olingo.jpa.metadata.api;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.metamodel.Metamodel;
@@ -35,33 +42,40 @@ public class JPAEdmProvider extends CsdlAbstractEdmProvider {
 
   private final JPAEdmNameBuilder nameBuilder;
   private final JPAServiceDocument serviceDocument;
+  private volatile SchemaIndex schemaIndex;
 
   // http://docs.oasis-open.org/odata/odata/v4.0/errata02/os/complete/part3-csdl/odata-v4.0-errata02-os-part3-csdl-complete.html#_Toc406397930
   public JPAEdmProvider(final String namespace, final EntityManagerFactory emf,
       final JPAEdmMetadataPostProcessor postProcessor, final String[] packageName) throws ODataException {
-    super();
-    this.nameBuilder = new JPAEdmNameBuilder(namespace);
-    serviceDocument = new JPAServiceDocumentFactory(namespace, emf.getMetamodel(), postProcessor, packageName)
-        .getServiceDocument();
+    this(namespace, emf.getMetamodel(), postProcessor, packageName);
   }
 
   public JPAEdmProvider(final String namespace, final Metamodel jpaMetamodel,
       final JPAEdmMetadataPostProcessor postProcessor, final String[] packageName) throws ODataException {
+    this(namespace, jpaMetamodel, postProcessor, packageName, null);
+  }
+
+  /**
+   * @param namespace
+   * @param jpaMetamodel
+   * @param postProcessor
+   * @param packageName
+   * @param pool Pool used to build the metadata in parallel. In this case the post processor has to be thread safe.
+   * Null in case the metadata shall be build sequentially
+   * @throws ODataException
+   */
+  public JPAEdmProvider(final String namespace, final Metamodel jpaMetamodel,
+      final JPAEdmMetadataPostProcessor postProcessor, final String[] packageName, final ForkJoinPool pool)
+      throws ODataException {
     super();
     this.nameBuilder = new JPAEdmNameBuilder(namespace);
-    serviceDocument = new JPAServiceDocumentFactory(namespace, jpaMetamodel, postProcessor, packageName)
+    serviceDocument = new JPAServiceDocumentFactory(namespace, jpaMetamodel, postProcessor, packageName, pool)
         .getServiceDocument();
   }
 
   @Override
   public CsdlComplexType getComplexType(final FullQualifiedName complexTypeName) throws ODataException {
-    for (final CsdlSchema schema : serviceDocument.getAllSchemas()) {
-      if (schema.getNamespace().equals(complexTypeName.getNamespace())
-          || schema.getAlias() != null && schema.getAlias().equals(complexTypeName.getNamespace())) {
-        return schema.getComplexType(complexTypeName.getName());
-      }
-    }
-    return null;
+    return getSchemaIndex().complexTypes.get(complexTypeName);
   }
 
   @Override
@@ -95,13 +109,7 @@ public class JPAEdmProvider extends CsdlAbstractEdmProvider {
 
   @Override
   public CsdlEntityType getEntityType(final FullQualifiedName entityTypeName) throws ODataException {
-
-    for (final CsdlSchema schema : serviceDocument.getEdmSchemas()) {
-      if (schema.getNamespace().equals(entityTypeName.getNamespace())) {
-        return schema.getEntityType(entityTypeName.getName());
-      }
-    }
-    return null;
+    return getSchemaIndex().entityTypes.get(entityTypeName);
   }
 
   @Override
@@ -116,22 +124,14 @@ public class JPAEdmProvider extends CsdlAbstractEdmProvider {
 
   @Override
   public List<CsdlFunction> getFunctions(final FullQualifiedName functionName) throws ODataException {
-    for (final CsdlSchema schema : serviceDocument.getEdmSchemas()) {
-      if (schema.getNamespace().equals(functionName.getNamespace())) {
-        return schema.getFunctions(functionName.getName());
-      }
-    }
-    return null; // NOSONAR see documentation
+    final SchemaIndex index = getSchemaIndex();
+    return index.getOperations(index.functions, functionName);
   }
 
   @Override
   public List<CsdlAction> getActions(final FullQualifiedName actionName) throws ODataException {
-    for (final CsdlSchema schema : serviceDocument.getEdmSchemas()) {
-      if (schema.getNamespace().equals(actionName.getNamespace())) {
-        return schema.getActions(actionName.getName());
-      }
-    }
-    return null; // NOSONAR see documentation
+    final SchemaIndex index = getSchemaIndex();
+    return index.getOperations(index.actions, actionName);
   }
 
   @Override
@@ -146,13 +146,7 @@ public class JPAEdmProvider extends CsdlAbstractEdmProvider {
 
   @Override
   public CsdlEnumType getEnumType(final FullQualifiedName enumTypeNameFQN) throws ODataException {
-
-    for (final CsdlSchema schema : serviceDocument.getEdmSchemas()) {
-      if (schema.getNamespace().equals(enumTypeNameFQN.getNamespace())) {
-        return schema.getEnumType(enumTypeNameFQN.getName());
-      }
-    }
-    return null;
+    return getSchemaIndex().enumTypes.get(enumTypeNameFQN);
   }
 
   @Override
@@ -168,12 +162,7 @@ public class JPAEdmProvider extends CsdlAbstractEdmProvider {
 
   @Override
   public CsdlTypeDefinition getTypeDefinition(final FullQualifiedName typeDefinitionName) throws ODataException {
-    for (final CsdlSchema schema : serviceDocument.getAllSchemas()) {
-      if (schema.getNamespace().equals(typeDefinitionName.getNamespace())) {
-        return schema.getTypeDefinition(typeDefinitionName.getName());
-      }
-    }
-    return null;
+    return getSchemaIndex().typeDefinitions.get(typeDefinitionName);
   }
 
   @Override
@@ -193,4 +182,89 @@ public class JPAEdmProvider extends CsdlAbstractEdmProvider {
     return serviceDocument.getReferences();
   }
 
+  /**
+   * The index is created with the first look-up, which also builds the model completely. As the model does not change
+   * afterwards, the index is not updated. Creating the index twice, in case of parallel first look-ups, does no harm.
+   */
+  private SchemaIndex getSchemaIndex() throws ODataException {
+    SchemaIndex index = schemaIndex;
+    if (index == null) {
+      index = new SchemaIndex(serviceDocument.getEdmSchemas(), serviceDocument.getAllSchemas());
+      schemaIndex = index;
+    }
+    return index;
+  }
+
+  /**
+   * Index of the schema elements by their full qualified name. Olingo looks them up very often, e.g. while parsing a
+   * request URI, so they shall be found without scanning the schemas. To answer the same way a scan would do, an
+   * element is taken from the first schema with a matching namespace. Entity types, enumeration types and operations
+   * are only taken from the schemas of this service, complex types and type definitions also from the referenced
+   * schemas, which can also be addressed via their alias.
+   */
+  private static final class SchemaIndex {
+    private final Set<String> namespaces = new HashSet<>();
+    private final Map<FullQualifiedName, CsdlEntityType> entityTypes = new HashMap<>();
+    private final Map<FullQualifiedName, CsdlEnumType> enumTypes = new HashMap<>();
+    private final Map<FullQualifiedName, List<CsdlFunction>> functions = new HashMap<>();
+    private final Map<FullQualifiedName, List<CsdlAction>> actions = new HashMap<>();
+    private final Map<FullQualifiedName, CsdlComplexType> complexTypes = new HashMap<>();
+    private final Map<FullQualifiedName, CsdlTypeDefinition> typeDefinitions = new HashMap<>();
+
+    private SchemaIndex(final List<CsdlSchema> edmSchemas, final List<CsdlSchema> allSchemas) {
+      for (final CsdlSchema schema : edmSchemas) {
+        if (namespaces.add(schema.getNamespace())) {
+          for (final CsdlEntityType entityType : nullSafe(schema.getEntityTypes()))
+            entityTypes.putIfAbsent(new FullQualifiedName(schema.getNamespace(), entityType.getName()), entityType);
+          for (final CsdlEnumType enumType : nullSafe(schema.getEnumTypes()))
+            enumTypes.putIfAbsent(new FullQualifiedName(schema.getNamespace(), enumType.getName()), enumType);
+          for (final CsdlFunction function : nullSafe(schema.getFunctions()))
+            add(functions, new FullQualifiedName(schema.getNamespace(), function.getName()), function);
+          for (final CsdlAction action : nullSafe(schema.getActions()))
+            add(actions, new FullQualifiedName(schema.getNamespace(), action.getName()), action);
+        }
+      }
+      final Set<String> allNamespaces = new HashSet<>();
+      for (final CsdlSchema schema : allSchemas) {
+        final boolean newNamespace = allNamespaces.add(schema.getNamespace());
+        final boolean newAlias = schema.getAlias() != null && allNamespaces.add(schema.getAlias());
+        for (final CsdlComplexType complexType : nullSafe(schema.getComplexTypes())) {
+          if (newNamespace)
+            complexTypes.putIfAbsent(new FullQualifiedName(schema.getNamespace(), complexType.getName()), complexType);
+          if (newAlias)
+            complexTypes.putIfAbsent(new FullQualifiedName(schema.getAlias(), complexType.getName()), complexType);
+        }
+        if (newNamespace) {
+          for (final CsdlTypeDefinition typeDefinition : nullSafe(schema.getTypeDefinitions()))
+            typeDefinitions.putIfAbsent(new FullQualifiedName(schema.getNamespace(), typeDefinition.getName()),
+                typeDefinition);
+        }
+      }
+    }
+
+    private static <T> List<T> nullSafe(final List<T> items) {
+      return items == null ? Collections.<T> emptyList() : items;
+    }
+
+    private <T> void add(final Map<FullQualifiedName, List<T>> index, final FullQualifiedName name, final T item) {
+      List<T> items = index.get(name);
+      if (items == null) {
+        items = new ArrayList<>(1);
+        index.put(name, items);
+      }
+      items.add(item);
+    }
+
+    /**
+     * @return The operations of the given name; an empty list if the namespace exists, but has no operation of that
+     * name; null if the namespace is unknown
+     */
+    private <T> List<T> getOperations(final Map<FullQualifiedName, List<T>> index, final FullQualifiedName name) {
+      final List<T> operations = index.get(name);
+      if (operations != null)
+        return operations;
+      return namespaces.contains(name.getNamespace()) ? Collections.<T> emptyList() : null; // NOSONAR see documentation
+    }
+  }
+
 }
@@ -1,47 +1,92 @@
 package com.sap.olingo.jpa.metadata.api;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
 import javax.sql.DataSource;
 
+/**
+ * Registry of the entity manager factories. A factory is created once per persistence unit and set of properties,
+ * e.g. the data source, and shared afterwards. Creating a factory is expensive, as it builds the metamodel and, depending
+ * on the data source, a connection pool.<p>
+ * Looking up an existing factory does not block. Parallel requests for the same, not yet existing factory create it
+ * only once.
+ */
 public class JPAEntityManagerFactory {
   private static final String ENTITY_MANAGER_DATA_SOURCE = "javax.persistence.nonJtaDataSource";
-  private static Map<String, Map<Integer, EntityManagerFactory>> emfMap;
+  private static final ConcurrentMap<String, ConcurrentMap<Map<String, Object>, EntityManagerFactory>> emfMap =
+      new ConcurrentHashMap<>();
 
   public static EntityManagerFactory getEntityManagerFactory(final String pUnit, final Map<String, Object> ds) {
     if (pUnit == null) {
       return null;
     }
-    if (emfMap == null) {
-      emfMap = new HashMap<>();
-    }
-    Integer dsKey = ds.hashCode();
-    if (emfMap.containsKey(pUnit)) {
-      final Map<Integer, EntityManagerFactory> dsMap = emfMap.get(pUnit);
-      EntityManagerFactory emf = dsMap.get(ds);
-
-      if (emf != null)
-        return emf;
-      emf = Persistence.createEntityManagerFactory(pUnit, ds);
-      dsMap.put(dsKey, emf);
+    final ConcurrentMap<Map<String, Object>, EntityManagerFactory> dsMap = getFactoriesOfUnit(pUnit);
+    EntityManagerFactory emf = dsMap.get(ds);
+    if (emf != null && emf.isOpen())
       return emf;
+    if (emf != null)
+      // Closed by the application, so it has to be replaced
+      dsMap.remove(ds, emf);
+    // The properties are copied, so a later change of the callers map does not change the key
+    final Map<String, Object> dsKey = Collections.unmodifiableMap(new HashMap<>(ds));
+    return dsMap.computeIfAbsent(dsKey, key -> Persistence.createEntityManagerFactory(pUnit, key));
+  }
 
-    } else {
-      final Map<Integer, EntityManagerFactory> dsMap = new HashMap<>();
-      emfMap.put(pUnit, dsMap);
-      final EntityManagerFactory emf = Persistence.createEntityManagerFactory(pUnit, ds);
-      dsMap.put(dsKey, emf);
-      return emf;
+  public static EntityManagerFactory getEntityManagerFactory(final String pUnit, final DataSource ds) {
+    return getEntityManagerFactory(pUnit, createProperties(ds));
+  }
+
+  /**
+   * Closes the factory of the persistence unit and data source and removes it from the registry
+   * @param pUnit
+   * @param ds
+   */
+  public static void closeEntityManagerFactory(final String pUnit, final DataSource ds) {
+    closeEntityManagerFactory(pUnit, createProperties(ds));
+  }
+
+  /**
+   * Closes the factory of the persistence unit and properties and removes it from the registry
+   * @param pUnit
+   * @param ds
+   */
+  public static void closeEntityManagerFactory(final String pUnit, final Map<String, Object> ds) {
+    final ConcurrentMap<Map<String, Object>, EntityManagerFactory> dsMap = emfMap.get(pUnit);
+    if (dsMap != null)
+      close(dsMap.remove(ds));
+  }
+
+  /**
+   * Closes all factories of the registry, e.g. when the application is stopped
+   */
+  public static void closeEntityManagerFactories() {
+    for (final ConcurrentMap<Map<String, Object>, EntityManagerFactory> dsMap : emfMap.values()) {
+      for (final Map<String, Object> ds : dsMap.keySet())
+        close(dsMap.remove(ds));
     }
   }
 
-  public static EntityManagerFactory getEntityManagerFactory(final String pUnit, final DataSource ds) {
+  private static void close(final EntityManagerFactory emf) {
+    if (emf != null && emf.isOpen())
+      emf.close();
+  }
+
+  private static Map<String, Object> createProperties(final DataSource ds) {
     final Map<String, Object> properties = new HashMap<>();
     properties.put(ENTITY_MANAGER_DATA_SOURCE, ds);
-    return getEntityManagerFactory(pUnit, properties);
+    return properties;
   }
 
+  private static ConcurrentMap<Map<String, Object>, EntityManagerFactory> getFactoriesOfUnit(final String pUnit) {
+    final ConcurrentMap<Map<String, Object>, EntityManagerFactory> dsMap = emfMap.get(pUnit);
+    if (dsMap != null)
+      return dsMap;
+    return emfMap.computeIfAbsent(pUnit, key -> new ConcurrentHashMap<>());
+  }
 }
@@ -10,6 +10,13 @@ public interface JPAAssociationPath {
 
   String getAlias();
 
+  /**
+   * Id of the association path, which is dense within the structured type the path belongs to. The ids are assigned
+   * when the model is frozen, see {@link JPAStructuredType#getAssociationPath(int)}.
+   * @return The id or -1 if no id has been assigned yet
+   */
+  int getId();
+
   List<JPAOnConditionItem> getJoinColumnsList() throws ODataJPAModelException;
 
   List<JPAPath> getLeftColumnsList() throws ODataJPAModelException;
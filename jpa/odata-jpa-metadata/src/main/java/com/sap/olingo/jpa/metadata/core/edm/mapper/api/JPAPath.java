@@ -10,6 +10,14 @@ public interface JPAPath extends Comparable<JPAPath> {
 
   String getDBFieldName();
 
+  /**
+   * Id of the path, which is dense within the structured type the path belongs to. Paths inherited from a super type
+   * keep the id they have at the super type. The ids are assigned when the model is frozen, see
+   * {@link JPAStructuredType#getPath(int)}.
+   * @return The id or -1 if no id has been assigned yet
+   */
+  int getId();
+
   JPAAttribute getLeaf();
 
   List<JPAElement> getPath();
@@ -15,6 +15,16 @@ public interface JPAStructuredType extends JPAElement {
 
   public JPAAssociationPath getAssociationPath(String externalName) throws ODataJPAModelException;
 
+  /**
+   * Looks up an association path by its id, see {@link JPAAssociationPath#getId()}. The ids are in the range from 0 to
+   * the number of association paths of the type minus one, so the id can be used as index of arrays that shall hold
+   * additional information per association path.
+   * @param id
+   * @return null if the id is unknown or the model has not been frozen yet
+   * @throws ODataJPAModelException
+   */
+  public JPAAssociationPath getAssociationPath(int id) throws ODataJPAModelException;
+
   /**
    * Searches in the navigation properties that are available for this type via the OData service. That is:
    * <ul>
@@ -56,6 +66,15 @@ public interface JPAStructuredType extends JPAElement {
 
   public JPAPath getPath(String externalName) throws ODataJPAModelException;
 
+  /**
+   * Looks up a path by its id, see {@link JPAPath#getId()}. Like {@link #getPath(String)} resolved as well as
+   * intermediate paths, which point to a complex property, are found.
+   * @param id
+   * @return null if the id is unknown, the path shall be ignored or the model has not been frozen yet
+   * @throws ODataJPAModelException
+   */
+  public JPAPath getPath(int id) throws ODataJPAModelException;
+
   /**
    * List of all attributes that are available for this type via the OData service. That is:
    * <ul>
@@ -56,7 +56,9 @@ public class ODataJPAModelException extends ODataJPAException {
     ON_LEFT_ATTRIBUTE_NULL,
     ON_RIGHT_ATTRIBUTE_NULL,
     PATH_ELEMENT_NOT_FOUND,
-    FILE_NOT_FOUND;
+    FILE_NOT_FOUND,
+    TYPE_INDEX_MISSING,
+    SNAPSHOT_ELEMENT_NOT_SUPPORTED;
 
     @Override
     public String getKey() {
@@ -3,8 +3,6 @@ package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
 import java.lang.reflect.Method;
 import java.util.Map;
 
-import org.reflections.Reflections;
-
 import com.sap.olingo.jpa.metadata.core.edm.annotation.EdmAction;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.extention.ODataAction;
@@ -19,9 +17,9 @@ class IntermediateActionFactory extends IntermediateOperationFactory {
 
   @SuppressWarnings("unchecked")
   Map<? extends String, ? extends IntermediateJavaAction> create(final JPAEdmNameBuilder nameBuilder,
-      final Reflections reflections, final IntermediateSchema schema) throws ODataJPAModelException {
+      final JPATypeIndex typeIndex, final IntermediateSchema schema) throws ODataJPAModelException {
 
-    return (Map<? extends String, ? extends IntermediateJavaAction>) createOperationMap(nameBuilder, reflections,
+    return (Map<? extends String, ? extends IntermediateJavaAction>) createOperationMap(nameBuilder, typeIndex,
         schema, ODataAction.class, EdmAction.class);
   }
 
@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
 import org.apache.olingo.commons.api.edm.provider.CsdlAction;
 import org.apache.olingo.commons.api.edm.provider.CsdlActionImport;
 import org.apache.olingo.commons.api.edm.provider.CsdlAnnotation;
@@ -32,6 +33,8 @@ import com.sap.olingo.jpa.metadata.core.edm.mapper.extention.IntermediateEntityC
 final class IntermediateEntityContainer extends IntermediateModelElement implements IntermediateEntityContainerAccess {
   private final Map<String, IntermediateSchema> schemaList;
   private final Map<String, IntermediateEntitySet> entitySetListInternalKey;
+  private final Map<String, IntermediateEntitySet> entitySetListExternalKey;
+  private final Map<FullQualifiedName, IntermediateEntitySet> entitySetListEntityTypeKey;
 
   private CsdlEntityContainer edmContainer;
 
@@ -40,6 +43,8 @@ final class IntermediateEntityContainer extends IntermediateModelElement impleme
     this.schemaList = schemaList;
     this.setExternalName(nameBuilder.buildContainerName());
     this.entitySetListInternalKey = new HashMap<>();
+    this.entitySetListExternalKey = new HashMap<>();
+    this.entitySetListEntityTypeKey = new HashMap<>();
   }
 
   @Override
@@ -69,8 +74,16 @@ final class IntermediateEntityContainer extends IntermediateModelElement impleme
 
   IntermediateEntitySet getEntitySet(final String edmEntitySetName) throws ODataJPAModelException {
     lazyBuildEdmItem();
-    return (IntermediateEntitySet) findModelElementByEdmItem(edmEntitySetName,
-        entitySetListInternalKey);
+    return entitySetListExternalKey.get(edmEntitySetName);
+  }
+
+  /**
+   * @return All entity sets, including the ones of ignored entity types, which are exposed as entity set
+   * @throws ODataJPAModelException
+   */
+  List<IntermediateEntitySet> getEntitySets() throws ODataJPAModelException {
+    lazyBuildEdmItem();
+    return new ArrayList<>(entitySetListInternalKey.values());
   }
 
   /**
@@ -81,13 +94,7 @@ final class IntermediateEntityContainer extends IntermediateModelElement impleme
    */
   JPAEntitySet getEntitySet(final JPAEntityType entityType) throws ODataJPAModelException {
     lazyBuildEdmItem();
-    for (final String internalName : entitySetListInternalKey.keySet()) {
-      final IntermediateEntitySet modelElement = entitySetListInternalKey.get(internalName);
-      if (modelElement.getEntityType().getExternalFQN().equals(entityType.getExternalFQN())) {
-        return modelElement;
-      }
-    }
-    return null;
+    return entitySetListEntityTypeKey.get(entityType.getExternalFQN());
   }
 
   /**
@@ -109,7 +116,14 @@ final class IntermediateEntityContainer extends IntermediateModelElement impleme
         }
       }
     }
-    return (List<CsdlEntitySet>) extractEdmModelElements(entitySetListInternalKey);
+    final List<CsdlEntitySet> entitySets = (List<CsdlEntitySet>) extractEdmModelElements(entitySetListInternalKey);
+    // The external names are final, once the edm items are build. To look-up entity sets by them, like Olingo does,
+    // reverse indices are created. If names are not unique, the first entity set wins, as a scan would have done
+    for (final IntermediateEntitySet es : entitySetListInternalKey.values()) {
+      entitySetListExternalKey.putIfAbsent(es.getExternalName(), es);
+      entitySetListEntityTypeKey.putIfAbsent(es.getEntityType().getExternalFQN(), es);
+    }
+    return entitySets;
   }
 
   /**
@@ -4,6 +4,7 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -90,7 +91,7 @@ final class IntermediateEntityType extends IntermediateStructuredType implements
       if (baseType != null) {
         intermediateKey.addAll(((IntermediateEntityType) baseType).getKey());
       }
-      key = intermediateKey;
+      key = Collections.unmodifiableList(intermediateKey);
     }
     return key;
   }
@@ -98,6 +99,7 @@ final class IntermediateEntityType extends IntermediateStructuredType implements
   @Override
   public List<JPAPath> getKeyPath() throws ODataJPAModelException {
     lazyBuildEdmItem();
+    getResolvedPathMap();
 
     final List<JPAPath> result = new ArrayList<>();
     for (final Entry<String, IntermediateProperty> property : this.declaredPropertiesList.entrySet()) {
@@ -133,6 +133,10 @@ class IntermediateEnumerationType extends IntermediateModelElement implements JP
     return edmEnumType;
   }
 
+  Class<?> getEnumClass() {
+    return javaEnum;
+  }
+
   private List<CsdlEnumMember> buildMembers() throws ODataJPAModelException {
     final List<CsdlEnumMember> members = new ArrayList<>();
 
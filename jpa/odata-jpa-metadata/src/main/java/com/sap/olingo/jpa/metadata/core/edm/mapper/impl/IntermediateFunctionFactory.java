@@ -7,8 +7,6 @@ import java.util.Map;
 
 import javax.persistence.metamodel.EntityType;
 
-import org.reflections.Reflections;
-
 import com.sap.olingo.jpa.metadata.core.edm.annotation.EdmFunction;
 import com.sap.olingo.jpa.metadata.core.edm.annotation.EdmFunctions;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
@@ -48,8 +46,8 @@ final class IntermediateFunctionFactory extends IntermediateOperationFactory {
 
   @SuppressWarnings("unchecked")
   Map<? extends String, ? extends IntermediateFunction> create(final JPAEdmNameBuilder nameBuilder,
-      final Reflections reflections, final IntermediateSchema schema) throws ODataJPAModelException {
-    return (Map<? extends String, ? extends IntermediateFunction>) createOperationMap(nameBuilder, reflections, schema,
+      final JPATypeIndex typeIndex, final IntermediateSchema schema) throws ODataJPAModelException {
+    return (Map<? extends String, ? extends IntermediateFunction>) createOperationMap(nameBuilder, typeIndex, schema,
         ODataFunction.class, EdmFunction.class);
   }
 
@@ -9,6 +9,7 @@ import javax.persistence.JoinTable;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAJoinTable;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAOnConditionItem;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
 
 class IntermediateJoinTable implements JPAJoinTable {
@@ -124,27 +125,47 @@ class IntermediateJoinTable implements JPAJoinTable {
 
   @Override
   public List<JPAOnConditionItem> getJoinColumns() throws ODataJPAModelException {
-    assert jpaEntityType != null;
     final List<JPAOnConditionItem> result = new ArrayList<>();
-    for (IntermediateJoinColumn column : joinColumns) {
-      result.add(new JPAOnConditionItemImpl(
-          sourceType.getPathByDBField(column.getName()),
-          ((IntermediateEntityType) jpaEntityType).getPathByDBField(column.getReferencedColumnName())));
-
+    for (JPAPath[] pair : getJoinColumnPairs()) {
+      result.add(new JPAOnConditionItemImpl(pair[0], pair[1]));
     }
     return result;
   }
 
   @Override
   public List<JPAOnConditionItem> getInversJoinColumns() throws ODataJPAModelException {
+    final List<JPAOnConditionItem> result = new ArrayList<>();
+    for (JPAPath[] pair : getInverseJoinColumnPairs()) {
+      result.add(new JPAOnConditionItemImpl(pair[0], pair[1]));
+    }
+    return result;
+  }
+
+  /**
+   * @return The left and the right path of each join column. A path is null, if it could not be found
+   * @throws ODataJPAModelException
+   */
+  List<JPAPath[]> getJoinColumnPairs() throws ODataJPAModelException {
+    assert jpaEntityType != null;
+    final List<JPAPath[]> result = new ArrayList<>();
+    for (IntermediateJoinColumn column : joinColumns) {
+      result.add(new JPAPath[] { sourceType.getPathByDBField(column.getName()),
+          ((IntermediateEntityType) jpaEntityType).getPathByDBField(column.getReferencedColumnName()) });
+    }
+    return result;
+  }
+
+  /**
+   * @return The left and the right path of each inverse join column. A path is null, if it could not be found
+   * @throws ODataJPAModelException
+   */
+  List<JPAPath[]> getInverseJoinColumnPairs() throws ODataJPAModelException {
     assert jpaEntityType != null;
     final IntermediateStructuredType targetType = (IntermediateStructuredType) intermediateProperty.getTargetEntity();
-    final List<JPAOnConditionItem> result = new ArrayList<>();
+    final List<JPAPath[]> result = new ArrayList<>();
     for (IntermediateJoinColumn column : inverseJoinColumns) {
-      result.add(new JPAOnConditionItemImpl(
-          ((IntermediateEntityType) jpaEntityType).getPathByDBField(column.getReferencedColumnName()),
-          targetType.getPathByDBField(column.getName())));
-
+      result.add(new JPAPath[] { ((IntermediateEntityType) jpaEntityType).getPathByDBField(column
+          .getReferencedColumnName()), targetType.getPathByDBField(column.getName()) });
     }
     return result;
   }
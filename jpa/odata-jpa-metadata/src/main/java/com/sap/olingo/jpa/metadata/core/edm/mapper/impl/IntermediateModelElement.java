@@ -21,21 +21,28 @@ import com.sap.olingo.jpa.metadata.core.edm.mapper.extention.IntermediateModelIt
 
 abstract class IntermediateModelElement implements IntermediateModelItemAccess {
 
-  protected static JPAEdmMetadataPostProcessor postProcessor = new DefaultEdmPostProcessor();
+  private static JPAEdmMetadataPostProcessor defaultPostProcessor = new DefaultEdmPostProcessor();
   protected static final JPANameBuilder IntNameBuilder = new JPANameBuilder();
   protected final JPAEdmNameBuilder nameBuilder;
+  protected final JPAEdmMetadataPostProcessor postProcessor;
   protected final String internalName;
   protected final List<CsdlAnnotation> edmAnnotations;
   private boolean toBeIgnored;
   private String externalName;
 
+  /**
+   * Sets the post processor used by elements, which are created with a name builder that does not provide one
+   * @param pP
+   */
   static void setPostProcessor(final JPAEdmMetadataPostProcessor pP) {
-    postProcessor = pP;
+    defaultPostProcessor = pP;
   }
 
   public IntermediateModelElement(final JPAEdmNameBuilder nameBuilder, final String internalName) {
     super();
     this.nameBuilder = nameBuilder;
+    this.postProcessor = nameBuilder != null && nameBuilder.getPostProcessor() != null ? nameBuilder
+        .getPostProcessor() : defaultPostProcessor;
     this.internalName = internalName;
     this.edmAnnotations = new ArrayList<>();
   }
@@ -105,19 +112,6 @@ abstract class IntermediateModelElement implements IntermediateModelItemAccess {
     return extractionTarget;
   }
 
-  protected IntermediateModelElement findModelElementByEdmItem(final String edmEntityItemName,
-      final Map<String, ? extends IntermediateModelElement> buffer) {
-
-    for (final Entry<String, ?> bufferItem : buffer.entrySet()) {
-      final IntermediateModelElement modelElement = (IntermediateModelElement) bufferItem.getValue();
-
-      if (edmEntityItemName.equals(modelElement.getExternalName())) {
-        return modelElement;
-      }
-    }
-    return null;
-  }
-
   protected <T> List<T> returnNullIfEmpty(final List<T> list) {
     return list == null || list.isEmpty() ? null : list;
   }
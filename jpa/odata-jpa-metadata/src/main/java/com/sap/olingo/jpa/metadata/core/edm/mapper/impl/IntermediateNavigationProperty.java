@@ -211,6 +211,18 @@ final class IntermediateNavigationProperty extends IntermediateModelElement impl
     return jpaAttribute.getPersistentAttributeType();
   }
 
+  /**
+   * Builds the navigation property including the columns of a join table
+   * @throws ODataJPAModelException
+   */
+  void freeze() throws ODataJPAModelException {
+    lazyBuildEdmItem();
+    if (joinTable != null) {
+      joinTable.buildJoinColumns();
+      joinTable.buildInverseJoinColumns();
+    }
+  }
+
   List<IntermediateJoinColumn> getJoinColumns() throws ODataJPAModelException {
     lazyBuildEdmItem();
     return joinColumns;
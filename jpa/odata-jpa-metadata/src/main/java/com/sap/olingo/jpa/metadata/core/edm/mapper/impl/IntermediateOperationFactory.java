@@ -7,8 +7,6 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
-import org.reflections.Reflections;
-
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.extention.ODataOperation;
 
@@ -22,15 +20,15 @@ public abstract class IntermediateOperationFactory {
       final Method m, final Object functionDescribtion) throws ODataJPAModelException;
 
   Map<? extends String, ? extends IntermediateOperation> createOperationMap(final JPAEdmNameBuilder nameBuilder,
-      final Reflections reflections, final IntermediateSchema schema, final Class<? extends ODataOperation> clazz,
+      final JPATypeIndex typeIndex, final IntermediateSchema schema, final Class<? extends ODataOperation> clazz,
       final Class<? extends Annotation> annotation)
       throws ODataJPAModelException {
 
     final Map<String, IntermediateOperation> funcList = new HashMap<>();
-    if (reflections != null) {
+    if (typeIndex != null) {
       @SuppressWarnings("unchecked")
       final Set<Class<? extends ODataOperation>> operationClasses =
-          (Set<Class<? extends ODataOperation>>) findJavaOperations(reflections, clazz);
+          (Set<Class<? extends ODataOperation>>) findJavaOperations(typeIndex, clazz);
 
       for (final Class<? extends ODataOperation> operationClass : operationClasses) {
         for (Method m : Arrays.asList(operationClass.getMethods())) {
@@ -45,8 +43,8 @@ public abstract class IntermediateOperationFactory {
     return funcList;
   }
 
-  private Set<?> findJavaOperations(Reflections reflections, Class<? extends ODataOperation> clazz) {
-    return reflections.getSubTypesOf(clazz);
+  private Set<?> findJavaOperations(JPATypeIndex typeIndex, Class<? extends ODataOperation> clazz) {
+    return typeIndex.getSubTypesOf(clazz);
   }
 
 }
\ No newline at end of file
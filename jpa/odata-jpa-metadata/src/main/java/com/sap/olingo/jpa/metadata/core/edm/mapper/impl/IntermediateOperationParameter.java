@@ -1,5 +1,6 @@
 package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
 
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
 import org.apache.olingo.commons.api.edm.geo.SRID;
 import org.apache.olingo.commons.api.edm.provider.CsdlAbstractEdmItem;
@@ -58,9 +59,13 @@ class IntermediateOperationParameter extends IntermediateModelElement implements
     return jpaParameter.scale();
   }
 
+  /**
+   * @return The FQN of the simple type given at the parameter annotation or null if the type is not a simple type
+   */
   @Override
   public FullQualifiedName getTypeFQN() throws ODataJPAModelException {
-    return JPATypeConvertor.convertToEdmSimpleType(jpaParameter.type()).getFullQualifiedName();
+    final EdmPrimitiveTypeKind edmType = JPATypeConvertor.convertToEdmSimpleType(jpaParameter.type());
+    return edmType != null ? edmType.getFullQualifiedName() : null;
   }
 
   @Override
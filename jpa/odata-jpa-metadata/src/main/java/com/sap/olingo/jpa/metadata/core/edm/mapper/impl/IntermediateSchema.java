@@ -5,6 +5,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.EmbeddableType;
@@ -18,7 +21,6 @@ import org.apache.olingo.commons.api.edm.provider.CsdlEntityType;
 import org.apache.olingo.commons.api.edm.provider.CsdlEnumType;
 import org.apache.olingo.commons.api.edm.provider.CsdlFunction;
 import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
-import org.reflections.Reflections;
 
 import com.sap.olingo.jpa.metadata.core.edm.annotation.EdmEnumeration;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAction;
@@ -44,14 +46,14 @@ final class IntermediateSchema extends IntermediateModelElement {
   private final Map<String, IntermediateJavaAction> actionListInternalKey;
   private final Map<String, IntermediateEnumerationType> enumTypeListInternalKey;
   private IntermediateEntityContainer container;
-  private final Reflections reflections;
+  private final JPATypeIndex typeIndex;
   private CsdlSchema edmSchema;
 
-  IntermediateSchema(final JPAEdmNameBuilder nameBuilder, final Metamodel jpaMetamodel, final Reflections reflections)
+  IntermediateSchema(final JPAEdmNameBuilder nameBuilder, final Metamodel jpaMetamodel, final JPATypeIndex typeIndex)
       throws ODataJPAModelException {
 
     super(nameBuilder, nameBuilder.buildNamespace());
-    this.reflections = reflections;
+    this.typeIndex = typeIndex;
     this.jpaMetamodel = jpaMetamodel;
     this.enumTypeListInternalKey = buildEnumerationTypeList();
     this.complexTypeListInternalKey = buildComplexTypeList();
@@ -78,6 +80,10 @@ final class IntermediateSchema extends IntermediateModelElement {
     return this.enumTypeListInternalKey.get(enumName);
   }
 
+  List<IntermediateEnumerationType> getEnumerationTypes() {
+    return new ArrayList<>(enumTypeListInternalKey.values());
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   protected void lazyBuildEdmItem() throws ODataJPAModelException {
@@ -98,6 +104,50 @@ final class IntermediateSchema extends IntermediateModelElement {
 
   }
 
+  /**
+   * Creates the properties of all structured types in parallel, see
+   * {@link IntermediateServiceDocument#freeze(ForkJoinPool)}
+   * @param pool
+   * @throws ODataJPAModelException
+   */
+  void buildProperties(final ForkJoinPool pool) throws ODataJPAModelException {
+    runInParallel(pool, getStructuredTypes(), IntermediateStructuredType::buildPropertyList);
+  }
+
+  /**
+   * Resolves the types and operations of the schema, see {@link IntermediateServiceDocument#freeze(ForkJoinPool)}.
+   * The edm items connect the types via their navigation properties, so they are build one by one. The paths of a type
+   * only depend on its base type and the types of its complex properties. So the paths of all types, which do not
+   * depend on each other, are resolved in parallel, if a pool is given.
+   * @param pool Null in case the types shall be resolved sequentially
+   * @throws ODataJPAModelException
+   */
+  void freeze(final ForkJoinPool pool) throws ODataJPAModelException {
+    final List<IntermediateStructuredType> structuredTypes = getStructuredTypes();
+    getEdmItem();
+    for (final IntermediateStructuredType type : structuredTypes)
+      type.getEdmItem();
+    for (final IntermediateEntityType entityType : entityTypeListInternalKey.values())
+      entityType.getKey();
+    if (pool == null) {
+      for (final IntermediateStructuredType type : structuredTypes)
+        type.freeze();
+    } else {
+      for (final List<IntermediateStructuredType> group : groupByDependencies(structuredTypes))
+        runInParallel(pool, group, IntermediateStructuredType::freeze);
+    }
+    for (final IntermediateFunction function : functionListInternalKey.values()) {
+      if (!function.ignore())
+        function.getParameter();
+    }
+    for (final IntermediateJavaAction action : actionListInternalKey.values()) {
+      if (!action.ignore())
+        action.getParameter();
+    }
+    for (final IntermediateStructuredType type : structuredTypes)
+      type.compact();
+  }
+
   JPAAction getAction(final String externalName) {
     for (final Entry<String, IntermediateJavaAction> action : actionListInternalKey.entrySet()) {
       if (action.getValue().getExternalName().equals(externalName) && !action.getValue().ignore())
@@ -126,6 +176,10 @@ final class IntermediateSchema extends IntermediateModelElement {
     return null;
   }
 
+  List<IntermediateComplexType> getComplexTypes() {
+    return new ArrayList<>(complexTypeListInternalKey.values());
+  }
+
   @Override
   CsdlSchema getEdmItem() throws ODataJPAModelException {
     if (edmSchema == null)
@@ -200,10 +254,74 @@ final class IntermediateSchema extends IntermediateModelElement {
     this.container = container;
   }
 
+  private int determineDependencyLevel(final IntermediateStructuredType type,
+      final Map<IntermediateStructuredType, Integer> levels) {
+    Integer level = levels.get(type);
+    if (level == null) {
+      level = 0;
+      for (final IntermediateStructuredType dependency : type.getDependencies())
+        level = Math.max(level, determineDependencyLevel(dependency, levels) + 1);
+      levels.put(type, level);
+    }
+    return level;
+  }
+
+  private List<IntermediateStructuredType> getStructuredTypes() {
+    final List<IntermediateStructuredType> types = new ArrayList<>(complexTypeListInternalKey.size()
+        + entityTypeListInternalKey.size());
+    types.addAll(complexTypeListInternalKey.values());
+    types.addAll(entityTypeListInternalKey.values());
+    return types;
+  }
+
+  /**
+   * Groups the types, so that a type only depends on types of previous groups
+   */
+  private List<List<IntermediateStructuredType>> groupByDependencies(final List<IntermediateStructuredType> types) {
+    final Map<IntermediateStructuredType, Integer> levels = new HashMap<>();
+    final List<List<IntermediateStructuredType>> groups = new ArrayList<>();
+    for (final IntermediateStructuredType type : types) {
+      final int level = determineDependencyLevel(type, levels);
+      while (groups.size() <= level)
+        groups.add(new ArrayList<>());
+      groups.get(level).add(type);
+    }
+    return groups;
+  }
+
+  private void runInParallel(final ForkJoinPool pool, final List<IntermediateStructuredType> types,
+      final StructuredTypeStep step) throws ODataJPAModelException {
+
+    final List<ForkJoinTask<Void>> tasks = new ArrayList<>(types.size());
+    for (final IntermediateStructuredType type : types) {
+      tasks.add(pool.submit(() -> {
+        step.execute(type);
+        return null;
+      }));
+    }
+    for (final ForkJoinTask<Void> task : tasks) {
+      try {
+        task.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ODataJPAModelException(e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof ODataJPAModelException)
+          throw (ODataJPAModelException) e.getCause();
+        throw new ODataJPAModelException(e.getCause());
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface StructuredTypeStep {
+    void execute(final IntermediateStructuredType type) throws ODataJPAModelException;
+  }
+
   private Map<String, IntermediateJavaAction> buildActionList() throws ODataJPAModelException {
     final HashMap<String, IntermediateJavaAction> actionList = new HashMap<>();
     final IntermediateActionFactory factory = new IntermediateActionFactory();
-    actionList.putAll(factory.create(nameBuilder, reflections, this));
+    actionList.putAll(factory.create(nameBuilder, typeIndex, this));
     return actionList;
   }
 
@@ -229,8 +347,8 @@ final class IntermediateSchema extends IntermediateModelElement {
 
   private <T extends Enum<?>> Map<String, IntermediateEnumerationType> buildEnumerationTypeList() {
     final HashMap<String, IntermediateEnumerationType> enumList = new HashMap<>();
-    if (reflections != null) {
-      for (Class<?> enumeration : reflections.getTypesAnnotatedWith(EdmEnumeration.class)) {
+    if (typeIndex != null) {
+      for (Class<?> enumeration : typeIndex.getTypesAnnotatedWith(EdmEnumeration.class)) {
         if (enumeration.isEnum()) {
           @SuppressWarnings("unchecked")
           final IntermediateEnumerationType e = new IntermediateEnumerationType(nameBuilder, (Class<T>) enumeration);
@@ -250,7 +368,7 @@ final class IntermediateSchema extends IntermediateModelElement {
       funcList.putAll(factory.create(nameBuilder, entity, this));
     }
     // 2. Option: Create Function from Java Classes
-    funcList.putAll(factory.create(nameBuilder, reflections, this));
+    funcList.putAll(factory.create(nameBuilder, typeIndex, this));
     return funcList;
   }
 }
@@ -1,11 +1,14 @@
 package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
 
-import java.net.URL;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.persistence.metamodel.Metamodel;
 
@@ -20,11 +23,6 @@ import org.apache.olingo.commons.api.edm.provider.CsdlEntityContainer;
 import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
 import org.apache.olingo.commons.api.edm.provider.CsdlTerm;
 import org.apache.olingo.commons.api.edmx.EdmxReference;
-import org.reflections.Reflections;
-import org.reflections.scanners.SubTypesScanner;
-import org.reflections.scanners.TypeAnnotationsScanner;
-import org.reflections.util.ClasspathHelper;
-import org.reflections.util.ConfigurationBuilder;
 
 import com.sap.olingo.jpa.metadata.api.JPAEdmMetadataPostProcessor;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAction;
@@ -35,6 +33,7 @@ import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAFunction;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAServiceDocument;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAStructuredType;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException.MessageKeys;
 
 /**
  * http://docs.oasis-open.org/odata/odata/v4.0/errata02/os/complete/schemas/edmx.xsd
@@ -50,18 +49,18 @@ class IntermediateServiceDocument implements JPAServiceDocument {
   private final Map<String, IntermediateSchema> schemaListInternalKey;
   private final IntermediateReferences references;
   private final JPAEdmMetadataPostProcessor pP;
-  private final Reflections reflections;
+  private final JPATypeIndex typeIndex;
+  private volatile List<CsdlSchema> edmSchemas;
 
   IntermediateServiceDocument(final String namespace, final Metamodel jpaMetamodel,
       final JPAEdmMetadataPostProcessor postProcessor, final String[] packageName) throws ODataJPAModelException {
 
     this.pP = postProcessor != null ? postProcessor : new DefaultEdmPostProcessor();
-    IntermediateModelElement.setPostProcessor(pP);
 
-    this.reflections = createReflections(packageName);
+    this.typeIndex = createTypeIndex(packageName);
     this.references = new IntermediateReferences();
     pP.provideReferences(this.references);
-    this.nameBuilder = new JPAEdmNameBuilder(namespace);
+    this.nameBuilder = new JPAEdmNameBuilder(namespace, pP);
     this.jpaMetamodel = jpaMetamodel;
     this.schemaListInternalKey = new HashMap<>();
     buildIntermediateSchemas();
@@ -76,7 +75,7 @@ class IntermediateServiceDocument implements JPAServiceDocument {
    */
   @Override
   public List<CsdlSchema> getAllSchemas() throws ODataJPAModelException {
-    List<CsdlSchema> allSchemas = getEdmSchemas();
+    List<CsdlSchema> allSchemas = new ArrayList<>(getEdmSchemas());
     allSchemas.addAll(references.getSchemas());
     return allSchemas;
   }
@@ -98,7 +97,13 @@ class IntermediateServiceDocument implements JPAServiceDocument {
    */
   @Override
   public List<CsdlSchema> getEdmSchemas() throws ODataJPAModelException {
-    return extractEdmSchemas();
+    // The schemas do not change once they are build, so the list is only created once and not for each look-up
+    List<CsdlSchema> schemas = edmSchemas;
+    if (schemas == null) {
+      schemas = Collections.unmodifiableList(extractEdmSchemas());
+      edmSchemas = schemas;
+    }
+    return schemas;
   }
 
   /*
@@ -245,22 +250,61 @@ class IntermediateServiceDocument implements JPAServiceDocument {
     return false;
   }
 
+  /**
+   * Builds everything at once, which is otherwise build lazily on first access. The lazy build is not thread safe, so
+   * concurrent requests on a new service document could see half build types. After the freeze the model is only
+   * read, so requests need no locking, provided the service document is published safely, e.g. via a final field like
+   * in {@link com.sap.olingo.jpa.metadata.api.JPAEdmProvider JPAEdmProvider}.<p>
+   * The types have been registered already by the constructor. If a pool is given, the types are resolved in parallel
+   * as far as they do not depend on each other: First the properties of all types are created. Next the edm items are
+   * build one by one, as navigation properties connect the types. Finally the paths and association paths are resolved
+   * from the types without complex properties and base type upwards. As the post processor gets called for the
+   * properties, it has to be thread safe in this case. At the end the hash maps of the types are replaced by compact
+   * read only maps, see {@link IntermediateStructuredType#compact()}.
+   * @param pool Null in case the model shall be build by the calling thread only
+   * @throws ODataJPAModelException
+   */
+  void freeze(final ForkJoinPool pool) throws ODataJPAModelException {
+    if (pool != null) {
+      for (final IntermediateSchema schema : schemaListInternalKey.values())
+        schema.buildProperties(pool);
+    }
+    getEdmSchemas();
+    container.getEdmItem();
+    for (final IntermediateSchema schema : schemaListInternalKey.values())
+      schema.freeze(pool);
+  }
+
+  IntermediateEntityContainer getContainer() {
+    return container;
+  }
+
+  IntermediateSchema getSchema(final String namespace) {
+    return schemaListInternalKey.get(namespace);
+  }
+
   private void buildIntermediateSchemas()
       throws ODataJPAModelException {
-    final IntermediateSchema schema = new IntermediateSchema(nameBuilder, jpaMetamodel, reflections);
+    final IntermediateSchema schema = new IntermediateSchema(nameBuilder, jpaMetamodel, typeIndex);
     schemaListInternalKey.put(schema.internalName, schema);
   }
 
-  private Reflections createReflections(String... packageName) {
+  /**
+   * Takes the java types from the index generated by the annotation processor. If a package has not been compiled with
+   * the processor, the types are taken from the class path scan, see {@link JPAReflectionsTypeIndex}.
+   */
+  private JPATypeIndex createTypeIndex(final String... packageName) throws ODataJPAModelException {
     if (packageName != null && packageName.length > 0) {
-      ConfigurationBuilder configBuilder = new ConfigurationBuilder();
-      List<URL> urls = new ArrayList<>();
-      for (int i = 0; i < packageName.length; i++) {
-        urls.addAll(ClasspathHelper.forPackage(packageName[i]));
+      try {
+        final JPATypeIndex generatedIndex = JPAGeneratedTypeIndex.load(packageName);
+        if (generatedIndex != null)
+          return generatedIndex;
+      } catch (IOException e) {
+        // An unreadable index is treated like a missing one
       }
-      configBuilder.setUrls(urls);
-      configBuilder.setScanners(new SubTypesScanner(false), new TypeAnnotationsScanner());
-      return new Reflections(configBuilder);
+      if (!JPAReflectionsTypeIndex.isAvailable())
+        throw new ODataJPAModelException(MessageKeys.TYPE_INDEX_MISSING, Arrays.toString(packageName));
+      return JPAReflectionsTypeIndex.create(packageName);
     } else
       return null;
   }
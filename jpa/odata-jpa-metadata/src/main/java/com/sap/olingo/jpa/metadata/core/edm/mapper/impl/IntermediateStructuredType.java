@@ -2,6 +2,8 @@ package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
 
 import java.lang.reflect.AnnotatedElement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,20 +30,23 @@ import com.sap.olingo.jpa.metadata.core.edm.annotation.EdmIgnore;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationAttribute;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationPath;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
-import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAElement;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAStructuredType;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
 
 abstract class IntermediateStructuredType extends IntermediateModelElement implements JPAStructuredType {
 // 
-  protected final Map<String, IntermediateProperty> declaredPropertiesList;
-  protected final Map<String, IntermediateNavigationProperty> declaredNaviPropertiesList;
-  protected final Map<String, JPAPathImpl> resolvedPathMap;
-  protected final Map<String, JPAPathImpl> intermediatePathMap;
-  protected final Map<String, JPAAssociationPathImpl> resolvedAssociationPathMap;
+  protected Map<String, IntermediateProperty> declaredPropertiesList;
+  protected Map<String, IntermediateNavigationProperty> declaredNaviPropertiesList;
+  protected Map<String, JPAPathImpl> resolvedPathMap;
+  protected Map<String, JPAPathImpl> intermediatePathMap;
+  protected Map<String, JPAAssociationPathImpl> resolvedAssociationPathMap;
   protected final ManagedType<?> jpaManagedType;
   protected final IntermediateSchema schema;
+  private boolean frozen;
+  private boolean propertiesBuilt;
+  private JPAPathImpl[] pathsById;
+  private JPAAssociationPathImpl[] associationPathsById;
 
   IntermediateStructuredType(final JPAEdmNameBuilder nameBuilder, final ManagedType<?> jpaManagedType,
       final IntermediateSchema schema) {
@@ -54,6 +59,8 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
     this.resolvedAssociationPathMap = new HashMap<>();
     this.jpaManagedType = jpaManagedType;
     this.schema = schema;
+    this.pathsById = new JPAPathImpl[0];
+    this.associationPathsById = new JPAAssociationPathImpl[0];
     determineIgnore();
 
   }
@@ -73,6 +80,11 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
     return resolvedAssociationPathMap.get(externalName);
   }
 
+  @Override
+  public JPAAssociationPath getAssociationPath(final int id) throws ODataJPAModelException {
+    return id >= 0 && id < associationPathsById.length ? associationPathsById[id] : null;
+  }
+
   @Override
   public List<JPAAssociationPath> getAssociationPathList() throws ODataJPAModelException {
     lazyBuildCompleteAssociationPathMap();
@@ -160,6 +172,13 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
     return targetPath;
   }
 
+  @Override
+  public JPAPath getPath(final int id) throws ODataJPAModelException {
+    if (id < 0 || id >= pathsById.length || pathsById[id].ignore())
+      return null;
+    return pathsById[id];
+  }
+
   @Override
   public List<JPAPath> getPathList() throws ODataJPAModelException {
     lazyBuildCompletePathMap();
@@ -217,8 +236,16 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
     }
   }
 
+  /**
+   * Creates the properties of the type. The properties only depend on the registered types and not on other
+   * properties, so they can be created for all types in parallel. The properties are created only once, so that all
+   * paths point to the same instance.
+   * @throws ODataJPAModelException
+   */
   protected void buildPropertyList() throws ODataJPAModelException {
 
+    if (propertiesBuilt)
+      return;
     for (final Attribute<?, ?> jpaAttribute : jpaManagedType.getDeclaredAttributes()) {
       final PersistentAttributeType attributeType = jpaAttribute.getPersistentAttributeType();
 
@@ -245,6 +272,7 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
             attributeType.name());
       }
     }
+    propertiesBuilt = true;
   }
 
   protected FullQualifiedName determineBaseType() throws ODataJPAModelException {
@@ -324,9 +352,61 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
   @Override
   abstract CsdlStructuralType getEdmItem() throws ODataJPAModelException;
 
+  /**
+   * Resolves everything, which is otherwise build lazily on first access. Afterwards the type is only read, so it can
+   * be used by multiple threads at the same time. See {@link IntermediateServiceDocument}.<p>
+   * Freezing assigns the ids of the paths and association paths. Paths inherited from the base type are the same
+   * instances as at the base type, so the base type gets frozen first and the own paths are numbered behind the
+   * inherited ones.
+   * @throws ODataJPAModelException
+   */
+  void freeze() throws ODataJPAModelException {
+    if (!frozen) {
+      final IntermediateStructuredType baseType = getBaseType();
+      if (baseType != null)
+        baseType.freeze();
+      getEdmItem();
+      lazyBuildCompleteAssociationPathMap();
+      for (final IntermediateNavigationProperty naviProperty : declaredNaviPropertiesList.values())
+        naviProperty.freeze();
+      assignIds(baseType);
+      frozen = true;
+    }
+  }
+
+  /**
+   * Replaces the hash maps, which are filled while the type is build, by read only maps backed by arrays, see
+   * {@link JPAArrayMap}. The maps of a type are read while other types are resolved, so the types of a schema are
+   * compacted after all of them have been frozen.
+   */
+  void compact() {
+    if (frozen && !(resolvedPathMap instanceof JPAArrayMap)) {
+      declaredPropertiesList = new JPAArrayMap<>(declaredPropertiesList);
+      declaredNaviPropertiesList = new JPAArrayMap<>(declaredNaviPropertiesList);
+      resolvedPathMap = new JPAArrayMap<>(resolvedPathMap);
+      intermediatePathMap = new JPAArrayMap<>(intermediatePathMap);
+      resolvedAssociationPathMap = new JPAArrayMap<>(resolvedAssociationPathMap);
+    }
+  }
+
+  /**
+   * @return The types the paths of this type are build from: The base type and the types of complex properties
+   */
+  List<IntermediateStructuredType> getDependencies() {
+    final List<IntermediateStructuredType> dependencies = new ArrayList<>();
+    final IntermediateStructuredType baseType = getBaseType();
+    if (baseType != null)
+      dependencies.add(baseType);
+    for (final IntermediateProperty property : declaredPropertiesList.values()) {
+      if (property.isComplex() && property.getStructuredType() != null)
+        dependencies.add((IntermediateStructuredType) property.getStructuredType());
+    }
+    return dependencies;
+  }
+
   Map<String, JPAPathImpl> getIntermediatePathMap() throws ODataJPAModelException {
     lazyBuildCompletePathMap();
-    return intermediatePathMap;
+    return Collections.unmodifiableMap(intermediatePathMap);
   }
 
   List<IntermediateJoinColumn> getJoinColumns(final String relationshipName) {
@@ -405,9 +485,51 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
     return null;
   }
 
+  /**
+   * @return All paths in the order of their ids, including the ignored ones. The ids are assigned by {@link #freeze()}
+   */
+  List<JPAPathImpl> getPathsById() {
+    return Collections.unmodifiableList(Arrays.asList(pathsById));
+  }
+
   Map<String, JPAPathImpl> getResolvedPathMap() throws ODataJPAModelException {
     lazyBuildCompletePathMap();
-    return resolvedPathMap;
+    return Collections.unmodifiableMap(resolvedPathMap);
+  }
+
+  boolean isFrozen() {
+    return frozen;
+  }
+
+  private void assignIds(final IntermediateStructuredType baseType) {
+    final List<JPAPathImpl> paths = new ArrayList<>();
+    if (baseType != null)
+      paths.addAll(Arrays.asList(baseType.pathsById));
+    addOwnPaths(paths, resolvedPathMap);
+    addOwnPaths(paths, intermediatePathMap);
+    pathsById = paths.toArray(new JPAPathImpl[paths.size()]);
+
+    final List<JPAAssociationPathImpl> associationPaths = new ArrayList<>(resolvedAssociationPathMap.values());
+    Collections.sort(associationPaths, (left, right) -> left.getAlias().compareTo(right.getAlias()));
+    associationPathsById = associationPaths.toArray(new JPAAssociationPathImpl[associationPaths.size()]);
+    for (int id = 0; id < associationPathsById.length; id++)
+      associationPathsById[id].setId(id);
+  }
+
+  /**
+   * Numbers the paths, which have no id yet, in the order of their alias and adds them to the paths
+   */
+  private void addOwnPaths(final List<JPAPathImpl> paths, final Map<String, JPAPathImpl> pathMap) {
+    final List<JPAPathImpl> ownPaths = new ArrayList<>();
+    for (final JPAPathImpl path : pathMap.values()) {
+      if (path.getId() < 0)
+        ownPaths.add(path);
+    }
+    Collections.sort(ownPaths);
+    for (final JPAPathImpl path : ownPaths) {
+      path.setId(paths.size());
+      paths.add(path);
+    }
   }
 
   private String determineDBFieldName(final IntermediateModelElement property, final JPAPath jpaPath) {
@@ -487,6 +609,8 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
 
   private void lazyBuildCompleteAssociationPathMap() throws ODataJPAModelException {
     JPAAssociationPathImpl associationPath;
+    if (frozen)
+      return;
     lazyBuildCompletePathMap();
     // TODO check if ignore has to be handled
     if (resolvedAssociationPathMap.size() == 0) {
@@ -513,8 +637,8 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
   }
 
   private void lazyBuildCompletePathMap() throws ODataJPAModelException {
-    ArrayList<JPAElement> pathList;
-
+    if (frozen)
+      return;
     lazyBuildEdmItem();
     if (resolvedPathMap.size() == 0) {
       for (final Entry<String, IntermediateProperty> propertyEntity : declaredPropertiesList.entrySet()) {
@@ -525,26 +649,22 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
           final Map<String, JPAPathImpl> intermediatePath = ((IntermediateStructuredType) property
               .getStructuredType()).getIntermediatePathMap();
           for (final Entry<String, JPAPathImpl> path : intermediatePath.entrySet()) {
-            pathList = new ArrayList<>(path.getValue().getPath());
-            pathList.add(0, property);
-            intermediatePathMap.put(nameBuilder.buildPath(property.getExternalName(), path.getKey()),
-                new JPAPathImpl(nameBuilder.buildPath(property.getExternalName(),
-                    path.getKey()), null, pathList));
+            final JPAPathImpl newPath = new JPAPathImpl(nameBuilder.buildPath(property.getExternalName(),
+                path.getKey()), null, property, path.getValue());
+            intermediatePathMap.put(newPath.getAlias(), newPath);
           }
 
           final Map<String, JPAPathImpl> resolvedPath = ((IntermediateStructuredType) property
               .getStructuredType()).getResolvedPathMap();
 
           for (final Entry<String, JPAPathImpl> path : resolvedPath.entrySet()) {
-            pathList = new ArrayList<>(path.getValue().getPath());
-            pathList.add(0, property);
             JPAPathImpl newPath;
             if (property.isKey()) {
               newPath = new JPAPathImpl(path.getKey(), determineDBFieldName(property, resolvedPath.get(path.getKey())),
-                  pathList);
+                  property, path.getValue());
             } else {
               newPath = new JPAPathImpl(nameBuilder.buildPath(property.getExternalName(), path.getKey()),
-                  determineDBFieldName(property, path.getValue()), pathList);
+                  determineDBFieldName(property, path.getValue()), property, path.getValue());
             }
             resolvedPathMap.put(newPath.getAlias(), newPath);
 
@@ -0,0 +1,115 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read only map with names as keys, which is backed by arrays. Compared to a HashMap, which needs an entry object per
+ * mapping, the map needs three arrays. Lookups use a binary search on the keys. The map keeps the iteration order of
+ * the map it was created from, so e.g. the order of the properties in the metadata document does not change, if a
+ * structured type gets compacted.
+ * @author Oliver Grande
+ *
+ * @param <V>
+ */
+final class JPAArrayMap<V> extends AbstractMap<String, V> {
+  private final String[] keys;
+  private final Object[] values;
+  // Positions of the keys in ascending order of the keys
+  private final int[] sortedIndex;
+
+  JPAArrayMap(final Map<String, ? extends V> source) {
+    super();
+    keys = new String[source.size()];
+    values = new Object[source.size()];
+    int i = 0;
+    for (final Entry<String, ? extends V> entry : source.entrySet()) {
+      keys[i] = entry.getKey();
+      values[i++] = entry.getValue();
+    }
+    final Integer[] positions = new Integer[keys.length];
+    for (i = 0; i < positions.length; i++)
+      positions[i] = i;
+    Arrays.sort(positions, Comparator.comparing(position -> keys[position]));
+    sortedIndex = new int[positions.length];
+    for (i = 0; i < positions.length; i++)
+      sortedIndex[i] = positions[i];
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return find(key) >= 0;
+  }
+
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    return new AbstractSet<Entry<String, V>>() {
+
+      @Override
+      public Iterator<Entry<String, V>> iterator() {
+        return new Iterator<Entry<String, V>>() {
+          private int next = 0;
+
+          @Override
+          public boolean hasNext() {
+            return next < keys.length;
+          }
+
+          @Override
+          public Entry<String, V> next() {
+            if (!hasNext())
+              throw new NoSuchElementException();
+            final Entry<String, V> entry = new SimpleImmutableEntry<>(keys[next], value(next));
+            next++;
+            return entry;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return keys.length;
+      }
+    };
+  }
+
+  @Override
+  public V get(final Object key) {
+    final int position = find(key);
+    return position >= 0 ? value(position) : null;
+  }
+
+  @Override
+  public int size() {
+    return keys.length;
+  }
+
+  private int find(final Object key) {
+    if (!(key instanceof String))
+      return -1;
+    int low = 0;
+    int high = sortedIndex.length - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int result = keys[sortedIndex[mid]].compareTo((String) key);
+      if (result < 0)
+        low = mid + 1;
+      else if (result > 0)
+        high = mid - 1;
+      else
+        return sortedIndex[mid];
+    }
+    return -1;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V value(final int position) {
+    return (V) values[position];
+  }
+}
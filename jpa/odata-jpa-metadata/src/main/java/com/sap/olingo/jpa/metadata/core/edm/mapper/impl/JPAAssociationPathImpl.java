@@ -26,18 +26,16 @@ final class JPAAssociationPathImpl implements JPAAssociationPath {
   private final boolean isCollection;
   private final JPAAssociationAttribute partner;
   private final IntermediateJoinTable joinTable;
+  private int id = -1;
 
   JPAAssociationPathImpl(final IntermediateNavigationProperty association,
       final IntermediateStructuredType source) throws ODataJPAModelException {
 
-    final List<JPAElement> pathElementsBuffer = new ArrayList<>();
-    pathElementsBuffer.add(association);
-
-    alias = association.getExternalName();
+    alias = JPAPathImpl.intern(association.getExternalName());
     this.sourceType = source;
     this.targetType = (IntermediateStructuredType) association.getTargetEntity();
     this.joinColumns = association.getJoinColumns();
-    this.pathElements = Collections.unmodifiableList(pathElementsBuffer);
+    this.pathElements = Collections.singletonList(association);
     this.cardinality = association.getJoinCardinality();
     this.isCollection = association.isCollection();
     this.partner = association.getPartner();
@@ -48,18 +46,14 @@ final class JPAAssociationPathImpl implements JPAAssociationPath {
       final IntermediateStructuredType source, final List<IntermediateJoinColumn> joinColumns,
       final JPAAttribute attribute) {
 
-    final List<JPAElement> pathElementsBuffer = new ArrayList<>();
-    pathElementsBuffer.add(attribute);
-    pathElementsBuffer.addAll(associationPath.getPath());
-
-    alias = namebuilder.buildNaviPropertyBindingName(associationPath, attribute);
+    alias = JPAPathImpl.intern(namebuilder.buildNaviPropertyBindingName(associationPath, attribute));
     this.sourceType = source;
     this.targetType = (IntermediateStructuredType) associationPath.getTargetType();
     if (joinColumns.isEmpty())
       this.joinColumns = ((JPAAssociationPathImpl) associationPath).getJoinColumns();
     else
       this.joinColumns = joinColumns;
-    this.pathElements = Collections.unmodifiableList(pathElementsBuffer);
+    this.pathElements = new JPAPathElements(attribute, associationPath.getPath());
     this.cardinality = ((JPAAssociationPathImpl) associationPath).getCardinality();
     this.isCollection = associationPath.isCollection();
     this.partner = associationPath.getPartner();
@@ -76,6 +70,11 @@ final class JPAAssociationPathImpl implements JPAAssociationPath {
     return alias;
   }
 
+  @Override
+  public int getId() {
+    return id;
+  }
+
   @Override
   public List<JPAPath> getInverseLeftJoinColumnsList() throws ODataJPAModelException {
     final List<JPAPath> result = new ArrayList<>();
@@ -93,18 +92,8 @@ final class JPAAssociationPathImpl implements JPAAssociationPath {
   @Override
   public List<JPAOnConditionItem> getJoinColumnsList() throws ODataJPAModelException {
     final List<JPAOnConditionItem> result = new ArrayList<>();
-    for (final IntermediateJoinColumn column : this.joinColumns) {
-      // ManyToOne
-      if (cardinality == PersistentAttributeType.MANY_TO_ONE
-          || cardinality == PersistentAttributeType.MANY_TO_MANY)
-        result.add(new JPAOnConditionItemImpl(
-            sourceType.getPathByDBField(column.getName()),
-            targetType.getPathByDBField(column.getReferencedColumnName())));
-      else
-        result.add(new JPAOnConditionItemImpl(
-            sourceType.getPathByDBField(column.getReferencedColumnName()),
-            targetType.getPathByDBField(column.getName())));
-    }
+    for (final JPAPath[] pair : getJoinColumnPairs())
+      result.add(new JPAOnConditionItemImpl(pair[0], pair[1]));
     return result;
   }
 
@@ -202,6 +191,29 @@ final class JPAAssociationPathImpl implements JPAAssociationPath {
         + ", joinTable=" + joinTable + "]";
   }
 
+  /**
+   * @return The left and the right path of each join column. A path is null, if it could not be found
+   * @throws ODataJPAModelException
+   */
+  List<JPAPath[]> getJoinColumnPairs() throws ODataJPAModelException {
+    final List<JPAPath[]> result = new ArrayList<>();
+    for (final IntermediateJoinColumn column : this.joinColumns) {
+      // ManyToOne
+      if (cardinality == PersistentAttributeType.MANY_TO_ONE
+          || cardinality == PersistentAttributeType.MANY_TO_MANY)
+        result.add(new JPAPath[] { sourceType.getPathByDBField(column.getName()),
+            targetType.getPathByDBField(column.getReferencedColumnName()) });
+      else
+        result.add(new JPAPath[] { sourceType.getPathByDBField(column.getReferencedColumnName()),
+            targetType.getPathByDBField(column.getName()) });
+    }
+    return result;
+  }
+
+  void setId(final int id) {
+    this.id = id;
+  }
+
   private PersistentAttributeType getCardinality() {
     return cardinality;
   }
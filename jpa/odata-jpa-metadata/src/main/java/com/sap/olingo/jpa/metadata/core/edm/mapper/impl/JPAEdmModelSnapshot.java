@@ -0,0 +1,162 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.IdentifiableType;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sap.olingo.jpa.metadata.api.JPAEdmMetadataPostProcessor;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAServiceDocument;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+
+/**
+ * Snapshot of a finished model. The snapshot contains the CSDL of the service, the paths including their ids, the
+ * join columns and the converters, so that a service document can be restored without analyzing the metamodel
+ * again.
+ * <p>
+ * A snapshot is created at build time via {@link #write(String, Metamodel, JPAEdmMetadataPostProcessor, String[],
+ * OutputStream)} and has to be packed as resource {@link #getResourceName(String)}. It carries a fingerprint of the
+ * metamodel, the namespace, the packages and the post processor class. The snapshot is only used if the fingerprint
+ * matches the one of the running application, otherwise the model is build as usual. As the fingerprint can not
+ * cover the logic of the post processor, a snapshot has to be recreated whenever the post processor changes.
+ * @author Oliver Grande
+ *
+ */
+public final class JPAEdmModelSnapshot {
+  public static final String RESOURCE_PREFIX = "META-INF/olingo-jpa/";
+  static final String VERSION = "1";
+  private static final String VERSION_FIELD = "version";
+  private static final String FINGERPRINT_FIELD = "fingerprint";
+  private static final String NAMESPACE_FIELD = "namespace";
+
+  private JPAEdmModelSnapshot() {
+    super();
+  }
+
+  /**
+   * @param namespace
+   * @return Name of the resource a snapshot of the given namespace is searched for
+   */
+  public static String getResourceName(final String namespace) {
+    return RESOURCE_PREFIX + namespace + ".json";
+  }
+
+  /**
+   * Builds the complete model and writes it as snapshot to the given stream. The stream is not closed.
+   * @param namespace
+   * @param jpaMetamodel
+   * @param postProcessor
+   * @param packageName
+   * @param out
+   * @throws ODataJPAModelException
+   * @throws IOException
+   */
+  public static void write(final String namespace, final Metamodel jpaMetamodel,
+      final JPAEdmMetadataPostProcessor postProcessor, final String[] packageName, final OutputStream out)
+      throws ODataJPAModelException, IOException {
+
+    final IntermediateServiceDocument serviceDocument = new IntermediateServiceDocument(namespace, jpaMetamodel,
+        postProcessor, packageName);
+    serviceDocument.freeze(null);
+    final ObjectNode root = new JPASnapshotWriter().write(serviceDocument, namespace);
+    root.put(VERSION_FIELD, VERSION);
+    root.put(FINGERPRINT_FIELD, fingerprint(namespace, jpaMetamodel, postProcessor, packageName));
+    root.put(NAMESPACE_FIELD, namespace);
+    new ObjectMapper().configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false).writeValue(out, root);
+  }
+
+  /**
+   * Restores the service document from the snapshot resource of the namespace.
+   * @return The restored service document or null if no snapshot exists or the snapshot does not match the
+   * metamodel
+   */
+  static JPAServiceDocument load(final String namespace, final Metamodel jpaMetamodel,
+      final JPAEdmMetadataPostProcessor postProcessor, final String[] packageName) {
+
+    final ClassLoader loader = getClassLoader();
+    try (InputStream in = loader.getResourceAsStream(getResourceName(namespace))) {
+      if (in == null)
+        return null;
+      return read(in, loader, namespace, jpaMetamodel, postProcessor, packageName);
+    } catch (IOException | ODataJPAModelException | ReflectiveOperationException | RuntimeException e) {
+      // A snapshot that can not be read is treated like a missing one, so the model is build from the metamodel
+      return null;
+    }
+  }
+
+  static JPAServiceDocument read(final InputStream in, final ClassLoader loader, final String namespace,
+      final Metamodel jpaMetamodel, final JPAEdmMetadataPostProcessor postProcessor, final String[] packageName)
+      throws IOException, ODataJPAModelException, ReflectiveOperationException {
+
+    final JsonNode root = new ObjectMapper().readTree(in);
+    if (!VERSION.equals(JPASnapshotCsdl.text(root, VERSION_FIELD))
+        || !namespace.equals(JPASnapshotCsdl.text(root, NAMESPACE_FIELD))
+        || !fingerprint(namespace, jpaMetamodel, postProcessor, packageName).equals(JPASnapshotCsdl.text(root,
+            FINGERPRINT_FIELD)))
+      return null;
+    return new JPASnapshotReader(namespace, postProcessor != null ? postProcessor : new DefaultEdmPostProcessor(),
+        loader).read(root);
+  }
+
+  /**
+   * Creates a hash over the managed types of the metamodel including their attributes, the namespace, the packages
+   * and the class of the post processor
+   */
+  static String fingerprint(final String namespace, final Metamodel jpaMetamodel,
+      final JPAEdmMetadataPostProcessor postProcessor, final String[] packageName) {
+
+    final List<String> types = new ArrayList<>();
+    for (final ManagedType<?> managedType : jpaMetamodel.getManagedTypes()) {
+      final StringBuilder type = new StringBuilder();
+      type.append(managedType.getPersistenceType()).append(' ').append(managedType.getJavaType().getName());
+      if (managedType instanceof IdentifiableType && ((IdentifiableType<?>) managedType).getSupertype() != null)
+        type.append(" extends ").append(((IdentifiableType<?>) managedType).getSupertype().getJavaType().getName());
+      final List<String> attributes = new ArrayList<>();
+      for (final Attribute<?, ?> attribute : managedType.getDeclaredAttributes())
+        attributes.add(attribute.getName() + ':' + attribute.getJavaType().getName() + ':'
+            + attribute.getPersistentAttributeType());
+      attributes.sort(null);
+      type.append(attributes);
+      types.add(type.toString());
+    }
+    types.sort(null);
+    final String[] packages = packageName != null ? packageName.clone() : new String[0];
+    Arrays.sort(packages);
+
+    final StringBuilder content = new StringBuilder();
+    content.append(VERSION).append('\n').append(namespace).append('\n').append(Arrays.toString(packages))
+        .append('\n').append(postProcessor != null ? postProcessor.getClass().getName() : "").append('\n');
+    for (final String type : types)
+      content.append(type).append('\n');
+    try {
+      final byte[] hash = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(
+          StandardCharsets.UTF_8));
+      final StringBuilder result = new StringBuilder();
+      for (final byte b : hash)
+        result.append(String.format("%02x", b));
+      return result.toString();
+    } catch (NoSuchAlgorithmException e) {
+      // Every java platform has to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static ClassLoader getClassLoader() {
+    final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+    return loader != null ? loader : JPAEdmModelSnapshot.class.getClassLoader();
+  }
+}
@@ -7,6 +7,7 @@ import javax.persistence.metamodel.EntityType;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
 import org.apache.olingo.commons.api.edm.provider.CsdlEntityType;
 
+import com.sap.olingo.jpa.metadata.api.JPAEdmMetadataPostProcessor;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationPath;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAElement;
@@ -26,10 +27,22 @@ public final class JPAEdmNameBuilder {
   }
 
   private final String namespace;
+  private final JPAEdmMetadataPostProcessor postProcessor;
 
   public JPAEdmNameBuilder(final String namespace) {
+    this(namespace, null);
+  }
+
+  /**
+   * The name builder is handed over to all elements of a service document, so it also carries the post processor of
+   * the service document. This allows service documents with different post processors to exist in parallel.
+   * @param namespace
+   * @param postProcessor
+   */
+  JPAEdmNameBuilder(final String namespace, final JPAEdmMetadataPostProcessor postProcessor) {
     super();
     this.namespace = namespace;
+    this.postProcessor = postProcessor;
   }
 
   /*
@@ -226,4 +239,7 @@ public final class JPAEdmNameBuilder {
     return javaEnum.getSimpleName();
   }
 
+  JPAEdmMetadataPostProcessor getPostProcessor() {
+    return postProcessor;
+  }
 }
@@ -0,0 +1,130 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import static com.sap.olingo.jpa.metadata.core.edm.annotation.processor.JPAEdmTypeIndexProcessor.INDEX_RESOURCE;
+import static com.sap.olingo.jpa.metadata.core.edm.annotation.processor.JPAEdmTypeIndexProcessor.TYPE_ENTRY;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Type index generated at compile time by the annotation processor of odata-jpa-annotation-processor. Each archive or
+ * class folder compiled with the processor contains an index, which lists the compiled packages and the found types.
+ * Like the class path scan, which reads the complete archive or class folder a package is located in, all types of an
+ * index are taken into account, as soon as its archive or class folder contains one of the requested packages.
+ * @author Oliver Grande
+ *
+ */
+final class JPAGeneratedTypeIndex implements JPATypeIndex {
+  private final List<Class<?>> types;
+
+  private JPAGeneratedTypeIndex(final List<Class<?>> types) {
+    super();
+    this.types = types;
+  }
+
+  /**
+   * Reads the generated indices from the class path. An index is only used, if each archive or class folder containing
+   * one of the packages has been compiled with the annotation processor. Otherwise the types of the other locations
+   * would be missed, so the class path has to be scanned.
+   * @param packageName
+   * @return The index of the packages or null if at least one location of a package has not been compiled with the
+   * annotation processor
+   * @throws IOException
+   */
+  static JPAGeneratedTypeIndex load(final String... packageName) throws IOException {
+    final ClassLoader loader = getClassLoader();
+    final Map<String, URL> indices = new HashMap<>();
+    final Enumeration<URL> indexLocations = loader.getResources(INDEX_RESOURCE);
+    while (indexLocations.hasMoreElements()) {
+      final URL index = indexLocations.nextElement();
+      indices.put(determineRoot(index, INDEX_RESOURCE), index);
+    }
+    final Set<String> readRoots = new HashSet<>();
+    final Set<String> typeNames = new LinkedHashSet<>();
+    for (final String name : packageName) {
+      final String packagePath = name.replace('.', '/');
+      final Enumeration<URL> packageLocations = loader.getResources(packagePath);
+      if (!packageLocations.hasMoreElements())
+        return null;
+      while (packageLocations.hasMoreElements()) {
+        final String root = determineRoot(packageLocations.nextElement(), packagePath);
+        final URL index = indices.get(root);
+        if (index == null)
+          return null;
+        if (readRoots.add(root))
+          readTypeNames(index, typeNames);
+      }
+    }
+    final List<Class<?>> types = new ArrayList<>(typeNames.size());
+    for (final String typeName : typeNames) {
+      try {
+        types.add(Class.forName(typeName, false, loader));
+      } catch (ClassNotFoundException e) {
+        // Outdated index entry
+      }
+    }
+    return new JPAGeneratedTypeIndex(types);
+  }
+
+  /**
+   * @return The context class loader or, if not set, the class loader of the metadata module
+   */
+  static ClassLoader getClassLoader() {
+    final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+    return loader != null ? loader : JPAGeneratedTypeIndex.class.getClassLoader();
+  }
+
+  /**
+   * @return The archive or class folder a resource is located in, e.g. jar:file:/lib/model.jar!/
+   */
+  private static String determineRoot(final URL location, final String resource) {
+    String root = location.toExternalForm();
+    if (root.endsWith("/"))
+      root = root.substring(0, root.length() - 1);
+    return root.endsWith(resource) ? root.substring(0, root.length() - resource.length()) : root;
+  }
+
+  private static void readTypeNames(final URL index, final Set<String> typeNames) throws IOException {
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(),
+        StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.startsWith(TYPE_ENTRY))
+          typeNames.add(line.substring(TYPE_ENTRY.length()));
+      }
+    }
+  }
+
+  @Override
+  public <T> Set<Class<? extends T>> getSubTypesOf(final Class<T> type) {
+    final Set<Class<? extends T>> subTypes = new HashSet<>();
+    for (final Class<?> candidate : types) {
+      if (candidate != type && type.isAssignableFrom(candidate))
+        subTypes.add(candidate.asSubclass(type));
+    }
+    return Collections.unmodifiableSet(subTypes);
+  }
+
+  @Override
+  public Set<Class<?>> getTypesAnnotatedWith(final Class<? extends Annotation> annotation) {
+    final Set<Class<?>> annotated = new HashSet<>();
+    for (final Class<?> candidate : types) {
+      if (candidate.isAnnotationPresent(annotation))
+        annotated.add(candidate);
+    }
+    return Collections.unmodifiableSet(annotated);
+  }
+}
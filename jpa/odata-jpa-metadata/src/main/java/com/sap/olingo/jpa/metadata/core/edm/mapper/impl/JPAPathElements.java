@@ -0,0 +1,39 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAElement;
+
+/**
+ * Immutable element list of a path that starts with a complex property. The list consists of the complex property and
+ * the elements of the path within the embedded type. The latter are not copied but shared with the path of the
+ * embedded type, so the paths of a model form a trie of their elements: All paths leading through the same complex
+ * type share the elements of that type, independent of how many entity types embed it.
+ * @author Oliver Grande
+ *
+ */
+final class JPAPathElements extends AbstractList<JPAElement> {
+  private final JPAElement first;
+  private final List<JPAElement> rest;
+
+  JPAPathElements(final JPAElement first, final List<JPAElement> rest) {
+    super();
+    this.first = first;
+    this.rest = rest;
+  }
+
+  @Override
+  public JPAElement get(final int index) {
+    if (index == 0)
+      return first;
+    if (index < 0)
+      throw new IndexOutOfBoundsException("Index: " + index);
+    return rest.get(index - 1);
+  }
+
+  @Override
+  public int size() {
+    return rest.size() + 1;
+  }
+}
@@ -1,6 +1,5 @@
 package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -13,24 +12,39 @@ final class JPAPathImpl implements JPAPath {
   private final List<JPAElement> pathElements;
   private final String dbFieldName;
   private final boolean ignore;
+  private int id = -1;
 
   JPAPathImpl(final String alias, final String dbFieldName, final IntermediateModelElement element) {
-    final List<JPAElement> pathElementsBuffer = new ArrayList<>();
-
-    this.alias = alias;
-    pathElementsBuffer.add(element);
-    this.pathElements = Collections.unmodifiableList(pathElementsBuffer);
-    this.dbFieldName = dbFieldName;
+    this.alias = intern(alias);
+    this.pathElements = Collections.singletonList(element);
+    this.dbFieldName = intern(dbFieldName);
     this.ignore = element.ignore();
   }
 
   JPAPathImpl(final String selection, final String dbFieldName, final List<JPAElement> attribute) {
-    this.alias = selection;
-    this.pathElements = Collections.unmodifiableList(attribute);
-    this.dbFieldName = dbFieldName;
+    this.alias = intern(selection);
+    this.pathElements = attribute instanceof JPAPathElements ? attribute : Collections.unmodifiableList(attribute);
+    this.dbFieldName = intern(dbFieldName);
     this.ignore = ((IntermediateModelElement) pathElements.get(1)).ignore();
   }
 
+  /**
+   * Creates a path that leads via a complex property to a path of the embedded type. The elements of the embedded path
+   * are shared, see {@link JPAPathElements}.
+   */
+  JPAPathImpl(final String selection, final String dbFieldName, final IntermediateModelElement complexProperty,
+      final JPAPath embeddedPath) {
+    this(selection, dbFieldName, new JPAPathElements(complexProperty, embeddedPath.getPath()));
+  }
+
+  /**
+   * The same aliases and database field names occur in all types embedding the same complex type, so only one copy of
+   * them is kept
+   */
+  static String intern(final String name) {
+    return name == null ? null : name.intern();
+  }
+
   @Override
   public boolean equals(final Object obj) {
     if (this == obj) return true;
@@ -66,6 +80,11 @@ final class JPAPathImpl implements JPAPath {
     return dbFieldName;
   }
 
+  @Override
+  public int getId() {
+    return id;
+  }
+
   /*
    * (non-Javadoc)
    * 
@@ -109,4 +128,8 @@ final class JPAPathImpl implements JPAPath {
   public int compareTo(final JPAPath o) {
     return this.alias.compareTo(o.getAlias());
   }
+
+  void setId(final int id) {
+    this.id = id;
+  }
 }
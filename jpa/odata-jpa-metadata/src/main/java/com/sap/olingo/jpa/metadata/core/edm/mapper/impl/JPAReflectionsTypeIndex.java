@@ -0,0 +1,66 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.reflections.Reflections;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.scanners.TypeAnnotationsScanner;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+
+/**
+ * Type index based on a class path scan with Reflections. It is used for packages, which have not
+ * been compiled with the annotation processor of odata-jpa-annotation-processor. In this case org.reflections has to
+ * be on the class path.
+ * @author Oliver Grande
+ *
+ */
+final class JPAReflectionsTypeIndex implements JPATypeIndex {
+  private static final String REFLECTIONS_CLASS = "org.reflections.Reflections";
+  private final Reflections reflections;
+
+  JPAReflectionsTypeIndex(final Reflections reflections) {
+    super();
+    this.reflections = reflections;
+  }
+
+  /**
+   * Scans the given packages for sub types and annotated types
+   */
+  static JPAReflectionsTypeIndex create(final String... packageName) {
+    final ConfigurationBuilder configBuilder = new ConfigurationBuilder();
+    final List<URL> urls = new ArrayList<>();
+    for (int i = 0; i < packageName.length; i++) {
+      urls.addAll(ClasspathHelper.forPackage(packageName[i]));
+    }
+    configBuilder.setUrls(urls);
+    configBuilder.setScanners(new SubTypesScanner(false), new TypeAnnotationsScanner());
+    return new JPAReflectionsTypeIndex(new Reflections(configBuilder));
+  }
+
+  /**
+   * @return True if org.reflections is on the class path
+   */
+  static boolean isAvailable() {
+    try {
+      Class.forName(REFLECTIONS_CLASS, false, JPAReflectionsTypeIndex.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public <T> Set<Class<? extends T>> getSubTypesOf(final Class<T> type) {
+    return reflections.getSubTypesOf(type);
+  }
+
+  @Override
+  public Set<Class<?>> getTypesAnnotatedWith(final Class<? extends Annotation> annotation) {
+    return reflections.getTypesAnnotatedWith(annotation);
+  }
+}
@@ -1,5 +1,7 @@
 package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
 
+import java.util.concurrent.ForkJoinPool;
+
 import javax.persistence.metamodel.Metamodel;
 
 import com.sap.olingo.jpa.metadata.api.JPAEdmMetadataPostProcessor;
@@ -12,17 +14,46 @@ public final class JPAServiceDocumentFactory {
   private final Metamodel jpaMetamodel;
   private final JPAEdmMetadataPostProcessor postProcessor;
   private final String[] packageName;
+  private final ForkJoinPool pool;
 
   public JPAServiceDocumentFactory(final String namespace, final Metamodel jpaMetamodel,
       final JPAEdmMetadataPostProcessor postProcessor, final String[] packageName) {
+    this(namespace, jpaMetamodel, postProcessor, packageName, null);
+  }
+
+  /**
+   * @param namespace
+   * @param jpaMetamodel
+   * @param postProcessor
+   * @param packageName
+   * @param pool Pool used to build the model in parallel. In this case the post processor has to be thread safe. Null
+   * in case the model shall be build sequentially
+   */
+  public JPAServiceDocumentFactory(final String namespace, final Metamodel jpaMetamodel,
+      final JPAEdmMetadataPostProcessor postProcessor, final String[] packageName, final ForkJoinPool pool) {
     super();
     this.namespace = namespace;
     this.jpaMetamodel = jpaMetamodel;
     this.postProcessor = postProcessor;
     this.packageName = packageName;
+    this.pool = pool;
   }
 
+  /**
+   * Creates the service document. If a snapshot of the model, see {@link JPAEdmModelSnapshot}, is available and
+   * matches the metamodel, the service document is restored from the snapshot. Otherwise the complete model is
+   * build, so that it can be read by concurrent requests.
+   * @return
+   * @throws ODataJPAModelException
+   */
   public JPAServiceDocument getServiceDocument() throws ODataJPAModelException {
-    return new IntermediateServiceDocument(namespace, jpaMetamodel, postProcessor, packageName);
+    final JPAServiceDocument snapshot = JPAEdmModelSnapshot.load(namespace, jpaMetamodel, postProcessor,
+        packageName);
+    if (snapshot != null)
+      return snapshot;
+    final IntermediateServiceDocument serviceDocument = new IntermediateServiceDocument(namespace, jpaMetamodel,
+        postProcessor, packageName);
+    serviceDocument.freeze(pool);
+    return serviceDocument;
   }
 }
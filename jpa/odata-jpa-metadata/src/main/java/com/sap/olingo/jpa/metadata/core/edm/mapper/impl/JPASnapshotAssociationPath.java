@@ -0,0 +1,117 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAElement;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAJoinTable;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAOnConditionItem;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAStructuredType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+
+/**
+ * Association path restored from a model snapshot, see {@link JPAEdmModelSnapshot}. The snapshot contains the paths of
+ * the join columns. A path is null, if no attribute is mapped to the column. In this case the creation of the join
+ * condition fails like it does for {@link JPAAssociationPathImpl}.
+ * @author Oliver Grande
+ *
+ */
+final class JPASnapshotAssociationPath implements JPAAssociationPath {
+  private final String alias;
+  private final int id;
+  private final boolean isCollection;
+  List<JPAElement> pathElements;
+  JPAStructuredType sourceType;
+  JPAStructuredType targetType;
+  JPAAssociationAttribute partner;
+  JPAJoinTable joinTable;
+  List<JPAPath> joinColumnsLeft;
+  List<JPAPath> joinColumnsRight;
+  List<JPAPath> leftColumns;
+  List<JPAPath> rightColumns;
+  List<JPAPath> inverseLeftJoinColumns;
+
+  JPASnapshotAssociationPath(final String alias, final int id, final boolean isCollection) {
+    super();
+    this.alias = JPAPathImpl.intern(alias);
+    this.id = id;
+    this.isCollection = isCollection;
+  }
+
+  @Override
+  public String getAlias() {
+    return alias;
+  }
+
+  @Override
+  public int getId() {
+    return id;
+  }
+
+  @Override
+  public List<JPAPath> getInverseLeftJoinColumnsList() throws ODataJPAModelException {
+    return new ArrayList<>(inverseLeftJoinColumns);
+  }
+
+  @Override
+  public List<JPAOnConditionItem> getJoinColumnsList() throws ODataJPAModelException {
+    final List<JPAOnConditionItem> result = new ArrayList<>(joinColumnsLeft.size());
+    for (int i = 0; i < joinColumnsLeft.size(); i++)
+      result.add(new JPAOnConditionItemImpl(joinColumnsLeft.get(i), joinColumnsRight.get(i)));
+    return result;
+  }
+
+  @Override
+  public JPAJoinTable getJoinTable() {
+    return joinTable;
+  }
+
+  @Override
+  public JPAAssociationAttribute getLeaf() {
+    return (JPAAssociationAttribute) pathElements.get(pathElements.size() - 1);
+  }
+
+  @Override
+  public List<JPAPath> getLeftColumnsList() throws ODataJPAModelException {
+    return new ArrayList<>(leftColumns);
+  }
+
+  @Override
+  public JPAAssociationAttribute getPartner() {
+    return partner;
+  }
+
+  @Override
+  public List<JPAElement> getPath() {
+    return pathElements;
+  }
+
+  @Override
+  public List<JPAPath> getRightColumnsList() throws ODataJPAModelException {
+    return new ArrayList<>(rightColumns);
+  }
+
+  @Override
+  public JPAStructuredType getSourceType() {
+    return sourceType;
+  }
+
+  @Override
+  public JPAStructuredType getTargetType() {
+    return targetType;
+  }
+
+  @Override
+  public boolean isCollection() {
+    return isCollection;
+  }
+
+  @Override
+  public String toString() {
+    return "JPASnapshotAssociationPath [alias=" + alias + ", pathElements=" + pathElements + ", sourceType="
+        + sourceType + ", targetType=" + targetType + ", joinTable=" + joinTable + "]";
+  }
+}
@@ -0,0 +1,123 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import javax.persistence.AttributeConverter;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.edm.provider.CsdlAbstractEdmItem;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAStructuredType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+
+/**
+ * Property restored from a model snapshot, see {@link JPAEdmModelSnapshot}. The edm type is determined from the java
+ * type of the JPA attribute, like {@link IntermediateProperty} does.
+ * @author Oliver Grande
+ *
+ */
+class JPASnapshotAttribute implements JPAAttribute {
+  private final String internalName;
+  private final String externalName;
+  private final FullQualifiedName externalFQN;
+  private final Class<?> type;
+  private final Class<?> javaType;
+  private final AttributeConverter<?, ?> converter;
+  private final boolean complex;
+  private final boolean key;
+  private final boolean searchable;
+  private final boolean enumeration;
+  JPAStructuredType structuredType;
+  CsdlAbstractEdmItem property;
+
+  /**
+   * @param type Type as provided by {@link JPAAttribute#getType()}
+   * @param javaType Java type of the JPA attribute or null in case the attribute has no edm type
+   */
+  JPASnapshotAttribute(final String internalName, final String externalName, final FullQualifiedName externalFQN,
+      final Class<?> type, final Class<?> javaType, final AttributeConverter<?, ?> converter, final boolean complex,
+      final boolean key, final boolean searchable, final boolean enumeration) {
+    super();
+    this.internalName = internalName;
+    this.externalName = externalName;
+    this.externalFQN = externalFQN;
+    this.type = type;
+    this.javaType = javaType;
+    this.converter = converter;
+    this.complex = complex;
+    this.key = key;
+    this.searchable = searchable;
+    this.enumeration = enumeration;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <X, Y extends Object> AttributeConverter<X, Y> getConverter() {
+    return (AttributeConverter<X, Y>) converter;
+  }
+
+  @Override
+  public EdmPrimitiveTypeKind getEdmType() throws ODataJPAModelException {
+    return javaType == null ? null : JPATypeConvertor.convertToEdmSimpleType(javaType);
+  }
+
+  @Override
+  public FullQualifiedName getExternalFQN() {
+    return externalFQN;
+  }
+
+  @Override
+  public String getExternalName() {
+    return externalName;
+  }
+
+  @Override
+  public String getInternalName() {
+    return internalName;
+  }
+
+  @Override
+  public CsdlAbstractEdmItem getProperty() throws ODataJPAModelException {
+    return property;
+  }
+
+  @Override
+  public JPAStructuredType getStructuredType() throws ODataJPAModelException {
+    return structuredType;
+  }
+
+  @Override
+  public Class<?> getType() {
+    return type;
+  }
+
+  @Override
+  public boolean isAssociation() {
+    return false;
+  }
+
+  @Override
+  public boolean isComplex() {
+    return complex;
+  }
+
+  @Override
+  public boolean isEnum() {
+    return enumeration;
+  }
+
+  @Override
+  public boolean isKey() {
+    return key;
+  }
+
+  @Override
+  public boolean isSearchable() {
+    return searchable;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + " [internalName=" + internalName + ", externalName=" + externalName + "]";
+  }
+}
@@ -0,0 +1,535 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.geo.Geospatial.Dimension;
+import org.apache.olingo.commons.api.edm.geo.SRID;
+import org.apache.olingo.commons.api.edm.provider.CsdlActionImport;
+import org.apache.olingo.commons.api.edm.provider.CsdlAnnotation;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntitySet;
+import org.apache.olingo.commons.api.edm.provider.CsdlFunction;
+import org.apache.olingo.commons.api.edm.provider.CsdlFunctionImport;
+import org.apache.olingo.commons.api.edm.provider.CsdlMapping;
+import org.apache.olingo.commons.api.edm.provider.CsdlNavigationProperty;
+import org.apache.olingo.commons.api.edm.provider.CsdlNavigationPropertyBinding;
+import org.apache.olingo.commons.api.edm.provider.CsdlOnDelete;
+import org.apache.olingo.commons.api.edm.provider.CsdlOnDeleteAction;
+import org.apache.olingo.commons.api.edm.provider.CsdlOperation;
+import org.apache.olingo.commons.api.edm.provider.CsdlParameter;
+import org.apache.olingo.commons.api.edm.provider.CsdlProperty;
+import org.apache.olingo.commons.api.edm.provider.CsdlPropertyRef;
+import org.apache.olingo.commons.api.edm.provider.CsdlReferentialConstraint;
+import org.apache.olingo.commons.api.edm.provider.CsdlReturnType;
+import org.apache.olingo.commons.api.edm.provider.annotation.CsdlAnnotationPath;
+import org.apache.olingo.commons.api.edm.provider.annotation.CsdlCollection;
+import org.apache.olingo.commons.api.edm.provider.annotation.CsdlConstantExpression;
+import org.apache.olingo.commons.api.edm.provider.annotation.CsdlConstantExpression.ConstantExpressionType;
+import org.apache.olingo.commons.api.edm.provider.annotation.CsdlExpression;
+import org.apache.olingo.commons.api.edm.provider.annotation.CsdlNavigationPropertyPath;
+import org.apache.olingo.commons.api.edm.provider.annotation.CsdlNull;
+import org.apache.olingo.commons.api.edm.provider.annotation.CsdlPath;
+import org.apache.olingo.commons.api.edm.provider.annotation.CsdlPropertyPath;
+import org.apache.olingo.commons.api.edm.provider.annotation.CsdlPropertyValue;
+import org.apache.olingo.commons.api.edm.provider.annotation.CsdlRecord;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException.MessageKeys;
+
+/**
+ * Converts the CSDL items of a model snapshot into JSON and back, see {@link JPAEdmModelSnapshot}. Only the values
+ * differing from the defaults of the CSDL items are written. Annotations may contain constants, collections, records
+ * and paths. Other expressions are not supported.
+ * @author Oliver Grande
+ *
+ */
+final class JPASnapshotCsdl {
+  private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+  private static final String NAME = "name";
+  private static final String TYPE = "type";
+  private static final String VALUE = "value";
+  private static final String COLLECTION = "collection";
+  private static final String NULLABLE = "nullable";
+  private static final String ANNOTATIONS = "annotations";
+
+  private JPASnapshotCsdl() {
+    super();
+  }
+
+  static ArrayNode writeActionImports(final List<CsdlActionImport> actionImports) throws ODataJPAModelException {
+    if (actionImports == null)
+      return null;
+    final ArrayNode result = NODES.arrayNode();
+    for (final CsdlActionImport actionImport : actionImports) {
+      final ObjectNode node = result.addObject();
+      node.put(NAME, actionImport.getName());
+      node.put("action", actionImport.getAction());
+      node.put("entitySet", actionImport.getEntitySet());
+      node.set(ANNOTATIONS, writeAnnotations(actionImport.getAnnotations()));
+    }
+    return result;
+  }
+
+  static List<CsdlActionImport> readActionImports(final JsonNode nodes) {
+    if (isAbsent(nodes))
+      return null;
+    final List<CsdlActionImport> result = new ArrayList<>();
+    for (final JsonNode node : nodes) {
+      final CsdlActionImport actionImport = new CsdlActionImport();
+      actionImport.setName(text(node, NAME));
+      actionImport.setAction(text(node, "action"));
+      actionImport.setEntitySet(text(node, "entitySet"));
+      actionImport.setAnnotations(readAnnotations(node.path(ANNOTATIONS)));
+      result.add(actionImport);
+    }
+    return result;
+  }
+
+  static ArrayNode writeAnnotations(final List<CsdlAnnotation> annotations) throws ODataJPAModelException {
+    if (annotations == null)
+      return null;
+    final ArrayNode result = NODES.arrayNode();
+    for (final CsdlAnnotation annotation : annotations) {
+      final ObjectNode node = result.addObject();
+      node.put("term", annotation.getTerm());
+      node.put("qualifier", annotation.getQualifier());
+      node.set("expression", writeExpression(annotation.getExpression()));
+      node.set(ANNOTATIONS, writeAnnotations(annotation.getAnnotations()));
+    }
+    return result;
+  }
+
+  static List<CsdlAnnotation> readAnnotations(final JsonNode nodes) {
+    if (isAbsent(nodes))
+      return null;
+    final List<CsdlAnnotation> result = new ArrayList<>();
+    for (final JsonNode node : nodes) {
+      final CsdlAnnotation annotation = new CsdlAnnotation();
+      annotation.setTerm(text(node, "term"));
+      annotation.setQualifier(text(node, "qualifier"));
+      annotation.setExpression(readExpression(node.path("expression")));
+      annotation.setAnnotations(readAnnotations(node.path(ANNOTATIONS)));
+      result.add(annotation);
+    }
+    return result;
+  }
+
+  static ObjectNode writeEntitySet(final CsdlEntitySet entitySet) throws ODataJPAModelException {
+    final ObjectNode node = NODES.objectNode();
+    node.put(NAME, entitySet.getName());
+    node.put(TYPE, entitySet.getType());
+    node.put("title", entitySet.getTitle());
+    node.put("includeInServiceDocument", entitySet.isIncludeInServiceDocument());
+    if (entitySet.getNavigationPropertyBindings() != null) {
+      final ArrayNode bindings = node.putArray("navigationPropertyBindings");
+      for (final CsdlNavigationPropertyBinding binding : entitySet.getNavigationPropertyBindings())
+        bindings.addObject().put("path", binding.getPath()).put("target", binding.getTarget());
+    }
+    node.set(ANNOTATIONS, writeAnnotations(entitySet.getAnnotations()));
+    return node;
+  }
+
+  static CsdlEntitySet readEntitySet(final JsonNode node) {
+    final CsdlEntitySet entitySet = new CsdlEntitySet();
+    entitySet.setName(text(node, NAME));
+    entitySet.setType(text(node, TYPE));
+    entitySet.setTitle(text(node, "title"));
+    entitySet.setIncludeInServiceDocument(node.path("includeInServiceDocument").asBoolean(true));
+    if (node.has("navigationPropertyBindings")) {
+      final List<CsdlNavigationPropertyBinding> bindings = new ArrayList<>();
+      for (final JsonNode binding : node.path("navigationPropertyBindings")) {
+        bindings.add(new CsdlNavigationPropertyBinding().setPath(text(binding, "path"))
+            .setTarget(text(binding, "target")));
+      }
+      entitySet.setNavigationPropertyBindings(bindings);
+    } else
+      entitySet.setNavigationPropertyBindings(null);
+    entitySet.setAnnotations(readAnnotations(node.path(ANNOTATIONS)));
+    return entitySet;
+  }
+
+  static ArrayNode writeFunctionImports(final List<CsdlFunctionImport> functionImports) throws ODataJPAModelException {
+    if (functionImports == null)
+      return null;
+    final ArrayNode result = NODES.arrayNode();
+    for (final CsdlFunctionImport functionImport : functionImports) {
+      final ObjectNode node = result.addObject();
+      node.put(NAME, functionImport.getName());
+      node.put("function", functionImport.getFunction());
+      node.put("entitySet", functionImport.getEntitySet());
+      node.put("title", functionImport.getTitle());
+      node.put("includeInServiceDocument", functionImport.isIncludeInServiceDocument());
+      node.set(ANNOTATIONS, writeAnnotations(functionImport.getAnnotations()));
+    }
+    return result;
+  }
+
+  static List<CsdlFunctionImport> readFunctionImports(final JsonNode nodes) {
+    if (isAbsent(nodes))
+      return null;
+    final List<CsdlFunctionImport> result = new ArrayList<>();
+    for (final JsonNode node : nodes) {
+      final CsdlFunctionImport functionImport = new CsdlFunctionImport();
+      functionImport.setName(text(node, NAME));
+      functionImport.setFunction(text(node, "function"));
+      functionImport.setEntitySet(text(node, "entitySet"));
+      functionImport.setTitle(text(node, "title"));
+      functionImport.setIncludeInServiceDocument(node.path("includeInServiceDocument").asBoolean());
+      functionImport.setAnnotations(readAnnotations(node.path(ANNOTATIONS)));
+      result.add(functionImport);
+    }
+    return result;
+  }
+
+  static ObjectNode writeNavigationProperty(final CsdlNavigationProperty property) throws ODataJPAModelException {
+    final ObjectNode node = NODES.objectNode();
+    node.put(NAME, property.getName());
+    node.put(TYPE, property.getType());
+    node.put(COLLECTION, property.isCollection());
+    node.put("partner", property.getPartner());
+    node.put("containsTarget", property.isContainsTarget());
+    node.put(NULLABLE, property.isNullable());
+    if (property.getReferentialConstraints() != null) {
+      final ArrayNode constraints = node.putArray("referentialConstraints");
+      for (final CsdlReferentialConstraint constraint : property.getReferentialConstraints()) {
+        final ObjectNode constraintNode = constraints.addObject();
+        constraintNode.put("property", constraint.getProperty());
+        constraintNode.put("referencedProperty", constraint.getReferencedProperty());
+        constraintNode.set(ANNOTATIONS, writeAnnotations(constraint.getAnnotations()));
+      }
+    }
+    if (property.getOnDelete() != null) {
+      final ObjectNode onDelete = node.putObject("onDelete");
+      onDelete.put("action", property.getOnDelete().getAction() == null ? null : property.getOnDelete().getAction()
+          .name());
+      onDelete.set(ANNOTATIONS, writeAnnotations(property.getOnDelete().getAnnotations()));
+    }
+    node.set(ANNOTATIONS, writeAnnotations(property.getAnnotations()));
+    return node;
+  }
+
+  static CsdlNavigationProperty readNavigationProperty(final JsonNode node) {
+    final CsdlNavigationProperty property = new CsdlNavigationProperty();
+    property.setName(text(node, NAME));
+    property.setType(text(node, TYPE));
+    property.setCollection(node.path(COLLECTION).asBoolean());
+    property.setPartner(text(node, "partner"));
+    property.setContainsTarget(node.path("containsTarget").asBoolean());
+    property.setNullable(node.path(NULLABLE).isNull() ? null : node.path(NULLABLE).asBoolean(true));
+    if (node.has("referentialConstraints")) {
+      final List<CsdlReferentialConstraint> constraints = new ArrayList<>();
+      for (final JsonNode constraintNode : node.path("referentialConstraints")) {
+        final CsdlReferentialConstraint constraint = new CsdlReferentialConstraint();
+        constraint.setProperty(text(constraintNode, "property"));
+        constraint.setReferencedProperty(text(constraintNode, "referencedProperty"));
+        constraint.setAnnotations(readAnnotations(constraintNode.path(ANNOTATIONS)));
+        constraints.add(constraint);
+      }
+      property.setReferentialConstraints(constraints);
+    } else
+      property.setReferentialConstraints(null);
+    if (node.has("onDelete")) {
+      final CsdlOnDelete onDelete = new CsdlOnDelete();
+      final String action = text(node.path("onDelete"), "action");
+      onDelete.setAction(action == null ? null : CsdlOnDeleteAction.valueOf(action));
+      onDelete.setAnnotations(readAnnotations(node.path("onDelete").path(ANNOTATIONS)));
+      property.setOnDelete(onDelete);
+    }
+    property.setAnnotations(readAnnotations(node.path(ANNOTATIONS)));
+    return property;
+  }
+
+  /**
+   * Writes a function or an action. Depending on the operation the parameters and the return type are not given.
+   */
+  static ObjectNode writeOperation(final CsdlOperation operation) throws ODataJPAModelException {
+    final ObjectNode node = NODES.objectNode();
+    node.put(NAME, operation.getName());
+    node.put("bound", operation.isBound());
+    node.put("entitySetPath", operation.getEntitySetPath());
+    if (operation instanceof CsdlFunction)
+      node.put("composable", ((CsdlFunction) operation).isComposable());
+    if (operation.getParameters() != null) {
+      final ArrayNode parameters = node.putArray("parameters");
+      for (final CsdlParameter parameter : operation.getParameters())
+        parameters.add(writeParameter(parameter));
+    }
+    if (operation.getReturnType() != null)
+      node.set("returnType", writeReturnType(operation.getReturnType()));
+    node.set(ANNOTATIONS, writeAnnotations(operation.getAnnotations()));
+    return node;
+  }
+
+  static <T extends CsdlOperation> T readOperation(final JsonNode node, final T operation,
+      final ClassLoader loader) throws ClassNotFoundException {
+    operation.setName(text(node, NAME));
+    operation.setBound(node.path("bound").asBoolean());
+    operation.setEntitySetPath(text(node, "entitySetPath"));
+    if (operation instanceof CsdlFunction)
+      ((CsdlFunction) operation).setComposable(node.path("composable").asBoolean());
+    if (node.has("parameters")) {
+      final List<CsdlParameter> parameters = new ArrayList<>();
+      for (final JsonNode parameter : node.path("parameters"))
+        parameters.add(readParameter(parameter, loader));
+      operation.setParameters(parameters);
+    } else
+      operation.setParameters(null);
+    if (node.has("returnType"))
+      operation.setReturnType(readReturnType(node.path("returnType")));
+    operation.setAnnotations(readAnnotations(node.path(ANNOTATIONS)));
+    return operation;
+  }
+
+  static ObjectNode writeProperty(final CsdlProperty property) throws ODataJPAModelException {
+    final ObjectNode node = NODES.objectNode();
+    node.put(NAME, property.getName());
+    node.put(TYPE, property.getType());
+    node.put(COLLECTION, property.isCollection());
+    node.put("defaultValue", property.getDefaultValue());
+    node.put(NULLABLE, property.isNullable());
+    node.put("maxLength", property.getMaxLength());
+    node.put("precision", property.getPrecision());
+    node.put("scale", property.getScale());
+    node.put("unicode", property.isUnicode());
+    node.put("mimeType", property.getMimeType());
+    node.set("srid", writeSrid(property.getSrid()));
+    node.set("mapping", writeMapping(property.getMapping()));
+    node.set(ANNOTATIONS, writeAnnotations(property.getAnnotations()));
+    return node;
+  }
+
+  static CsdlProperty readProperty(final JsonNode node, final ClassLoader loader) throws ClassNotFoundException {
+    final CsdlProperty property = new CsdlProperty();
+    property.setName(text(node, NAME));
+    property.setType(text(node, TYPE));
+    property.setCollection(node.path(COLLECTION).asBoolean());
+    property.setDefaultValue(text(node, "defaultValue"));
+    property.setNullable(node.path(NULLABLE).asBoolean(true));
+    property.setMaxLength(integer(node, "maxLength"));
+    property.setPrecision(integer(node, "precision"));
+    property.setScale(integer(node, "scale"));
+    property.setUnicode(node.path("unicode").asBoolean(true));
+    property.setMimeType(text(node, "mimeType"));
+    property.setSrid(readSrid(node.path("srid")));
+    property.setMapping(readMapping(node.path("mapping"), loader));
+    property.setAnnotations(readAnnotations(node.path(ANNOTATIONS)));
+    return property;
+  }
+
+  static ArrayNode writePropertyRefs(final List<CsdlPropertyRef> propertyRefs) {
+    final ArrayNode result = NODES.arrayNode();
+    if (propertyRefs != null) {
+      for (final CsdlPropertyRef propertyRef : propertyRefs)
+        result.addObject().put(NAME, propertyRef.getName()).put("alias", propertyRef.getAlias());
+    }
+    return result;
+  }
+
+  static List<CsdlPropertyRef> readPropertyRefs(final JsonNode nodes) {
+    final List<CsdlPropertyRef> result = new ArrayList<>();
+    for (final JsonNode node : nodes)
+      result.add(new CsdlPropertyRef().setName(text(node, NAME)).setAlias(text(node, "alias")));
+    return result;
+  }
+
+  static ObjectNode writeSrid(final SRID srid) {
+    if (srid == null)
+      return null;
+    final ObjectNode node = NODES.objectNode();
+    node.put(VALUE, srid.toString());
+    node.put("dimension", srid.getDimension() == null ? null : srid.getDimension().name());
+    return node;
+  }
+
+  static SRID readSrid(final JsonNode node) {
+    if (node.isMissingNode() || node.isNull())
+      return null;
+    final SRID srid = SRID.valueOf(text(node, VALUE));
+    final String dimension = text(node, "dimension");
+    if (dimension != null)
+      srid.setDimension(Dimension.valueOf(dimension));
+    return srid;
+  }
+
+  /**
+   * @return True if a list was not given, so that null can be restored
+   */
+  private static boolean isAbsent(final JsonNode nodes) {
+    return nodes.isMissingNode() || nodes.isNull();
+  }
+
+  /**
+   * @return The value of a field or null if the field is missing or null
+   */
+  static Integer integer(final JsonNode node, final String fieldName) {
+    final JsonNode value = node.path(fieldName);
+    return value.isMissingNode() || value.isNull() ? null : value.asInt();
+  }
+
+  /**
+   * @return The value of a field or null if the field is missing or null
+   */
+  static String text(final JsonNode node, final String fieldName) {
+    final JsonNode value = node.path(fieldName);
+    return value.isMissingNode() || value.isNull() ? null : value.asText();
+  }
+
+  private static ObjectNode writeExpression(final CsdlExpression expression) throws ODataJPAModelException {
+    if (expression == null)
+      return null;
+    final ObjectNode node = NODES.objectNode();
+    if (expression instanceof CsdlConstantExpression) {
+      node.put("kind", "Constant");
+      node.put(TYPE, ((CsdlConstantExpression) expression).getType().name());
+      node.put(VALUE, ((CsdlConstantExpression) expression).getValue());
+    } else if (expression instanceof CsdlCollection) {
+      node.put("kind", "Collection");
+      if (((CsdlCollection) expression).getItems() != null) {
+        final ArrayNode items = node.putArray("items");
+        for (final CsdlExpression item : ((CsdlCollection) expression).getItems())
+          items.add(writeExpression(item));
+      }
+    } else if (expression instanceof CsdlRecord) {
+      node.put("kind", "Record");
+      node.put(TYPE, ((CsdlRecord) expression).getType());
+      if (((CsdlRecord) expression).getPropertyValues() != null) {
+        final ArrayNode values = node.putArray("propertyValues");
+        for (final CsdlPropertyValue value : ((CsdlRecord) expression).getPropertyValues()) {
+          final ObjectNode valueNode = values.addObject();
+          valueNode.put("property", value.getProperty());
+          valueNode.set(VALUE, writeExpression(value.getValue()));
+          valueNode.set(ANNOTATIONS, writeAnnotations(value.getAnnotations()));
+        }
+      }
+      node.set(ANNOTATIONS, writeAnnotations(((CsdlRecord) expression).getAnnotations()));
+    } else if (expression instanceof CsdlNull) {
+      node.put("kind", "Null");
+      node.set(ANNOTATIONS, writeAnnotations(((CsdlNull) expression).getAnnotations()));
+    } else if (expression instanceof CsdlPath) {
+      node.put("kind", "Path").put(VALUE, ((CsdlPath) expression).getValue());
+    } else if (expression instanceof CsdlPropertyPath) {
+      node.put("kind", "PropertyPath").put(VALUE, ((CsdlPropertyPath) expression).getValue());
+    } else if (expression instanceof CsdlNavigationPropertyPath) {
+      node.put("kind", "NavigationPropertyPath").put(VALUE, ((CsdlNavigationPropertyPath) expression).getValue());
+    } else if (expression instanceof CsdlAnnotationPath) {
+      node.put("kind", "AnnotationPath").put(VALUE, ((CsdlAnnotationPath) expression).getValue());
+    } else
+      throw new ODataJPAModelException(MessageKeys.SNAPSHOT_ELEMENT_NOT_SUPPORTED,
+          expression.getClass().getSimpleName());
+    return node;
+  }
+
+  private static CsdlExpression readExpression(final JsonNode node) {
+    if (node.isMissingNode() || node.isNull())
+      return null;
+    final String kind = text(node, "kind");
+    switch (kind) {
+    case "Constant":
+      return new CsdlConstantExpression(ConstantExpressionType.valueOf(text(node, TYPE)), text(node, VALUE));
+    case "Collection":
+      final List<CsdlExpression> items = node.has("items") ? new ArrayList<>() : null;
+      for (final JsonNode item : node.path("items"))
+        items.add(readExpression(item));
+      return new CsdlCollection().setItems(items);
+    case "Record":
+      final List<CsdlPropertyValue> values = node.has("propertyValues") ? new ArrayList<>() : null;
+      for (final JsonNode valueNode : node.path("propertyValues")) {
+        values.add(new CsdlPropertyValue().setProperty(text(valueNode, "property"))
+            .setValue(readExpression(valueNode.path(VALUE)))
+            .setAnnotations(readAnnotations(valueNode.path(ANNOTATIONS))));
+      }
+      return new CsdlRecord().setType(text(node, TYPE)).setPropertyValues(values)
+          .setAnnotations(readAnnotations(node.path(ANNOTATIONS)));
+    case "Null":
+      return new CsdlNull().setAnnotations(readAnnotations(node.path(ANNOTATIONS)));
+    case "Path":
+      return new CsdlPath().setValue(text(node, VALUE));
+    case "PropertyPath":
+      return new CsdlPropertyPath().setValue(text(node, VALUE));
+    case "NavigationPropertyPath":
+      return new CsdlNavigationPropertyPath().setValue(text(node, VALUE));
+    case "AnnotationPath":
+      return new CsdlAnnotationPath().setValue(text(node, VALUE));
+    default:
+      throw new IllegalArgumentException(kind);
+    }
+  }
+
+  private static ObjectNode writeMapping(final CsdlMapping mapping) {
+    if (mapping == null)
+      return null;
+    final ObjectNode node = NODES.objectNode();
+    node.put("internalName", mapping.getInternalName());
+    node.put("mappedJavaClass", mapping.getMappedJavaClass() == null ? null : mapping.getMappedJavaClass()
+        .getName());
+    return node;
+  }
+
+  private static CsdlMapping readMapping(final JsonNode node, final ClassLoader loader)
+      throws ClassNotFoundException {
+    if (node.isMissingNode() || node.isNull())
+      return null;
+    final String mappedJavaClass = text(node, "mappedJavaClass");
+    return new CsdlMapping().setInternalName(text(node, "internalName"))
+        .setMappedJavaClass(mappedJavaClass == null ? null : JPASnapshotReader.loadClass(mappedJavaClass, loader));
+  }
+
+  private static ObjectNode writeParameter(final CsdlParameter parameter) throws ODataJPAModelException {
+    final ObjectNode node = NODES.objectNode();
+    node.put(NAME, parameter.getName());
+    node.put(TYPE, parameter.getType());
+    node.put(COLLECTION, parameter.isCollection());
+    node.put(NULLABLE, parameter.isNullable());
+    node.put("maxLength", parameter.getMaxLength());
+    node.put("precision", parameter.getPrecision());
+    node.put("scale", parameter.getScale());
+    node.set("srid", writeSrid(parameter.getSrid()));
+    node.set("mapping", writeMapping(parameter.getMapping()));
+    node.set(ANNOTATIONS, writeAnnotations(parameter.getAnnotations()));
+    return node;
+  }
+
+  private static CsdlParameter readParameter(final JsonNode node, final ClassLoader loader)
+      throws ClassNotFoundException {
+    final CsdlParameter parameter = new CsdlParameter();
+    parameter.setName(text(node, NAME));
+    parameter.setType(text(node, TYPE));
+    parameter.setCollection(node.path(COLLECTION).asBoolean());
+    parameter.setNullable(node.path(NULLABLE).asBoolean(true));
+    parameter.setMaxLength(integer(node, "maxLength"));
+    parameter.setPrecision(integer(node, "precision"));
+    parameter.setScale(integer(node, "scale"));
+    parameter.setSrid(readSrid(node.path("srid")));
+    parameter.setMapping(readMapping(node.path("mapping"), loader));
+    parameter.setAnnotations(readAnnotations(node.path(ANNOTATIONS)));
+    return parameter;
+  }
+
+  private static ObjectNode writeReturnType(final CsdlReturnType returnType) {
+    final ObjectNode node = NODES.objectNode();
+    node.put(TYPE, returnType.getType());
+    node.put(COLLECTION, returnType.isCollection());
+    node.put(NULLABLE, returnType.isNullable());
+    node.put("maxLength", returnType.getMaxLength());
+    node.put("precision", returnType.getPrecision());
+    node.put("scale", returnType.getScale());
+    node.set("srid", writeSrid(returnType.getSrid()));
+    return node;
+  }
+
+  private static CsdlReturnType readReturnType(final JsonNode node) {
+    final CsdlReturnType returnType = new CsdlReturnType();
+    returnType.setType(text(node, TYPE));
+    returnType.setCollection(node.path(COLLECTION).asBoolean());
+    returnType.setNullable(node.path(NULLABLE).asBoolean(true));
+    returnType.setMaxLength(integer(node, "maxLength"));
+    returnType.setPrecision(integer(node, "precision"));
+    returnType.setScale(integer(node, "scale"));
+    returnType.setSrid(readSrid(node.path("srid")));
+    return returnType;
+  }
+}
@@ -0,0 +1,28 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import com.sap.olingo.jpa.metadata.core.edm.annotation.EdmFunctionType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPADataBaseFunction;
+
+/**
+ * Function restored from a model snapshot, which is implemented by the database, see {@link JPAEdmModelSnapshot}
+ * @author Oliver Grande
+ *
+ */
+final class JPASnapshotDataBaseFunction extends JPASnapshotOperation implements JPADataBaseFunction {
+  private final String dbName;
+
+  JPASnapshotDataBaseFunction(final String externalName, final boolean bound, final String dbName) {
+    super(externalName, bound, null, null);
+    this.dbName = dbName;
+  }
+
+  @Override
+  public String getDBName() {
+    return dbName;
+  }
+
+  @Override
+  public EdmFunctionType getFunctionType() {
+    return EdmFunctionType.UserDefinedFunction;
+  }
+}
@@ -0,0 +1,56 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.util.HashMap;
+
+import javax.persistence.AttributeConverter;
+
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPADescriptionAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+
+/**
+ * Description property restored from a model snapshot, see {@link JPAEdmModelSnapshot}
+ * @author Oliver Grande
+ *
+ */
+final class JPASnapshotDescriptionAttribute extends JPASnapshotAttribute implements JPADescriptionAttribute {
+  private final boolean locationJoin;
+  JPAAttribute descriptionAttribute;
+  JPAPath localeFieldName;
+  HashMap<JPAPath, String> fixedValueAssignment;
+
+  JPASnapshotDescriptionAttribute(final String internalName, final String externalName,
+      final FullQualifiedName externalFQN, final Class<?> type, final Class<?> javaType,
+      final AttributeConverter<?, ?> converter, final boolean complex, final boolean key, final boolean searchable,
+      final boolean enumeration, final boolean locationJoin) {
+    super(internalName, externalName, externalFQN, type, javaType, converter, complex, key, searchable, enumeration);
+    this.locationJoin = locationJoin;
+  }
+
+  @Override
+  public JPAAttribute getDescriptionAttribute() {
+    return descriptionAttribute;
+  }
+
+  @Override
+  public HashMap<JPAPath, String> getFixedValueAssignment() {
+    return fixedValueAssignment;
+  }
+
+  @Override
+  public JPAPath getLocaleFieldName() {
+    return localeFieldName;
+  }
+
+  @Override
+  public boolean isAssociation() {
+    return true;
+  }
+
+  @Override
+  public boolean isLocationJoin() {
+    return locationJoin;
+  }
+}
@@ -0,0 +1,52 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntitySet;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+
+/**
+ * Entity set restored from a model snapshot, see {@link JPAEdmModelSnapshot}
+ * @author Oliver Grande
+ *
+ */
+final class JPASnapshotEntitySet implements JPAEntitySet {
+  private final String internalName;
+  private final String externalName;
+  private final FullQualifiedName externalFQN;
+  JPAEntityType entityType;
+  JPAEntityType odataEntityType;
+
+  JPASnapshotEntitySet(final String internalName, final String externalName, final FullQualifiedName externalFQN) {
+    super();
+    this.internalName = internalName;
+    this.externalName = externalName;
+    this.externalFQN = externalFQN;
+  }
+
+  @Override
+  public JPAEntityType getEntityType() {
+    return entityType;
+  }
+
+  @Override
+  public FullQualifiedName getExternalFQN() {
+    return externalFQN;
+  }
+
+  @Override
+  public String getExternalName() {
+    return externalName;
+  }
+
+  @Override
+  public String getInternalName() {
+    return internalName;
+  }
+
+  @Override
+  public JPAEntityType getODataEntityType() throws ODataJPAModelException {
+    return odataEntityType;
+  }
+}
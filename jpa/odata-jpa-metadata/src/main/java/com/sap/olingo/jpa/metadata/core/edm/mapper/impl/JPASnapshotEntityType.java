@@ -0,0 +1,100 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+
+/**
+ * Entity type restored from a model snapshot, see {@link JPAEdmModelSnapshot}
+ * @author Oliver Grande
+ *
+ */
+final class JPASnapshotEntityType extends JPASnapshotStructuredType implements JPAEntityType {
+  private final String tableName;
+  private final Class<?> keyType;
+  private final boolean hasEtag;
+  private final boolean hasStream;
+  private final String contentType;
+  List<JPAAttribute> key;
+  List<JPAPath> keyPath;
+  List<JPAPath> searchablePath;
+  JPAPath streamAttributePath;
+  JPAPath contentTypeAttributePath;
+
+  JPASnapshotEntityType(final String internalName, final String externalName, final FullQualifiedName externalFQN,
+      final Class<?> typeClass, final boolean isAbstract, final String tableName, final Class<?> keyType,
+      final boolean hasEtag, final boolean hasStream, final String contentType) {
+    super(internalName, externalName, externalFQN, typeClass, isAbstract);
+    this.tableName = tableName;
+    this.keyType = keyType;
+    this.hasEtag = hasEtag;
+    this.hasStream = hasStream;
+    this.contentType = contentType;
+  }
+
+  @Override
+  public String getContentType() throws ODataJPAModelException {
+    return contentType;
+  }
+
+  @Override
+  public JPAPath getContentTypeAttributePath() throws ODataJPAModelException {
+    return contentTypeAttributePath;
+  }
+
+  @Override
+  public List<JPAAttribute> getKey() throws ODataJPAModelException {
+    return key;
+  }
+
+  @Override
+  public List<JPAPath> getKeyPath() throws ODataJPAModelException {
+    return new ArrayList<>(keyPath);
+  }
+
+  @Override
+  public Class<?> getKeyType() {
+    return keyType;
+  }
+
+  @Override
+  public List<JPAPath> getSearchablePath() throws ODataJPAModelException {
+    return new ArrayList<>(searchablePath);
+  }
+
+  @Override
+  public JPAPath getStreamAttributePath() throws ODataJPAModelException {
+    return streamAttributePath;
+  }
+
+  @Override
+  public String getTableName() {
+    return tableName;
+  }
+
+  @Override
+  public boolean hasEtag() throws ODataJPAModelException {
+    return hasEtag;
+  }
+
+  @Override
+  public boolean hasStream() throws ODataJPAModelException {
+    return hasStream;
+  }
+
+  @Override
+  public List<JPAPath> searchChildPath(final JPAPath selectItemPath) {
+    final List<JPAPath> result = new ArrayList<>();
+    for (final JPAPath path : resolvedPaths) {
+      if (!path.ignore() && path.getAlias().startsWith(selectItemPath.getAlias()))
+        result.add(path);
+    }
+    return result;
+  }
+}
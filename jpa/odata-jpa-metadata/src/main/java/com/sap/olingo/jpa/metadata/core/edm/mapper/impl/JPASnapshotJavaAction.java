@@ -0,0 +1,26 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAction;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAParameter;
+
+/**
+ * Action restored from a model snapshot, see {@link JPAEdmModelSnapshot}
+ * @author Oliver Grande
+ *
+ */
+final class JPASnapshotJavaAction extends JPASnapshotOperation implements JPAAction {
+
+  JPASnapshotJavaAction(final String externalName, final boolean bound, final Method method,
+      final Constructor<?> constructor) {
+    super(externalName, bound, method, constructor);
+  }
+
+  @Override
+  public JPAParameter getParameter(final Parameter declairedParameter) {
+    return getParameter(declairedParameter.getName());
+  }
+}
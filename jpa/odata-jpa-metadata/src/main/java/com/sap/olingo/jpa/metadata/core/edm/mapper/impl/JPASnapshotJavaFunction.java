@@ -0,0 +1,25 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+import com.sap.olingo.jpa.metadata.core.edm.annotation.EdmFunctionType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAJavaFunction;
+
+/**
+ * Function restored from a model snapshot, which is implemented in java, see {@link JPAEdmModelSnapshot}
+ * @author Oliver Grande
+ *
+ */
+final class JPASnapshotJavaFunction extends JPASnapshotOperation implements JPAJavaFunction {
+
+  JPASnapshotJavaFunction(final String externalName, final boolean bound, final Method method,
+      final Constructor<?> constructor) {
+    super(externalName, bound, method, constructor);
+  }
+
+  @Override
+  public EdmFunctionType getFunctionType() {
+    return EdmFunctionType.JavaClass;
+  }
+}
@@ -0,0 +1,80 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAJoinTable;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAOnConditionItem;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+
+/**
+ * Join table restored from a model snapshot, see {@link JPAEdmModelSnapshot}. The columns are kept as pairs of column
+ * name and referenced column name, like {@link IntermediateJoinColumn} does.
+ * @author Oliver Grande
+ *
+ */
+final class JPASnapshotJoinTable implements JPAJoinTable {
+  private final String tableName;
+  private final String[][] joinColumns;
+  private final String[][] inverseJoinColumns;
+  JPAEntityType entityType;
+  List<JPAPath> joinColumnsLeft;
+  List<JPAPath> joinColumnsRight;
+  List<JPAPath> inverseJoinColumnsLeft;
+  List<JPAPath> inverseJoinColumnsRight;
+
+  JPASnapshotJoinTable(final String tableName, final String[][] joinColumns, final String[][] inverseJoinColumns) {
+    super();
+    this.tableName = tableName;
+    this.joinColumns = joinColumns;
+    this.inverseJoinColumns = inverseJoinColumns;
+  }
+
+  @Override
+  public String getAlias(final String dbFieldName) {
+    return findReferencedColumn(joinColumns, dbFieldName);
+  }
+
+  @Override
+  public JPAEntityType getEntityType() {
+    return entityType;
+  }
+
+  @Override
+  public String getInverseAlias(final String dbFieldName) {
+    return findReferencedColumn(inverseJoinColumns, dbFieldName);
+  }
+
+  @Override
+  public List<JPAOnConditionItem> getInversJoinColumns() throws ODataJPAModelException {
+    return createOnCondition(inverseJoinColumnsLeft, inverseJoinColumnsRight);
+  }
+
+  @Override
+  public List<JPAOnConditionItem> getJoinColumns() throws ODataJPAModelException {
+    return createOnCondition(joinColumnsLeft, joinColumnsRight);
+  }
+
+  @Override
+  public String getTableName() {
+    return tableName;
+  }
+
+  private List<JPAOnConditionItem> createOnCondition(final List<JPAPath> left, final List<JPAPath> right)
+      throws ODataJPAModelException {
+    final List<JPAOnConditionItem> result = new ArrayList<>(left.size());
+    for (int i = 0; i < left.size(); i++)
+      result.add(new JPAOnConditionItemImpl(left.get(i), right.get(i)));
+    return result;
+  }
+
+  private String findReferencedColumn(final String[][] columns, final String dbFieldName) {
+    for (final String[] column : columns) {
+      if (column[0].equals(dbFieldName))
+        return column[1];
+    }
+    return null;
+  }
+}
@@ -0,0 +1,51 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAStructuredType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+
+/**
+ * Navigation property restored from a model snapshot, see {@link JPAEdmModelSnapshot}. The structured type of a
+ * navigation property is its source type.
+ * @author Oliver Grande
+ *
+ */
+final class JPASnapshotNavigationProperty extends JPASnapshotAttribute implements JPAAssociationAttribute {
+  private final boolean collection;
+  JPAStructuredType targetEntity;
+  JPAAssociationAttribute partner;
+
+  JPASnapshotNavigationProperty(final String internalName, final String externalName,
+      final FullQualifiedName externalFQN, final Class<?> type, final boolean collection) {
+    super(internalName, externalName, externalFQN, type, null, null, false, false, false, false);
+    this.collection = collection;
+  }
+
+  @Override
+  public JPAAssociationAttribute getPartner() {
+    return partner;
+  }
+
+  @Override
+  public JPAAssociationPath getPath() throws ODataJPAModelException {
+    return getStructuredType().getAssociationPath(getExternalName());
+  }
+
+  @Override
+  public JPAStructuredType getTargetEntity() throws ODataJPAModelException {
+    return targetEntity;
+  }
+
+  @Override
+  public boolean isAssociation() {
+    return true;
+  }
+
+  @Override
+  public boolean isCollection() {
+    return collection;
+  }
+}
@@ -0,0 +1,75 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.provider.CsdlOperation;
+import org.apache.olingo.commons.api.edm.provider.CsdlReturnType;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAOperation;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAOperationResultParameter;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAParameter;
+
+/**
+ * Function or action restored from a model snapshot, see {@link JPAEdmModelSnapshot}. Method and constructor are only
+ * given for operations implemented in java.
+ * @author Oliver Grande
+ *
+ */
+abstract class JPASnapshotOperation implements JPAOperation {
+  private final String externalName;
+  private final boolean bound;
+  private final Method method;
+  private final Constructor<?> constructor;
+  CsdlOperation edmOperation;
+  List<JPAParameter> parameters;
+  JPAOperationResultParameter resultParameter;
+
+  JPASnapshotOperation(final String externalName, final boolean bound, final Method method,
+      final Constructor<?> constructor) {
+    super();
+    this.externalName = externalName;
+    this.bound = bound;
+    this.method = method;
+    this.constructor = constructor;
+  }
+
+  public Constructor<?> getConstructor() {
+    return constructor;
+  }
+
+  public Method getMethod() {
+    return method;
+  }
+
+  public List<JPAParameter> getParameter() {
+    return parameters;
+  }
+
+  public JPAParameter getParameter(final String internalName) {
+    for (final JPAParameter parameter : parameters) {
+      if (parameter.getInternalName().equals(internalName))
+        return parameter;
+    }
+    return null;
+  }
+
+  @Override
+  public JPAOperationResultParameter getResultParameter() {
+    return resultParameter;
+  }
+
+  @Override
+  public CsdlReturnType getReturnType() {
+    return edmOperation.getReturnType();
+  }
+
+  public boolean isBound() {
+    return bound;
+  }
+
+  String getExternalName() {
+    return externalName;
+  }
+}
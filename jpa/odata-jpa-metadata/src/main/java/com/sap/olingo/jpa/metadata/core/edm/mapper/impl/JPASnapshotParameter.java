@@ -0,0 +1,85 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.edm.geo.SRID;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAOperationResultParameter;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAParameter;
+
+/**
+ * Parameter or result parameter of an operation restored from a model snapshot, see {@link JPAEdmModelSnapshot}. The
+ * facets are the ones given at the annotation of the parameter.
+ * @author Oliver Grande
+ *
+ */
+final class JPASnapshotParameter implements JPAParameter, JPAOperationResultParameter {
+  private final String internalName;
+  private final String name;
+  private final Class<?> type;
+  private final FullQualifiedName typeFQN;
+  private final Integer maxLength;
+  private final Integer precision;
+  private final Integer scale;
+  private final SRID srid;
+  private final boolean isCollection;
+
+  JPASnapshotParameter(final String internalName, final String name, final Class<?> type,
+      final FullQualifiedName typeFQN, final Integer maxLength, final Integer precision, final Integer scale,
+      final SRID srid, final boolean isCollection) {
+    super();
+    this.internalName = internalName;
+    this.name = name;
+    this.type = type;
+    this.typeFQN = typeFQN;
+    this.maxLength = maxLength;
+    this.precision = precision;
+    this.scale = scale;
+    this.srid = srid;
+    this.isCollection = isCollection;
+  }
+
+  @Override
+  public String getInternalName() {
+    return internalName;
+  }
+
+  @Override
+  public Integer getMaxLength() {
+    return maxLength;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public Integer getPrecision() {
+    return precision;
+  }
+
+  @Override
+  public Integer getScale() {
+    return scale;
+  }
+
+  @Override
+  public SRID getSrid() {
+    return srid;
+  }
+
+  @Override
+  public Class<?> getType() {
+    return type;
+  }
+
+  @Override
+  public FullQualifiedName getTypeFQN() {
+    return typeFQN;
+  }
+
+  @Override
+  public boolean isCollection() {
+    return isCollection;
+  }
+}
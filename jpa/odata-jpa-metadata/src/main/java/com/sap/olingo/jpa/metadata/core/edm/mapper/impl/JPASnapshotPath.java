@@ -0,0 +1,93 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.util.List;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAElement;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+
+/**
+ * Path restored from a model snapshot, see {@link JPAEdmModelSnapshot}. Like {@link JPAPathImpl} two paths are equal,
+ * if they have the same alias and the same elements.
+ * @author Oliver Grande
+ *
+ */
+final class JPASnapshotPath implements JPAPath {
+  private final String alias;
+  private final String dbFieldName;
+  private final int id;
+  private final boolean ignore;
+  List<JPAElement> pathElements;
+
+  JPASnapshotPath(final String alias, final String dbFieldName, final int id, final boolean ignore) {
+    super();
+    this.alias = JPAPathImpl.intern(alias);
+    this.dbFieldName = JPAPathImpl.intern(dbFieldName);
+    this.id = id;
+    this.ignore = ignore;
+  }
+
+  @Override
+  public int compareTo(final JPAPath o) {
+    return this.alias.compareTo(o.getAlias());
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) return true;
+    if (obj == null) return false;
+    if (getClass() != obj.getClass()) return false;
+    final JPASnapshotPath other = (JPASnapshotPath) obj;
+    if (alias == null) {
+      if (other.alias != null) return false;
+    } else if (!alias.equals(other.alias)) return false;
+    if (pathElements == null) {
+      if (other.pathElements != null) return false;
+    } else if (!pathElements.equals(other.pathElements)) return false;
+    return true;
+  }
+
+  @Override
+  public String getAlias() {
+    return alias;
+  }
+
+  @Override
+  public String getDBFieldName() {
+    return dbFieldName;
+  }
+
+  @Override
+  public int getId() {
+    return id;
+  }
+
+  @Override
+  public JPAAttribute getLeaf() {
+    return (JPAAttribute) pathElements.get(pathElements.size() - 1);
+  }
+
+  @Override
+  public List<JPAElement> getPath() {
+    return pathElements;
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    result = prime * result + ((alias == null) ? 0 : alias.hashCode());
+    result = prime * result + ((pathElements == null) ? 0 : pathElements.hashCode());
+    return result;
+  }
+
+  @Override
+  public boolean ignore() {
+    return ignore;
+  }
+
+  @Override
+  public String toString() {
+    return "JPASnapshotPath [alias=" + alias + ", dbFieldName=" + dbFieldName + ", id=" + id + "]";
+  }
+}
@@ -0,0 +1,482 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.AttributeConverter;
+
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.edm.provider.CsdlAction;
+import org.apache.olingo.commons.api.edm.provider.CsdlComplexType;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntityContainer;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntitySet;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntityType;
+import org.apache.olingo.commons.api.edm.provider.CsdlEnumType;
+import org.apache.olingo.commons.api.edm.provider.CsdlFunction;
+import org.apache.olingo.commons.api.edm.provider.CsdlNavigationProperty;
+import org.apache.olingo.commons.api.edm.provider.CsdlOperation;
+import org.apache.olingo.commons.api.edm.provider.CsdlProperty;
+import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
+import org.apache.olingo.commons.api.edm.provider.CsdlStructuralType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sap.olingo.jpa.metadata.api.JPAEdmMetadataPostProcessor;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAElement;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAParameter;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAServiceDocument;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+
+/**
+ * Restores a service document from a model snapshot written by {@link JPASnapshotWriter}. First all elements are
+ * created, afterwards they are linked via the indices stored in the snapshot. The enumeration types are created from
+ * their java classes and the references are requested from the post processor, as they are not part of the snapshot.
+ * @author Oliver Grande
+ *
+ */
+final class JPASnapshotReader {
+  private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+  static {
+    for (final Class<?> primitive : new Class<?>[] { boolean.class, byte.class, char.class, short.class, int.class,
+        long.class, float.class, double.class, void.class })
+      PRIMITIVES.put(primitive.getName(), primitive);
+  }
+
+  private final String namespace;
+  private final JPAEdmMetadataPostProcessor postProcessor;
+  private final ClassLoader loader;
+  private final List<JPASnapshotStructuredType> types = new ArrayList<>();
+  private final List<CsdlStructuralType> edmTypes = new ArrayList<>();
+  private final List<JPASnapshotAttribute> attributes = new ArrayList<>();
+  private final List<JPASnapshotPath> paths = new ArrayList<>();
+  private final List<JPASnapshotAssociationPath> associationPaths = new ArrayList<>();
+  private final List<JPASnapshotJoinTable> joinTables = new ArrayList<>();
+  private final List<JPASnapshotEntitySet> entitySets = new ArrayList<>();
+  private final List<JPASnapshotOperation> operations = new ArrayList<>();
+
+  JPASnapshotReader(final String namespace, final JPAEdmMetadataPostProcessor postProcessor,
+      final ClassLoader loader) {
+    super();
+    this.namespace = namespace;
+    this.postProcessor = postProcessor;
+    this.loader = loader;
+  }
+
+  /**
+   * Loads a class by the name provided by {@link Class#getName()}, which includes primitive types
+   */
+  static Class<?> loadClass(final String className, final ClassLoader loader) throws ClassNotFoundException {
+    final Class<?> primitive = PRIMITIVES.get(className);
+    return primitive != null ? primitive : Class.forName(className, false, loader);
+  }
+
+  JPAServiceDocument read(final JsonNode root) throws ODataJPAModelException, ReflectiveOperationException {
+    for (final JsonNode node : root.path(JPASnapshotWriter.TYPES))
+      types.add(createType(node));
+    for (final JsonNode node : root.path(JPASnapshotWriter.ATTRIBUTES))
+      attributes.add(createAttribute(node));
+    for (final JsonNode node : root.path(JPASnapshotWriter.PATHS))
+      paths.add(new JPASnapshotPath(JPASnapshotCsdl.text(node, "alias"), JPASnapshotCsdl.text(node, "dbFieldName"),
+          node.path("id").asInt(), node.path("ignore").asBoolean()));
+    for (final JsonNode node : root.path(JPASnapshotWriter.ASSOCIATION_PATHS))
+      associationPaths.add(new JPASnapshotAssociationPath(JPASnapshotCsdl.text(node, "alias"), node.path("id")
+          .asInt(), node.path("collection").asBoolean()));
+    for (final JsonNode node : root.path(JPASnapshotWriter.JOIN_TABLES))
+      joinTables.add(new JPASnapshotJoinTable(JPASnapshotCsdl.text(node, "tableName"), readColumns(node.path(
+          "joinColumns")), readColumns(node.path("inverseJoinColumns"))));
+    for (final JsonNode node : root.path(JPASnapshotWriter.ENTITY_SETS))
+      entitySets.add(new JPASnapshotEntitySet(JPASnapshotCsdl.text(node, "internalName"), JPASnapshotCsdl.text(node,
+          "externalName"), fqn(node, "externalFQN")));
+    for (final JsonNode node : root.path(JPASnapshotWriter.OPERATIONS))
+      operations.add(createOperation(node));
+
+    // Paths are keys of the fixed value assignments, so they have to be complete before the attributes are linked
+    linkPaths(root.path(JPASnapshotWriter.PATHS));
+    linkAttributes(root.path(JPASnapshotWriter.ATTRIBUTES));
+    linkAssociationPaths(root.path(JPASnapshotWriter.ASSOCIATION_PATHS));
+    linkJoinTables(root.path(JPASnapshotWriter.JOIN_TABLES));
+    linkEntitySets(root.path(JPASnapshotWriter.ENTITY_SETS));
+    linkTypes(root.path(JPASnapshotWriter.TYPES));
+    linkOperations(root.path(JPASnapshotWriter.OPERATIONS));
+    return createServiceDocument(root.path("schema"));
+  }
+
+  private JPASnapshotAttribute createAttribute(final JsonNode node) throws ReflectiveOperationException {
+    final String kind = JPASnapshotCsdl.text(node, "kind");
+    final String internalName = JPASnapshotCsdl.text(node, "internalName");
+    final String externalName = JPASnapshotCsdl.text(node, "externalName");
+    final FullQualifiedName externalFQN = fqn(node, "externalFQN");
+    final Class<?> type = type(node, "type");
+    if ("navigation".equals(kind))
+      return new JPASnapshotNavigationProperty(internalName, externalName, externalFQN, type, node.path("collection")
+          .asBoolean());
+    final Class<?> javaType = type(node, "javaType");
+    final String converterName = JPASnapshotCsdl.text(node, "converter");
+    final AttributeConverter<?, ?> converter = converterName == null ? null : (AttributeConverter<?, ?>) loadClass(
+        converterName, loader).getDeclaredConstructor().newInstance();
+    final boolean complex = node.path("complex").asBoolean();
+    final boolean key = node.path("key").asBoolean();
+    final boolean searchable = node.path("searchable").asBoolean();
+    final boolean enumeration = node.path("enumeration").asBoolean();
+    if ("description".equals(kind))
+      return new JPASnapshotDescriptionAttribute(internalName, externalName, externalFQN, type, javaType, converter,
+          complex, key, searchable, enumeration, node.path("locationJoin").asBoolean());
+    return new JPASnapshotAttribute(internalName, externalName, externalFQN, type, javaType, converter, complex, key,
+        searchable, enumeration);
+  }
+
+  private JPASnapshotOperation createOperation(final JsonNode node) throws ReflectiveOperationException {
+    final String kind = JPASnapshotCsdl.text(node, "kind");
+    final String externalName = JPASnapshotCsdl.text(node, "externalName");
+    final JPASnapshotOperation operation;
+    final CsdlOperation edmOperation;
+    if ("javaAction".equals(kind)) {
+      edmOperation = JPASnapshotCsdl.readOperation(node.path("edm"), new CsdlAction(), loader);
+      operation = new JPASnapshotJavaAction(externalName, edmOperation.isBound(), readMethod(node.path("method")),
+          readConstructor(node.path("constructor")));
+    } else {
+      edmOperation = JPASnapshotCsdl.readOperation(node.path("edm"), new CsdlFunction(), loader);
+      if ("javaFunction".equals(kind))
+        operation = new JPASnapshotJavaFunction(externalName, edmOperation.isBound(), readMethod(node.path(
+            "method")), readConstructor(node.path("constructor")));
+      else
+        operation = new JPASnapshotDataBaseFunction(externalName, edmOperation.isBound(), JPASnapshotCsdl.text(node,
+            "dbName"));
+    }
+    operation.edmOperation = edmOperation;
+    return operation;
+  }
+
+  private JPAServiceDocument createServiceDocument(final JsonNode schemaNode) throws ODataJPAModelException,
+      ClassNotFoundException {
+
+    final JPAEdmNameBuilder nameBuilder = new JPAEdmNameBuilder(namespace, postProcessor);
+    final List<IntermediateEnumerationType> enumerations = new ArrayList<>();
+    final Map<String, IntermediateEnumerationType> enumerationTypes = new HashMap<>();
+    for (final JsonNode enumeration : schemaNode.path("enumerations")) {
+      @SuppressWarnings("unchecked")
+      final IntermediateEnumerationType enumerationType = new IntermediateEnumerationType(nameBuilder,
+          (Class<? extends Enum<?>>) loadClass(enumeration.asText(), loader));
+      enumerations.add(enumerationType);
+      enumerationTypes.put(enumerationType.getInternalName(), enumerationType);
+    }
+    final List<JPASnapshotEntityType> entityTypes = new ArrayList<>();
+    for (final JsonNode ref : schemaNode.path("entityTypes"))
+      entityTypes.add((JPASnapshotEntityType) types.get(ref.asInt()));
+    final List<JPASnapshotStructuredType> complexTypes = new ArrayList<>();
+    for (final JsonNode ref : schemaNode.path("complexTypes"))
+      complexTypes.add(types.get(ref.asInt()));
+    final List<JPASnapshotOperation> functions = new ArrayList<>();
+    for (final JsonNode ref : schemaNode.path("functions"))
+      functions.add(operations.get(ref.asInt()));
+    final List<JPASnapshotOperation> actions = new ArrayList<>();
+    for (final JsonNode ref : schemaNode.path("actions"))
+      actions.add(operations.get(ref.asInt()));
+    final List<JPASnapshotEntitySet> containerEntitySets = new ArrayList<>();
+    for (final JsonNode ref : schemaNode.path("entitySets"))
+      containerEntitySets.add(entitySets.get(ref.asInt()));
+
+    final JsonNode edmNode = schemaNode.path("edm");
+    final CsdlSchema edmSchema = new CsdlSchema();
+    edmSchema.setNamespace(JPASnapshotCsdl.text(edmNode, "namespace"));
+    if (edmNode.has("enumTypes")) {
+      final List<CsdlEnumType> enumTypes = new ArrayList<>();
+      for (final JsonNode ref : edmNode.path("enumTypes"))
+        enumTypes.add(enumerations.get(ref.asInt()).getEdmItem());
+      edmSchema.setEnumTypes(enumTypes);
+    } else
+      edmSchema.setEnumTypes(null);
+    edmSchema.setComplexTypes(this.<CsdlComplexType> readItemRefs(edmNode.path("complexTypes"), edmTypes));
+    edmSchema.setEntityTypes(this.<CsdlEntityType> readItemRefs(edmNode.path("entityTypes"), edmTypes));
+    final List<CsdlOperation> edmOperations = new ArrayList<>();
+    for (final JPASnapshotOperation operation : operations)
+      edmOperations.add(operation.edmOperation);
+    edmSchema.setFunctions(this.<CsdlFunction> readItemRefs(edmNode.path("functions"), edmOperations));
+    edmSchema.setActions(this.<CsdlAction> readItemRefs(edmNode.path("actions"), edmOperations));
+
+    final JsonNode containerNode = schemaNode.path("container");
+    final CsdlEntityContainer edmContainer = new CsdlEntityContainer();
+    edmContainer.setName(JPASnapshotCsdl.text(containerNode, "name"));
+    final List<CsdlEntitySet> edmEntitySets = new ArrayList<>();
+    for (final JsonNode entitySet : containerNode.path("entitySets"))
+      edmEntitySets.add(JPASnapshotCsdl.readEntitySet(entitySet));
+    edmContainer.setEntitySets(edmEntitySets);
+    edmContainer.setFunctionImports(JPASnapshotCsdl.readFunctionImports(containerNode.path("functionImports")));
+    edmContainer.setActionImports(JPASnapshotCsdl.readActionImports(containerNode.path("actionImports")));
+    edmContainer.setAnnotations(JPASnapshotCsdl.readAnnotations(containerNode.path("annotations")));
+    edmSchema.setEntityContainer(edmContainer);
+
+    final IntermediateReferences references = new IntermediateReferences();
+    postProcessor.provideReferences(references);
+    return new JPASnapshotServiceDocument(namespace, edmSchema, references, entityTypes, complexTypes, functions,
+        actions, enumerationTypes, containerEntitySets);
+  }
+
+  private JPASnapshotStructuredType createType(final JsonNode node) throws ClassNotFoundException {
+    final String internalName = JPASnapshotCsdl.text(node, "internalName");
+    final String externalName = JPASnapshotCsdl.text(node, "externalName");
+    final FullQualifiedName externalFQN = fqn(node, "externalFQN");
+    final Class<?> typeClass = type(node, "typeClass");
+    final boolean isAbstract = node.path("abstract").asBoolean();
+    if ("entity".equals(JPASnapshotCsdl.text(node, "kind")))
+      return new JPASnapshotEntityType(internalName, externalName, externalFQN, typeClass, isAbstract,
+          JPASnapshotCsdl.text(node, "tableName"), type(node, "keyType"), node.path("hasEtag").asBoolean(), node.path(
+              "hasStream").asBoolean(), JPASnapshotCsdl.text(node, "contentType"));
+    return new JPASnapshotStructuredType(internalName, externalName, externalFQN, typeClass, isAbstract);
+  }
+
+  private void linkAssociationPaths(final JsonNode nodes) {
+    int i = 0;
+    for (final JsonNode node : nodes) {
+      final JPASnapshotAssociationPath associationPath = associationPaths.get(i++);
+      associationPath.pathElements = readElements(node.path("elements"));
+      associationPath.sourceType = get(types, node, "sourceType");
+      associationPath.targetType = get(types, node, "targetType");
+      associationPath.partner = (JPAAssociationAttribute) get(attributes, node, "partner");
+      associationPath.joinTable = get(joinTables, node, "joinTable");
+      associationPath.joinColumnsLeft = readPairElements(node.path("joinColumns"), 0);
+      associationPath.joinColumnsRight = readPairElements(node.path("joinColumns"), 1);
+      associationPath.leftColumns = readList(paths, node.path("leftColumns"));
+      associationPath.rightColumns = readList(paths, node.path("rightColumns"));
+      if (node.has("inverseLeftJoinColumns"))
+        associationPath.inverseLeftJoinColumns = readList(paths, node.path("inverseLeftJoinColumns"));
+    }
+  }
+
+  private void linkAttributes(final JsonNode nodes) throws ClassNotFoundException {
+    int i = 0;
+    for (final JsonNode node : nodes) {
+      final JPASnapshotAttribute attribute = attributes.get(i++);
+      attribute.structuredType = get(types, node, "structuredType");
+      if (node.has("property"))
+        attribute.property = JPASnapshotCsdl.readProperty(node.path("property"), loader);
+      else if (node.has("navigationProperty"))
+        attribute.property = JPASnapshotCsdl.readNavigationProperty(node.path("navigationProperty"));
+      if (attribute instanceof JPASnapshotDescriptionAttribute) {
+        final JPASnapshotDescriptionAttribute description = (JPASnapshotDescriptionAttribute) attribute;
+        description.descriptionAttribute = get(attributes, node, "descriptionAttribute");
+        description.localeFieldName = get(paths, node, "localeFieldName");
+        if (node.has("fixedValueAssignment")) {
+          description.fixedValueAssignment = new HashMap<>();
+          for (final JsonNode fixedValue : node.path("fixedValueAssignment"))
+            description.fixedValueAssignment.put(get(paths, fixedValue, "path"), JPASnapshotCsdl.text(fixedValue,
+                "value"));
+        }
+      } else if (attribute instanceof JPASnapshotNavigationProperty) {
+        final JPASnapshotNavigationProperty navigation = (JPASnapshotNavigationProperty) attribute;
+        navigation.targetEntity = get(types, node, "targetEntity");
+        navigation.partner = (JPAAssociationAttribute) get(attributes, node, "partner");
+      }
+    }
+  }
+
+  private void linkEntitySets(final JsonNode nodes) {
+    int i = 0;
+    for (final JsonNode node : nodes) {
+      final JPASnapshotEntitySet entitySet = entitySets.get(i++);
+      entitySet.entityType = (JPAEntityType) get(types, node, "entityType");
+      entitySet.odataEntityType = (JPAEntityType) get(types, node, "odataEntityType");
+    }
+  }
+
+  private void linkJoinTables(final JsonNode nodes) {
+    int i = 0;
+    for (final JsonNode node : nodes) {
+      final JPASnapshotJoinTable joinTable = joinTables.get(i++);
+      joinTable.entityType = (JPAEntityType) get(types, node, "entityType");
+      if (node.has("joinColumnPairs")) {
+        joinTable.joinColumnsLeft = readPairElements(node.path("joinColumnPairs"), 0);
+        joinTable.joinColumnsRight = readPairElements(node.path("joinColumnPairs"), 1);
+        joinTable.inverseJoinColumnsLeft = readPairElements(node.path("inverseJoinColumnPairs"), 0);
+        joinTable.inverseJoinColumnsRight = readPairElements(node.path("inverseJoinColumnPairs"), 1);
+      }
+    }
+  }
+
+  private void linkOperations(final JsonNode nodes) throws ClassNotFoundException {
+    int i = 0;
+    for (final JsonNode node : nodes) {
+      final JPASnapshotOperation operation = operations.get(i++);
+      final List<JPAParameter> parameters = new ArrayList<>();
+      for (final JsonNode parameter : node.path("parameters"))
+        parameters.add(readParameter(parameter));
+      operation.parameters = Collections.unmodifiableList(parameters);
+      if (node.has("resultParameter"))
+        operation.resultParameter = readParameter(node.path("resultParameter"));
+    }
+  }
+
+  private void linkPaths(final JsonNode nodes) {
+    int i = 0;
+    for (final JsonNode node : nodes)
+      paths.get(i++).pathElements = readElements(node.path("elements"));
+  }
+
+  private void linkTypes(final JsonNode nodes) throws ClassNotFoundException {
+    int i = 0;
+    for (final JsonNode node : nodes) {
+      final JPASnapshotStructuredType type = types.get(i++);
+      type.baseType = get(types, node, "baseType");
+      type.attributes = readList(attributes, node.path("attributes"));
+      type.associations = readAssociations(node.path("associations"));
+      type.declaredAssociations = readAssociations(node.path("declaredAssociations"));
+      type.ownAssociations = readAssociations(node.path("ownAssociations"));
+      type.resolvedPaths = readList(paths, node.path("resolvedPaths"));
+      type.intermediatePaths = readList(paths, node.path("intermediatePaths"));
+      final List<JPAPath> pathsById = readList(paths, node.path("pathsById"));
+      type.pathsById = pathsById.toArray(new JPAPath[pathsById.size()]);
+      type.associationPaths = readList(associationPaths, node.path("associationPaths"));
+      final List<JPAAssociationPath> associationPathsById = readList(associationPaths, node.path(
+          "associationPathsById"));
+      type.associationPathsById = associationPathsById.toArray(new JPAAssociationPath[associationPathsById.size()]);
+      if (type instanceof JPASnapshotEntityType) {
+        final JPASnapshotEntityType entityType = (JPASnapshotEntityType) type;
+        entityType.key = Collections.unmodifiableList(readList(attributes, node.path("key")));
+        entityType.keyPath = readList(paths, node.path("keyPath"));
+        entityType.searchablePath = readList(paths, node.path("searchablePath"));
+        entityType.streamAttributePath = get(paths, node, "streamAttributePath");
+        entityType.contentTypeAttributePath = get(paths, node, "contentTypeAttributePath");
+      }
+      type.buildIndex();
+      edmTypes.add(readStructuralType(node.path("edm"), type instanceof JPASnapshotEntityType));
+    }
+  }
+
+  private List<JPAAssociationAttribute> readAssociations(final JsonNode refs) {
+    final List<JPAAssociationAttribute> result = new ArrayList<>();
+    for (final JsonNode ref : refs)
+      result.add((JPAAssociationAttribute) attributes.get(ref.asInt()));
+    return result;
+  }
+
+  private String[][] readColumns(final JsonNode nodes) {
+    final String[][] result = new String[nodes.size()][];
+    int i = 0;
+    for (final JsonNode column : nodes)
+      result[i++] = new String[] { column.get(0).isNull() ? null : column.get(0).asText(), column.get(1).isNull()
+          ? null : column.get(1).asText() };
+    return result;
+  }
+
+  private Constructor<?> readConstructor(final JsonNode node) throws ReflectiveOperationException {
+    if (node.isMissingNode() || node.isNull())
+      return null;
+    return loadClass(JPASnapshotCsdl.text(node, "declaringClass"), loader).getDeclaredConstructor(readTypes(node
+        .path("parameterTypes")));
+  }
+
+  private List<JPAElement> readElements(final JsonNode refs) {
+    final List<JPAElement> result = new ArrayList<>(refs.size());
+    for (final JsonNode ref : refs)
+      result.add(attributes.get(ref.asInt()));
+    return Collections.unmodifiableList(result);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> List<T> readItemRefs(final JsonNode refs, final List<?> items) {
+    if (refs.isMissingNode() || refs.isNull())
+      return null;
+    final List<T> result = new ArrayList<>();
+    for (final JsonNode ref : refs)
+      result.add((T) items.get(ref.asInt()));
+    return result;
+  }
+
+  private <T> List<T> readList(final List<? extends T> items, final JsonNode refs) {
+    final List<T> result = new ArrayList<>(refs.size());
+    for (final JsonNode ref : refs)
+      result.add(ref.asInt() < 0 ? null : items.get(ref.asInt()));
+    return result;
+  }
+
+  private Method readMethod(final JsonNode node) throws ReflectiveOperationException {
+    if (node.isMissingNode() || node.isNull())
+      return null;
+    return loadClass(JPASnapshotCsdl.text(node, "declaringClass"), loader).getDeclaredMethod(JPASnapshotCsdl.text(
+        node, "name"), readTypes(node.path("parameterTypes")));
+  }
+
+  private List<JPAPath> readPairElements(final JsonNode pairs, final int position) {
+    final List<JPAPath> result = new ArrayList<>(pairs.size());
+    for (final JsonNode pair : pairs) {
+      final int ref = pair.get(position).asInt();
+      result.add(ref < 0 ? null : paths.get(ref));
+    }
+    return result;
+  }
+
+  private JPASnapshotParameter readParameter(final JsonNode node) throws ClassNotFoundException {
+    return new JPASnapshotParameter(JPASnapshotCsdl.text(node, "internalName"), JPASnapshotCsdl.text(node, "name"),
+        type(node, "type"), fqn(node, "typeFQN"), JPASnapshotCsdl.integer(node, "maxLength"), JPASnapshotCsdl.integer(
+            node, "precision"), JPASnapshotCsdl.integer(node, "scale"), JPASnapshotCsdl.readSrid(node.path("srid")),
+        node.path("collection").asBoolean());
+  }
+
+  private CsdlStructuralType readStructuralType(final JsonNode node, final boolean isEntityType)
+      throws ClassNotFoundException {
+    final CsdlStructuralType type;
+    if (isEntityType) {
+      final CsdlEntityType entityType = new CsdlEntityType();
+      entityType.setHasStream(node.path("hasStream").asBoolean());
+      entityType.setKey(node.has("key") ? JPASnapshotCsdl.readPropertyRefs(node.path("key")) : null);
+      type = entityType;
+    } else
+      type = new CsdlComplexType();
+    type.setName(JPASnapshotCsdl.text(node, "name"));
+    if (JPASnapshotCsdl.text(node, "baseType") != null)
+      type.setBaseType(JPASnapshotCsdl.text(node, "baseType"));
+    type.setAbstract(node.path("abstract").asBoolean());
+    type.setOpenType(node.path("openType").asBoolean());
+    if (node.has("properties")) {
+      final List<CsdlProperty> properties = new ArrayList<>();
+      for (final JsonNode property : node.path("properties"))
+        properties.add(property.has("attribute") ? (CsdlProperty) attributes.get(property.path("attribute").asInt())
+            .property : JPASnapshotCsdl.readProperty(property, loader));
+      type.setProperties(properties);
+    } else
+      type.setProperties(null);
+    if (node.has("navigationProperties")) {
+      final List<CsdlNavigationProperty> properties = new ArrayList<>();
+      for (final JsonNode property : node.path("navigationProperties"))
+        properties.add(property.has("attribute") ? (CsdlNavigationProperty) attributes.get(property.path(
+            "attribute").asInt()).property : JPASnapshotCsdl.readNavigationProperty(property));
+      type.setNavigationProperties(properties);
+    } else
+      type.setNavigationProperties(null);
+    type.setAnnotations(JPASnapshotCsdl.readAnnotations(node.path("annotations")));
+    return type;
+  }
+
+  private Class<?>[] readTypes(final JsonNode names) throws ClassNotFoundException {
+    final Class<?>[] result = new Class<?>[names.size()];
+    int i = 0;
+    for (final JsonNode name : names)
+      result[i++] = loadClass(name.asText(), loader);
+    return result;
+  }
+
+  private FullQualifiedName fqn(final JsonNode node, final String fieldName) {
+    final String fqn = JPASnapshotCsdl.text(node, fieldName);
+    return fqn == null ? null : new FullQualifiedName(fqn);
+  }
+
+  private <T> T get(final List<? extends T> items, final JsonNode node, final String fieldName) {
+    final int ref = node.path(fieldName).asInt(-1);
+    return ref < 0 ? null : items.get(ref);
+  }
+
+  private Class<?> type(final JsonNode node, final String fieldName) throws ClassNotFoundException {
+    final String className = JPASnapshotCsdl.text(node, fieldName);
+    return className == null ? null : loadClass(className, loader);
+  }
+}
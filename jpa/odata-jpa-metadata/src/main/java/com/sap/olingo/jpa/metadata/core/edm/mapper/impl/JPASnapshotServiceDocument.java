@@ -0,0 +1,200 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.olingo.commons.api.edm.EdmAction;
+import org.apache.olingo.commons.api.edm.EdmBindingTarget;
+import org.apache.olingo.commons.api.edm.EdmComplexType;
+import org.apache.olingo.commons.api.edm.EdmEnumType;
+import org.apache.olingo.commons.api.edm.EdmFunction;
+import org.apache.olingo.commons.api.edm.EdmType;
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntityContainer;
+import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
+import org.apache.olingo.commons.api.edm.provider.CsdlTerm;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAction;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntitySet;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEnumerationAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAFunction;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAServiceDocument;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAStructuredType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+
+/**
+ * Service document restored from a model snapshot, see {@link JPAEdmModelSnapshot}. It answers the look-ups the same
+ * way {@link IntermediateServiceDocument} does, but only contains the finished model. The references are not part of
+ * the snapshot, they are provided by the post processor when the snapshot is read.
+ * @author Oliver Grande
+ *
+ */
+final class JPASnapshotServiceDocument implements JPAServiceDocument {
+  private final String namespace;
+  private final List<CsdlSchema> edmSchemas;
+  private final CsdlEntityContainer edmContainer;
+  private final IntermediateReferences references;
+  private final List<JPASnapshotEntityType> entityTypes;
+  private final List<JPASnapshotStructuredType> complexTypes;
+  private final List<JPASnapshotOperation> functions;
+  private final List<JPASnapshotOperation> actions;
+  private final Map<String, IntermediateEnumerationType> enumerationTypes;
+  private final Map<String, JPAEntitySet> entitySetListExternalKey;
+  private final Map<FullQualifiedName, JPAEntitySet> entitySetListEntityTypeKey;
+
+  JPASnapshotServiceDocument(final String namespace, final CsdlSchema edmSchema,
+      final IntermediateReferences references, final List<JPASnapshotEntityType> entityTypes,
+      final List<JPASnapshotStructuredType> complexTypes, final List<JPASnapshotOperation> functions,
+      final List<JPASnapshotOperation> actions, final Map<String, IntermediateEnumerationType> enumerationTypes,
+      final List<JPASnapshotEntitySet> entitySets) {
+    super();
+    this.namespace = namespace;
+    this.edmSchemas = Collections.singletonList(edmSchema);
+    this.edmContainer = edmSchema.getEntityContainer();
+    this.references = references;
+    this.entityTypes = entityTypes;
+    this.complexTypes = complexTypes;
+    this.functions = functions;
+    this.actions = actions;
+    this.enumerationTypes = enumerationTypes;
+    this.entitySetListExternalKey = new HashMap<>();
+    this.entitySetListEntityTypeKey = new HashMap<>();
+    // Like the entity container, the first entity set wins, if names are not unique
+    for (final JPASnapshotEntitySet es : entitySets) {
+      entitySetListExternalKey.putIfAbsent(es.getExternalName(), es);
+      entitySetListEntityTypeKey.putIfAbsent(es.getEntityType().getExternalFQN(), es);
+    }
+  }
+
+  @Override
+  public List<CsdlSchema> getAllSchemas() throws ODataJPAModelException {
+    final List<CsdlSchema> allSchemas = new ArrayList<>(edmSchemas);
+    allSchemas.addAll(references.getSchemas());
+    return allSchemas;
+  }
+
+  @Override
+  public JPAAction getAction(final EdmAction action) {
+    return (JPAAction) findOperation(actions, action.getNamespace(), action.getName());
+  }
+
+  @Override
+  public JPAStructuredType getComplexType(final EdmComplexType edmComplexType) {
+    if (namespace.equals(edmComplexType.getNamespace())) {
+      for (final JPASnapshotStructuredType complexType : complexTypes) {
+        if (complexType.getExternalName().equals(edmComplexType.getName()))
+          return complexType;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public CsdlEntityContainer getEdmEntityContainer() throws ODataJPAModelException {
+    return edmContainer;
+  }
+
+  @Override
+  public List<CsdlSchema> getEdmSchemas() throws ODataJPAModelException {
+    return edmSchemas;
+  }
+
+  @Override
+  public JPAEntityType getEntity(final EdmType edmType) throws ODataJPAModelException {
+    return findEntityType(edmType.getNamespace(), edmType.getName());
+  }
+
+  @Override
+  public JPAEntityType getEntity(final FullQualifiedName typeName) {
+    return findEntityType(typeName.getNamespace(), typeName.getName());
+  }
+
+  @Override
+  public JPAEntityType getEntity(final String edmEntitySetName) throws ODataJPAModelException {
+    final JPAEntitySet entitySet = entitySetListExternalKey.get(edmEntitySetName);
+    return entitySet != null ? entitySet.getEntityType() : null;
+  }
+
+  @Override
+  public JPAEntitySet getEntitySet(final JPAEntityType entityType) throws ODataJPAModelException {
+    return entitySetListEntityTypeKey.get(entityType.getExternalFQN());
+  }
+
+  @Override
+  public JPAEnumerationAttribute getEnumType(final EdmEnumType type) {
+    if (namespace.equals(type.getFullQualifiedName().getNamespace())) {
+      for (final IntermediateEnumerationType enumeration : enumerationTypes.values()) {
+        if (enumeration.getExternalFQN().equals(type.getFullQualifiedName()))
+          return enumeration;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public JPAEnumerationAttribute getEnumType(final String fqnAsString) {
+    final FullQualifiedName fqn = new FullQualifiedName(fqnAsString);
+    if (namespace.equals(fqn.getNamespace()))
+      return enumerationTypes.get(fqn.getName());
+    return null;
+  }
+
+  @Override
+  public JPAFunction getFunction(final EdmFunction function) {
+    return (JPAFunction) findOperation(functions, function.getNamespace(), function.getName());
+  }
+
+  @Override
+  public List<EdmxReference> getReferences() {
+    return references.getEdmReferences();
+  }
+
+  @Override
+  public CsdlTerm getTerm(final FullQualifiedName termName) {
+    return references.getTerm(termName);
+  }
+
+  @Override
+  public boolean hasETag(final EdmBindingTarget entitySetOrSingleton) {
+    try {
+      final JPAEntityType entityType = getEntity(entitySetOrSingleton.getEntityType().getFullQualifiedName());
+      return entityType != null && entityType.hasEtag();
+    } catch (ODataJPAModelException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Currently not supported => method always returns false
+   */
+  @Override
+  public boolean hasMediaETag(final EdmBindingTarget entitySetOrSingleton) {
+    return false;
+  }
+
+  private JPAEntityType findEntityType(final String typeNamespace, final String externalName) {
+    if (namespace.equals(typeNamespace)) {
+      for (final JPASnapshotEntityType entityType : entityTypes) {
+        if (entityType.getExternalName().equals(externalName))
+          return entityType;
+      }
+    }
+    return null;
+  }
+
+  private JPASnapshotOperation findOperation(final List<JPASnapshotOperation> operations,
+      final String operationNamespace, final String externalName) {
+    if (namespace.equals(operationNamespace)) {
+      for (final JPASnapshotOperation operation : operations) {
+        if (operation.getExternalName().equals(externalName))
+          return operation;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,184 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAStructuredType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+
+/**
+ * Structured type restored from a model snapshot, see {@link JPAEdmModelSnapshot}. The snapshot contains the lists
+ * the type provides, including the elements inherited from the base type. The look-ups are answered from indices,
+ * which are created by {@link #buildIndex()}, once the lists have been restored.
+ * @author Oliver Grande
+ *
+ */
+class JPASnapshotStructuredType implements JPAStructuredType {
+  private final String internalName;
+  private final String externalName;
+  private final FullQualifiedName externalFQN;
+  private final Class<?> typeClass;
+  private final boolean isAbstract;
+  private Map<String, JPAAttribute> attributeMap;
+  private Map<String, JPAPath> pathMap;
+  private Map<String, JPAAssociationPath> associationPathMap;
+  private List<JPAPath> pathList;
+  JPASnapshotStructuredType baseType;
+  List<JPAAttribute> attributes;
+  List<JPAAssociationAttribute> associations;
+  List<JPAAssociationAttribute> declaredAssociations;
+  List<JPAAssociationAttribute> ownAssociations;
+  List<JPAPath> resolvedPaths;
+  List<JPAPath> intermediatePaths;
+  JPAPath[] pathsById;
+  List<JPAAssociationPath> associationPaths;
+  JPAAssociationPath[] associationPathsById;
+
+  JPASnapshotStructuredType(final String internalName, final String externalName,
+      final FullQualifiedName externalFQN, final Class<?> typeClass, final boolean isAbstract) {
+    super();
+    this.internalName = internalName;
+    this.externalName = externalName;
+    this.externalFQN = externalFQN;
+    this.typeClass = typeClass;
+    this.isAbstract = isAbstract;
+  }
+
+  @Override
+  public JPAAssociationAttribute getAssociation(final String internalName) throws ODataJPAModelException {
+    for (final JPAAssociationAttribute association : associations) {
+      if (association.getInternalName().equals(internalName))
+        return association;
+    }
+    return null;
+  }
+
+  @Override
+  public JPAAssociationPath getAssociationPath(final String externalName) throws ODataJPAModelException {
+    return associationPathMap.get(externalName);
+  }
+
+  @Override
+  public JPAAssociationPath getAssociationPath(final int id) throws ODataJPAModelException {
+    return id >= 0 && id < associationPathsById.length ? associationPathsById[id] : null;
+  }
+
+  @Override
+  public List<JPAAssociationPath> getAssociationPathList() throws ODataJPAModelException {
+    return new ArrayList<>(associationPaths);
+  }
+
+  @Override
+  public JPAAttribute getAttribute(final String internalName) throws ODataJPAModelException {
+    return attributeMap.get(internalName);
+  }
+
+  @Override
+  public List<JPAAttribute> getAttributes() throws ODataJPAModelException {
+    return new ArrayList<>(attributes);
+  }
+
+  @Override
+  public JPAAssociationPath getDeclaredAssociation(final JPAAssociationPath associationPath)
+      throws ODataJPAModelException {
+    final JPAAssociationPath result = associationPathMap.get(associationPath.getAlias());
+    if (result == null && baseType != null)
+      return baseType.getDeclaredAssociation(associationPath);
+    return result;
+  }
+
+  @Override
+  public JPAAssociationPath getDeclaredAssociation(final String externalName) throws ODataJPAModelException {
+    for (final JPAAssociationAttribute association : ownAssociations) {
+      if (externalName.equals(association.getExternalName()))
+        return associationPathMap.get(externalName);
+    }
+    if (baseType != null)
+      return baseType.getDeclaredAssociation(externalName);
+    return null;
+  }
+
+  @Override
+  public List<JPAAssociationAttribute> getDeclaredAssociations() throws ODataJPAModelException {
+    return new ArrayList<>(declaredAssociations);
+  }
+
+  @Override
+  public FullQualifiedName getExternalFQN() {
+    return externalFQN;
+  }
+
+  @Override
+  public String getExternalName() {
+    return externalName;
+  }
+
+  @Override
+  public String getInternalName() {
+    return internalName;
+  }
+
+  @Override
+  public JPAPath getPath(final String externalName) throws ODataJPAModelException {
+    final JPAPath targetPath = pathMap.get(externalName);
+    if (targetPath == null || targetPath.ignore())
+      return null;
+    return targetPath;
+  }
+
+  @Override
+  public JPAPath getPath(final int id) throws ODataJPAModelException {
+    if (id < 0 || id >= pathsById.length || pathsById[id].ignore())
+      return null;
+    return pathsById[id];
+  }
+
+  @Override
+  public List<JPAPath> getPathList() throws ODataJPAModelException {
+    return new ArrayList<>(pathList);
+  }
+
+  @Override
+  public Class<?> getTypeClass() {
+    return typeClass;
+  }
+
+  @Override
+  public boolean isAbstract() {
+    return isAbstract;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + " [internalName=" + internalName + ", externalName=" + externalName + "]";
+  }
+
+  /**
+   * Creates the look-up indices. A path of the resolved paths hides an intermediate path with the same alias.
+   */
+  void buildIndex() {
+    attributeMap = new HashMap<>();
+    for (final JPAAttribute attribute : attributes)
+      attributeMap.putIfAbsent(attribute.getInternalName(), attribute);
+    pathMap = new HashMap<>();
+    pathList = new ArrayList<>();
+    for (final JPAPath path : resolvedPaths) {
+      pathMap.putIfAbsent(path.getAlias(), path);
+      if (!path.ignore())
+        pathList.add(path);
+    }
+    for (final JPAPath path : intermediatePaths)
+      pathMap.putIfAbsent(path.getAlias(), path);
+    associationPathMap = new HashMap<>();
+    for (final JPAAssociationPath associationPath : associationPaths)
+      associationPathMap.putIfAbsent(associationPath.getAlias(), associationPath);
+  }
+}
@@ -0,0 +1,531 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.edm.provider.CsdlAbstractEdmItem;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntityContainer;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntitySet;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntityType;
+import org.apache.olingo.commons.api.edm.provider.CsdlEnumType;
+import org.apache.olingo.commons.api.edm.provider.CsdlNavigationProperty;
+import org.apache.olingo.commons.api.edm.provider.CsdlProperty;
+import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
+import org.apache.olingo.commons.api.edm.provider.CsdlStructuralType;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAction;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPADataBaseFunction;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPADescriptionAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAElement;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAFunction;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAJavaOperation;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAOperation;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAOperationResultParameter;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAParamaterFacet;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAParameter;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAStructuredType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException.MessageKeys;
+
+/**
+ * Writes a frozen service document into a model snapshot, see {@link JPAEdmModelSnapshot}.<p>
+ * The elements of the model reference each other, e.g. a path references attributes and an attribute its type. So
+ * each kind of element is written into an own list and is referenced by its index, -1 standing for null. An element
+ * gets its index, when it is referenced the first time, and is written afterwards. Elements are identified by
+ * identity, so that an element shared by several types is shared after reading as well.
+ * @author Oliver Grande
+ *
+ */
+final class JPASnapshotWriter {
+  static final String TYPES = "types";
+  static final String ATTRIBUTES = "attributes";
+  static final String PATHS = "paths";
+  static final String ASSOCIATION_PATHS = "associationPaths";
+  static final String JOIN_TABLES = "joinTables";
+  static final String ENTITY_SETS = "entitySets";
+  static final String OPERATIONS = "operations";
+
+  private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+  private final Registry<JPAStructuredType> types = new Registry<>(this::writeType);
+  private final Registry<JPAAttribute> attributes = new Registry<>(this::writeAttribute);
+  private final Registry<JPAPath> paths = new Registry<>(this::writePath);
+  private final Registry<JPAAssociationPath> associationPaths = new Registry<>(this::writeAssociationPath);
+  private final Registry<IntermediateJoinTable> joinTables = new Registry<>(this::writeJoinTable);
+  private final Registry<IntermediateEntitySet> entitySets = new Registry<>(this::writeEntitySet);
+  private final Registry<IntermediateOperation> operations = new Registry<>(this::writeOperation);
+  private final Map<CsdlAbstractEdmItem, Integer> attributeByEdmItem = new IdentityHashMap<>();
+
+  /**
+   * @param serviceDocument Frozen service document
+   * @return The snapshot of the schema with the given namespace and of the entity container
+   * @throws ODataJPAModelException
+   */
+  ObjectNode write(final IntermediateServiceDocument serviceDocument, final String namespace)
+      throws ODataJPAModelException {
+
+    final IntermediateSchema schema = serviceDocument.getSchema(namespace);
+    final ObjectNode root = NODES.objectNode();
+    final ObjectNode schemaNode = root.putObject("schema");
+
+    final ArrayNode entityTypes = schemaNode.putArray("entityTypes");
+    for (final IntermediateEntityType entityType : schema.getEntityTypes())
+      entityTypes.add(types.ref(entityType));
+    final ArrayNode complexTypes = schemaNode.putArray("complexTypes");
+    for (final IntermediateComplexType complexType : schema.getComplexTypes())
+      complexTypes.add(types.ref(complexType));
+    final List<IntermediateEnumerationType> enumerations = schema.getEnumerationTypes();
+    final ArrayNode enumerationNode = schemaNode.putArray("enumerations");
+    for (final IntermediateEnumerationType enumeration : enumerations)
+      enumerationNode.add(enumeration.getEnumClass().getName());
+    final ArrayNode functions = schemaNode.putArray("functions");
+    for (final JPAFunction function : schema.getFunctions()) {
+      if (!((IntermediateModelElement) function).ignore())
+        functions.add(operations.ref((IntermediateOperation) function));
+    }
+    final ArrayNode actions = schemaNode.putArray("actions");
+    for (final JPAAction action : schema.getActions()) {
+      if (!((IntermediateModelElement) action).ignore())
+        actions.add(operations.ref((IntermediateOperation) action));
+    }
+    final ArrayNode entitySetNode = schemaNode.putArray("entitySets");
+    for (final IntermediateEntitySet entitySet : serviceDocument.getContainer().getEntitySets())
+      entitySetNode.add(entitySets.ref(entitySet));
+
+    boolean written;
+    do {
+      written = types.writePending() | attributes.writePending() | paths.writePending()
+          | associationPaths.writePending() | joinTables.writePending() | entitySets.writePending()
+          | operations.writePending();
+    } while (written);
+
+    // The edm items of the types share the properties of the attributes
+    for (int i = 0; i < attributes.items.size(); i++) {
+      final CsdlAbstractEdmItem edmItem = attributes.items.get(i).getProperty();
+      if (edmItem != null)
+        attributeByEdmItem.putIfAbsent(edmItem, i);
+    }
+    final Map<CsdlAbstractEdmItem, Integer> typeByEdmItem = new IdentityHashMap<>();
+    for (int i = 0; i < types.items.size(); i++) {
+      final CsdlStructuralType edmType = ((IntermediateStructuredType) types.items.get(i)).getEdmItem();
+      typeByEdmItem.put(edmType, i);
+      ((ObjectNode) types.records.get(i)).set("edm", writeStructuralType(edmType));
+    }
+    schemaNode.set("edm", writeSchema(schema.getEdmItem(), enumerations, typeByEdmItem));
+    schemaNode.set("container", writeContainer(serviceDocument.getContainer().getEdmItem()));
+
+    root.set(TYPES, types.records);
+    root.set(ATTRIBUTES, attributes.records);
+    root.set(PATHS, paths.records);
+    root.set(ASSOCIATION_PATHS, associationPaths.records);
+    root.set(JOIN_TABLES, joinTables.records);
+    root.set(ENTITY_SETS, entitySets.records);
+    root.set(OPERATIONS, operations.records);
+    return root;
+  }
+
+  private ArrayNode pathRefs(final List<? extends JPAPath> items) throws ODataJPAModelException {
+    final ArrayNode result = NODES.arrayNode();
+    for (final JPAPath item : items)
+      result.add(paths.ref(item));
+    return result;
+  }
+
+  private ArrayNode attributeRefs(final List<? extends JPAAttribute> items) throws ODataJPAModelException {
+    final ArrayNode result = NODES.arrayNode();
+    for (final JPAAttribute item : items)
+      result.add(attributes.ref(item));
+    return result;
+  }
+
+  private ArrayNode pathPairs(final List<JPAPath[]> pairs) throws ODataJPAModelException {
+    final ArrayNode result = NODES.arrayNode();
+    for (final JPAPath[] pair : pairs)
+      result.addArray().add(paths.ref(pair[0])).add(paths.ref(pair[1]));
+    return result;
+  }
+
+  private ArrayNode columns(final List<IntermediateJoinColumn> joinColumns) {
+    final ArrayNode result = NODES.arrayNode();
+    for (final IntermediateJoinColumn column : joinColumns)
+      result.addArray().add(column.getName()).add(column.getReferencedColumnName());
+    return result;
+  }
+
+  private void writeAssociationPath(final JPAAssociationPath associationPath, final ObjectNode node)
+      throws ODataJPAModelException {
+    if (!(associationPath instanceof JPAAssociationPathImpl))
+      throw new ODataJPAModelException(MessageKeys.SNAPSHOT_ELEMENT_NOT_SUPPORTED, associationPath.getClass()
+          .getSimpleName());
+    node.put("alias", associationPath.getAlias());
+    node.put("id", associationPath.getId());
+    node.put("collection", associationPath.isCollection());
+    node.set("elements", writeElements(associationPath.getPath()));
+    node.put("sourceType", types.ref(associationPath.getSourceType()));
+    node.put("targetType", types.ref(associationPath.getTargetType()));
+    node.put("partner", attributes.ref(associationPath.getPartner()));
+    node.put("joinTable", joinTables.ref((IntermediateJoinTable) associationPath.getJoinTable()));
+    node.set("joinColumns", pathPairs(((JPAAssociationPathImpl) associationPath).getJoinColumnPairs()));
+    node.set("leftColumns", pathRefs(associationPath.getLeftColumnsList()));
+    node.set("rightColumns", pathRefs(associationPath.getRightColumnsList()));
+    if (associationPath.getJoinTable() != null)
+      node.set("inverseLeftJoinColumns", pathRefs(associationPath.getInverseLeftJoinColumnsList()));
+  }
+
+  private void writeAttribute(final JPAAttribute attribute, final ObjectNode node) throws ODataJPAModelException {
+    final Class<?> javaType;
+    if (attribute instanceof IntermediateProperty) {
+      node.put("kind", attribute instanceof JPADescriptionAttribute ? "description" : "property");
+      javaType = ((IntermediateProperty) attribute).jpaAttribute.getJavaType();
+    } else if (attribute instanceof IntermediateNavigationProperty) {
+      node.put("kind", "navigation");
+      javaType = null;
+    } else
+      throw new ODataJPAModelException(MessageKeys.SNAPSHOT_ELEMENT_NOT_SUPPORTED, attribute.getClass()
+          .getSimpleName());
+    node.put("internalName", attribute.getInternalName());
+    node.put("externalName", attribute.getExternalName());
+    node.put("externalFQN", fqn(attribute.getExternalFQN()));
+    node.put("type", className(attribute.getType()));
+    node.put("javaType", className(javaType));
+    node.put("converter", attribute.getConverter() == null ? null : attribute.getConverter().getClass().getName());
+    node.put("complex", attribute.isComplex());
+    node.put("key", attribute.isKey());
+    node.put("searchable", attribute.isSearchable());
+    node.put("enumeration", attribute.isEnum());
+    node.put("structuredType", types.ref(attribute.getStructuredType()));
+    final CsdlAbstractEdmItem edmItem = attribute.getProperty();
+    if (edmItem instanceof CsdlProperty)
+      node.set("property", JPASnapshotCsdl.writeProperty((CsdlProperty) edmItem));
+    else if (edmItem instanceof CsdlNavigationProperty)
+      node.set("navigationProperty", JPASnapshotCsdl.writeNavigationProperty((CsdlNavigationProperty) edmItem));
+    if (attribute instanceof JPADescriptionAttribute) {
+      final JPADescriptionAttribute description = (JPADescriptionAttribute) attribute;
+      node.put("locationJoin", description.isLocationJoin());
+      node.put("descriptionAttribute", attributes.ref(description.getDescriptionAttribute()));
+      node.put("localeFieldName", paths.ref(description.getLocaleFieldName()));
+      if (description.getFixedValueAssignment() != null) {
+        final ArrayNode fixedValues = node.putArray("fixedValueAssignment");
+        for (final Entry<JPAPath, String> fixedValue : description.getFixedValueAssignment().entrySet())
+          fixedValues.addObject().put("path", paths.ref(fixedValue.getKey())).put("value", fixedValue.getValue());
+      }
+    } else if (attribute instanceof JPAAssociationAttribute) {
+      final JPAAssociationAttribute association = (JPAAssociationAttribute) attribute;
+      node.put("collection", association.isCollection());
+      node.put("targetEntity", types.ref(association.getTargetEntity()));
+      node.put("partner", attributes.ref(association.getPartner()));
+    }
+  }
+
+  private ObjectNode writeContainer(final CsdlEntityContainer container) throws ODataJPAModelException {
+    final ObjectNode node = NODES.objectNode();
+    node.put("name", container.getName());
+    final ArrayNode entitySetNode = node.putArray("entitySets");
+    for (final CsdlEntitySet entitySet : container.getEntitySets())
+      entitySetNode.add(JPASnapshotCsdl.writeEntitySet(entitySet));
+    node.set("functionImports", JPASnapshotCsdl.writeFunctionImports(container.getFunctionImports()));
+    node.set("actionImports", JPASnapshotCsdl.writeActionImports(container.getActionImports()));
+    node.set("annotations", JPASnapshotCsdl.writeAnnotations(container.getAnnotations()));
+    return node;
+  }
+
+  private ArrayNode writeElements(final List<JPAElement> elements) throws ODataJPAModelException {
+    final ArrayNode result = NODES.arrayNode();
+    for (final JPAElement element : elements) {
+      if (!(element instanceof JPAAttribute))
+        throw new ODataJPAModelException(MessageKeys.SNAPSHOT_ELEMENT_NOT_SUPPORTED, element.getClass()
+            .getSimpleName());
+      result.add(attributes.ref((JPAAttribute) element));
+    }
+    return result;
+  }
+
+  private void writeEntitySet(final IntermediateEntitySet entitySet, final ObjectNode node)
+      throws ODataJPAModelException {
+    node.put("internalName", entitySet.getInternalName());
+    node.put("externalName", entitySet.getExternalName());
+    node.put("externalFQN", fqn(entitySet.getExternalFQN()));
+    node.put("entityType", types.ref(entitySet.getEntityType()));
+    node.put("odataEntityType", types.ref(entitySet.getODataEntityType()));
+  }
+
+  private void writeJoinTable(final IntermediateJoinTable joinTable, final ObjectNode node)
+      throws ODataJPAModelException {
+    node.put("tableName", joinTable.getTableName());
+    node.set("joinColumns", columns(joinTable.buildJoinColumns()));
+    node.set("inverseJoinColumns", columns(joinTable.buildInverseJoinColumns()));
+    node.put("entityType", types.ref(joinTable.getEntityType()));
+    if (joinTable.getEntityType() != null) {
+      node.set("joinColumnPairs", pathPairs(joinTable.getJoinColumnPairs()));
+      node.set("inverseJoinColumnPairs", pathPairs(joinTable.getInverseJoinColumnPairs()));
+    }
+  }
+
+  private void writeOperation(final IntermediateOperation operation, final ObjectNode node)
+      throws ODataJPAModelException {
+    final List<JPAParameter> parameters;
+    if (operation instanceof IntermediateDataBaseFunction) {
+      node.put("kind", "dataBaseFunction");
+      node.put("dbName", ((JPADataBaseFunction) operation).getDBName());
+      node.set("edm", JPASnapshotCsdl.writeOperation(((IntermediateFunction) operation).getEdmItem()));
+      parameters = ((JPAFunction) operation).getParameter();
+    } else if (operation instanceof IntermediateJavaFunction) {
+      node.put("kind", "javaFunction");
+      node.set("edm", JPASnapshotCsdl.writeOperation(((IntermediateFunction) operation).getEdmItem()));
+      parameters = ((JPAFunction) operation).getParameter();
+    } else if (operation instanceof IntermediateJavaAction) {
+      node.put("kind", "javaAction");
+      node.set("edm", JPASnapshotCsdl.writeOperation(((IntermediateJavaAction) operation).getEdmItem()));
+      parameters = ((IntermediateJavaAction) operation).getParameter();
+    } else
+      throw new ODataJPAModelException(MessageKeys.SNAPSHOT_ELEMENT_NOT_SUPPORTED, operation.getClass()
+          .getSimpleName());
+    node.put("externalName", operation.getExternalName());
+    if (operation instanceof JPAJavaOperation) {
+      node.set("method", writeMethod(((JPAJavaOperation) operation).getMethod()));
+      node.set("constructor", writeConstructor(((JPAJavaOperation) operation).getConstructor()));
+    }
+    final ArrayNode parameterNode = node.putArray("parameters");
+    for (final JPAParameter parameter : parameters) {
+      final ObjectNode facet = writeFacet(parameter, parameter.getTypeFQN());
+      facet.put("internalName", parameter.getInternalName());
+      facet.put("name", parameter.getName());
+      parameterNode.add(facet);
+    }
+    final JPAOperationResultParameter result = ((JPAOperation) operation).getResultParameter();
+    if (result != null) {
+      final ObjectNode facet = writeFacet(result, ((JPAOperation) operation).getReturnType() == null ? null : result
+          .getTypeFQN());
+      facet.put("collection", result.isCollection());
+      node.set("resultParameter", facet);
+    }
+  }
+
+  private ObjectNode writeFacet(final JPAParamaterFacet facet, final FullQualifiedName typeFQN) {
+    final ObjectNode node = NODES.objectNode();
+    node.put("type", className(facet.getType()));
+    node.put("typeFQN", fqn(typeFQN));
+    node.put("maxLength", facet.getMaxLength());
+    node.put("precision", facet.getPrecision());
+    node.put("scale", facet.getScale());
+    node.set("srid", JPASnapshotCsdl.writeSrid(facet.getSrid()));
+    return node;
+  }
+
+  private ObjectNode writeMethod(final Method method) {
+    if (method == null)
+      return null;
+    final ObjectNode node = NODES.objectNode();
+    node.put("declaringClass", method.getDeclaringClass().getName());
+    node.put("name", method.getName());
+    final ArrayNode parameterTypes = node.putArray("parameterTypes");
+    for (final Class<?> parameterType : method.getParameterTypes())
+      parameterTypes.add(parameterType.getName());
+    return node;
+  }
+
+  private ObjectNode writeConstructor(final Constructor<?> constructor) {
+    if (constructor == null)
+      return null;
+    final ObjectNode node = NODES.objectNode();
+    node.put("declaringClass", constructor.getDeclaringClass().getName());
+    final ArrayNode parameterTypes = node.putArray("parameterTypes");
+    for (final Class<?> parameterType : constructor.getParameterTypes())
+      parameterTypes.add(parameterType.getName());
+    return node;
+  }
+
+  private void writePath(final JPAPath path, final ObjectNode node) throws ODataJPAModelException {
+    node.put("alias", path.getAlias());
+    node.put("dbFieldName", path.getDBFieldName());
+    node.put("id", path.getId());
+    node.put("ignore", path.ignore());
+    node.set("elements", writeElements(path.getPath()));
+  }
+
+  private ObjectNode writeSchema(final CsdlSchema schema, final List<IntermediateEnumerationType> enumerations,
+      final Map<CsdlAbstractEdmItem, Integer> typeByEdmItem) throws ODataJPAModelException {
+    final ObjectNode node = NODES.objectNode();
+    node.put("namespace", schema.getNamespace());
+    if (schema.getEnumTypes() != null) {
+      final ArrayNode enumTypes = node.putArray("enumTypes");
+      for (final CsdlEnumType enumType : schema.getEnumTypes()) {
+        int index = -1;
+        for (int i = 0; i < enumerations.size(); i++) {
+          if (enumerations.get(i).getEdmItem() == enumType)
+            index = i;
+        }
+        enumTypes.add(checkFound(index, enumType));
+      }
+    }
+    node.set("complexTypes", writeItemRefs(schema.getComplexTypes(), typeByEdmItem));
+    node.set("entityTypes", writeItemRefs(schema.getEntityTypes(), typeByEdmItem));
+    final Map<CsdlAbstractEdmItem, Integer> operationByEdmItem = new IdentityHashMap<>();
+    for (int i = 0; i < operations.items.size(); i++) {
+      final IntermediateOperation operation = operations.items.get(i);
+      operationByEdmItem.put(operation instanceof IntermediateFunction ? ((IntermediateFunction) operation)
+          .getEdmItem() : ((IntermediateJavaAction) operation).getEdmItem(), i);
+    }
+    node.set("functions", writeItemRefs(schema.getFunctions(), operationByEdmItem));
+    node.set("actions", writeItemRefs(schema.getActions(), operationByEdmItem));
+    return node;
+  }
+
+  private ArrayNode writeItemRefs(final List<? extends CsdlAbstractEdmItem> items,
+      final Map<CsdlAbstractEdmItem, Integer> indexByItem) throws ODataJPAModelException {
+    if (items == null)
+      return null;
+    final ArrayNode result = NODES.arrayNode();
+    for (final CsdlAbstractEdmItem item : items) {
+      final Integer index = indexByItem.get(item);
+      result.add(checkFound(index == null ? -1 : index, item));
+    }
+    return result;
+  }
+
+  private ObjectNode writeStructuralType(final CsdlStructuralType type) throws ODataJPAModelException {
+    final ObjectNode node = NODES.objectNode();
+    node.put("name", type.getName());
+    node.put("baseType", type.getBaseType());
+    node.put("abstract", type.isAbstract());
+    node.put("openType", type.isOpenType());
+    if (type instanceof CsdlEntityType) {
+      node.put("hasStream", ((CsdlEntityType) type).hasStream());
+      if (((CsdlEntityType) type).getKey() != null)
+        node.set("key", JPASnapshotCsdl.writePropertyRefs(((CsdlEntityType) type).getKey()));
+    }
+    if (type.getProperties() != null) {
+      final ArrayNode properties = node.putArray("properties");
+      for (final CsdlProperty property : type.getProperties())
+        properties.add(writeSharedItem(property, JPASnapshotCsdl.writeProperty(property)));
+    }
+    if (type.getNavigationProperties() != null) {
+      final ArrayNode properties = node.putArray("navigationProperties");
+      for (final CsdlNavigationProperty property : type.getNavigationProperties())
+        properties.add(writeSharedItem(property, JPASnapshotCsdl.writeNavigationProperty(property)));
+    }
+    node.set("annotations", JPASnapshotCsdl.writeAnnotations(type.getAnnotations()));
+    return node;
+  }
+
+  /**
+   * @return A reference to the attribute providing the edm item or the edm item itself
+   */
+  private ObjectNode writeSharedItem(final CsdlAbstractEdmItem edmItem, final ObjectNode itemNode) {
+    final Integer attribute = attributeByEdmItem.get(edmItem);
+    return attribute == null ? itemNode : NODES.objectNode().put("attribute", attribute);
+  }
+
+  private void writeType(final JPAStructuredType type, final ObjectNode node) throws ODataJPAModelException {
+    if (!(type instanceof IntermediateStructuredType))
+      throw new ODataJPAModelException(MessageKeys.SNAPSHOT_ELEMENT_NOT_SUPPORTED, type.getClass().getSimpleName());
+    final IntermediateStructuredType intermediateType = (IntermediateStructuredType) type;
+    node.put("kind", type instanceof JPAEntityType ? "entity" : "complex");
+    node.put("internalName", type.getInternalName());
+    node.put("externalName", type.getExternalName());
+    node.put("externalFQN", fqn(type.getExternalFQN()));
+    node.put("typeClass", className(type.getTypeClass()));
+    node.put("abstract", type.isAbstract());
+    node.put("baseType", types.ref(intermediateType.getBaseType()));
+    node.set("attributes", attributeRefs(type.getAttributes()));
+    node.set("associations", attributeRefs(intermediateType.getAssociations()));
+    node.set("declaredAssociations", attributeRefs(type.getDeclaredAssociations()));
+    node.set("ownAssociations", attributeRefs(new ArrayList<>(intermediateType.declaredNaviPropertiesList
+        .values())));
+    node.set("resolvedPaths", pathRefs(new ArrayList<>(intermediateType.getResolvedPathMap().values())));
+    node.set("intermediatePaths", pathRefs(new ArrayList<>(intermediateType.getIntermediatePathMap().values())));
+    node.set("pathsById", pathRefs(intermediateType.getPathsById()));
+    final List<JPAAssociationPath> associationPathList = type.getAssociationPathList();
+    final ArrayNode associationPathNode = node.putArray("associationPaths");
+    for (final JPAAssociationPath associationPath : associationPathList)
+      associationPathNode.add(associationPaths.ref(associationPath));
+    final ArrayNode associationPathsById = node.putArray("associationPathsById");
+    for (int id = 0; id < associationPathList.size(); id++)
+      associationPathsById.add(associationPaths.ref(type.getAssociationPath(id)));
+    if (type instanceof JPAEntityType) {
+      final JPAEntityType entityType = (JPAEntityType) type;
+      node.put("tableName", entityType.getTableName());
+      node.put("keyType", className(entityType.getKeyType()));
+      node.put("hasEtag", entityType.hasEtag());
+      node.put("hasStream", entityType.hasStream());
+      node.set("key", attributeRefs(entityType.getKey()));
+      node.set("keyPath", pathRefs(entityType.getKeyPath()));
+      node.set("searchablePath", pathRefs(entityType.getSearchablePath()));
+      if (entityType.hasStream()) {
+        node.put("contentType", entityType.getContentType());
+        node.put("streamAttributePath", paths.ref(entityType.getStreamAttributePath()));
+        node.put("contentTypeAttributePath", paths.ref(entityType.getContentTypeAttributePath()));
+      }
+    }
+  }
+
+  private static int checkFound(final int index, final Object item) throws ODataJPAModelException {
+    if (index < 0)
+      throw new ODataJPAModelException(MessageKeys.SNAPSHOT_ELEMENT_NOT_SUPPORTED, item.getClass().getSimpleName());
+    return index;
+  }
+
+  private static String className(final Class<?> type) {
+    return type == null ? null : type.getName();
+  }
+
+  private static String fqn(final FullQualifiedName fqn) {
+    return fqn == null ? null : fqn.getFullQualifiedNameAsString();
+  }
+
+  @FunctionalInterface
+  private interface RecordWriter<T> {
+    void write(final T item, final ObjectNode node) throws ODataJPAModelException;
+  }
+
+  /**
+   * Assigns the indices of one kind of element and writes the elements, which have been referenced so far
+   */
+  private static class Registry<T> {
+    private final Map<T, Integer> index = new IdentityHashMap<>();
+    private final List<T> items = new ArrayList<>();
+    private final ArrayNode records = NODES.arrayNode();
+    private final RecordWriter<T> writer;
+    private int written;
+
+    Registry(final RecordWriter<T> writer) {
+      this.writer = writer;
+    }
+
+    int ref(final T item) {
+      if (item == null)
+        return -1;
+      Integer result = index.get(item);
+      if (result == null) {
+        result = items.size();
+        index.put(item, result);
+        items.add(item);
+        records.addObject();
+      }
+      return result;
+    }
+
+    boolean writePending() throws ODataJPAModelException {
+      final boolean pending = written < items.size();
+      while (written < items.size()) {
+        writer.write(items.get(written), (ObjectNode) records.get(written));
+        written++;
+      }
+      return pending;
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import java.lang.annotation.Annotation;
+import java.util.Set;
+
+/**
+ * Provides the java types of the configured packages, which are needed to build the intermediate model, but are not
+ * part of the JPA metadata: Enumerations and java implemented functions or actions.
+ * @author Oliver Grande
+ *
+ */
+interface JPATypeIndex {
+
+  /**
+   * @param type
+   * @return All known sub types of <code>type</code>, not including <code>type</code> itself
+   */
+  <T> Set<Class<? extends T>> getSubTypesOf(final Class<T> type);
+
+  /**
+   * @param annotation
+   * @return All known types annotated with <code>annotation</code>
+   */
+  Set<Class<?>> getTypesAnnotatedWith(final Class<? extends Annotation> annotation);
+}
@@ -0,0 +1,91 @@
+package com.sap.olingo.jpa.metadata.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.ex.ODataException;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.sap.olingo.jpa.processor.core.testmodel.DataSourceHelper;
+
+public class TestJPAEdmProvider {
+  private static final String PUNIT_NAME = "com.sap.olingo.jpa";
+  private static EntityManagerFactory emf;
+  private JPAEdmProvider cut;
+
+  @BeforeClass
+  public static void setupClass() {
+    emf = JPAEntityManagerFactory.getEntityManagerFactory(PUNIT_NAME, DataSourceHelper.createDataSource(
+        DataSourceHelper.DB_HSQLDB));
+  }
+
+  @Before
+  public void setup() throws ODataException {
+    cut = new JPAEdmProvider(PUNIT_NAME, emf, null, new String[] { "com.sap.olingo.jpa.processor.core.testmodel" });
+  }
+
+  @Test
+  public void checkGetEntityType() throws ODataException {
+    assertEquals("Organization", cut.getEntityType(new FullQualifiedName(PUNIT_NAME, "Organization")).getName());
+  }
+
+  @Test
+  public void checkGetEntityTypeReturnsSameInstance() throws ODataException {
+    assertSame(cut.getEntityType(new FullQualifiedName(PUNIT_NAME, "Organization")), cut.getEntityType(
+        new FullQualifiedName(PUNIT_NAME, "Organization")));
+  }
+
+  @Test
+  public void checkGetEntityTypeUnknownName() throws ODataException {
+    assertNull(cut.getEntityType(new FullQualifiedName(PUNIT_NAME, "Unknown")));
+  }
+
+  @Test
+  public void checkGetEntityTypeUnknownNamespace() throws ODataException {
+    assertNull(cut.getEntityType(new FullQualifiedName("Unknown", "Organization")));
+  }
+
+  @Test
+  public void checkGetComplexType() throws ODataException {
+    assertEquals("PostalAddressData", cut.getComplexType(new FullQualifiedName(PUNIT_NAME, "PostalAddressData"))
+        .getName());
+  }
+
+  @Test
+  public void checkGetEnumType() throws ODataException {
+    assertNotNull(cut.getEnumType(new FullQualifiedName(PUNIT_NAME, "ABCClassifiaction")));
+  }
+
+  @Test
+  public void checkGetFunctions() throws ODataException {
+    assertEquals(1, cut.getFunctions(new FullQualifiedName(PUNIT_NAME, "AllCustomersByABC")).size());
+  }
+
+  @Test
+  public void checkGetFunctionsUnknownNameReturnsEmptyList() throws ODataException {
+    assertTrue(cut.getFunctions(new FullQualifiedName(PUNIT_NAME, "Unknown")).isEmpty());
+  }
+
+  @Test
+  public void checkGetFunctionsUnknownNamespaceReturnsNull() throws ODataException {
+    assertNull(cut.getFunctions(new FullQualifiedName("Unknown", "AllCustomersByABC")));
+  }
+
+  @Test
+  public void checkGetActionsUnknownNameReturnsEmptyList() throws ODataException {
+    assertTrue(cut.getActions(new FullQualifiedName(PUNIT_NAME, "Unknown")).isEmpty());
+  }
+
+  @Test
+  public void checkGetTypeDefinitionUnknownName() throws ODataException {
+    assertNull(cut.getTypeDefinition(new FullQualifiedName(PUNIT_NAME, "Unknown")));
+  }
+}
@@ -0,0 +1,101 @@
+package com.sap.olingo.jpa.metadata.api;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sap.olingo.jpa.processor.core.testmodel.DataSourceHelper;
+
+public class TestJPAEntityManagerFactory {
+  private static final String PUNIT_NAME = "com.sap.olingo.jpa";
+  private DataSource ds;
+
+  @Before
+  public void setup() {
+    ds = DataSourceHelper.createDataSource(DataSourceHelper.DB_HSQLDB);
+  }
+
+  @After
+  public void teardown() {
+    JPAEntityManagerFactory.closeEntityManagerFactory(PUNIT_NAME, ds);
+  }
+
+  @Test
+  public void checkReturnsNullWithoutPersistenceUnit() {
+    assertNull(JPAEntityManagerFactory.getEntityManagerFactory(null, ds));
+  }
+
+  @Test
+  public void checkReturnsSameFactoryForSameDataSource() {
+    final EntityManagerFactory exp = JPAEntityManagerFactory.getEntityManagerFactory(PUNIT_NAME, ds);
+
+    assertSame(exp, JPAEntityManagerFactory.getEntityManagerFactory(PUNIT_NAME, ds));
+  }
+
+  @Test
+  public void checkReturnsDifferentFactoryForDifferentDataSource() {
+    final DataSource otherDs = DataSourceHelper.createDataSource(DataSourceHelper.DB_HSQLDB);
+    try {
+      assertNotSame(JPAEntityManagerFactory.getEntityManagerFactory(PUNIT_NAME, ds),
+          JPAEntityManagerFactory.getEntityManagerFactory(PUNIT_NAME, otherDs));
+    } finally {
+      JPAEntityManagerFactory.closeEntityManagerFactory(PUNIT_NAME, otherDs);
+    }
+  }
+
+  @Test
+  public void checkCloseClosesAndRemovesFactory() {
+    final EntityManagerFactory first = JPAEntityManagerFactory.getEntityManagerFactory(PUNIT_NAME, ds);
+    JPAEntityManagerFactory.closeEntityManagerFactory(PUNIT_NAME, ds);
+
+    assertFalse(first.isOpen());
+    assertNotSame(first, JPAEntityManagerFactory.getEntityManagerFactory(PUNIT_NAME, ds));
+  }
+
+  @Test
+  public void checkReplacesFactoryClosedByApplication() {
+    final EntityManagerFactory first = JPAEntityManagerFactory.getEntityManagerFactory(PUNIT_NAME, ds);
+    first.close();
+
+    final EntityManagerFactory act = JPAEntityManagerFactory.getEntityManagerFactory(PUNIT_NAME, ds);
+    assertNotSame(first, act);
+    assertSame(act, JPAEntityManagerFactory.getEntityManagerFactory(PUNIT_NAME, ds));
+  }
+
+  @Test
+  public void checkParallelCallsCreateOneFactory() throws InterruptedException, ExecutionException {
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<EntityManagerFactory>> results = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        results.add(executor.submit(new Callable<EntityManagerFactory>() {
+          @Override
+          public EntityManagerFactory call() {
+            return JPAEntityManagerFactory.getEntityManagerFactory(PUNIT_NAME, ds);
+          }
+        }));
+      }
+      final EntityManagerFactory exp = results.get(0).get();
+      for (final Future<EntityManagerFactory> result : results)
+        assertSame(exp, result.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.Locale;
 
+import org.junit.After;
 import org.junit.Test;
 
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAException;
@@ -15,6 +16,11 @@ import com.sap.olingo.jpa.processor.core.testmodel.LocaleEnumeration;
 public class TestODataJPAModelException {
   private static String BUNDLE_NAME = "test-i18n";
 
+  @After
+  public void teardown() {
+    TestException.setLocales(null);
+  }
+
   @Test
   public void checkTextInDefaultLocale() {
     try {
@@ -41,6 +47,21 @@ public class TestODataJPAModelException {
     fail();
   }
 
+  @Test
+  public void checkTextInGermanForEachException() {
+    ArrayList<Locale> localesList = new ArrayList<Locale>();
+    localesList.add(Locale.GERMAN);
+    TestException.setLocales(new LocaleEnumeration(localesList));
+    for (int i = 0; i < 2; i++) {
+      try {
+        RaiseExeption();
+        fail();
+      } catch (ODataJPAException e) {
+        assertEquals("Ein deutscher Text", e.getMessage());
+      }
+    }
+  }
+
   @Test
   public void checkTextInDefaultLocaleWithParameter() {
     try {
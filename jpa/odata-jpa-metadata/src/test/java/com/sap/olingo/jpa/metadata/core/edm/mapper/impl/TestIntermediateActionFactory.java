@@ -11,7 +11,6 @@ import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
-import org.reflections.Reflections;
 
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.extention.ODataAction;
@@ -21,7 +20,7 @@ import com.sap.olingo.jpa.metadata.core.edm.mapper.testobjects.ExampleJavaTwoAct
 public class TestIntermediateActionFactory extends TestMappingRoot {
   private TestHelper helper;
 
-  private Reflections reflections;
+  private JPATypeIndex typeIndex;
   private IntermediateActionFactory cut;
   private Set<Class<? extends ODataAction>> javaActions;
 
@@ -29,28 +28,28 @@ public class TestIntermediateActionFactory extends TestMappingRoot {
   public void setUp() throws ODataJPAModelException {
     helper = new TestHelper(emf.getMetamodel(), PUNIT_NAME);
 
-    reflections = mock(Reflections.class);
+    typeIndex = mock(JPATypeIndex.class);
     cut = new IntermediateActionFactory();
     javaActions = new HashSet<Class<? extends ODataAction>>();
-    when(reflections.getSubTypesOf(ODataAction.class)).thenReturn(javaActions);
+    when(typeIndex.getSubTypesOf(ODataAction.class)).thenReturn(javaActions);
   }
 
   @Test
-  public void checkReturnEmptyMapIfReflectionsNull() throws ODataJPAModelException {
-    Reflections r = null;
+  public void checkReturnEmptyMapIfTypeIndexNull() throws ODataJPAModelException {
+    JPATypeIndex r = null;
     assertNotNull(cut.create(new JPAEdmNameBuilder(PUNIT_NAME), r, helper.schema));
   }
 
   @Test
   public void checkReturnEmptyMapIfNoJavaFunctionsFound() throws ODataJPAModelException {
-    assertNotNull(cut.create(new JPAEdmNameBuilder(PUNIT_NAME), reflections, helper.schema));
+    assertNotNull(cut.create(new JPAEdmNameBuilder(PUNIT_NAME), typeIndex, helper.schema));
   }
 
   @Test
   public void checkReturnMapWithOneIfOneJavaFunctionsFound() throws ODataJPAModelException {
     javaActions.add(ExampleJavaOneAction.class);
     Map<? extends String, ? extends IntermediateJavaAction> act = cut.create(new JPAEdmNameBuilder(PUNIT_NAME),
-        reflections, helper.schema);
+        typeIndex, helper.schema);
     assertEquals(1, act.size());
   }
 
@@ -58,7 +57,7 @@ public class TestIntermediateActionFactory extends TestMappingRoot {
   public void checkReturnMapWithTwoIfTwoJavaFunctionsFound() throws ODataJPAModelException {
     javaActions.add(ExampleJavaTwoActions.class);
     Map<? extends String, ? extends IntermediateJavaAction> act = cut.create(new JPAEdmNameBuilder(PUNIT_NAME),
-        reflections, helper.schema);
+        typeIndex, helper.schema);
     assertEquals(2, act.size());
   }
 
@@ -67,7 +66,7 @@ public class TestIntermediateActionFactory extends TestMappingRoot {
     javaActions.add(ExampleJavaOneAction.class);
     javaActions.add(ExampleJavaTwoActions.class);
     Map<? extends String, ? extends IntermediateJavaAction> act = cut.create(new JPAEdmNameBuilder(PUNIT_NAME),
-        reflections, helper.schema);
+        typeIndex, helper.schema);
     assertEquals(3, act.size());
   }
 
@@ -45,12 +45,12 @@ public class TestIntermediateContainer extends TestMappingRoot {
   @Before
   public void setup() throws ODataJPAModelException {
     IntermediateModelElement.setPostProcessor(new DefaultEdmPostProcessor());
-    Reflections r =
+    JPATypeIndex r = new JPAReflectionsTypeIndex(
         new Reflections(
             new ConfigurationBuilder()
                 .forPackages(PACKAGE1, PACKAGE2)
                 .filterInputsBy(new FilterBuilder().includePackage(PACKAGE1, PACKAGE2))
-                .setScanners(new SubTypesScanner(false), new TypeAnnotationsScanner()));
+                .setScanners(new SubTypesScanner(false), new TypeAnnotationsScanner())));
 
     schema = new IntermediateSchema(new JPAEdmNameBuilder(PUNIT_NAME), emf.getMetamodel(), r);
     etList = emf.getMetamodel().getEntities();
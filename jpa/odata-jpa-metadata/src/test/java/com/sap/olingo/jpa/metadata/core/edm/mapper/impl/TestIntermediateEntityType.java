@@ -24,7 +24,6 @@ import org.apache.olingo.commons.api.edm.provider.annotation.CsdlExpression;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
-import org.reflections.Reflections;
 
 import com.sap.olingo.jpa.metadata.api.JPAEdmMetadataPostProcessor;
 import com.sap.olingo.jpa.metadata.core.edm.annotation.EdmEnumeration;
@@ -46,7 +45,7 @@ public class TestIntermediateEntityType extends TestMappingRoot {
   @Before
   public void setup() throws ODataJPAModelException {
     IntermediateModelElement.setPostProcessor(new DefaultEdmPostProcessor());
-    final Reflections r = mock(Reflections.class);
+    final JPATypeIndex r = mock(JPATypeIndex.class);
     when(r.getTypesAnnotatedWith(EdmEnumeration.class)).thenReturn(new HashSet<>(Arrays.asList(new Class<?>[] {
         ABCClassifiaction.class })));
 
@@ -11,7 +11,6 @@ import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
-import org.reflections.Reflections;
 
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.extention.ODataFunction;
@@ -21,7 +20,7 @@ import com.sap.olingo.jpa.metadata.core.edm.mapper.testobjects.ExampleJavaTwoFun
 public class TestIntermediateFunctionFactory extends TestMappingRoot {
   private TestHelper helper;
 
-  private Reflections reflections;
+  private JPATypeIndex typeIndex;
   private IntermediateFunctionFactory cut;
   private Set<Class<? extends ODataFunction>> javaFunctions;
 
@@ -29,28 +28,28 @@ public class TestIntermediateFunctionFactory extends TestMappingRoot {
   public void setUp() throws ODataJPAModelException {
     helper = new TestHelper(emf.getMetamodel(), PUNIT_NAME);
 
-    reflections = mock(Reflections.class);
+    typeIndex = mock(JPATypeIndex.class);
     cut = new IntermediateFunctionFactory();
     javaFunctions = new HashSet<Class<? extends ODataFunction>>();
-    when(reflections.getSubTypesOf(ODataFunction.class)).thenReturn(javaFunctions);
+    when(typeIndex.getSubTypesOf(ODataFunction.class)).thenReturn(javaFunctions);
   }
 
   @Test
-  public void checkReturnEmptyMapIfReflectionsNull() throws ODataJPAModelException {
-    Reflections r = null;
+  public void checkReturnEmptyMapIfTypeIndexNull() throws ODataJPAModelException {
+    JPATypeIndex r = null;
     assertNotNull(cut.create(new JPAEdmNameBuilder(PUNIT_NAME), r, helper.schema));
   }
 
   @Test
   public void checkReturnEmptyMapIfNoJavaFunctionsFound() throws ODataJPAModelException {
-    assertNotNull(cut.create(new JPAEdmNameBuilder(PUNIT_NAME), reflections, helper.schema));
+    assertNotNull(cut.create(new JPAEdmNameBuilder(PUNIT_NAME), typeIndex, helper.schema));
   }
 
   @Test
   public void checkReturnMapWithOneIfOneJavaFunctionsFound() throws ODataJPAModelException {
     javaFunctions.add(ExampleJavaOneFunction.class);
     Map<? extends String, ? extends IntermediateFunction> act = cut.create(new JPAEdmNameBuilder(PUNIT_NAME),
-        reflections, helper.schema);
+        typeIndex, helper.schema);
     assertEquals(1, act.size());
   }
 
@@ -58,7 +57,7 @@ public class TestIntermediateFunctionFactory extends TestMappingRoot {
   public void checkReturnMapWithTwoIfTwoJavaFunctionsFound() throws ODataJPAModelException {
     javaFunctions.add(ExampleJavaTwoFunctions.class);
     Map<? extends String, ? extends IntermediateFunction> act = cut.create(new JPAEdmNameBuilder(PUNIT_NAME),
-        reflections, helper.schema);
+        typeIndex, helper.schema);
     assertEquals(2, act.size());
   }
 
@@ -67,7 +66,7 @@ public class TestIntermediateFunctionFactory extends TestMappingRoot {
     javaFunctions.add(ExampleJavaOneFunction.class);
     javaFunctions.add(ExampleJavaTwoFunctions.class);
     Map<? extends String, ? extends IntermediateFunction> act = cut.create(new JPAEdmNameBuilder(PUNIT_NAME),
-        reflections, helper.schema);
+        typeIndex, helper.schema);
     assertEquals(3, act.size());
   }
 
@@ -23,7 +23,6 @@ import org.apache.olingo.commons.api.edm.provider.CsdlOnDeleteAction;
 import org.apache.olingo.commons.api.edm.provider.CsdlReferentialConstraint;
 import org.junit.Before;
 import org.junit.Test;
-import org.reflections.Reflections;
 
 import com.sap.olingo.jpa.metadata.api.JPAEdmMetadataPostProcessor;
 import com.sap.olingo.jpa.metadata.core.edm.annotation.EdmEnumeration;
@@ -47,7 +46,7 @@ public class TestIntermediateNavigationProperty extends TestMappingRoot {
 
   @Before
   public void setup() throws ODataJPAModelException {
-    final Reflections r = mock(Reflections.class);
+    final JPATypeIndex r = mock(JPATypeIndex.class);
     when(r.getTypesAnnotatedWith(EdmEnumeration.class)).thenReturn(new HashSet<>(Arrays.asList(new Class<?>[] {
         ABCClassifiaction.class })));
 
@@ -3,19 +3,29 @@ package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.olingo.commons.api.edm.EdmBindingTarget;
+import org.apache.olingo.commons.api.edm.EdmComplexType;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
 import org.apache.olingo.commons.api.edm.provider.CsdlEntityContainer;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntityType;
 import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
 import org.junit.Test;
 
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAServiceDocument;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
 
@@ -80,4 +90,145 @@ public class TestIntermediateServiceDocument extends TestMappingRoot {
     JPAServiceDocument svc = new IntermediateServiceDocument(PUNIT_NAME, emf.getMetamodel(), null, null);
     assertFalse(svc.hasETag(target));
   }
+
+  @Test
+  public void checkFactoryProvidesFrozenServiceDocument() throws ODataJPAModelException {
+    JPAServiceDocument svc = new JPAServiceDocumentFactory(PUNIT_NAME, emf.getMetamodel(), null,
+        new String[] { "com.sap.olingo.jpa.processor.core.testmodel" }).getServiceDocument();
+
+    assertTrue(((IntermediateEntityType) svc.getEntity("BusinessPartners")).isFrozen());
+    assertTrue(((IntermediateEntityType) svc.getEntity("Organizations")).isFrozen());
+  }
+
+  @Test
+  public void checkFreezeBuildsComplexTypes() throws ODataJPAModelException {
+    IntermediateServiceDocument svc = new IntermediateServiceDocument(PUNIT_NAME, emf.getMetamodel(), null,
+        new String[] { "com.sap.olingo.jpa.processor.core.testmodel" });
+    svc.freeze(null);
+
+    IntermediateStructuredType address = (IntermediateStructuredType) svc.getComplexType(mockComplexType(
+        "PostalAddressData"));
+    assertTrue(address.isFrozen());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void checkKeyOfFrozenEntityTypeCanNotBeChanged() throws ODataJPAModelException {
+    IntermediateServiceDocument svc = new IntermediateServiceDocument(PUNIT_NAME, emf.getMetamodel(), null,
+        new String[] { "com.sap.olingo.jpa.processor.core.testmodel" });
+    svc.freeze(null);
+
+    svc.getEntity("BusinessPartners").getKey().clear();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void checkPathMapOfFrozenEntityTypeCanNotBeChanged() throws ODataJPAModelException {
+    IntermediateServiceDocument svc = new IntermediateServiceDocument(PUNIT_NAME, emf.getMetamodel(), null,
+        new String[] { "com.sap.olingo.jpa.processor.core.testmodel" });
+    svc.freeze(null);
+
+    ((IntermediateEntityType) svc.getEntity("BusinessPartners")).getResolvedPathMap().clear();
+  }
+
+  @Test
+  public void checkFactoryProvidesCompactedTypes() throws ODataJPAModelException {
+    final JPAServiceDocument svc = new JPAServiceDocumentFactory(PUNIT_NAME, emf.getMetamodel(), null,
+        new String[] { "com.sap.olingo.jpa.processor.core.testmodel" }).getServiceDocument();
+    final IntermediateEntityType et = (IntermediateEntityType) svc.getEntity("Organizations");
+
+    assertTrue(et.resolvedPathMap instanceof JPAArrayMap);
+    assertTrue(et.intermediatePathMap instanceof JPAArrayMap);
+    assertTrue(et.declaredPropertiesList instanceof JPAArrayMap);
+    assertNotNull(et.getPath("Address/Region"));
+    assertNotNull(et.getPath("Address"));
+    assertNotNull(et.getAssociationPath("Roles"));
+  }
+
+  @Test
+  public void checkFrozenPathsFoundById() throws ODataJPAModelException {
+    final JPAServiceDocument svc = new JPAServiceDocumentFactory(PUNIT_NAME, emf.getMetamodel(), null,
+        new String[] { "com.sap.olingo.jpa.processor.core.testmodel" }).getServiceDocument();
+    final JPAEntityType et = svc.getEntity("Organizations");
+
+    for (final JPAPath path : et.getPathList())
+      assertSame(path, et.getPath(path.getId()));
+    assertSame(et.getPath("Address"), et.getPath(et.getPath("Address").getId()));
+    assertNull(et.getPath(-1));
+    assertNull(et.getPath(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void checkFrozenAssociationPathsFoundById() throws ODataJPAModelException {
+    final JPAServiceDocument svc = new JPAServiceDocumentFactory(PUNIT_NAME, emf.getMetamodel(), null,
+        new String[] { "com.sap.olingo.jpa.processor.core.testmodel" }).getServiceDocument();
+    final JPAEntityType et = svc.getEntity("Organizations");
+    final List<JPAAssociationPath> associationPaths = et.getAssociationPathList();
+
+    for (final JPAAssociationPath path : associationPaths) {
+      assertTrue(path.getId() < associationPaths.size());
+      assertSame(path, et.getAssociationPath(path.getId()));
+    }
+    assertNull(et.getAssociationPath(associationPaths.size()));
+  }
+
+  @Test
+  public void checkInheritedPathKeepsIdOfBaseType() throws ODataJPAModelException {
+    final JPAServiceDocument svc = new JPAServiceDocumentFactory(PUNIT_NAME, emf.getMetamodel(), null,
+        new String[] { "com.sap.olingo.jpa.processor.core.testmodel" }).getServiceDocument();
+    final JPAPath basePath = svc.getEntity("BusinessPartners").getPath("ID");
+
+    assertSame(basePath, svc.getEntity("Organizations").getPath(basePath.getId()));
+  }
+
+  @Test
+  public void checkPathHasNoIdBeforeFreeze() throws ODataJPAModelException {
+    final IntermediateServiceDocument svc = new IntermediateServiceDocument(PUNIT_NAME, emf.getMetamodel(), null,
+        new String[] { "com.sap.olingo.jpa.processor.core.testmodel" });
+
+    assertEquals(-1, svc.getEntity("Organizations").getPath("ID").getId());
+    assertNull(svc.getEntity("Organizations").getPath(0));
+  }
+
+  @Test
+  public void checkParallelBuildProvidesSameModel() throws ODataJPAModelException {
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      JPAServiceDocument expected = new JPAServiceDocumentFactory(PUNIT_NAME, emf.getMetamodel(), null,
+          new String[] { "com.sap.olingo.jpa.processor.core.testmodel" }).getServiceDocument();
+      JPAServiceDocument act = new JPAServiceDocumentFactory(PUNIT_NAME, emf.getMetamodel(), null,
+          new String[] { "com.sap.olingo.jpa.processor.core.testmodel" }, pool).getServiceDocument();
+
+      final List<CsdlEntityType> entityTypes = expected.getEdmSchemas().get(0).getEntityTypes();
+      assertEquals(entityTypes.size(), act.getEdmSchemas().get(0).getEntityTypes().size());
+      for (final CsdlEntityType entityType : entityTypes) {
+        final FullQualifiedName fqn = new FullQualifiedName(PUNIT_NAME, entityType.getName());
+        assertTrue(((IntermediateEntityType) act.getEntity(fqn)).isFrozen());
+        assertEquals(entityType.getName(), getPathAliases(expected.getEntity(fqn)), getPathAliases(act.getEntity(fqn)));
+        assertEquals(entityType.getName(), getAssociationAliases(expected.getEntity(fqn)), getAssociationAliases(act
+            .getEntity(fqn)));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private Set<String> getAssociationAliases(final JPAEntityType et) throws ODataJPAModelException {
+    final Set<String> aliases = new TreeSet<>();
+    for (final JPAAssociationPath path : et.getAssociationPathList())
+      aliases.add(path.getAlias());
+    return aliases;
+  }
+
+  private Set<String> getPathAliases(final JPAEntityType et) throws ODataJPAModelException {
+    final Set<String> aliases = new TreeSet<>();
+    for (final JPAPath path : et.getPathList())
+      aliases.add(path.getAlias());
+    return aliases;
+  }
+
+  private EdmComplexType mockComplexType(final String name) {
+    EdmComplexType type = mock(EdmComplexType.class);
+    when(type.getNamespace()).thenReturn(PUNIT_NAME);
+    when(type.getName()).thenReturn(name);
+    return type;
+  }
 }
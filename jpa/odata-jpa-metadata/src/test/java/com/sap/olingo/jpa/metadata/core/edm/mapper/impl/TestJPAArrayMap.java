@@ -0,0 +1,80 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestJPAArrayMap {
+  private Map<String, Integer> source;
+
+  @Before
+  public void setup() {
+    source = new LinkedHashMap<>();
+    source.put("Name2", 2);
+    source.put("Address/Region", 3);
+    source.put("Name1", 1);
+    source.put("ID", 0);
+  }
+
+  @Test
+  public void checkGetReturnsValue() {
+    final Map<String, Integer> cut = new JPAArrayMap<>(source);
+
+    for (final Map.Entry<String, Integer> entry : source.entrySet())
+      assertEquals(entry.getValue(), cut.get(entry.getKey()));
+  }
+
+  @Test
+  public void checkGetReturnsNullForUnknownKey() {
+    final Map<String, Integer> cut = new JPAArrayMap<>(source);
+
+    assertNull(cut.get("Address"));
+    assertNull(cut.get(null));
+    assertNull(cut.get(1));
+    assertFalse(cut.containsKey("Name3"));
+    assertTrue(cut.containsKey("Name1"));
+  }
+
+  @Test
+  public void checkIterationOrderOfSourceKept() {
+    final Map<String, Integer> cut = new JPAArrayMap<>(source);
+
+    assertEquals(new ArrayList<>(source.keySet()), new ArrayList<>(cut.keySet()));
+    assertEquals(new ArrayList<>(source.values()), new ArrayList<>(cut.values()));
+  }
+
+  @Test
+  public void checkEqualsSource() {
+    final Map<String, Integer> cut = new JPAArrayMap<>(source);
+
+    assertEquals(new HashMap<>(source), cut);
+    assertEquals(4, cut.size());
+  }
+
+  @Test
+  public void checkEmptyMap() {
+    final Map<String, Integer> cut = new JPAArrayMap<>(new HashMap<>());
+
+    assertTrue(cut.isEmpty());
+    assertNull(cut.get("ID"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void checkMapCanNotBeChanged() {
+    new JPAArrayMap<>(source).put("Name3", 4);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void checkMapCanNotBeCleared() {
+    new JPAArrayMap<>(source).clear();
+  }
+}
@@ -0,0 +1,201 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntitySet;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntityType;
+import org.apache.olingo.commons.api.edm.provider.CsdlNavigationProperty;
+import org.apache.olingo.commons.api.edm.provider.CsdlProperty;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAElement;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAOnConditionItem;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAServiceDocument;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+
+public class TestJPAEdmModelSnapshot extends TestMappingRoot {
+  private static final String[] PACKAGES = new String[] { "com.sap.olingo.jpa.processor.core.testmodel" };
+  private IntermediateServiceDocument expected;
+  private byte[] snapshot;
+
+  @Before
+  public void setup() throws ODataJPAModelException, IOException {
+    expected = new IntermediateServiceDocument(PUNIT_NAME, emf.getMetamodel(), null, PACKAGES);
+    expected.freeze(null);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    JPAEdmModelSnapshot.write(PUNIT_NAME, emf.getMetamodel(), null, PACKAGES, out);
+    snapshot = out.toByteArray();
+  }
+
+  @Test
+  public void checkSnapshotProvidesSameEntityTypes() throws ODataJPAModelException, IOException,
+      ReflectiveOperationException {
+    final JPAServiceDocument act = read(PACKAGES);
+
+    final List<CsdlEntityType> entityTypes = expected.getEdmSchemas().get(0).getEntityTypes();
+    assertEquals(entityTypes.size(), act.getEdmSchemas().get(0).getEntityTypes().size());
+    for (int i = 0; i < entityTypes.size(); i++) {
+      final CsdlEntityType expectedType = entityTypes.get(i);
+      final CsdlEntityType actType = act.getEdmSchemas().get(0).getEntityTypes().get(i);
+      assertEquals(expectedType.getName(), actType.getName());
+      assertEquals(expectedType.getBaseType(), actType.getBaseType());
+      assertEquals(expectedType.getName(), getPropertyTypes(expectedType), getPropertyTypes(actType));
+      assertEquals(expectedType.getName(), getNavigationTypes(expectedType), getNavigationTypes(actType));
+    }
+  }
+
+  @Test
+  public void checkSnapshotProvidesSameEntitySets() throws ODataJPAModelException, IOException,
+      ReflectiveOperationException {
+    final JPAServiceDocument act = read(PACKAGES);
+
+    final List<CsdlEntitySet> entitySets = expected.getEdmEntityContainer().getEntitySets();
+    assertEquals(entitySets.size(), act.getEdmEntityContainer().getEntitySets().size());
+    for (final CsdlEntitySet entitySet : entitySets) {
+      assertNotNull(entitySet.getName(), act.getEntity(entitySet.getName()));
+      assertEquals(expected.getEntity(entitySet.getName()).getExternalFQN(), act.getEntity(entitySet.getName())
+          .getExternalFQN());
+    }
+  }
+
+  @Test
+  public void checkSnapshotKeepsPathIds() throws ODataJPAModelException, IOException, ReflectiveOperationException {
+    final JPAServiceDocument act = read(PACKAGES);
+
+    for (final CsdlEntityType entityType : expected.getEdmSchemas().get(0).getEntityTypes()) {
+      final FullQualifiedName fqn = new FullQualifiedName(PUNIT_NAME, entityType.getName());
+      final JPAEntityType actType = act.getEntity(fqn);
+      for (final JPAPath path : expected.getEntity(fqn).getPathList()) {
+        final JPAPath actPath = actType.getPath(path.getId());
+        assertNotNull(path.getAlias(), actPath);
+        assertEquals(path.getAlias(), actPath.getAlias());
+        assertEquals(path.getDBFieldName(), actPath.getDBFieldName());
+        assertSame(actPath, actType.getPath(path.getAlias()));
+      }
+      for (final JPAAssociationPath path : expected.getEntity(fqn).getAssociationPathList())
+        assertEquals(path.getAlias(), actType.getAssociationPath(path.getId()).getAlias());
+    }
+  }
+
+  @Test
+  public void checkSnapshotKeepsJoinColumns() throws ODataJPAModelException, IOException,
+      ReflectiveOperationException {
+    final JPAServiceDocument act = read(PACKAGES);
+
+    for (final CsdlEntityType entityType : expected.getEdmSchemas().get(0).getEntityTypes()) {
+      final FullQualifiedName fqn = new FullQualifiedName(PUNIT_NAME, entityType.getName());
+      for (final JPAAssociationPath path : expected.getEntity(fqn).getAssociationPathList()) {
+        final JPAAssociationPath actPath = act.getEntity(fqn).getAssociationPath(path.getAlias());
+        assertEquals(path.getAlias(), getJoinColumns(path), getJoinColumns(actPath));
+        assertEquals(path.getAlias(), getColumns(path.getLeftColumnsList()), getColumns(actPath.getLeftColumnsList()));
+        assertEquals(path.getAlias(), getColumns(path.getRightColumnsList()), getColumns(actPath
+            .getRightColumnsList()));
+        if (path.getJoinTable() == null)
+          assertNull(actPath.getJoinTable());
+        else
+          assertEquals(path.getJoinTable().getTableName(), actPath.getJoinTable().getTableName());
+      }
+    }
+  }
+
+  @Test
+  public void checkSnapshotRestoresConverter() throws ODataJPAModelException, IOException,
+      ReflectiveOperationException {
+    final JPAServiceDocument act = read(PACKAGES);
+
+    final JPAAttribute expectedAttribute = expected.getEntity("Persons").getAttribute("birthDay");
+    final JPAAttribute actAttribute = act.getEntity("Persons").getAttribute("birthDay");
+    assertNotNull(actAttribute.getConverter());
+    assertEquals(expectedAttribute.getConverter().getClass(), actAttribute.getConverter().getClass());
+  }
+
+  @Test
+  public void checkSnapshotIgnoredIfFingerprintDiffers() throws IOException, ODataJPAModelException,
+      ReflectiveOperationException {
+    assertNull(read(new String[] { "com.sap.olingo.jpa.processor.core.test_udf" }));
+  }
+
+  @Test
+  public void checkSnapshotIgnoredIfNamespaceDiffers() throws IOException, ODataJPAModelException,
+      ReflectiveOperationException {
+    assertNull(JPAEdmModelSnapshot.read(new ByteArrayInputStream(snapshot), getClass().getClassLoader(), "Dummy", emf
+        .getMetamodel(), null, PACKAGES));
+  }
+
+  @Test
+  public void checkLoadReturnsNullWithoutSnapshot() {
+    assertNull(JPAEdmModelSnapshot.load(PUNIT_NAME, emf.getMetamodel(), null, PACKAGES));
+  }
+
+  @Test
+  public void checkFactoryBuildsModelWithoutSnapshot() throws ODataJPAModelException {
+    final JPAServiceDocument svc = new JPAServiceDocumentFactory(PUNIT_NAME, emf.getMetamodel(), null, PACKAGES)
+        .getServiceDocument();
+    assertEquals(IntermediateServiceDocument.class, svc.getClass());
+  }
+
+  private JPAServiceDocument read(final String[] packageName) throws IOException, ODataJPAModelException,
+      ReflectiveOperationException {
+    return JPAEdmModelSnapshot.read(new ByteArrayInputStream(snapshot), getClass().getClassLoader(), PUNIT_NAME, emf
+        .getMetamodel(), null, packageName);
+  }
+
+  private List<String> getColumns(final List<JPAPath> columns) {
+    final List<String> result = new ArrayList<>();
+    for (final JPAPath column : columns)
+      result.add(column != null ? column.getDBFieldName() : null);
+    return result;
+  }
+
+  private List<String> getJoinColumns(final JPAAssociationPath path) {
+    final List<String> result = new ArrayList<>();
+    try {
+      for (final JPAOnConditionItem item : path.getJoinColumnsList())
+        result.add(getElements(item.getLeftPath()) + "=" + getElements(item.getRightPath()));
+    } catch (ODataJPAModelException e) {
+      // Some join columns can not be resolved, the snapshot has to reject them the same way
+      result.add(e.getMessage());
+    }
+    return result;
+  }
+
+  private String getElements(final JPAPath path) {
+    final StringBuilder result = new StringBuilder(path.getDBFieldName());
+    for (final JPAElement element : path.getPath())
+      result.append('/').append(element.getInternalName());
+    return result.toString();
+  }
+
+  private List<String> getNavigationTypes(final CsdlEntityType entityType) {
+    final List<String> result = new ArrayList<>();
+    if (entityType.getNavigationProperties() == null)
+      return result;
+    for (final CsdlNavigationProperty property : entityType.getNavigationProperties())
+      result.add(property.getName() + ":" + property.getType() + ":" + property.getPartner());
+    return result;
+  }
+
+  private List<String> getPropertyTypes(final CsdlEntityType entityType) {
+    final List<String> result = new ArrayList<>();
+    if (entityType.getProperties() == null)
+      return result;
+    for (final CsdlProperty property : entityType.getProperties())
+      result.add(property.getName() + ":" + property.getType() + ":" + property.getMaxLength());
+    return result;
+  }
+}
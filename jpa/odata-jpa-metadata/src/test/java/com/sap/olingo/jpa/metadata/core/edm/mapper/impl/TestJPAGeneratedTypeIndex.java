@@ -0,0 +1,85 @@
+package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.sap.olingo.jpa.metadata.core.edm.annotation.EdmEnumeration;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.extention.ODataAction;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.extention.ODataFunction;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.testobjects.ExampleJavaOneAction;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.testobjects.ExampleJavaOneFunction;
+import com.sap.olingo.jpa.processor.core.testmodel.ABCClassifiaction;
+import com.sap.olingo.jpa.processor.core.testmodel.AccessRights;
+
+public class TestJPAGeneratedTypeIndex extends TestMappingRoot {
+  private static final String TEST_MODEL = "com.sap.olingo.jpa.processor.core.testmodel";
+  private static final String TEST_OBJECTS = "com.sap.olingo.jpa.metadata.core.edm.mapper.testobjects";
+
+  @Test
+  public void checkLoadReturnsNullIfPackageNotIndexed() throws IOException {
+    assertNull(JPAGeneratedTypeIndex.load(TEST_MODEL, "org.apache.olingo.commons.api"));
+  }
+
+  @Test
+  public void checkLoadReturnsNullIfOneLocationOfPackageNotIndexed() throws IOException {
+    // The package is also contained in odata-jpa-annotation, which is not compiled with the annotation processor
+    assertNull(JPAGeneratedTypeIndex.load("com.sap.olingo.jpa"));
+  }
+
+  @Test
+  public void checkLoadReturnsIndexForSuperPackage() throws IOException {
+    assertNotNull(JPAGeneratedTypeIndex.load("com.sap.olingo.jpa.processor.core"));
+  }
+
+  @Test
+  public void checkGetTypesAnnotatedWithReturnsEnumerations() throws IOException {
+    final Set<Class<?>> act = JPAGeneratedTypeIndex.load(TEST_MODEL).getTypesAnnotatedWith(EdmEnumeration.class);
+
+    assertEquals(2, act.size());
+    assertTrue(act.contains(ABCClassifiaction.class));
+    assertTrue(act.contains(AccessRights.class));
+  }
+
+  @Test
+  public void checkGetSubTypesOfReturnsOperations() throws IOException {
+    final JPATypeIndex cut = JPAGeneratedTypeIndex.load(TEST_OBJECTS);
+
+    assertTrue(cut.getSubTypesOf(ODataFunction.class).contains(ExampleJavaOneFunction.class));
+    assertFalse(cut.getSubTypesOf(ODataFunction.class).contains(ExampleJavaOneAction.class));
+    assertTrue(cut.getSubTypesOf(ODataAction.class).contains(ExampleJavaOneAction.class));
+  }
+
+  @Test
+  public void checkTypesOfOtherPackagesInSameIndexProvided() throws IOException {
+    final JPATypeIndex cut = JPAGeneratedTypeIndex.load(TEST_OBJECTS);
+
+    assertTrue(cut.getSubTypesOf(ODataFunction.class).contains(
+        com.sap.olingo.jpa.metadata.core.edm.mapper.impl.ExampleJavaOneFunction.class));
+  }
+
+  @Test
+  public void checkTypesOfOtherIndicesIgnored() throws IOException {
+    final JPATypeIndex cut = JPAGeneratedTypeIndex.load(TEST_MODEL);
+
+    assertTrue(cut.getSubTypesOf(ODataFunction.class).isEmpty());
+  }
+
+  @Test
+  public void checkIndexProvidesSameTypesAsScan() throws IOException {
+    final JPATypeIndex expected = JPAReflectionsTypeIndex.create(TEST_OBJECTS);
+    final JPATypeIndex act = JPAGeneratedTypeIndex.load(TEST_OBJECTS);
+
+    assertEquals(expected.getSubTypesOf(ODataFunction.class), act.getSubTypesOf(ODataFunction.class));
+    assertEquals(expected.getSubTypesOf(ODataAction.class), act.getSubTypesOf(ODataAction.class));
+    assertEquals(expected.getTypesAnnotatedWith(EdmEnumeration.class), act.getTypesAnnotatedWith(
+        EdmEnumeration.class));
+  }
+}
@@ -1,6 +1,8 @@
 package com.sap.olingo.jpa.metadata.core.edm.mapper.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.junit.Before;
@@ -87,4 +89,19 @@ public class TestJPAPath extends TestMappingRoot {
     assertEquals("by", cut.getPath().get(2).getInternalName());
   }
 
+  @Test(expected = UnsupportedOperationException.class)
+  public void checkThreePathElementPathCanNotBeChanged() throws ODataApplicationException, ODataJPAModelException {
+    JPAPath cut = organization.getPath("AdministrativeInformation/Created/By");
+    cut.getPath().remove(0);
+  }
+
+  @Test
+  public void checkAliasSharedByTypes() throws ODataApplicationException, ODataJPAModelException {
+    final JPAEntityType other = new IntermediateEntityType(new JPAEdmNameBuilder(PUNIT_NAME), helper.getEntityType(
+        "PersonImage"), helper.schema);
+    JPAPath cut = organization.getPath("AdministrativeInformation/Created/By");
+    assertNotSame(cut, other.getPath("AdministrativeInformation/Created/By"));
+    assertSame(cut.getAlias(), other.getPath("AdministrativeInformation/Created/By").getAlias());
+  }
+
 }
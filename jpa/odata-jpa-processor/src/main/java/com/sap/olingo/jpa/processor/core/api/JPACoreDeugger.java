@@ -7,15 +7,24 @@ import java.util.List;
 import org.apache.olingo.server.api.debug.RuntimeMeasurement;
 
 class JPACoreDeugger implements JPAServiceDebugger {
+  // Class.getSimpleName determines the name on each call, but the debugger is used for each request in case the slow
+  // request log is active
+  private static final ClassValue<String> SIMPLE_NAMES = new ClassValue<String>() {
+    @Override
+    protected String computeValue(final Class<?> type) {
+      return type.getSimpleName();
+    }
+  };
   private final List<RuntimeMeasurement> runtimeInformation = new ArrayList<RuntimeMeasurement>();
+  private final List<JPAODataSlowRequest.Query> queries = new ArrayList<>();
 
   @Override
-  public int startRuntimeMeasurement(final Object instance, final String methodName) {
+  public synchronized int startRuntimeMeasurement(final Object instance, final String methodName) {
     final int handleId = runtimeInformation.size();
 
     final RuntimeMeasurement measurement = new RuntimeMeasurement();
     measurement.setTimeStarted(System.nanoTime());
-    measurement.setClassName(instance.getClass().getSimpleName());
+    measurement.setClassName(SIMPLE_NAMES.get(instance.getClass()));
     measurement.setMethodName(methodName);
 
     runtimeInformation.add(measurement);
@@ -24,7 +33,7 @@ class JPACoreDeugger implements JPAServiceDebugger {
   }
 
   @Override
-  public void stopRuntimeMeasurement(final int handle) {
+  public synchronized void stopRuntimeMeasurement(final int handle) {
     if (handle < runtimeInformation.size()) {
       final RuntimeMeasurement runtimeMeasurement = runtimeInformation.get(handle);
       if (runtimeMeasurement != null) {
@@ -38,4 +47,14 @@ class JPACoreDeugger implements JPAServiceDebugger {
     return runtimeInformation;
   }
 
+  @Override
+  public synchronized void recordQuery(final Object query, final long rowsFetched, final long rowsReturned) {
+    queries.add(new JPAODataSlowRequest.Query(query, rowsFetched, rowsReturned));
+  }
+
+  @Override
+  public Collection<JPAODataSlowRequest.Query> getQueries() {
+    return queries;
+  }
+
 }
@@ -0,0 +1,245 @@
+package com.sap.olingo.jpa.processor.core.api;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Default implementation of {@link JPAODataMetrics}, which keeps the metrics in memory. The metrics are collected per
+ * request kind and entity set. Durations are collected in histograms with buckets growing by the power of two, starting
+ * with one microsecond. All counters are striped ({@link LongAdder}), so parallel requests do not contend for them,
+ * and, once a combination of request kind and entity set is known, recording does not allocate memory.<p>
+ * The metrics can be exported as JSON, e.g. by a servlet registered for a local endpoint:
+ *
+ * <pre>
+ * protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+ *   resp.setContentType("application/json");
+ *   metrics.writeJson(resp.getWriter());
+ * }
+ * </pre>
+ * @author Oliver Grande
+ *
+ */
+public final class JPADefaultMetrics implements JPAODataMetrics {
+  static final int BUCKETS = 32;
+
+  private final ConcurrentMap<String, ConcurrentMap<String, Series>> seriesByKind = new ConcurrentHashMap<>();
+
+  @Override
+  public void recordDuration(final Phase phase, final String requestKind, final String entitySet, final long nanos) {
+    getSeries(requestKind, entitySet).histograms[phase.ordinal()].record(nanos);
+  }
+
+  @Override
+  public void recordResultSize(final String requestKind, final String entitySet, final long rows,
+      final long entities) {
+    final Series series = getSeries(requestKind, entitySet);
+    series.results.increment();
+    series.rows.add(rows);
+    series.entities.add(entities);
+  }
+
+  /**
+   * @return Number of recorded durations of a phase
+   */
+  public long getCount(final Phase phase, final String requestKind, final String entitySet) {
+    final Series series = findSeries(requestKind, entitySet);
+    return series == null ? 0 : series.histograms[phase.ordinal()].count.sum();
+  }
+
+  /**
+   * @return Number of rows read from the database for the request kind and entity set
+   */
+  public long getRows(final String requestKind, final String entitySet) {
+    final Series series = findSeries(requestKind, entitySet);
+    return series == null ? 0 : series.rows.sum();
+  }
+
+  /**
+   * @return Number of entities returned for the request kind and entity set
+   */
+  public long getEntities(final String requestKind, final String entitySet) {
+    final Series series = findSeries(requestKind, entitySet);
+    return series == null ? 0 : series.entities.sum();
+  }
+
+  /**
+   * Removes all recorded metrics
+   */
+  public void reset() {
+    seriesByKind.clear();
+  }
+
+  /**
+   * @return The metrics as JSON document, see {@link #writeJson(Writer)}
+   */
+  public String toJson() {
+    final StringWriter writer = new StringWriter();
+    try {
+      writeJson(writer);
+    } catch (IOException e) {
+      // A StringWriter does not throw IOExceptions
+      throw new IllegalStateException(e);
+    }
+    return writer.toString();
+  }
+
+  /**
+   * Writes the metrics as JSON document. Per request kind and entity set the number of results, rows and entities is
+   * provided as well as the histograms of the phases. A histogram contains the number of durations, the sum and the
+   * maximum in microseconds and the number of durations per bucket, identified by its upper bound in microseconds.
+   * Empty buckets are omitted.
+   * @param writer
+   * @throws IOException
+   */
+  public void writeJson(final Writer writer) throws IOException {
+    writer.write("{\"metrics\":[");
+    boolean first = true;
+    for (final Entry<String, Map<String, Series>> kind : sorted(seriesByKind).entrySet()) {
+      for (final Entry<String, Series> entitySet : kind.getValue().entrySet()) {
+        if (!first)
+          writer.write(',');
+        first = false;
+        writeSeries(writer, kind.getKey(), entitySet.getKey(), entitySet.getValue());
+      }
+    }
+    writer.write("]}");
+    writer.flush();
+  }
+
+  private Series findSeries(final String requestKind, final String entitySet) {
+    final ConcurrentMap<String, Series> seriesByEntitySet = seriesByKind.get(requestKind);
+    return seriesByEntitySet == null ? null : seriesByEntitySet.get(entitySet);
+  }
+
+  private Series getSeries(final String requestKind, final String entitySet) {
+    ConcurrentMap<String, Series> seriesByEntitySet = seriesByKind.get(requestKind);
+    if (seriesByEntitySet == null)
+      seriesByEntitySet = seriesByKind.computeIfAbsent(requestKind, key -> new ConcurrentHashMap<>());
+    final Series series = seriesByEntitySet.get(entitySet);
+    if (series != null)
+      return series;
+    return seriesByEntitySet.computeIfAbsent(entitySet, key -> new Series());
+  }
+
+  private Map<String, Map<String, Series>> sorted(final Map<String, ConcurrentMap<String, Series>> source) {
+    final Map<String, Map<String, Series>> result = new TreeMap<>();
+    for (final Entry<String, ConcurrentMap<String, Series>> entry : source.entrySet())
+      result.put(entry.getKey(), new TreeMap<>(entry.getValue()));
+    return result;
+  }
+
+  private void writeSeries(final Writer writer, final String requestKind, final String entitySet,
+      final Series series) throws IOException {
+    writer.write("{\"requestKind\":");
+    writeString(writer, requestKind);
+    writer.write(",\"entitySet\":");
+    writeString(writer, entitySet);
+    writer.write(",\"results\":" + series.results.sum());
+    writer.write(",\"rows\":" + series.rows.sum());
+    writer.write(",\"entities\":" + series.entities.sum());
+    writer.write(",\"phases\":{");
+    boolean first = true;
+    for (final Phase phase : Phase.values()) {
+      final Histogram histogram = series.histograms[phase.ordinal()];
+      if (histogram.count.sum() == 0)
+        continue;
+      if (!first)
+        writer.write(',');
+      first = false;
+      writer.write("\"" + phase.name() + "\":");
+      histogram.writeJson(writer);
+    }
+    writer.write("}}");
+  }
+
+  static void writeString(final Writer writer, final String value) throws IOException {
+    if (value == null) {
+      writer.write("null");
+      return;
+    }
+    writer.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if (c == '"' || c == '\\')
+        writer.write('\\');
+      if (c < 0x20)
+        writer.write(String.format("\\u%04x", (int) c));
+      else
+        writer.write(c);
+    }
+    writer.write('"');
+  }
+
+  /**
+   * Metrics of one combination of request kind and entity set
+   */
+  private static final class Series {
+    private final Histogram[] histograms;
+    private final LongAdder results = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder entities = new LongAdder();
+
+    private Series() {
+      super();
+      histograms = new Histogram[Phase.values().length];
+      for (int i = 0; i < histograms.length; i++)
+        histograms[i] = new Histogram();
+    }
+  }
+
+  /**
+   * Histogram of durations. Bucket <i>i</i> counts durations of less than 2<sup>i</sup> microseconds, which are not
+   * counted by a lower bucket. The last bucket also takes all longer durations.
+   */
+  static final class Histogram {
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    Histogram() {
+      super();
+      for (int i = 0; i < buckets.length; i++)
+        buckets[i] = new LongAdder();
+    }
+
+    static int determineBucket(final long nanos) {
+      final long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+      return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    void record(final long nanos) {
+      buckets[determineBucket(nanos)].increment();
+      count.increment();
+      sumNanos.add(nanos);
+      maxNanos.accumulate(nanos);
+    }
+
+    private void writeJson(final Writer writer) throws IOException {
+      writer.write("{\"count\":" + count.sum());
+      writer.write(",\"sumMicros\":" + TimeUnit.NANOSECONDS.toMicros(sumNanos.sum()));
+      writer.write(",\"maxMicros\":" + TimeUnit.NANOSECONDS.toMicros(maxNanos.get()));
+      writer.write(",\"buckets\":{");
+      boolean first = true;
+      for (int i = 0; i < buckets.length; i++) {
+        final long bucketCount = buckets[i].sum();
+        if (bucketCount == 0)
+          continue;
+        if (!first)
+          writer.write(',');
+        first = false;
+        writer.write("\"" + (i == BUCKETS - 1 ? "max" : Long.toString(1L << i)) + "\":" + bucketCount);
+      }
+      writer.write("}}");
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package com.sap.olingo.jpa.processor.core.api;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Default implementation of a {@link JPAODataResponseCache}. The cache is bounded by the sum of the sizes of the
+ * response bodies and evicts the least recently used response, once the limit is exceeded. Responses larger than the
+ * limit are not stored at all. All access is synchronized.<p>
+ * A response read while a change was committed may already be outdated. Therefore a response is not stored, if an
+ * invalidation took place after the same thread got a cache miss for it.
+ * @author Oliver Grande
+ *
+ */
+public final class JPADefaultResponseCache implements JPAODataResponseCache {
+  private final long maxBytes;
+  private final LinkedHashMap<String, JPAODataCachedResponse> responses;
+  private final Map<String, Set<String>> keysByEntitySet;
+  private final Map<String, Collection<String>> entitySetsByKey;
+  private final ThreadLocal<Long> missedAt = new ThreadLocal<>();
+  private long invalidations;
+  private long usedBytes;
+  private long hits;
+  private long misses;
+
+  /**
+   * @param maxBytes Maximum number of bytes of all cached response bodies
+   */
+  public JPADefaultResponseCache(final long maxBytes) {
+    super();
+    this.maxBytes = maxBytes;
+    this.responses = new LinkedHashMap<>(16, 0.75f, true);
+    this.keysByEntitySet = new HashMap<>();
+    this.entitySetsByKey = new HashMap<>();
+  }
+
+  @Override
+  public synchronized void clear() {
+    invalidations++;
+    responses.clear();
+    keysByEntitySet.clear();
+    entitySetsByKey.clear();
+    usedBytes = 0;
+  }
+
+  @Override
+  public synchronized JPAODataCachedResponse get(final String key) {
+    final JPAODataCachedResponse response = responses.get(key);
+    if (response != null)
+      hits++;
+    else {
+      misses++;
+      missedAt.set(invalidations);
+    }
+    return response;
+  }
+
+  /**
+   * @return Number of requests answered from the cache
+   */
+  public synchronized long getHitCount() {
+    return hits;
+  }
+
+  /**
+   * @return Number of requests that could not be answered from the cache
+   */
+  public synchronized long getMissCount() {
+    return misses;
+  }
+
+  /**
+   * @return Number of bytes of all cached response bodies
+   */
+  public synchronized long getUsedBytes() {
+    return usedBytes;
+  }
+
+  @Override
+  public synchronized void invalidate(final Collection<String> entitySetNames) {
+    invalidations++;
+    for (final String entitySetName : entitySetNames) {
+      final Set<String> keys = keysByEntitySet.remove(entitySetName);
+      if (keys != null) {
+        for (final String key : keys)
+          remove(key);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void put(final String key, final Collection<String> entitySetNames,
+      final JPAODataCachedResponse response) {
+    final Long missed = missedAt.get();
+    missedAt.remove();
+    if (response.getSize() > maxBytes || missed != null && missed != invalidations)
+      return;
+    remove(key);
+    responses.put(key, response);
+    entitySetsByKey.put(key, entitySetNames);
+    for (final String entitySetName : entitySetNames) {
+      Set<String> keys = keysByEntitySet.get(entitySetName);
+      if (keys == null) {
+        keys = new HashSet<>();
+        keysByEntitySet.put(entitySetName, keys);
+      }
+      keys.add(key);
+    }
+    usedBytes += response.getSize();
+    evict();
+  }
+
+  @Override
+  public void release(final String key) {
+    missedAt.remove();
+  }
+
+  public synchronized int size() {
+    return responses.size();
+  }
+
+  private void evict() {
+    final Iterator<Entry<String, JPAODataCachedResponse>> iterator = responses.entrySet().iterator();
+    while (usedBytes > maxBytes && iterator.hasNext()) {
+      final Entry<String, JPAODataCachedResponse> eldest = iterator.next();
+      iterator.remove();
+      usedBytes -= eldest.getValue().getSize();
+      removeDependencies(eldest.getKey());
+    }
+  }
+
+  private void remove(final String key) {
+    final JPAODataCachedResponse response = responses.remove(key);
+    if (response != null) {
+      usedBytes -= response.getSize();
+      removeDependencies(key);
+    }
+  }
+
+  private void removeDependencies(final String key) {
+    final Collection<String> entitySetNames = entitySetsByKey.remove(key);
+    for (final String entitySetName : entitySetNames) {
+      final Set<String> keys = keysByEntitySet.get(entitySetName);
+      if (keys != null) {
+        keys.remove(key);
+        if (keys.isEmpty())
+          keysByEntitySet.remove(entitySetName);
+      }
+    }
+  }
+}
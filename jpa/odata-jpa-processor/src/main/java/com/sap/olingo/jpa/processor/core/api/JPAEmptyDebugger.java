@@ -20,4 +20,12 @@ final class JPAEmptyDebugger implements JPAServiceDebugger {
     return new ArrayList<RuntimeMeasurement>();
   }
 
+  @Override
+  public void recordQuery(final Object query, final long rowsFetched, final long rowsReturned) {}
+
+  @Override
+  public Collection<JPAODataSlowRequest.Query> getQueries() {
+    return new ArrayList<>();
+  }
+
 }
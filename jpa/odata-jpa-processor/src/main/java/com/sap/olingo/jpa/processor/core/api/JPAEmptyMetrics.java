@@ -0,0 +1,15 @@
+package com.sap.olingo.jpa.processor.core.api;
+
+/**
+ * Used if no metrics shall be recorded
+ */
+final class JPAEmptyMetrics implements JPAODataMetrics {
+  static final JPAODataMetrics INSTANCE = new JPAEmptyMetrics();
+
+  @Override
+  public void recordDuration(final Phase phase, final String requestKind, final String entitySet, final long nanos) {}
+
+  @Override
+  public void recordResultSize(final String requestKind, final String entitySet, final long rows,
+      final long entities) {}
+}
@@ -1,8 +1,12 @@
 package com.sap.olingo.jpa.processor.core.api;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.persistence.EntityManager;
@@ -10,6 +14,7 @@ import javax.persistence.EntityTransaction;
 import javax.persistence.OptimisticLockException;
 import javax.persistence.RollbackException;
 
+import org.apache.olingo.commons.api.ex.ODataException;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
@@ -26,6 +31,7 @@ import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 import org.apache.olingo.server.api.processor.BatchProcessor;
 
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAProcessorException;
+import com.sap.olingo.jpa.processor.core.processor.JPAResponseCacheUtil;
 
 /**
  * 
@@ -40,6 +46,7 @@ public final class JPAODataBatchProcessor implements BatchProcessor {
 
   private final EntityManager em;
   private OData odata;
+  private ServiceMetadata serviceMetadata;
   private final JPAODataSessionContextAccess context;
 
   public JPAODataBatchProcessor(final JPAODataSessionContextAccess context, final EntityManager em) {
@@ -50,6 +57,7 @@ public final class JPAODataBatchProcessor implements BatchProcessor {
   @Override
   public void init(final OData odata, final ServiceMetadata serviceMetadata) {
     this.odata = odata;
+    this.serviceMetadata = serviceMetadata;
   }
 
   @Override
@@ -67,7 +75,9 @@ public final class JPAODataBatchProcessor implements BatchProcessor {
 
     final List<ODataResponsePart> responseParts = new ArrayList<>();
     for (final BatchRequestPart part : requestParts) {
-      responseParts.add(facade.handleBatchRequest(part));
+      final ODataResponsePart responsePart = facade.handleBatchRequest(part);
+      writeStreamedContent(responsePart);
+      responseParts.add(responsePart);
     }
     final String responseBoundary = "batch_" + UUID.randomUUID().toString();
     final InputStream responseContent = odata.createFixedFormatSerializer().batchResponse(responseParts,
@@ -148,6 +158,7 @@ public final class JPAODataBatchProcessor implements BatchProcessor {
       }
       context.getCUDRequestHandler().validateChanges(em);
       t.commit();
+      invalidateResponseCache(requests);
       context.getDebugger().stopRuntimeMeasurement(handle);
       return new ODataResponsePart(responses, true);
     } catch (ODataApplicationException e) {
@@ -171,4 +182,44 @@ public final class JPAODataBatchProcessor implements BatchProcessor {
       throw new ODataJPAProcessorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
     }
   }
+
+  /**
+   * Removes the cached responses that may be outdated by the changes of a committed change set.
+   */
+  private void invalidateResponseCache(final List<ODataRequest> requests) {
+    final JPAODataResponseCache cache = context.getResponseCache();
+    if (cache != null) {
+      final Set<String> entitySets = new HashSet<>();
+      try {
+        for (final ODataRequest request : requests) {
+          final Set<String> changedEntitySets = JPAResponseCacheUtil.determineChangedEntitySets(serviceMetadata
+              .getEdm(), request, context.getEdmProvider().getServiceDocument());
+          if (changedEntitySets == null) {
+            cache.clear();
+            return;
+          }
+          entitySets.addAll(changedEntitySets);
+        }
+      } catch (ODataException e) {
+        cache.clear();
+        return;
+      }
+      cache.invalidate(entitySets);
+    }
+  }
+
+  /**
+   * The batch response serializer only takes the content of a response into account. Therefore a streamed response
+   * content has to be written before the batch response is created.
+   * @param responsePart
+   */
+  private void writeStreamedContent(final ODataResponsePart responsePart) {
+    for (final ODataResponse response : responsePart.getResponses()) {
+      if (response.getContent() == null && response.getODataContent() != null) {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        response.getODataContent().write(content);
+        response.setContent(new ByteArrayInputStream(content.toByteArray()));
+      }
+    }
+  }
 }
@@ -0,0 +1,50 @@
+package com.sap.olingo.jpa.processor.core.api;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Immutable copy of a serialized response, as stored by a {@link JPAODataResponseCache}.
+ * @author Oliver Grande
+ *
+ */
+public final class JPAODataCachedResponse {
+  private final int statusCode;
+  private final Map<String, List<String>> headers;
+  private final byte[] content;
+
+  public JPAODataCachedResponse(final int statusCode, final Map<String, List<String>> headers, final byte[] content) {
+    super();
+    this.statusCode = statusCode;
+    final Map<String, List<String>> headerCopy = new HashMap<>(headers.size());
+    for (final Entry<String, List<String>> header : headers.entrySet())
+      headerCopy.put(header.getKey(), Collections.unmodifiableList(header.getValue()));
+    this.headers = Collections.unmodifiableMap(headerCopy);
+    this.content = content.clone();
+  }
+
+  /**
+   * @return Copy of the response body
+   */
+  public byte[] getContent() {
+    return content.clone();
+  }
+
+  public Map<String, List<String>> getHeaders() {
+    return headers;
+  }
+
+  /**
+   * @return Size of the response body in bytes
+   */
+  public int getSize() {
+    return content.length;
+  }
+
+  public int getStatusCode() {
+    return statusCode;
+  }
+}
@@ -3,6 +3,16 @@ package com.sap.olingo.jpa.processor.core.api;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.persistence.metamodel.Metamodel;
 
 import org.apache.olingo.commons.api.edmx.EdmxReference;
 import org.apache.olingo.commons.api.ex.ODataException;
@@ -18,6 +28,7 @@ import com.sap.olingo.jpa.processor.core.database.JPADefaultDatabaseProcessor;
 import com.sap.olingo.jpa.processor.core.database.JPAODataDatabaseOperations;
 import com.sap.olingo.jpa.processor.core.database.JPAODataDatabaseProcessorFactory;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAFilterException;
+import com.sap.olingo.jpa.processor.core.query.JPAQueryPlanCache;
 
 final class JPAODataContextImpl implements JPAODataCRUDContext, JPAODataSessionContextAccess {
   /**
@@ -25,20 +36,32 @@ final class JPAODataContextImpl implements JPAODataCRUDContext, JPAODataSessionC
    */
   private final JPAODataGetHandler jpaoDataGetHandler;
   private List<EdmxReference> references = new ArrayList<>();
-  private JPADebugSupportWrapper debugSupport;
+  private DebugSupport debugSupport;
+  private JPADebugSupportWrapper debugSupportWrapper;
   private JPAODataDatabaseOperations operationConverter;
-  private JPAEdmProvider jpaEdm;
+  private volatile JPAODataModelVersion model;
   private JPAODataDatabaseProcessor databaseProcessor;
   private JPAServiceDebugger debugger;
-  private JPAEdmMetadataPostProcessor postProcessor;
+  private volatile JPAEdmMetadataPostProcessor postProcessor;
   private JPACUDRequestHandler jpaCUDRequestHandler;
   private String[] packageName;
   private ErrorProcessor errorProcessor;
+  private final Map<String, Integer> maxPageSizes = new ConcurrentHashMap<>();
+  private Integer streamingFetchSize;
+  private Executor expandExecutor;
+  private ForkJoinPool metadataBuildPool;
+  private Integer expandInListChunkSize;
+  private JPAODataResponseCache responseCache;
+  private JPAQueryPlanCache queryPlanCache;
+  private JPAODataMetrics metrics = JPAEmptyMetrics.INSTANCE;
+  private JPAODataSlowRequestLog slowRequestLog;
+  private long slowRequestThresholdNanos;
+  private CompletableFuture<Long> lastReload = CompletableFuture.completedFuture(0L);
 
   public JPAODataContextImpl(JPAODataGetHandler jpaoDataGetHandler) throws ODataException {
     super();
     this.jpaoDataGetHandler = jpaoDataGetHandler;
-    this.debugSupport = this.jpaoDataGetHandler.new JPADebugSupportWrapper(new DefaultDebugSupport());
+    setDebugSupport(new DefaultDebugSupport());
     operationConverter = new JPADefaultDatabaseProcessor();
     try {
       databaseProcessor = new JPAODataDatabaseProcessorFactory().create(this.jpaoDataGetHandler.ds);
@@ -65,21 +88,60 @@ final class JPAODataContextImpl implements JPAODataCRUDContext, JPAODataSessionC
 
   @Override
   public DebugSupport getDebugSupport() {
+    return debugSupportWrapper;
+  }
+
+  /**
+   * @return Debug support as provided via {@link #setDebugSupport(DebugSupport)}, which is wrapped per request
+   */
+  DebugSupport getServiceDebugSupport() {
     return debugSupport;
   }
 
   @Override
   public JPAEdmProvider getEdmProvider() throws ODataException {
-    if (jpaEdm == null)
-      jpaEdm = new JPAEdmProvider(this.jpaoDataGetHandler.namespace, this.jpaoDataGetHandler.jpaMetamodel,
-          postProcessor, packageName);
-    return jpaEdm;
+    return getModel().getEdmProvider();
   }
 
   public ErrorProcessor getErrorProcessor() {
     return this.errorProcessor == null ? new JPADefaultErrorProcessor() : this.errorProcessor;
   }
 
+  @Override
+  public Executor getExpandExecutor() {
+    return expandExecutor;
+  }
+
+  @Override
+  public Integer getExpandInListChunkSize() {
+    return expandInListChunkSize;
+  }
+
+  @Override
+  public Integer getMaxPageSize(final String entitySetName) {
+    return maxPageSizes.get(entitySetName);
+  }
+
+  @Override
+  public JPAODataMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * @return Current version of the metadata model. The first version is build with the first call
+   * @throws ODataException
+   */
+  JPAODataModelVersion getModel() throws ODataException {
+    final JPAODataModelVersion current = model;
+    return current != null ? current : createModel();
+  }
+
+  @Override
+  public long getModelVersion() {
+    final JPAODataModelVersion current = model;
+    return current != null ? current.getVersion() : 0;
+  }
+
   @Override
   public JPAODataDatabaseOperations getOperationConverter() {
     return operationConverter;
@@ -90,28 +152,45 @@ final class JPAODataContextImpl implements JPAODataCRUDContext, JPAODataSessionC
     return packageName;
   }
 
+  @Override
+  public JPAQueryPlanCache getQueryPlanCache() {
+    return queryPlanCache;
+  }
+
   @Override
   public List<EdmxReference> getReferences() {
     return references;
   }
 
+  @Override
+  public JPAODataResponseCache getResponseCache() {
+    return responseCache;
+  }
+
+  /**
+   * @return Slow request log or null if requests shall not be logged
+   */
+  JPAODataSlowRequestLog getSlowRequestLog() {
+    return slowRequestLog;
+  }
+
+  long getSlowRequestThresholdNanos() {
+    return slowRequestThresholdNanos;
+  }
+
+  @Override
+  public Integer getStreamingFetchSize() {
+    return streamingFetchSize;
+  }
+
+  /**
+   * Initializes the debugger of this context. {@link JPAODataGetHandler} does not use it, as it creates an own debugger
+   * for each request, so requests can be processed in parallel.
+   */
   @Override
   public void initDebugger(final String debugFormat) {
-    // see org.apache.olingo.server.core.debug.ServerCoreDebugger
-    boolean isDebugMode = false;
-
-    if (debugSupport != null) {
-      // Should we read the parameter from the servlet here and ignore multiple parameters?
-      if (debugFormat != null) {
-        debugSupport.init(this.jpaoDataGetHandler.odata);
-        isDebugMode = debugSupport.isUserAuthorized();
-      }
-      if (isDebugMode)
-        debugger = new JPACoreDeugger();
-      else
-        debugger = new JPAEmptyDebugger();
-      debugSupport.setDebugger(debugger);
-    }
+    debugger = JPAODataRequestSessionContext.createDebugger(this.jpaoDataGetHandler.odata, debugSupportWrapper,
+        debugFormat, slowRequestLog != null);
   }
 
   @Override
@@ -122,11 +201,13 @@ final class JPAODataContextImpl implements JPAODataCRUDContext, JPAODataSessionC
   @Override
   public void setDatabaseProcessor(final JPAODataDatabaseProcessor databaseProcessor) {
     this.databaseProcessor = databaseProcessor;
+    clearQueryPlanCache();
   }
 
   @Override
   public void setDebugSupport(final DebugSupport jpaDebugSupport) {
-    this.debugSupport = this.jpaoDataGetHandler.new JPADebugSupportWrapper(jpaDebugSupport);
+    this.debugSupport = jpaDebugSupport;
+    this.debugSupportWrapper = this.jpaoDataGetHandler.new JPADebugSupportWrapper(jpaDebugSupport);
   }
 
   @Override
@@ -135,17 +216,69 @@ final class JPAODataContextImpl implements JPAODataCRUDContext, JPAODataSessionC
   }
 
   @Override
-  public void setMetadataPostProcessor(final JPAEdmMetadataPostProcessor postProcessor) throws ODataException {
-    if (this.jpaoDataGetHandler.jpaMetamodel != null)
-      jpaEdm = new JPAEdmProvider(this.jpaoDataGetHandler.namespace, this.jpaoDataGetHandler.jpaMetamodel,
-          postProcessor, packageName);
+  public void setExpandExecutor(final Executor executor) {
+    this.expandExecutor = executor;
+  }
+
+  @Override
+  public void setExpandInListChunkSize(final int chunkSize) {
+    this.expandInListChunkSize = chunkSize > 0 ? chunkSize : null;
+  }
+
+  @Override
+  public void setMaxPageSize(final String entitySetName, final int maxPageSize) {
+    if (maxPageSize > 0)
+      maxPageSizes.put(entitySetName, maxPageSize);
     else
-      this.postProcessor = postProcessor;
+      maxPageSizes.remove(entitySetName);
+  }
+
+  @Override
+  public void setMetrics(final JPAODataMetrics metrics) {
+    this.metrics = metrics != null ? metrics : JPAEmptyMetrics.INSTANCE;
+  }
+
+  @Override
+  public void setMetadataBuildPool(final ForkJoinPool pool) {
+    this.metadataBuildPool = pool;
+  }
+
+  /**
+   * The model is rebuilt in the same order as the reloads, so all replacements of the model are executed one after the
+   * other. The method returns after the model has been replaced.
+   */
+  @Override
+  public void setMetadataPostProcessor(final JPAEdmMetadataPostProcessor postProcessor) throws ODataException {
+    try {
+      enqueueReload(() -> this.jpaoDataGetHandler.jpaMetamodel, () -> postProcessor).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof ODataException)
+        throw (ODataException) e.getCause();
+      throw e;
+    }
+  }
+
+  /**
+   * Reloads are executed one after the other. Otherwise a reload taking longer could replace the model of a reload
+   * requested later. The metamodel and post processor to be kept are determined when the reload gets executed, so a
+   * reload builds on the result of the previous one.
+   */
+  @Override
+  public CompletableFuture<Long> reloadMetadata(final Metamodel jpaMetamodel,
+      final JPAEdmMetadataPostProcessor postProcessor) {
+    return enqueueReload(() -> jpaMetamodel != null ? jpaMetamodel : this.jpaoDataGetHandler.jpaMetamodel,
+        () -> postProcessor != null ? postProcessor : this.postProcessor);
   }
 
   @Override
   public void setOperationConverter(final JPAODataDatabaseOperations jpaOperationConverter) {
     operationConverter = jpaOperationConverter;
+    clearQueryPlanCache();
+  }
+
+  @Override
+  public void setQueryPlanCacheSize(final int maxSize) {
+    this.queryPlanCache = maxSize > 0 ? new JPAQueryPlanCache(maxSize) : null;
   }
 
   @Override
@@ -153,9 +286,88 @@ final class JPAODataContextImpl implements JPAODataCRUDContext, JPAODataSessionC
     this.references = references;
   }
 
+  @Override
+  public void setResponseCache(final JPAODataResponseCache responseCache) {
+    this.responseCache = responseCache;
+  }
+
+  @Override
+  public void setSlowRequestLog(final long thresholdMillis, final JPAODataSlowRequestLog log) {
+    this.slowRequestThresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    this.slowRequestLog = log;
+  }
+
+  @Override
+  public void setStreamingFetchSize(final int fetchSize) {
+    this.streamingFetchSize = fetchSize > 0 ? fetchSize : null;
+  }
+
   @Override
   public void setTypePackage(final String... packageName) {
     this.packageName = packageName;
 
   }
+
+  private JPAEdmProvider createEdmProvider(final Metamodel jpaMetamodel,
+      final JPAEdmMetadataPostProcessor postProcessor) throws ODataException {
+    return new JPAEdmProvider(this.jpaoDataGetHandler.namespace, jpaMetamodel, postProcessor, packageName,
+        metadataBuildPool);
+  }
+
+  /**
+   * Appends a replacement of the model to the ones requested before. As long as no metamodel is known, only the post
+   * processor is kept, as the model is created with the first request.
+   */
+  private synchronized CompletableFuture<Long> enqueueReload(final Supplier<Metamodel> jpaMetamodel,
+      final Supplier<JPAEdmMetadataPostProcessor> postProcessor) {
+    lastReload = lastReload.handle((version, e) -> null).thenApplyAsync(previous -> {
+      final Metamodel newMetamodel = jpaMetamodel.get();
+      final JPAEdmMetadataPostProcessor newPostProcessor = postProcessor.get();
+      if (newMetamodel == null) {
+        this.postProcessor = newPostProcessor;
+        return getModelVersion();
+      }
+      try {
+        final long version = swap(createEdmProvider(newMetamodel, newPostProcessor), newPostProcessor);
+        this.jpaoDataGetHandler.jpaMetamodel = newMetamodel;
+        return version;
+      } catch (ODataException e) {
+        throw new CompletionException(e);
+      }
+    });
+    return lastReload;
+  }
+
+  private synchronized JPAODataModelVersion createModel() throws ODataException {
+    if (model == null)
+      model = new JPAODataModelVersion(1, createEdmProvider(this.jpaoDataGetHandler.jpaMetamodel, postProcessor));
+    return model;
+  }
+
+  /**
+   * Makes a new version of the metadata model the current one. Requests that are in-flight keep the version they have
+   * started with. The caches derived from the model are keyed by the version, so the entries of the previous version
+   * can not be used any longer and get removed.
+   * @return Number of the new version
+   */
+  private synchronized long swap(final JPAEdmProvider edmProvider, final JPAEdmMetadataPostProcessor postProcessor) {
+    final long version = getModelVersion() + 1;
+    this.postProcessor = postProcessor;
+    this.model = new JPAODataModelVersion(version, edmProvider);
+    final JPAODataResponseCache responses = responseCache;
+    if (responses != null)
+      responses.clear();
+    clearQueryPlanCache();
+    return version;
+  }
+
+  /**
+   * The cached queries depend on the model and on the database specific parts, so they have to be removed once one
+   * of them gets replaced.
+   */
+  private void clearQueryPlanCache() {
+    final JPAQueryPlanCache plans = queryPlanCache;
+    if (plans != null)
+      plans.clear();
+  }
 }
\ No newline at end of file
@@ -1,6 +1,11 @@
 package com.sap.olingo.jpa.processor.core.api;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.persistence.metamodel.Metamodel;
 
 import org.apache.olingo.commons.api.edmx.EdmxReference;
 import org.apache.olingo.commons.api.ex.ODataException;
@@ -34,6 +39,51 @@ public interface JPAODataGetContext {
    */
   public void setErrorProcessor(final ErrorProcessor errorProcessor);
 
+  /**
+   * Activates the parallel processing of $expand. Sibling expand items, e.g. of <code>$expand=Roles,Address</code>,
+   * are read in parallel by tasks handed over to the executor. Each task uses an own entity manager created by the
+   * factory of the request's entity manager. The executor, e.g. a fixed thread pool, is owned by the caller, which
+   * thereby determines the number of parallel database round trips.
+   * @param executor Null switches the parallel processing off
+   */
+  public void setExpandExecutor(final Executor executor);
+
+  /**
+   * Activates the IN-list strategy for $expand. By default the query of an expand item repeats the navigation, the
+   * filter and the key conditions of its parents to restrict the expanded entities. With the IN-list strategy the join
+   * column values of the already read parents are used instead: <code>WHERE c IN (...)</code>. The values are handed
+   * over in chunks of the given size. For many parents the default strategy is used anyhow, as it needs only one round
+   * trip.
+   * @param chunkSize Maximum number of parents per query. A value less or equal to zero switches the strategy off
+   */
+  public void setExpandInListChunkSize(final int chunkSize);
+
+  /**
+   * Sets the maximum number of entities returned by one request on an entity set. In case more entities exist, the
+   * response contains a next link (server-driven paging). A smaller page size requested by the client via
+   * <code>Prefer: odata.maxpagesize</code> is respected.
+   * @param entitySetName External name of the entity set
+   * @param maxPageSize A value less or equal to zero removes the limit
+   */
+  public void setMaxPageSize(final String entitySetName, final int maxPageSize);
+
+  /**
+   * Activates the recording of metrics, like the duration of the processing phases of a request or the number of read
+   * rows. In contrast to the runtime information provided by the debug support, the metrics are recorded for all
+   * requests.
+   * @param metrics Metrics to be recorded, e.g. an instance of {@link JPADefaultMetrics}. Null switches the recording
+   * off
+   */
+  public void setMetrics(final JPAODataMetrics metrics);
+
+  /**
+   * Activates the parallel build of the metadata. The properties and paths of the entity and complex types are
+   * resolved by tasks handed over to the pool. The pool is only used while the metadata get build, so it has to be set
+   * before the metadata post processor. The post processor is called by the tasks and has to be thread safe.
+   * @param pool Null switches the parallel build off
+   */
+  public void setMetadataBuildPool(final ForkJoinPool pool);
+
   /**
    * 
    * @param postProcessor
@@ -48,12 +98,67 @@ public interface JPAODataGetContext {
    */
   public void setOperationConverter(final JPAODataDatabaseOperations jpaOperationConverter);
 
+  /**
+   * Reloads the metadata model, e.g. after entities have been added or annotations have been changed. The new model is
+   * build in the background and replaces the current one once it is complete. Requests that are in-flight finish with
+   * the model they have started with, requests started afterwards use the new one. The response cache and the
+   * $metadata document belong to a model version, so they are rebuild for the new one. A reload requested while
+   * another one is running is executed after it.
+   * @param jpaMetamodel Metamodel the new model is build from. Null keeps the current metamodel. The entity managers
+   * handed over to the handler have to belong to the new metamodel, once the reload is finished
+   * @param postProcessor Metadata post processor for the new model. Null keeps the current post processor
+   * @return Future providing the number of the new model version. If the model could not be build, it is completed
+   * exceptionally and the current model stays in use
+   */
+  public CompletableFuture<Long> reloadMetadata(final Metamodel jpaMetamodel,
+      final JPAEdmMetadataPostProcessor postProcessor);
+
+  /**
+   * Activates the query plan cache. Read requests that differ only in key values or in the values compared in $filter
+   * share one prepared query. The literals are replaced by query parameters, which get bound per request. The cache
+   * is shared by all requests of the service and evicts the least recently used query, once it is full.
+   * @param maxSize Maximum number of cached queries. A value less or equal to zero switches the cache off
+   */
+  public void setQueryPlanCacheSize(final int maxSize);
+
   /**
    * Registers the debug support handler.
    * @param debugSupport
    */
   public void setReferences(final List<EdmxReference> references);
 
+  /**
+   * Activates the caching of read responses. Responses are cached per request URL, response format and locale and
+   * invalidated once an entity set they were read from is changed via this service. This is useful for entity sets that
+   * are read very often, but seldom changed, like code lists.
+   * @param responseCache Cache to be used, e.g. an instance of {@link JPADefaultResponseCache}. Null switches the
+   * caching off
+   */
+  public void setResponseCache(final JPAODataResponseCache responseCache);
+
+  /**
+   * Activates the slow request log. Requests that take at least the given time are handed over to the log, together
+   * with the executed queries and the duration of the phases that are measured for the debug support. To be able to
+   * do so, these information are collected for all requests, but only converted into a record for slow ones. This
+   * also applies to requests that failed with an exception. The URL of a request is logged without literals.
+   * <p>
+   * The collection costs an object and two reads of the system timer per measured phase and an object per executed
+   * query, which keeps the query until the request is finished. The recording is synchronized, as expand items may be
+   * read in parallel.
+   * @param thresholdMillis Minimal duration of a request to be logged in milliseconds
+   * @param log Receiver of the slow requests. Null switches the slow request log off
+   */
+  public void setSlowRequestLog(final long thresholdMillis, final JPAODataSlowRequestLog log);
+
+  /**
+   * Activates the streaming of collection requests without $expand and $count. Instead of reading all entities at
+   * once, the entities are read in chunks of the given size while the response is written, so the memory consumption
+   * does not grow with the size of the result.
+   * @param fetchSize Number of entities read with one database round trip. A value less or equal to zero switches
+   * streaming off
+   */
+  public void setStreamingFetchSize(final int fetchSize);
+
   /**
    * Name of the top level package to look for
    * <ul>
@@ -1,6 +1,8 @@
 package com.sap.olingo.jpa.processor.core.api;
 
+import java.util.Enumeration;
 import java.util.List;
+import java.util.Locale;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -13,11 +15,14 @@ import org.apache.olingo.commons.api.ex.ODataException;
 import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataHttpHandler;
 import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.debug.DebugInformation;
 import org.apache.olingo.server.api.debug.DebugSupport;
 import org.apache.olingo.server.api.debug.RuntimeMeasurement;
 
+import com.sap.olingo.jpa.metadata.api.JPAEdmProvider;
 import com.sap.olingo.jpa.metadata.api.JPAEntityManagerFactory;
+import com.sap.olingo.jpa.processor.core.exception.ODataJPAProcessException;
 
 public class JPAODataGetHandler {
   final String namespace;
@@ -25,7 +30,10 @@ public class JPAODataGetHandler {
   private final JPAODataContextImpl context;
   final DataSource ds;
   final OData odata;
-  Metamodel jpaMetamodel;
+  volatile Metamodel jpaMetamodel;
+  private ServiceMetadata serviceMetadata;
+  private JPAODataModelVersion serviceMetadataModel;
+  private JPAODataMetadataProcessor metadataProcessor;
 
   public JPAODataGetHandler(final String pUnit) throws ODataException {
     this.namespace = pUnit;
@@ -58,17 +66,85 @@ public class JPAODataGetHandler {
   public void process(final HttpServletRequest request, final HttpServletResponse response, final EntityManager em)
       throws ODataException {
 
-    this.jpaMetamodel = em.getMetamodel();
-    final ODataHttpHandler handler = odata.createHandler(odata.createServiceMetadata(context.getEdmProvider(), context
-        .getEdmProvider().getReferences()));
-    context.getEdmProvider().setRequestLocales(request.getLocales());
-    context.initDebugger(request.getParameter(DebugSupport.ODATA_DEBUG_QUERY_PARAMETER));
-    handler.register(context.getDebugSupport());
-    handler.register(new JPAODataRequestProcessor(context, em));
-    handler.register(new JPAODataBatchProcessor(context, em));
-    handler.register(context.getEdmProvider().getServiceDocument());
-    handler.register(context.getErrorProcessor());
-    handler.process(request, response);
+    final long start = System.nanoTime();
+    JPAODataSessionContextAccess requestContext = null;
+    try {
+      // The field is shared by all requests, so it is only written if the metamodel has changed
+      final Metamodel metamodel = em.getMetamodel();
+      if (metamodel != jpaMetamodel)
+        this.jpaMetamodel = metamodel;
+      final ServiceMetadata metadata;
+      final JPAODataModelVersion model;
+      final JPAODataMetadataProcessor documentProcessor;
+      synchronized (this) {
+        metadata = getServiceMetadata();
+        model = serviceMetadataModel;
+        documentProcessor = metadataProcessor;
+      }
+      // The request is processed completely with the model version it started with, even if the model gets reloaded
+      final JPAEdmProvider edmProvider = model.getEdmProvider();
+      // The state of a request is held by the request context, so that requests can be processed in parallel.
+      // Olingo's handler holds the state of the request it processes as well, so it can also not be shared between
+      // requests
+      requestContext = new JPAODataRequestSessionContext(context, model, new JPADebugSupportWrapper(context
+          .getServiceDebugSupport()), odata, request.getParameter(DebugSupport.ODATA_DEBUG_QUERY_PARAMETER));
+      final ODataHttpHandler handler = odata.createHandler(metadata);
+      setRequestLocales(edmProvider, request.getLocales());
+      try {
+        handler.register(requestContext.getDebugSupport());
+        handler.register(new JPAODataRequestProcessor(requestContext, em));
+        handler.register(new JPAODataBatchProcessor(requestContext, em));
+        handler.register(documentProcessor);
+        handler.register(edmProvider.getServiceDocument());
+        handler.register(context.getErrorProcessor());
+        handler.process(request, response);
+      } finally {
+        setRequestLocales(edmProvider, null);
+      }
+    } finally {
+      // Failed requests are logged as well, as they may have failed because they took too long
+      logSlowRequest(request, requestContext != null ? requestContext.getDebugger() : new JPAEmptyDebugger(), start);
+    }
+  }
+
+  /**
+   * Olingo builds the Edm lazily and caches the created elements within the service metadata. To prevent that each
+   * request has to rebuild these caches, the service metadata are created once and shared between the requests. They
+   * are only recreated if a new model version has been created, e.g. by setting a metadata post processor or by a
+   * reload. Together with the service metadata the processor for $metadata and the service document is created, so
+   * that the serialized documents are cached per model version.
+   * @return
+   * @throws ODataException
+   */
+  synchronized ServiceMetadata getServiceMetadata() throws ODataException {
+    final JPAODataModelVersion model = context.getModel();
+    if (serviceMetadata == null || serviceMetadataModel != model) {
+      final JPAEdmProvider edmProvider = model.getEdmProvider();
+      serviceMetadata = odata.createServiceMetadata(edmProvider, edmProvider.getReferences());
+      serviceMetadataModel = model;
+      metadataProcessor = new JPAODataMetadataProcessor(odata, serviceMetadata);
+    }
+    return serviceMetadata;
+  }
+
+  private void logSlowRequest(final HttpServletRequest request, final JPAServiceDebugger debugger, final long start) {
+    final JPAODataSlowRequestLog log = context.getSlowRequestLog();
+    final long duration = System.nanoTime() - start;
+    if (log != null && duration >= context.getSlowRequestThresholdNanos()) {
+      final String queryString = request.getQueryString();
+      final String url = JPAODataSlowRequest.determineShape(request.getRequestURL() + (queryString == null ? ""
+          : "?" + queryString));
+      log.log(new JPAODataSlowRequest(request.getMethod(), url, start, duration, debugger));
+    }
+  }
+
+  /**
+   * The locales are held per thread, so they have to be removed after the request is processed, as the thread may be
+   * reused for another request.
+   */
+  private void setRequestLocales(final JPAEdmProvider edmProvider, final Enumeration<Locale> locales) {
+    edmProvider.setRequestLocales(locales);
+    ODataJPAProcessException.setLocales(locales);
   }
 
   class JPADebugSupportWrapper implements DebugSupport {
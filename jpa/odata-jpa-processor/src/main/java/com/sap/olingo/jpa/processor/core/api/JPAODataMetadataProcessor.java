@@ -0,0 +1,137 @@
+package com.sap.olingo.jpa.processor.core.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.ODataLibraryException;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.processor.MetadataProcessor;
+import org.apache.olingo.server.api.processor.ServiceDocumentProcessor;
+import org.apache.olingo.server.api.serializer.SerializerResult;
+import org.apache.olingo.server.api.uri.UriInfo;
+
+/**
+ * Provides the $metadata document and the service document. Other than Olingo's default processor, which serializes
+ * the documents for each request, the documents are serialized once per format and service metadata and served from
+ * a cache afterwards. Each document gets a strong ETag, calculated from its content, so that a client that already
+ * knows the document, gets a <i>304 Not Modified</i> on a request with <code>If-None-Match</code>.<p>
+ * An instance is bound to one {@link ServiceMetadata} and shared by all requests that use it. As the service document
+ * contains the service root, it is cached per service root.
+ * @author Oliver Grande
+ *
+ */
+final class JPAODataMetadataProcessor implements MetadataProcessor, ServiceDocumentProcessor {
+  /** Limits the number of cached service documents, in case the service is called via many different host names */
+  static final int MAX_SERVICE_ROOTS = 16;
+
+  private final OData odata;
+  private final ServiceMetadata serviceMetadata;
+  private final ConcurrentMap<String, CachedDocument> metadataDocuments = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, CachedDocument> serviceDocuments = new ConcurrentHashMap<>();
+
+  JPAODataMetadataProcessor(final OData odata, final ServiceMetadata serviceMetadata) {
+    super();
+    this.odata = odata;
+    this.serviceMetadata = serviceMetadata;
+  }
+
+  @Override
+  public void init(final OData odata, final ServiceMetadata serviceMetadata) {
+    // The instance is bound to the service metadata it was created for
+  }
+
+  @Override
+  public void readMetadata(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo,
+      final ContentType requestedContentType) throws ODataApplicationException, ODataLibraryException {
+
+    final String key = requestedContentType.toContentTypeString();
+    CachedDocument document = metadataDocuments.get(key);
+    if (document == null) {
+      document = new CachedDocument(odata.createSerializer(requestedContentType).metadataDocument(serviceMetadata));
+      metadataDocuments.putIfAbsent(key, document);
+    }
+    writeDocument(request, response, requestedContentType, document);
+  }
+
+  @Override
+  public void readServiceDocument(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo,
+      final ContentType requestedContentType) throws ODataApplicationException, ODataLibraryException {
+
+    final String key = requestedContentType.toContentTypeString() + " " + request.getRawBaseUri();
+    CachedDocument document = serviceDocuments.get(key);
+    if (document == null) {
+      document = new CachedDocument(odata.createSerializer(requestedContentType).serviceDocument(serviceMetadata,
+          request.getRawBaseUri()));
+      if (serviceDocuments.size() >= MAX_SERVICE_ROOTS)
+        serviceDocuments.clear();
+      serviceDocuments.putIfAbsent(key, document);
+    }
+    writeDocument(request, response, requestedContentType, document);
+  }
+
+  private void writeDocument(final ODataRequest request, final ODataResponse response,
+      final ContentType requestedContentType, final CachedDocument document) throws ODataLibraryException {
+
+    response.setHeader(HttpHeader.ETAG, document.eTag);
+    if (odata.createETagHelper().checkReadPreconditions(document.eTag, request.getHeaders(HttpHeader.IF_MATCH),
+        request.getHeaders(HttpHeader.IF_NONE_MATCH))) {
+      response.setStatusCode(HttpStatusCode.NOT_MODIFIED.getStatusCode());
+    } else if (request.getMethod() == HttpMethod.HEAD) {
+      response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    } else {
+      response.setContent(new ByteArrayInputStream(document.content));
+      response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+      response.setHeader(HttpHeader.CONTENT_TYPE, requestedContentType.toContentTypeString());
+    }
+  }
+
+  private static class CachedDocument {
+    private final byte[] content;
+    private final String eTag;
+
+    private CachedDocument(final SerializerResult serializerResult) throws ODataApplicationException {
+      this.content = read(serializerResult.getContent());
+      this.eTag = "\"" + hash(content) + "\"";
+    }
+
+    private static byte[] read(final InputStream content) throws ODataApplicationException {
+      final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      final byte[] chunk = new byte[8192];
+      try {
+        int length;
+        while ((length = content.read(chunk)) != -1)
+          buffer.write(chunk, 0, length);
+      } catch (IOException e) {
+        throw new ODataApplicationException(e.getLocalizedMessage(),
+            HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode(), null, e);
+      }
+      return buffer.toByteArray();
+    }
+
+    private static String hash(final byte[] content) throws ODataApplicationException {
+      try {
+        final StringBuilder hash = new StringBuilder();
+        for (final byte b : MessageDigest.getInstance("SHA-256").digest(content))
+          hash.append(String.format("%02x", b));
+        return hash.toString();
+      } catch (NoSuchAlgorithmException e) {
+        throw new ODataApplicationException(e.getLocalizedMessage(),
+            HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode(), null, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.sap.olingo.jpa.processor.core.api;
+
+/**
+ * Collects metrics of the processed requests. In contrast to the {@link JPAServiceDebugger}, which is only active if a
+ * request asks for debug information, the metrics are recorded for each request. An implementation therefore has to
+ * be cheap and has to allow parallel calls.<p>
+ * A default implementation is provided with {@link JPADefaultMetrics}.
+ * @author Oliver Grande
+ *
+ */
+public interface JPAODataMetrics {
+
+  public enum Phase {
+    /** Creation of the criteria query */
+    QUERY_BUILD,
+    /** Execution of the query on the database */
+    DB_EXECUTE,
+    /** Conversion of the database result into OData entities */
+    CONVERT,
+    /** Serialization of the response */
+    SERIALIZE,
+    /** Reading of one expand item, including its query and database round trips */
+    EXPAND,
+    /** Counting of entities, requested via $count */
+    COUNT
+  }
+
+  /**
+   * Records the duration of a processing phase
+   * @param phase
+   * @param requestKind Kind of the last resource of the request URI, e.g. entitySet, navigationProperty or count
+   * @param entitySet External name of the entity set. For {@link Phase#EXPAND} the external name of the source entity
+   * type and the alias of the association, e.g. <i>Organization/Roles</i>
+   * @param nanos Duration in nanoseconds
+   */
+  public void recordDuration(final Phase phase, final String requestKind, final String entitySet, final long nanos);
+
+  /**
+   * Records the size of a result
+   * @param requestKind Kind of the last resource of the request URI
+   * @param entitySet External name of the entity set, for expand items as described at
+   * {@link #recordDuration(Phase, String, String, long)}
+   * @param rows Number of rows read from the database
+   * @param entities Number of entities returned
+   */
+  public void recordResultSize(final String requestKind, final String entitySet, final long rows,
+      final long entities);
+}
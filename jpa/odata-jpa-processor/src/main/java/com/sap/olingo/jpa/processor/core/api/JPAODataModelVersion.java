@@ -0,0 +1,30 @@
+package com.sap.olingo.jpa.processor.core.api;
+
+import com.sap.olingo.jpa.metadata.api.JPAEdmProvider;
+
+/**
+ * One version of the metadata model of a service. A version is immutable, so a request takes the version that is
+ * current when it starts and uses it until it is finished, even if the model gets reloaded in the meantime. The number
+ * of a version is used to separate the entries of caches derived from the model, like the response cache, so that
+ * e.g. an in-flight request of the previous version can not hand over its results to requests of the new version.
+ * @author Oliver Grande
+ *
+ */
+final class JPAODataModelVersion {
+  private final long version;
+  private final JPAEdmProvider edmProvider;
+
+  JPAODataModelVersion(final long version, final JPAEdmProvider edmProvider) {
+    super();
+    this.version = version;
+    this.edmProvider = edmProvider;
+  }
+
+  JPAEdmProvider getEdmProvider() {
+    return edmProvider;
+  }
+
+  long getVersion() {
+    return version;
+  }
+}
@@ -1,5 +1,13 @@
 package com.sap.olingo.jpa.processor.core.api;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+
 import javax.persistence.EntityManager;
 import javax.persistence.OptimisticLockException;
 import javax.persistence.RollbackException;
@@ -28,7 +36,7 @@ import com.sap.olingo.jpa.processor.core.exception.ODataJPAProcessorException;
 import com.sap.olingo.jpa.processor.core.processor.JPAActionRequestProcessor;
 import com.sap.olingo.jpa.processor.core.processor.JPACUDRequestProcessor;
 import com.sap.olingo.jpa.processor.core.processor.JPAProcessorFactory;
-import com.sap.olingo.jpa.processor.core.processor.JPARequestProcessor;
+import com.sap.olingo.jpa.processor.core.processor.JPAResponseCacheUtil;
 
 public final class JPAODataRequestProcessor
     implements PrimitiveValueProcessor, PrimitiveCollectionProcessor, ComplexProcessor, ComplexCollectionProcessor,
@@ -53,10 +61,8 @@ public final class JPAODataRequestProcessor
   public void countEntityCollection(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo)
       throws ODataApplicationException, ODataLibraryException {
 
-    JPARequestProcessor p;
     try {
-      p = factory.createProcessor(em, uriInfo, ContentType.TEXT_PLAIN);
-      p.retrieveData(request, response, ContentType.TEXT_PLAIN);
+      retrieveData(request, response, uriInfo, ContentType.TEXT_PLAIN);
     } catch (ODataApplicationException | ODataLibraryException e) {
       throw e;
     } catch (ODataException e) {
@@ -188,8 +194,7 @@ public final class JPAODataRequestProcessor
       final ContentType responseFormat) throws ODataApplicationException, ODataLibraryException {
 
     try {
-      final JPARequestProcessor p = factory.createProcessor(em, uriInfo, responseFormat);
-      p.retrieveData(request, response, responseFormat);
+      retrieveData(request, response, uriInfo, responseFormat);
     } catch (ODataApplicationException | ODataLibraryException e) {
       throw e;
     } catch (ODataException e) {
@@ -202,8 +207,7 @@ public final class JPAODataRequestProcessor
   public void readComplexCollection(ODataRequest request, ODataResponse response, UriInfo uriInfo,
       ContentType responseFormat) throws ODataApplicationException, ODataLibraryException {
     try {
-      final JPARequestProcessor p = factory.createProcessor(em, uriInfo, responseFormat);
-      p.retrieveData(request, response, responseFormat);
+      retrieveData(request, response, uriInfo, responseFormat);
     } catch (ODataApplicationException | ODataLibraryException e) {
       throw e;
     } catch (ODataException e) {
@@ -217,8 +221,7 @@ public final class JPAODataRequestProcessor
       final ContentType responseFormat) throws ODataApplicationException, ODataLibraryException {
 
     try {
-      final JPARequestProcessor p = factory.createProcessor(em, uriInfo, responseFormat);
-      p.retrieveData(request, response, responseFormat);
+      retrieveData(request, response, uriInfo, responseFormat);
     } catch (ODataApplicationException | ODataLibraryException e) {
       throw e;
     } catch (ODataException e) {
@@ -233,8 +236,7 @@ public final class JPAODataRequestProcessor
       final ContentType responseFormat) throws ODataApplicationException, ODataLibraryException {
 
     try {
-      final JPARequestProcessor p = factory.createProcessor(em, uriInfo, responseFormat);
-      p.retrieveData(request, response, responseFormat);
+      retrieveData(request, response, uriInfo, responseFormat);
     } catch (ODataApplicationException | ODataLibraryException e) {
       throw e;
     } catch (ODataException e) {
@@ -247,8 +249,7 @@ public final class JPAODataRequestProcessor
   public void readPrimitiveCollection(ODataRequest request, ODataResponse response, UriInfo uriInfo,
       ContentType responseFormat) throws ODataApplicationException, ODataLibraryException {
     try {
-      final JPARequestProcessor p = factory.createProcessor(em, uriInfo, responseFormat);
-      p.retrieveData(request, response, responseFormat);
+      retrieveData(request, response, uriInfo, responseFormat);
     } catch (ODataApplicationException | ODataLibraryException e) {
       throw e;
     } catch (ODataException e) {
@@ -263,8 +264,7 @@ public final class JPAODataRequestProcessor
       final ContentType responseFormat) throws ODataApplicationException, ODataLibraryException {
 
     try {
-      final JPARequestProcessor p = factory.createProcessor(em, uriInfo, responseFormat);
-      p.retrieveData(request, response, responseFormat);
+      retrieveData(request, response, uriInfo, responseFormat);
     } catch (ODataApplicationException | ODataLibraryException e) {
       throw e;
     } catch (ODataException e) {
@@ -278,8 +278,7 @@ public final class JPAODataRequestProcessor
       final ContentType responseFormat) throws ODataApplicationException, ODataLibraryException {
 
     try {
-      final JPARequestProcessor p = factory.createProcessor(em, uriInfo, responseFormat);
-      p.retrieveData(request, response, responseFormat);
+      retrieveData(request, response, uriInfo, responseFormat);
     } catch (ODataApplicationException | ODataLibraryException e) {
       throw e;
     } catch (ODataException e) {
@@ -294,8 +293,7 @@ public final class JPAODataRequestProcessor
       final ContentType responseFormat) throws ODataApplicationException, ODataLibraryException {
 
     try {
-      final JPARequestProcessor p = factory.createProcessor(em, uriInfo, responseFormat);
-      p.retrieveData(request, response, responseFormat);
+      retrieveData(request, response, uriInfo, responseFormat);
     } catch (ODataApplicationException | ODataLibraryException e) {
       throw e;
     } catch (ODataException e) {
@@ -420,4 +418,53 @@ public final class JPAODataRequestProcessor
 
   }
 
+  /**
+   * Reads the data requested. If a response cache is given, the response is taken from the cache or put into it. Within
+   * a transaction, e.g. of a change set, the cache is not used, as the data may contain changes not committed yet.
+   */
+  private void retrieveData(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo,
+      final ContentType responseFormat) throws ODataException {
+
+    final JPAODataResponseCache cache = context.getResponseCache();
+    final Set<String> entitySets = cache == null || em.getTransaction().isActive() ? null
+        : JPAResponseCacheUtil.determineReadDependencies(uriInfo, context.getEdmProvider().getServiceDocument());
+    if (entitySets == null) {
+      factory.createProcessor(em, uriInfo, responseFormat).retrieveData(request, response, responseFormat);
+      return;
+    }
+    final String key = JPAResponseCacheUtil.determineKey(context.getModelVersion(), request, responseFormat);
+    final JPAODataCachedResponse cachedResponse = cache.get(key);
+    if (cachedResponse != null) {
+      response.setStatusCode(cachedResponse.getStatusCode());
+      for (final Entry<String, List<String>> header : cachedResponse.getHeaders().entrySet())
+        response.addHeader(header.getKey(), header.getValue());
+      response.setContent(new ByteArrayInputStream(cachedResponse.getContent()));
+      return;
+    }
+    try {
+      factory.createProcessor(em, uriInfo, responseFormat).retrieveData(request, response, responseFormat);
+      // Streamed responses are written after the processor has finished, so they can not be cached
+      if (response.getStatusCode() == HttpStatusCode.OK.getStatusCode() && response.getContent() != null) {
+        final byte[] content = readContent(response.getContent());
+        response.setContent(new ByteArrayInputStream(content));
+        cache.put(key, entitySets, new JPAODataCachedResponse(response.getStatusCode(), response.getAllHeaders(),
+            content));
+      }
+    } finally {
+      cache.release(key);
+    }
+  }
+
+  private byte[] readContent(final InputStream content) throws ODataJPAProcessorException {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    final byte[] chunk = new byte[4096];
+    try {
+      int length;
+      while ((length = content.read(chunk)) != -1)
+        buffer.write(chunk, 0, length);
+    } catch (IOException e) {
+      throw new ODataJPAProcessorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+    }
+    return buffer.toByteArray();
+  }
 }
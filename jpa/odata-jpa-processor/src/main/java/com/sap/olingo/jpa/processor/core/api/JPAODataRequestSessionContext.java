@@ -0,0 +1,141 @@
+package com.sap.olingo.jpa.processor.core.api;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.debug.DebugSupport;
+
+import com.sap.olingo.jpa.metadata.api.JPAEdmProvider;
+import com.sap.olingo.jpa.processor.core.api.JPAODataGetHandler.JPADebugSupportWrapper;
+import com.sap.olingo.jpa.processor.core.database.JPAODataDatabaseOperations;
+import com.sap.olingo.jpa.processor.core.query.JPAQueryPlanCache;
+
+/**
+ * Session context of one request. The configuration is taken from the context of the service, which is shared by all
+ * requests. The state of the request, like the debugger or the model version the request started with, is kept here, so
+ * that one {@link JPAODataGetHandler} can process requests in parallel.
+ * @author Oliver Grande
+ *
+ */
+final class JPAODataRequestSessionContext implements JPAODataSessionContextAccess {
+  private final JPAODataContextImpl serviceContext;
+  private final JPAEdmProvider edmProvider;
+  private final long modelVersion;
+  private final JPADebugSupportWrapper debugSupport;
+  private final JPAServiceDebugger debugger;
+
+  JPAODataRequestSessionContext(final JPAODataContextImpl serviceContext, final JPAODataModelVersion model,
+      final JPADebugSupportWrapper debugSupport, final OData odata, final String debugFormat) {
+    super();
+    this.serviceContext = serviceContext;
+    this.edmProvider = model.getEdmProvider();
+    this.modelVersion = model.getVersion();
+    this.debugSupport = debugSupport;
+    this.debugger = createDebugger(odata, debugSupport, debugFormat, serviceContext.getSlowRequestLog() != null);
+  }
+
+  /**
+   * Creates the debugger of a request and hands it over to the debug support
+   * @param odata
+   * @param debugSupport
+   * @param debugFormat Value of the debug query parameter or null if the request shall not be debugged
+   * @param record True if the runtime information shall be collected even if the request is not debugged, e.g. for the
+   * slow request log
+   * @return
+   */
+  static JPAServiceDebugger createDebugger(final OData odata, final JPADebugSupportWrapper debugSupport,
+      final String debugFormat, final boolean record) {
+    // see org.apache.olingo.server.core.debug.ServerCoreDebugger
+    boolean isDebugMode = false;
+
+    if (debugFormat != null) {
+      debugSupport.init(odata);
+      isDebugMode = debugSupport.isUserAuthorized();
+    }
+    final JPAServiceDebugger debugger = isDebugMode || record ? new JPACoreDeugger() : new JPAEmptyDebugger();
+    debugSupport.setDebugger(debugger);
+    return debugger;
+  }
+
+  @Override
+  public JPACUDRequestHandler getCUDRequestHandler() {
+    return serviceContext.getCUDRequestHandler();
+  }
+
+  @Override
+  public JPAODataDatabaseProcessor getDatabaseProcessor() {
+    return serviceContext.getDatabaseProcessor();
+  }
+
+  @Override
+  public JPAServiceDebugger getDebugger() {
+    return debugger;
+  }
+
+  @Override
+  public DebugSupport getDebugSupport() {
+    return debugSupport;
+  }
+
+  @Override
+  public JPAEdmProvider getEdmProvider() {
+    return edmProvider;
+  }
+
+  @Override
+  public Executor getExpandExecutor() {
+    return serviceContext.getExpandExecutor();
+  }
+
+  @Override
+  public Integer getExpandInListChunkSize() {
+    return serviceContext.getExpandInListChunkSize();
+  }
+
+  @Override
+  public Integer getMaxPageSize(final String entitySetName) {
+    return serviceContext.getMaxPageSize(entitySetName);
+  }
+
+  @Override
+  public JPAODataMetrics getMetrics() {
+    return serviceContext.getMetrics();
+  }
+
+  @Override
+  public long getModelVersion() {
+    return modelVersion;
+  }
+
+  @Override
+  public JPAODataDatabaseOperations getOperationConverter() {
+    return serviceContext.getOperationConverter();
+  }
+
+  @Override
+  public String[] getPackageName() {
+    return serviceContext.getPackageName();
+  }
+
+  @Override
+  public JPAQueryPlanCache getQueryPlanCache() {
+    return serviceContext.getQueryPlanCache();
+  }
+
+  @Override
+  public List<EdmxReference> getReferences() {
+    return serviceContext.getReferences();
+  }
+
+  @Override
+  public JPAODataResponseCache getResponseCache() {
+    return serviceContext.getResponseCache();
+  }
+
+  @Override
+  public Integer getStreamingFetchSize() {
+    return serviceContext.getStreamingFetchSize();
+  }
+}
@@ -0,0 +1,50 @@
+package com.sap.olingo.jpa.processor.core.api;
+
+import java.util.Collection;
+
+/**
+ * Cache of serialized responses of read requests. A response is stored together with the names of the entity sets it
+ * was read from, e.g. <code>Organizations?$expand=Roles</code> depends on <i>Organizations</i> and
+ * <i>BusinessPartnerRoles</i>. Create, update and delete requests processed by the JPA processor invalidate all
+ * responses depending on the changed entity set, on an entity set reachable from it by navigation or on an entity set
+ * of the same inheritance hierarchy or table.<p>
+ * Changes not processed by the JPA processor, e.g. made directly on the database, are not recognized. In this case
+ * {@link #clear()} has to be called.<p>
+ * The cache is shared by all requests of a service, so implementations have to be thread safe. A default implementation
+ * is provided by {@link JPADefaultResponseCache}.
+ * @author Oliver Grande
+ *
+ */
+public interface JPAODataResponseCache {
+  /**
+   * Removes all responses.
+   */
+  public void clear();
+
+  /**
+   * @param key Key of the response build from request URL, response format and locale
+   * @return The cached response or null if no response has been cached for the key
+   */
+  public JPAODataCachedResponse get(final String key);
+
+  /**
+   * Removes all responses that depend on one of the given entity sets.
+   * @param entitySetNames External names of the entity sets that have been changed
+   */
+  public void invalidate(final Collection<String> entitySetNames);
+
+  /**
+   * @param key Key of the response build from request URL, response format and locale
+   * @param entitySetNames External names of the entity sets the response was read from
+   * @param response
+   */
+  public void put(final String key, final Collection<String> entitySetNames, final JPAODataCachedResponse response);
+
+  /**
+   * Called once the processing of a request, for which {@link #get(String)} returned null, has finished. This happens
+   * regardless whether the response has been put into the cache, could not be cached or the request failed, so
+   * information kept about the miss can be removed.
+   * @param key Key of the response build from request URL, response format and locale
+   */
+  public void release(final String key);
+}
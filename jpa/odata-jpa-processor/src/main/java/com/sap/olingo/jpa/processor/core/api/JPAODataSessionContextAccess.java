@@ -1,6 +1,7 @@
 package com.sap.olingo.jpa.processor.core.api;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.apache.olingo.commons.api.edmx.EdmxReference;
 import org.apache.olingo.commons.api.ex.ODataException;
@@ -8,6 +9,7 @@ import org.apache.olingo.server.api.debug.DebugSupport;
 
 import com.sap.olingo.jpa.metadata.api.JPAEdmProvider;
 import com.sap.olingo.jpa.processor.core.database.JPAODataDatabaseOperations;
+import com.sap.olingo.jpa.processor.core.query.JPAQueryPlanCache;
 
 public interface JPAODataSessionContextAccess {
   public JPAODataDatabaseProcessor getDatabaseProcessor();
@@ -20,8 +22,52 @@ public interface JPAODataSessionContextAccess {
 
   public JPAODataDatabaseOperations getOperationConverter();
 
+  /**
+   * @return Executor used to read sibling expand items in parallel or null if they shall be read sequentially
+   */
+  public Executor getExpandExecutor();
+
+  /**
+   * @return Maximum number of parents handed over to an expand query via IN-list or null if the IN-list strategy is
+   * switched off
+   */
+  public Integer getExpandInListChunkSize();
+
+  /**
+   * @param entitySetName External name of the entity set
+   * @return Maximum number of entities returned by one request on the entity set or null if no limit is set
+   */
+  public Integer getMaxPageSize(final String entitySetName);
+
+  /**
+   * @return Metrics to be recorded. If no metrics are requested, an implementation ignoring all records
+   */
+  public JPAODataMetrics getMetrics();
+
+  /**
+   * @return Number of the metadata model version the edm provider belongs to. It changes each time the model is
+   * reloaded, so it is part of the keys of caches derived from the model
+   */
+  public long getModelVersion();
+
+  /**
+   * @return Cache of prepared queries or null if the cache is switched off
+   */
+  public JPAQueryPlanCache getQueryPlanCache();
+
   public List<EdmxReference> getReferences();
 
+  /**
+   * @return Cache of read responses or null if responses shall not be cached
+   */
+  public JPAODataResponseCache getResponseCache();
+
+  /**
+   * @return Number of entities read with one database round trip when a result is streamed or null if streaming is
+   * switched off
+   */
+  public Integer getStreamingFetchSize();
+
   public JPACUDRequestHandler getCUDRequestHandler();
 
   public String[] getPackageName();
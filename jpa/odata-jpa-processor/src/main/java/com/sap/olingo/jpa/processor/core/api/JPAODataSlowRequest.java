@@ -0,0 +1,224 @@
+package com.sap.olingo.jpa.processor.core.api;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.apache.olingo.server.api.debug.RuntimeMeasurement;
+
+/**
+ * Record of a request that took longer than the threshold of the slow request log. It contains the queries executed
+ * for the request and the phases measured at the same places as the runtime information of the debug support.
+ * @author Oliver Grande
+ *
+ */
+public final class JPAODataSlowRequest {
+  private static final String PLACEHOLDER = "?";
+  // Values of query options that are not given as literals
+  private static final Pattern TOKEN_VALUES = Pattern.compile("([?&]\\$(?:search|skiptoken|deltatoken)=)[^&]*");
+  // String literals, which may contain escaped quotes
+  private static final Pattern STRING_LITERALS = Pattern.compile("'(?:[^']|'')*'");
+  // Numbers, dates, times and guids, which are recognized by starting with a digit
+  private static final Pattern OTHER_LITERALS = Pattern.compile("(?<![\\w.$])-?\\d[\\w.:+-]*");
+  private final String method;
+  private final String url;
+  private final long durationNanos;
+  private final List<Query> queries;
+  private final List<Phase> phases;
+
+  JPAODataSlowRequest(final String method, final String url, final long startNanos, final long durationNanos,
+      final JPAServiceDebugger debugger) {
+    super();
+    this.method = method;
+    this.url = url;
+    this.durationNanos = durationNanos;
+    this.queries = Collections.unmodifiableList(new ArrayList<>(debugger.getQueries()));
+    final List<Phase> measuredPhases = new ArrayList<>();
+    for (final RuntimeMeasurement measurement : debugger.getRuntimeInformation()) {
+      // Measurements that were not stopped, e.g. because of an exception, have no duration
+      if (measurement.getTimeStopped() != 0)
+        measuredPhases.add(new Phase(measurement, startNanos));
+    }
+    this.phases = Collections.unmodifiableList(measuredPhases);
+  }
+
+  public String getMethod() {
+    return method;
+  }
+
+  /**
+   * @return Requested URL including the query options. Literals are replaced by ?, so requests of the same shape have
+   * the same URL and no values, which may be confidential, are logged.
+   */
+  public String getUrl() {
+    return url;
+  }
+
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  /**
+   * @return Queries in the sequence they were executed
+   */
+  public List<Query> getQueries() {
+    return queries;
+  }
+
+  /**
+   * @return Measured phases in the sequence they were started. Phases can be nested, e.g. the execution of a query
+   * within the processing of an expand.
+   */
+  public List<Phase> getPhases() {
+    return phases;
+  }
+
+  /**
+   * Replaces the literals of an URL by ?, e.g. Organizations('3')?$top=10 becomes Organizations(?)?$top=?. Scheme,
+   * host and port are kept.
+   * @param url
+   * @return
+   */
+  static String determineShape(final String url) {
+    final int authorityStart = url.indexOf("://");
+    final int pathStart = authorityStart < 0 ? 0 : url.indexOf('/', authorityStart + 3);
+    if (pathStart < 0)
+      return url;
+    String shape;
+    try {
+      shape = URLDecoder.decode(url.substring(pathStart), "UTF-8");
+    } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+      shape = url.substring(pathStart);
+    }
+    shape = TOKEN_VALUES.matcher(shape).replaceAll("$1" + PLACEHOLDER);
+    shape = STRING_LITERALS.matcher(shape).replaceAll(PLACEHOLDER);
+    return url.substring(0, pathStart) + OTHER_LITERALS.matcher(shape).replaceAll(PLACEHOLDER);
+  }
+
+  /**
+   * @return The record as one line JSON document
+   */
+  public String toJson() {
+    final StringWriter writer = new StringWriter();
+    try {
+      writeJson(writer);
+    } catch (IOException e) {
+      // A StringWriter does not throw IOExceptions
+      throw new IllegalStateException(e);
+    }
+    return writer.toString();
+  }
+
+  public void writeJson(final Writer writer) throws IOException {
+    writer.write("{\"method\":");
+    JPADefaultMetrics.writeString(writer, method);
+    writer.write(",\"url\":");
+    JPADefaultMetrics.writeString(writer, url);
+    writer.write(",\"durationMicros\":" + TimeUnit.NANOSECONDS.toMicros(durationNanos));
+    writer.write(",\"queries\":[");
+    for (int i = 0; i < queries.size(); i++) {
+      if (i > 0)
+        writer.write(',');
+      queries.get(i).writeJson(writer);
+    }
+    writer.write("],\"phases\":[");
+    for (int i = 0; i < phases.size(); i++) {
+      if (i > 0)
+        writer.write(',');
+      phases.get(i).writeJson(writer);
+    }
+    writer.write("]}");
+    writer.flush();
+  }
+
+  @Override
+  public String toString() {
+    return toJson();
+  }
+
+  /**
+   * Query executed for a request
+   */
+  public static final class Query {
+    private final Object query;
+    private final long rowsFetched;
+    private final long rowsReturned;
+
+    Query(final Object query, final long rowsFetched, final long rowsReturned) {
+      super();
+      this.query = query;
+      this.rowsFetched = rowsFetched;
+      this.rowsReturned = rowsReturned;
+    }
+
+    /**
+     * @return The query as described by the JPA provider. EclipseLink provides e.g. the executed SQL statement
+     */
+    public String getStatement() {
+      return String.valueOf(query);
+    }
+
+    public long getRowsFetched() {
+      return rowsFetched;
+    }
+
+    public long getRowsReturned() {
+      return rowsReturned;
+    }
+
+    private void writeJson(final Writer writer) throws IOException {
+      writer.write("{\"statement\":");
+      JPADefaultMetrics.writeString(writer, getStatement());
+      writer.write(",\"rowsFetched\":" + rowsFetched);
+      writer.write(",\"rowsReturned\":" + rowsReturned + "}");
+    }
+  }
+
+  /**
+   * Measured phase of a request
+   */
+  public static final class Phase {
+    private final String name;
+    private final long startNanos;
+    private final long durationNanos;
+
+    private Phase(final RuntimeMeasurement measurement, final long requestStartNanos) {
+      super();
+      this.name = measurement.getClassName() + "." + measurement.getMethodName();
+      this.startNanos = measurement.getTimeStarted() - requestStartNanos;
+      this.durationNanos = measurement.getTimeStopped() - measurement.getTimeStarted();
+    }
+
+    /**
+     * @return Class and method name, e.g. JPAJoinQuery.execute
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * @return Start of the phase relative to the start of the request
+     */
+    public long getStartNanos() {
+      return startNanos;
+    }
+
+    public long getDurationNanos() {
+      return durationNanos;
+    }
+
+    private void writeJson(final Writer writer) throws IOException {
+      writer.write("{\"name\":");
+      JPADefaultMetrics.writeString(writer, name);
+      writer.write(",\"startMicros\":" + TimeUnit.NANOSECONDS.toMicros(startNanos));
+      writer.write(",\"durationMicros\":" + TimeUnit.NANOSECONDS.toMicros(durationNanos) + "}");
+    }
+  }
+}
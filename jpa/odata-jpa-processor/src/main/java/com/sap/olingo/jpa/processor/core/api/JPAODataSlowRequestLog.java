@@ -0,0 +1,18 @@
+package com.sap.olingo.jpa.processor.core.api;
+
+/**
+ * Receives the requests that took longer than the threshold given with
+ * {@link JPAODataGetContext#setSlowRequestLog(long, JPAODataSlowRequestLog)}, e.g. to write them into the log of the
+ * application:
+ *
+ * <pre>
+ * context.setSlowRequestLog(500, request -> LOGGER.warn(request.toJson()));
+ * </pre>
+ * The log is called by the thread that processed the request, after the response has been written.
+ * @author Oliver Grande
+ *
+ */
+public interface JPAODataSlowRequestLog {
+
+  public void log(final JPAODataSlowRequest request);
+}
@@ -10,4 +10,19 @@ public interface JPAServiceDebugger {
   public void stopRuntimeMeasurement(final int handle);
 
   public Collection<? extends RuntimeMeasurement> getRuntimeInformation();
+
+  /**
+   * Records a query executed for the request.
+   * @param query The executed query, e.g. a <code>TypedQuery</code>. It is only converted into a string, if the
+   * request was slow, see {@link JPAODataGetContext#setSlowRequestLog(long, JPAODataSlowRequestLog)}
+   * @param rowsFetched Number of rows read from the database
+   * @param rowsReturned Number of rows handed over to the result, e.g. after $top and $skip have been applied in
+   * memory
+   */
+  public void recordQuery(final Object query, final long rowsFetched, final long rowsReturned);
+
+  /**
+   * @return Queries recorded via {@link #recordQuery(Object, long, long)}
+   */
+  public Collection<JPAODataSlowRequest.Query> getQueries();
 }
@@ -10,19 +10,19 @@ import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
 
 public interface JPAExpandResult {
 
-  String ROOT_RESULT_KEY = "root";
+  JPAJoinKey ROOT_RESULT_KEY = JPAJoinKey.ROOT;
 
   JPAExpandResult getChild(JPAAssociationPath associationPath);
 
   Map<JPAAssociationPath, JPAExpandResult> getChildren();
 
-  Long getCount(final String string);
+  Long getCount(final JPAJoinKey key);
 
   JPAEntityType getEntityType();
 
-  List<Tuple> getResult(final String key);
+  List<Tuple> getResult(final JPAJoinKey key);
 
-  Map<String, List<Tuple>> getResults();
+  Map<JPAJoinKey, List<Tuple>> getResults();
 
   boolean hasCount();
 
@@ -0,0 +1,101 @@
+package com.sap.olingo.jpa.processor.core.converter;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.Tuple;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+
+/**
+ * Immutable key of an expand result, made of the values of the join columns in the order they are stored in the
+ * corresponding association path. The values are compared as they are, so no string has to be build per row. As the
+ * join columns of the parent and the ones of the child may have different, but compatible java types, integral numbers
+ * are compared by their long value.
+ * @author Oliver Grande
+ *
+ */
+public final class JPAJoinKey {
+  /**
+   * Key of a result that does not belong to a parent, like the result of the requested entity set
+   */
+  public static final JPAJoinKey ROOT = new JPAJoinKey();
+
+  private final Object[] values;
+  private final int hash;
+
+  public JPAJoinKey(final Object... values) {
+    super();
+    this.values = normalize(values.clone());
+    this.hash = Arrays.hashCode(this.values);
+  }
+
+  /**
+   * Creates a key from the values of a row
+   * @param row
+   * @param aliases Aliases of the join columns
+   */
+  public JPAJoinKey(final Tuple row, final List<String> aliases) {
+    super();
+    this.values = normalize(readValues(row, aliases));
+    this.hash = Arrays.hashCode(this.values);
+  }
+
+  /**
+   * Determines the aliases of the given columns, which are needed to create a key from a row.
+   * @param columns
+   * @return
+   */
+  public static List<String> determineAliases(final List<JPAPath> columns) {
+    final String[] aliases = new String[columns.size()];
+    for (int i = 0; i < aliases.length; i++)
+      aliases[i] = columns.get(i).getAlias();
+    return Arrays.asList(aliases);
+  }
+
+  private static Object[] normalize(final Object[] values) {
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] instanceof Integer || values[i] instanceof Short || values[i] instanceof Byte)
+        values[i] = Long.valueOf(((Number) values[i]).longValue());
+    }
+    return values;
+  }
+
+  private static Object[] readValues(final Tuple row, final List<String> aliases) {
+    final Object[] values = new Object[aliases.size()];
+    for (int i = 0; i < values.length; i++)
+      values[i] = row.get(aliases.get(i));
+    return values;
+  }
+
+  @Override
+  public boolean equals(final Object object) {
+    if (this == object)
+      return true;
+    if (!(object instanceof JPAJoinKey))
+      return false;
+    final JPAJoinKey other = (JPAJoinKey) object;
+    return hash == other.hash && Arrays.equals(values, other.values);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  /**
+   * @return The values separated by {@link JPAPath#PATH_SEPERATOR}
+   */
+  @Override
+  public String toString() {
+    if (this == ROOT)
+      return "root";
+    final StringBuilder buffer = new StringBuilder();
+    for (final Object value : values) {
+      if (buffer.length() > 0)
+        buffer.append(JPAPath.PATH_SEPERATOR);
+      buffer.append(value);
+    }
+    return buffer.toString();
+  }
+}
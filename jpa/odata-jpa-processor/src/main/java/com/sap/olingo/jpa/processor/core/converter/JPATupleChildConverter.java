@@ -4,22 +4,18 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import javax.persistence.AttributeConverter;
 import javax.persistence.Tuple;
-import javax.persistence.TupleElement;
 
 import org.apache.olingo.commons.api.Constants;
-import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.data.Link;
-import org.apache.olingo.commons.api.data.Property;
-import org.apache.olingo.commons.api.data.ValueType;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
@@ -30,7 +26,6 @@ import org.apache.olingo.server.api.uri.UriHelper;
 
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationAttribute;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationPath;
-import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAElement;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntitySet;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
@@ -63,6 +58,8 @@ public class JPATupleChildConverter {
   protected final JPAServiceDocument sd;
   protected final ServiceMetadata serviceMetadata;
   protected EdmEntityType edmType;
+  // Aliases of the join key columns, indexed by the id of the association path of the converted entity type
+  private List<List<String>> joinKeyAliases = Collections.emptyList();
 
   public JPATupleChildConverter(JPAServiceDocument sd, UriHelper uriHelper, ServiceMetadata serviceMetadata) {
     this.uriHelper = uriHelper;
@@ -74,24 +71,29 @@ public class JPATupleChildConverter {
     this(converter.sd, converter.uriHelper, converter.serviceMetadata);
   }
 
-  public Map<String, EntityCollection> getResult(JPAExpandResult jpaResult)
+  public Map<JPAJoinKey, EntityCollection> getResult(JPAExpandResult jpaResult)
       throws ODataApplicationException {
 
     jpaQueryResult = jpaResult;
     this.setName = determineSetName(jpaQueryResult, sd);
     this.jpaConversionTargetEntity = jpaQueryResult.getEntityType();
     this.edmType = determineEdmType();
-    final Map<String, List<Tuple>> childResult = jpaResult.getResults();
+    this.joinKeyAliases = createJoinKeyAliasBuffer(jpaConversionTargetEntity);
+    final Map<JPAJoinKey, List<Tuple>> childResult = jpaResult.getResults();
 
-    final Map<String, EntityCollection> result = new HashMap<>(childResult.size());
-    for (Entry<String, List<Tuple>> tuple : childResult.entrySet()) {
+    final Map<JPAJoinKey, EntityCollection> result = new HashMap<>(childResult.size());
+    // All rows of a result have the same selection, so the conversion has to be prepared only once
+    JPATupleRowConverter rowConverter = null;
+    for (Entry<JPAJoinKey, List<Tuple>> tuple : childResult.entrySet()) {
       final EntityCollection entityCollection = new EntityCollection();
       final List<Entity> entities = entityCollection.getEntities();
       final List<Tuple> rows = tuple.getValue();
 
       for (int i = 0; i < tuple.getValue().size(); i++) {
         final Tuple row = rows.set(i, null);
-        final Entity odataEntity = convertRow(jpaConversionTargetEntity, row);
+        if (rowConverter == null || !rowConverter.accepts(row.getElements()))
+          rowConverter = new JPATupleRowConverter(this, row.getElements());
+        final Entity odataEntity = rowConverter.convert(row);
         odataEntity.setMediaContentType(determineContentType(jpaConversionTargetEntity, row));
         entities.add(odataEntity);
       }
@@ -101,100 +103,39 @@ public class JPATupleChildConverter {
     return result;
   }
 
-  protected String buildConcatenatedKey(final Tuple row, final List<JPAPath> leftColumns) {
-    final StringBuilder buffer = new StringBuilder();
-    for (final JPAPath item : leftColumns) {
-      buffer.append(JPAPath.PATH_SEPERATOR);
-      // TODO Tuple returns the converted value in case a @Convert(converter = annotation is given
-      buffer.append(row.get(item.getAlias()));
+  protected JPAJoinKey buildJoinKey(final Tuple row, final JPAAssociationPath association)
+      throws ODataJPAModelException {
+    final int id = association.getId();
+    // Only association paths of the converted entity type can be buffered by their id
+    final boolean buffered = id >= 0 && id < joinKeyAliases.size()
+        && jpaConversionTargetEntity.getAssociationPath(id) == association;
+    List<String> aliases = buffered ? joinKeyAliases.get(id) : null;
+    if (aliases == null) {
+      aliases = JPAJoinKey.determineAliases(association.getLeftColumnsList());
+      if (buffered)
+        joinKeyAliases.set(id, aliases);
     }
-    buffer.deleteCharAt(0);
-    return buffer.toString();
-  }
-
-  protected void convertAttribute(final Object value, final JPAPath jpaPath,
-      final Map<String, ComplexValue> complexValueBuffer, final List<Property> properties, final Tuple parentRow,
-      final String prefix, final String rootURI) throws ODataJPAModelException, ODataApplicationException {
-
-    if (jpaPath != null) {
-      final JPAAttribute attribute = (JPAAttribute) jpaPath.getPath().get(0);
-      if (attribute != null && !attribute.isKey() && attribute.isComplex()) {
-        convertComplexAttribute(value, jpaPath.getAlias(), complexValueBuffer, properties, attribute, parentRow,
-            prefix, rootURI);
-      } else if (attribute != null) {
-        convertPrimitiveAttribute(value, properties, jpaPath, attribute);
-      }
-    }
-  }
-
-  protected Entity convertRow(JPAEntityType rowEntity, Tuple row) throws ODataApplicationException {
-    final Map<String, ComplexValue> complexValueBuffer = new HashMap<>();
-    final Entity odataEntity = new Entity();
-
-    odataEntity.setType(edmType.getFullQualifiedName().getFullQualifiedNameAsString());
-    final List<Property> properties = odataEntity.getProperties();
-    // TODO store @Version to fill ETag Header
-    try {
-      for (final JPAAttribute path : rowEntity.getKey()) {
-        convertAttribute(row.get(path.getExternalName()), rowEntity.getPath(path.getExternalName()), complexValueBuffer,
-            properties, row, EMPTY_PREFIX, "");
-      }
-    } catch (final ODataJPAModelException e) {
-      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_RESULT_CONV_ERROR,
-          HttpStatusCode.INTERNAL_SERVER_ERROR, e);
-    }
-    odataEntity.setId(createId(odataEntity));
-
-    for (final TupleElement<?> element : row.getElements()) {
-      try {
-        if (odataEntity.getProperty(element.getAlias()) == null)
-          convertAttribute(row.get(element.getAlias()), rowEntity.getPath(element.getAlias()), complexValueBuffer,
-              properties, row, EMPTY_PREFIX, odataEntity.getId().toString());
-      } catch (final ODataJPAModelException e) {
-        throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_RESULT_CONV_ERROR,
-            HttpStatusCode.INTERNAL_SERVER_ERROR, e);
-      }
-    }
-    odataEntity.getNavigationLinks().addAll(createExpand(rowEntity, row, EMPTY_PREFIX, odataEntity.getId().toString()));
-    return odataEntity;
-  }
-
-  protected void createComplexValue(final Map<String, ComplexValue> complexValueBuffer,
-      final List<Property> properties, final JPAAttribute attribute, final Tuple parentRow, final String bufferKey,
-      final String rootURI)
-      throws ODataJPAModelException, ODataApplicationException {
-
-    final ComplexValue complexValue = new ComplexValue();
-    complexValueBuffer.put(bufferKey, complexValue);
-    properties.add(new Property(
-        attribute.getStructuredType().getExternalFQN().getFullQualifiedNameAsString(),
-        attribute.getExternalName(),
-        ValueType.COMPLEX,
-        complexValue));
-    complexValue.getNavigationLinks().addAll(createExpand(attribute.getStructuredType(), parentRow, bufferKey,
-        rootURI));
-
+    // TODO Tuple returns the converted value in case a @Convert(converter = annotation is given
+    return new JPAJoinKey(row, aliases);
   }
 
   protected Collection<Link> createExpand(JPAStructuredType jpaStructuredType, final Tuple row,
       final String prefix, final String rootURI) throws ODataApplicationException {
-    final List<Link> entityExpandLinks = new ArrayList<>();
+    return createExpand(determineAssociationPaths(jpaStructuredType, prefix), row, rootURI);
+  }
 
-    JPAAssociationPath path = null;
-    try {
-      for (final JPAAssociationAttribute a : jpaStructuredType.getDeclaredAssociations()) {
-        path = jpaConversionTargetEntity.getAssociationPath(buildPath(prefix, a));
-        final JPAExpandResult child = jpaQueryResult.getChild(path);
-        final String linkURI = rootURI + JPAPath.PATH_SEPERATOR + path.getAlias();
-        if (child != null) {
-          // TODO Check how to convert Organizations('3')/AdministrativeInformation?$expand=Created/User
-          entityExpandLinks.add(getLink(path, row, child, linkURI));
-        } else
-          entityExpandLinks.add(getLink(path, linkURI));
-      }
-    } catch (ODataJPAModelException e) {
-      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_RESULT_NAVI_PROPERTY_ERROR,
-          HttpStatusCode.INTERNAL_SERVER_ERROR, path != null ? path.getAlias() : EMPTY_PREFIX);
+  protected Collection<Link> createExpand(final List<JPAAssociationPath> associationPaths, final Tuple row,
+      final String rootURI) throws ODataApplicationException {
+    final List<Link> entityExpandLinks = new ArrayList<>(associationPaths.size());
+
+    for (final JPAAssociationPath path : associationPaths) {
+      final JPAExpandResult child = jpaQueryResult.getChild(path);
+      final String linkURI = rootURI + JPAPath.PATH_SEPERATOR + path.getAlias();
+      if (child != null) {
+        // TODO Check how to convert Organizations('3')/AdministrativeInformation?$expand=Created/User
+        entityExpandLinks.add(getLink(path, row, child, linkURI));
+      } else
+        entityExpandLinks.add(getLink(path, linkURI));
     }
     return entityExpandLinks;
   }
@@ -219,6 +160,26 @@ public class JPATupleChildConverter {
     }
   }
 
+  /**
+   * Determines the association paths of the navigation properties declared by a structured type, which is reached
+   * from the converted entity type via <code>prefix</code>.
+   */
+  protected List<JPAAssociationPath> determineAssociationPaths(final JPAStructuredType jpaStructuredType,
+      final String prefix) throws ODataJPAQueryException {
+    final List<JPAAssociationPath> associationPaths = new ArrayList<>();
+    String pathName = EMPTY_PREFIX;
+    try {
+      for (final JPAAssociationAttribute a : jpaStructuredType.getDeclaredAssociations()) {
+        pathName = buildPath(prefix, a);
+        associationPaths.add(jpaConversionTargetEntity.getAssociationPath(pathName));
+      }
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_RESULT_NAVI_PROPERTY_ERROR,
+          HttpStatusCode.INTERNAL_SERVER_ERROR, pathName);
+    }
+    return associationPaths;
+  }
+
   protected EdmEntityType determineEdmType() {
     try {
       final JPAEntitySet es = sd.getEntitySet(jpaQueryResult.getEntityType());
@@ -239,9 +200,12 @@ public class JPATupleChildConverter {
     }
   }
 
-  private String buildPath(final JPAAttribute attribute, final String prefix) {
-    return EMPTY_PREFIX.equals(prefix) ? attribute.getExternalName() : prefix + JPAPath.PATH_SEPERATOR + attribute
-        .getExternalName();
+  private List<List<String>> createJoinKeyAliasBuffer(final JPAEntityType et) throws ODataJPAQueryException {
+    try {
+      return new ArrayList<>(Collections.nCopies(et.getAssociationPathList().size(), (List<String>) null));
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAQueryException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+    }
   }
 
   private String buildPath(final String prefix, final JPAAssociationAttribute association) {
@@ -249,52 +213,6 @@ public class JPATupleChildConverter {
         .getExternalName();
   }
 
-  private void convertComplexAttribute(final Object value, final String externalName,
-      final Map<String, ComplexValue> complexValueBuffer, final List<Property> properties,
-      final JPAAttribute attribute, final Tuple parentRow, final String prefix, final String rootURI)
-      throws ODataJPAModelException, ODataApplicationException {
-
-    final String bufferKey = buildPath(attribute, prefix);
-
-    if (!complexValueBuffer.containsKey(bufferKey)) {
-      createComplexValue(complexValueBuffer, properties, attribute, parentRow, bufferKey, rootURI);
-    }
-
-    final List<Property> values = complexValueBuffer.get(bufferKey).getValue();
-    final int splitIndex = attribute.getExternalName().length() + JPAPath.PATH_SEPERATOR.length();
-    final String attributeName = externalName.substring(splitIndex);
-    convertAttribute(value, attribute.getStructuredType().getPath(attributeName), complexValueBuffer, values,
-        parentRow, buildPath(attribute, prefix), rootURI);
-  }
-
-  @SuppressWarnings("unchecked")
-  private <T extends Object, S extends Object> void convertPrimitiveAttribute(final Object value,
-      final List<Property> properties, final JPAPath jpaPath, final JPAAttribute attribute) {
-    Object odataValue;
-    if (attribute != null && attribute.getConverter() != null) {
-      AttributeConverter<T, S> converter = attribute.getConverter();
-      odataValue = converter.convertToDatabaseColumn((T) value);
-    } else if (attribute != null && value != null && attribute.isEnum())
-      odataValue = ((Enum<?>) value).ordinal();
-    else
-      odataValue = value;
-    if (attribute != null && attribute.isKey() && attribute.isComplex()) {
-
-      properties.add(new Property(
-          null,
-          jpaPath.getLeaf().getExternalName(),
-          attribute.isEnum() ? ValueType.ENUM : ValueType.PRIMITIVE,
-          odataValue));
-    } else {
-      // ...$select=Name1,Address/Region
-      properties.add(new Property(
-          null,
-          jpaPath.getAlias(),
-          attribute.isEnum() ? ValueType.ENUM : ValueType.PRIMITIVE,
-          odataValue));
-    }
-  }
-
   private String determineContentType(final JPAEntityType jpaEntity, final Tuple row) throws ODataJPAQueryException {
 
     try {
@@ -315,16 +233,9 @@ public class JPATupleChildConverter {
     }
   }
 
-  private Integer determineCount(final JPAAssociationPath assoziation, final Tuple parentRow,
-      final JPAExpandResult child)
-      throws ODataJPAQueryException {
-    try {
-      Long count = child.getCount(buildConcatenatedKey(parentRow, assoziation.getLeftColumnsList()));
-      return count != null ? Integer.valueOf(count.intValue()) : null;
-    } catch (ODataJPAModelException e) {
-      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_RESULT_CONV_ERROR,
-          HttpStatusCode.INTERNAL_SERVER_ERROR, e);
-    }
+  private Integer determineCount(final JPAJoinKey joinKey, final JPAExpandResult child) {
+    Long count = child.getCount(joinKey);
+    return count != null ? Integer.valueOf(count.intValue()) : null;
   }
 
   private Link getLink(final JPAAssociationPath assoziation, final Tuple parentRow, final JPAExpandResult child,
@@ -334,10 +245,10 @@ public class JPATupleChildConverter {
     link.setRel(Constants.NS_NAVIGATION_LINK_REL + link.getTitle());
     link.setType(Constants.ENTITY_NAVIGATION_LINK_TYPE);
     try {
-      final EntityCollection expandCollection = ((JPAExpandQueryResult) child).getEntityCollection(
-          buildConcatenatedKey(parentRow, assoziation.getLeftColumnsList()));
+      final JPAJoinKey joinKey = buildJoinKey(parentRow, assoziation);
+      final EntityCollection expandCollection = ((JPAExpandQueryResult) child).getEntityCollection(joinKey);
 
-      expandCollection.setCount(determineCount(assoziation, parentRow, child));
+      expandCollection.setCount(determineCount(joinKey, child));
       if (assoziation.getLeaf().isCollection()) {
         link.setInlineEntitySet(expandCollection);
         link.setHref(linkURI);
@@ -0,0 +1,217 @@
+package com.sap.olingo.jpa.processor.core.converter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+
+import org.apache.olingo.commons.api.data.ComplexValue;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataApplicationException;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import com.sap.olingo.jpa.processor.core.exception.ODataJPAQueryException;
+
+/**
+ * Converts rows, which have all the same tuple elements, into Olingo entities.<p>
+ * The tuple elements are analyzed only once, when the converter is created. For each element it is determined, which
+ * property it fills, how the value has to be converted and which complex value it belongs to. Converting a row only
+ * reads the values via the index of the element, so no paths have to be build and no attributes have to be looked up
+ * per row.
+ * @author Oliver Grande
+ *
+ */
+final class JPATupleRowConverter {
+  private final JPATupleChildConverter parent;
+  private final List<TupleElement<?>> elements;
+  private final String entityTypeName;
+  private final List<ColumnWriter> keyWriters;
+  private final List<ColumnWriter> writers;
+  private final List<ComplexNode> complexNodes;
+  private final List<JPAAssociationPath> associations;
+
+  JPATupleRowConverter(final JPATupleChildConverter parent, final List<TupleElement<?>> elements)
+      throws ODataApplicationException {
+    super();
+    this.parent = parent;
+    this.elements = elements;
+    this.entityTypeName = parent.edmType.getFullQualifiedName().getFullQualifiedNameAsString();
+    this.keyWriters = new ArrayList<>();
+    this.writers = new ArrayList<>(elements.size());
+    this.complexNodes = new ArrayList<>();
+    this.associations = parent.determineAssociationPaths(parent.jpaConversionTargetEntity,
+        JPATupleChildConverter.EMPTY_PREFIX);
+    compile(parent.jpaConversionTargetEntity);
+  }
+
+  /**
+   * @param rowElements
+   * @return True if a row with the given tuple elements can be converted
+   */
+  boolean accepts(final List<TupleElement<?>> rowElements) {
+    if (rowElements == elements)
+      return true;
+    if (rowElements.size() != elements.size())
+      return false;
+    for (int i = 0; i < elements.size(); i++) {
+      if (!Objects.equals(rowElements.get(i).getAlias(), elements.get(i).getAlias()))
+        return false;
+    }
+    return true;
+  }
+
+  Entity convert(final Tuple row) throws ODataApplicationException {
+    final Entity odataEntity = new Entity();
+    odataEntity.setType(entityTypeName);
+    final List<Property> properties = odataEntity.getProperties();
+    // TODO store @Version to fill ETag Header
+    for (final ColumnWriter writer : keyWriters)
+      properties.add(writer.createProperty(row));
+    odataEntity.setId(parent.createId(odataEntity));
+
+    final String rootURI = odataEntity.getId().toString();
+    final ComplexValue[] complexValues = new ComplexValue[complexNodes.size()];
+    for (final ColumnWriter writer : writers) {
+      if (writer.node == null)
+        properties.add(writer.createProperty(row));
+      else
+        getComplexValue(writer.node, complexValues, properties, row, rootURI).getValue().add(writer.createProperty(
+            row));
+    }
+    odataEntity.getNavigationLinks().addAll(parent.createExpand(associations, row, rootURI));
+    return odataEntity;
+  }
+
+  private void addColumn(final List<ColumnWriter> target, final int index, final JPAPath jpaPath,
+      final ComplexNode node, final String prefix, final Set<String> rootProperties,
+      final Map<String, ComplexNode> nodeBuffer) throws ODataJPAModelException, ODataApplicationException {
+
+    if (jpaPath == null)
+      return;
+    final JPAAttribute attribute = (JPAAttribute) jpaPath.getPath().get(0);
+    if (attribute != null && !attribute.isKey() && attribute.isComplex()) {
+      final String bufferKey = JPATupleChildConverter.EMPTY_PREFIX.equals(prefix) ? attribute.getExternalName()
+          : prefix + JPAPath.PATH_SEPERATOR + attribute.getExternalName();
+      ComplexNode complexNode = nodeBuffer.get(bufferKey);
+      if (complexNode == null) {
+        complexNode = new ComplexNode(complexNodes.size(), node, attribute, parent.determineAssociationPaths(attribute
+            .getStructuredType(), bufferKey));
+        complexNodes.add(complexNode);
+        nodeBuffer.put(bufferKey, complexNode);
+        if (node == null)
+          rootProperties.add(attribute.getExternalName());
+      }
+      final int splitIndex = attribute.getExternalName().length() + JPAPath.PATH_SEPERATOR.length();
+      addColumn(target, index, attribute.getStructuredType().getPath(jpaPath.getAlias().substring(splitIndex)),
+          complexNode, bufferKey, rootProperties, nodeBuffer);
+    } else if (attribute != null) {
+      // ...$select=Name1,Address/Region
+      final String name = attribute.isKey() && attribute.isComplex() ? jpaPath.getLeaf().getExternalName() : jpaPath
+          .getAlias();
+      target.add(new ColumnWriter(index, node, name, attribute));
+      if (node == null)
+        rootProperties.add(name);
+    }
+  }
+
+  private void compile(final JPAEntityType et) throws ODataApplicationException {
+    final Map<String, Integer> indexBuffer = new HashMap<>(elements.size());
+    for (int i = 0; i < elements.size(); i++)
+      indexBuffer.putIfAbsent(elements.get(i).getAlias(), i);
+    final Set<String> rootProperties = new HashSet<>();
+    final Map<String, ComplexNode> nodeBuffer = new HashMap<>();
+    try {
+      for (final JPAAttribute key : et.getKey()) {
+        final Integer index = indexBuffer.get(key.getExternalName());
+        addColumn(keyWriters, index == null ? -1 : index, et.getPath(key.getExternalName()), null,
+            JPATupleChildConverter.EMPTY_PREFIX, rootProperties, nodeBuffer);
+      }
+      for (int i = 0; i < elements.size(); i++) {
+        final String alias = elements.get(i).getAlias();
+        if (!rootProperties.contains(alias))
+          addColumn(writers, i, et.getPath(alias), null, JPATupleChildConverter.EMPTY_PREFIX, rootProperties,
+              nodeBuffer);
+      }
+    } catch (final ODataJPAModelException e) {
+      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_RESULT_CONV_ERROR,
+          HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+    }
+  }
+
+  private ComplexValue getComplexValue(final ComplexNode node, final ComplexValue[] complexValues,
+      final List<Property> properties, final Tuple row, final String rootURI) throws ODataApplicationException {
+
+    if (complexValues[node.index] == null) {
+      final List<Property> target = node.parent == null ? properties
+          : getComplexValue(node.parent, complexValues, properties, row, rootURI).getValue();
+      final ComplexValue complexValue = new ComplexValue();
+      complexValues[node.index] = complexValue;
+      target.add(new Property(node.typeName, node.name, ValueType.COMPLEX, complexValue));
+      complexValue.getNavigationLinks().addAll(parent.createExpand(node.associations, row, rootURI));
+    }
+    return complexValues[node.index];
+  }
+
+  private static class ColumnWriter {
+    private final int index;
+    private final ComplexNode node;
+    private final String name;
+    private final ValueType valueType;
+    private final AttributeConverter<Object, Object> converter;
+    private final boolean isEnum;
+
+    ColumnWriter(final int index, final ComplexNode node, final String name, final JPAAttribute attribute) {
+      super();
+      this.index = index;
+      this.node = node;
+      this.name = name;
+      this.isEnum = attribute.isEnum();
+      this.valueType = isEnum ? ValueType.ENUM : ValueType.PRIMITIVE;
+      this.converter = attribute.getConverter();
+    }
+
+    Property createProperty(final Tuple row) {
+      final Object value = index < 0 ? null : row.get(index);
+      final Object odataValue;
+      if (converter != null)
+        odataValue = converter.convertToDatabaseColumn(value);
+      else if (value != null && isEnum)
+        odataValue = ((Enum<?>) value).ordinal();
+      else
+        odataValue = value;
+      return new Property(null, name, valueType, odataValue);
+    }
+  }
+
+  private static class ComplexNode {
+    private final int index;
+    private final ComplexNode parent;
+    private final String typeName;
+    private final String name;
+    private final List<JPAAssociationPath> associations;
+
+    ComplexNode(final int index, final ComplexNode parent, final JPAAttribute attribute,
+        final List<JPAAssociationPath> associations) throws ODataJPAModelException {
+      super();
+      this.index = index;
+      this.parent = parent;
+      this.typeName = attribute.getStructuredType().getExternalFQN().getFullQualifiedNameAsString();
+      this.name = attribute.getExternalName();
+      this.associations = associations;
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.sap.olingo.jpa.processor.core.database;
+
+import java.util.List;
+
+import javax.persistence.criteria.AbstractQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.From;
+
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+import com.sap.olingo.jpa.processor.core.api.JPAODataDatabaseProcessor;
+
+/**
+ * Provides the default implementations shared by the database processors.<p>
+ * By default $top and $skip within an $expand are not restricted by the database, so all rows of the expanded
+ * entities are read and the ones not requested are thrown away. A database processor that is able to restrict them
+ * overrides {@link #createExpandTopSkipWhereClause(CriteriaBuilder, AbstractQuery, From, JPAEntityType, List,
+ * OrderByOption, int, int)}. Processors of databases without window functions may opt in to an emulation of
+ * ROW_NUMBER() OVER (PARTITION BY ... ORDER BY ...), see {@link #createExpandRowNumberEmulation(CriteriaBuilder,
+ * AbstractQuery, From, JPAEntityType, List, OrderByOption, int, int)}.
+ * @author Oliver Grande
+ *
+ */
+public abstract class JPAAbstractDatabaseProcessor implements JPAODataDatabaseProcessor {
+
+  @Override
+  public Expression<Boolean> createExpandTopSkipWhereClause(final CriteriaBuilder cb, final AbstractQuery<?> cq,
+      final From<?, ?> target, final JPAEntityType entityType, final List<JPAPath> partitionBy,
+      final OrderByOption orderBy, final int skip, final int top) throws ODataApplicationException {
+    return null;
+  }
+
+  /**
+   * Emulates ROW_NUMBER() OVER (PARTITION BY ... ORDER BY ...) by counting the preceding rows of each row, so its
+   * costs grow with the square of the number of rows per parent. It pays off only as long as the number of rows per
+   * parent is small compared to the number of rows thrown away otherwise.
+   */
+  protected final Expression<Boolean> createExpandRowNumberEmulation(final CriteriaBuilder cb,
+      final AbstractQuery<?> cq, final From<?, ?> target, final JPAEntityType entityType,
+      final List<JPAPath> partitionBy, final OrderByOption orderBy, final int skip, final int top)
+      throws ODataApplicationException {
+    return new JPAExpandRowNumberRestriction(cb, cq, target, entityType).createWhere(partitionBy, orderBy, skip, top);
+  }
+}
@@ -0,0 +1,177 @@
+package com.sap.olingo.jpa.processor.core.database;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.criteria.AbstractQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+import org.apache.olingo.commons.api.edm.provider.CsdlProperty;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceComplexProperty;
+import org.apache.olingo.server.api.uri.UriResourcePrimitiveProperty;
+import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.Member;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAElement;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import com.sap.olingo.jpa.processor.core.exception.ODataJPADBAdaptorException;
+
+/**
+ * Emulates <code>ROW_NUMBER() OVER (PARTITION BY ... ORDER BY ...)</code> for the criteria builder. The row number of
+ * a row is the number of rows of the same partition that are ordered in front of it:<p>
+ * <code>
+ * WHERE EXISTS (SELECT COUNT(*) FROM Child s WHERE s.parent = t.parent AND s &lt; t
+ * HAVING COUNT(*) BETWEEN skip AND skip + top - 1)
+ * </code><p>
+ * To get a unique row number the order is completed by the key of the entity. Nullable order by properties as well
+ * as order by navigation properties are not supported, as they do not provide a total order.
+ * @author Oliver Grande
+ *
+ */
+final class JPAExpandRowNumberRestriction {
+  private final CriteriaBuilder cb;
+  private final AbstractQuery<?> cq;
+  private final From<?, ?> target;
+  private final JPAEntityType entityType;
+
+  JPAExpandRowNumberRestriction(final CriteriaBuilder cb, final AbstractQuery<?> cq, final From<?, ?> target,
+      final JPAEntityType entityType) {
+    super();
+    this.cb = cb;
+    this.cq = cq;
+    this.target = target;
+    this.entityType = entityType;
+  }
+
+  Expression<Boolean> createWhere(final List<JPAPath> partitionBy, final OrderByOption orderBy, final int skip,
+      final int top) throws ODataApplicationException {
+
+    final List<JPAPath> orderPath = new ArrayList<>();
+    final List<Boolean> descending = new ArrayList<>();
+    try {
+      if (!determineOrder(orderBy, orderPath, descending))
+        return null;
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPADBAdaptorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+    }
+
+    final Subquery<Long> rowNumber = cq.subquery(Long.class);
+    final Root<?> sibling = rowNumber.from(entityType.getTypeClass());
+    final Expression<Long> count = cb.count(sibling);
+    rowNumber.select(count);
+    rowNumber.where(cb.and(createPartitionCondition(sibling, partitionBy),
+        createPrecedingCondition(sibling, orderPath, descending)));
+    // Comparisons with a sub-query as operand are rejected by some JPA implementations, so the row number is checked
+    // within the sub-query. An aggregation without group by returns always one row, even if no preceding row exists.
+    if (top == Integer.MAX_VALUE)
+      rowNumber.having(cb.greaterThanOrEqualTo(count, Long.valueOf(skip)));
+    else
+      rowNumber.having(cb.between(count, Long.valueOf(skip), Long.valueOf((long) skip + top - 1)));
+    return cb.exists(rowNumber);
+  }
+
+  private Expression<Boolean> createPartitionCondition(final From<?, ?> sibling, final List<JPAPath> partitionBy) {
+    Expression<Boolean> partitionCondition = null;
+    for (final JPAPath column : partitionBy) {
+      final Expression<Boolean> equalCondition = cb.equal(convertToPath(sibling, column), convertToPath(target,
+          column));
+      if (partitionCondition == null)
+        partitionCondition = equalCondition;
+      else
+        partitionCondition = cb.and(partitionCondition, equalCondition);
+    }
+    return partitionCondition;
+  }
+
+  /**
+   * Creates a lexicographical comparison of the order by columns: (s.a &lt; t.a) OR (s.a = t.a AND s.b &lt; t.b) ...
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private Expression<Boolean> createPrecedingCondition(final From<?, ?> sibling, final List<JPAPath> orderPath,
+      final List<Boolean> descending) {
+
+    Expression<Boolean> precedingCondition = null;
+    Expression<Boolean> equalBefore = null;
+    for (int i = 0; i < orderPath.size(); i++) {
+      final Expression siblingPath = convertToPath(sibling, orderPath.get(i));
+      final Expression targetPath = convertToPath(target, orderPath.get(i));
+      Expression<Boolean> preceding = descending.get(i) ? cb.greaterThan(siblingPath, targetPath)
+          : cb.lessThan(siblingPath, targetPath);
+      if (equalBefore != null)
+        preceding = cb.and(equalBefore, preceding);
+      precedingCondition = precedingCondition == null ? preceding : cb.or(precedingCondition, preceding);
+
+      final Expression<Boolean> equalCondition = cb.equal(siblingPath, targetPath);
+      equalBefore = equalBefore == null ? equalCondition : cb.and(equalBefore, equalCondition);
+    }
+    return precedingCondition;
+  }
+
+  private Path<?> convertToPath(final From<?, ?> from, final JPAPath jpaPath) {
+    Path<?> p = from;
+    for (final JPAElement pathItem : jpaPath.getPath())
+      p = p.get(pathItem.getInternalName());
+    return p;
+  }
+
+  private boolean determineOrder(final OrderByOption orderBy, final List<JPAPath> orderPath,
+      final List<Boolean> descending) throws ODataJPAModelException {
+
+    if (orderBy != null) {
+      for (final OrderByItem orderByItem : orderBy.getOrders()) {
+        if (!(orderByItem.getExpression() instanceof Member))
+          return false;
+        final JPAPath path = determineOrderPath(entityType, (Member) orderByItem.getExpression());
+        if (path == null || isNullable(path.getLeaf()))
+          return false;
+        orderPath.add(path);
+        descending.add(orderByItem.isDescending());
+      }
+    }
+    for (final JPAPath keyPath : entityType.getKeyPath()) {
+      if (!orderPath.contains(keyPath)) {
+        orderPath.add(keyPath);
+        descending.add(Boolean.FALSE);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the path of an order by property or null, in case the order by item is not a property of the entity type.
+   */
+  static JPAPath determineOrderPath(final JPAEntityType entityType, final Member member)
+      throws ODataJPAModelException {
+    final StringBuilder externalPath = new StringBuilder();
+    for (final UriResource uriResourceItem : member.getResourcePath().getUriResourceParts()) {
+      if (uriResourceItem instanceof UriResourcePrimitiveProperty
+          || uriResourceItem instanceof UriResourceComplexProperty) {
+        if (externalPath.length() > 0)
+          externalPath.append(JPAPath.PATH_SEPERATOR);
+        externalPath.append(uriResourceItem.getSegmentValue());
+      } else
+        // e.g. $orderby=Roles/$count
+        return null;
+    }
+    return entityType.getPath(externalPath.toString());
+  }
+
+  private boolean isNullable(final JPAAttribute attribute) throws ODataJPAModelException {
+    if (attribute.isKey())
+      return false;
+    final Object property = attribute.getProperty();
+    return !(property instanceof CsdlProperty) || ((CsdlProperty) property).isNullable();
+  }
+}
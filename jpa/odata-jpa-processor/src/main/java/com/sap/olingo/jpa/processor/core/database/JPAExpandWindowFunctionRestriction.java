@@ -0,0 +1,160 @@
+package com.sap.olingo.jpa.processor.core.database;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.Entity;
+import javax.persistence.Inheritance;
+import javax.persistence.SecondaryTable;
+import javax.persistence.SecondaryTables;
+import javax.persistence.Table;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Path;
+
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.Member;
+import org.eclipse.persistence.jpa.JpaCriteriaBuilder;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPADescriptionAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAElement;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import com.sap.olingo.jpa.processor.core.exception.ODataJPADBAdaptorException;
+
+/**
+ * Restricts the rows of an expanded entity type using <code>ROW_NUMBER() OVER (PARTITION BY ... ORDER BY ...)
+ * </code>. A window function is not allowed within a where clause, so the row number is read from a derived table by
+ * a scalar sub-query, which is linked to the row via the key:<p>
+ * <code>
+ * WHERE (SELECT R.ROW_NO FROM (SELECT key AS ROW_KEY_1, ROW_NUMBER() OVER (PARTITION BY parent ORDER BY ...) AS
+ * ROW_NO FROM Child) R WHERE R.ROW_KEY_1 = t.key) BETWEEN skip + 1 AND skip + top
+ * </code><p>
+ * The criteria builder knows neither window functions nor derived tables. Therefore the sub-query is created as native
+ * SQL with the SQL operator of EclipseLink, which puts the key columns of the row at the placeholders. As the
+ * sub-query is build from the mapping annotations, entity types with secondary tables or being part of an
+ * inheritance hierarchy are not supported.
+ * @author Oliver Grande
+ *
+ */
+final class JPAExpandWindowFunctionRestriction {
+  private static final String ROW_NUMBER_ALIAS = "ROW_NO";
+  private static final String KEY_ALIAS = "ROW_KEY_";
+  private static final String TABLE_ALIAS = "R";
+  private final JpaCriteriaBuilder cb;
+  private final From<?, ?> target;
+  private final JPAEntityType entityType;
+
+  JPAExpandWindowFunctionRestriction(final CriteriaBuilder cb, final From<?, ?> target,
+      final JPAEntityType entityType) {
+    super();
+    this.cb = (JpaCriteriaBuilder) cb;
+    this.target = target;
+    this.entityType = entityType;
+  }
+
+  Expression<Boolean> createWhere(final List<JPAPath> partitionBy, final OrderByOption orderBy, final int skip,
+      final int top) throws ODataApplicationException {
+
+    final String tableName = determineTableName(entityType.getTypeClass());
+    if (tableName == null)
+      return null;
+    try {
+      final List<JPAPath> keyPath = entityType.getKeyPath();
+      final String orderClause = createOrderClause(orderBy, keyPath);
+      if (orderClause == null)
+        return null;
+
+      final StringBuilder sql = new StringBuilder("(SELECT ").append(TABLE_ALIAS).append('.').append(
+          ROW_NUMBER_ALIAS).append(" FROM (SELECT ");
+      for (int i = 0; i < keyPath.size(); i++)
+        sql.append(keyPath.get(i).getDBFieldName()).append(" AS ").append(KEY_ALIAS).append(i + 1).append(", ");
+      sql.append("ROW_NUMBER() OVER (PARTITION BY ");
+      for (int i = 0; i < partitionBy.size(); i++)
+        sql.append(i == 0 ? "" : ", ").append(partitionBy.get(i).getDBFieldName());
+      sql.append(" ORDER BY ").append(orderClause).append(") AS ").append(ROW_NUMBER_ALIAS)
+          .append(" FROM ").append(tableName).append(") ").append(TABLE_ALIAS).append(" WHERE ");
+      // The first key column is the base of the SQL operator, the others are its arguments
+      final List<org.eclipse.persistence.expressions.Expression> keyColumns = new ArrayList<>();
+      for (int i = 0; i < keyPath.size(); i++) {
+        sql.append(i == 0 ? "" : " AND ").append(TABLE_ALIAS).append('.').append(KEY_ALIAS).append(i + 1)
+            .append(" = ?");
+        keyColumns.add(cb.toExpression(convertToPath(keyPath.get(i))));
+      }
+      sql.append(')');
+
+      final Expression<Long> rowNumber = cb.fromExpression(keyColumns.get(0).sql(sql.toString(), keyColumns.subList(1,
+          keyColumns.size())), Long.class);
+      // An expression created by the SQL operator can not be combined with other predicates by and, so the
+      // row number is compared instead of returning the comparison as native SQL
+      if (top == Integer.MAX_VALUE)
+        return cb.greaterThan(rowNumber, Long.valueOf(skip));
+      return cb.between(rowNumber, Long.valueOf(skip + 1L), Long.valueOf((long) skip + top));
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPADBAdaptorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  /**
+   * Creates the order of the window. To get a unique row number the order is completed by the key of the entity.
+   * @return null in case the order can not be expressed by columns of the table
+   */
+  private String createOrderClause(final OrderByOption orderBy, final List<JPAPath> keyPath)
+      throws ODataJPAModelException {
+
+    final List<JPAPath> orderPath = new ArrayList<>();
+    final StringBuilder orderClause = new StringBuilder();
+    if (orderBy != null) {
+      for (final OrderByItem orderByItem : orderBy.getOrders()) {
+        if (!(orderByItem.getExpression() instanceof Member))
+          return null;
+        final JPAPath path = JPAExpandRowNumberRestriction.determineOrderPath(entityType, (Member) orderByItem
+            .getExpression());
+        if (path == null || path.getLeaf() instanceof JPADescriptionAttribute)
+          return null;
+        orderPath.add(path);
+        orderClause.append(orderClause.length() == 0 ? "" : ", ").append(path.getDBFieldName())
+            .append(orderByItem.isDescending() ? " DESC" : "");
+      }
+    }
+    for (final JPAPath path : keyPath) {
+      if (!orderPath.contains(path))
+        orderClause.append(orderClause.length() == 0 ? "" : ", ").append(path.getDBFieldName());
+    }
+    return orderClause.toString();
+  }
+
+  private Path<?> convertToPath(final JPAPath jpaPath) {
+    Path<?> p = target;
+    for (final JPAElement pathItem : jpaPath.getPath())
+      p = p.get(pathItem.getInternalName());
+    return p;
+  }
+
+  /**
+   * Determines the table of the entity type from the mapping annotations.
+   * @return null in case the rows of the entity type are not stored in exactly one table
+   */
+  private String determineTableName(final Class<?> typeClass) {
+    if (typeClass.isAnnotationPresent(Inheritance.class)
+        || typeClass.isAnnotationPresent(SecondaryTable.class)
+        || typeClass.isAnnotationPresent(SecondaryTables.class))
+      return null;
+    for (Class<?> superClass = typeClass.getSuperclass(); superClass != null; superClass = superClass
+        .getSuperclass()) {
+      if (superClass.isAnnotationPresent(Entity.class))
+        return null;
+    }
+    final Table table = typeClass.getAnnotation(Table.class);
+    if (table != null && !table.name().isEmpty())
+      return table.schema().isEmpty() ? table.name() : table.schema() + "." + table.name();
+    final Entity entity = typeClass.getAnnotation(Entity.class);
+    final String tableName = entity != null && !entity.name().isEmpty() ? entity.name() : typeClass.getSimpleName();
+    return table != null && !table.schema().isEmpty() ? table.schema() + "." + tableName : tableName;
+  }
+}
@@ -0,0 +1,25 @@
+package com.sap.olingo.jpa.processor.core.database;
+
+import javax.persistence.criteria.AbstractQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+
+import org.apache.olingo.server.api.ODataApplicationException;
+
+public interface JPAODataDatabaseCount {
+  /**
+   * $count=true requests the number of all entities matching the request in addition to the entities of the (first)
+   * page. Databases supporting window functions are able to provide this number together with the rows by an
+   * additional column COUNT(*) OVER(), which saves a second query with the same conditions. For details about $count
+   * see:<p>
+   * <a href=
+   * "http://docs.oasis-open.org/odata/odata/v4.0/errata03/os/complete/part1-protocol/odata-v4.0-errata03-os-part1-protocol-complete.html#_Toc453752288"
+   * >OData Version 4.0 Part 1 - 11.2.5.5 System Query Option $count</a>
+   * @param cb
+   * @param cq Query the column shall be added to
+   * @return An expression that provides the number of rows of the query, ignoring its first and max results, or null if
+   * the database does not support such a column. In the later case the count is determined by a separate query.
+   * @throws ODataApplicationException
+   */
+  Expression<Long> createCountOverExpression(CriteriaBuilder cb, AbstractQuery<?> cq) throws ODataApplicationException;
+}
@@ -0,0 +1,41 @@
+package com.sap.olingo.jpa.processor.core.database;
+
+import java.util.List;
+
+import javax.persistence.criteria.AbstractQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.From;
+
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+
+public interface JPAODataDatabaseExpandTopSkip {
+  /**
+   * $top and $skip of an $expand have to be applied per parent and not on the overall result of the expand query. SQL
+   * offers different ways to solve this e.g. ROW_NUMBER() OVER (PARTITION BY ... ORDER BY ...), LATERAL joins or
+   * CROSS APPLY, which are supported differently by the databases. As the criteria builder neither supports window
+   * functions nor derived tables, the restriction has to be provided as an additional where condition. For details
+   * about $top and $skip within $expand see:<p>
+   * <a href=
+   * "http://docs.oasis-open.org/odata/odata/v4.0/errata02/os/complete/part2-url-conventions/odata-v4.0-errata02-os-part2-url-conventions-complete.html#_Toc406398162"
+   * >OData Version 4.0 Part 2 - 5.1.2 System Query Option $expand</a>
+   * @param cb
+   * @param cq Query the restriction shall be added to
+   * @param target From clause of the expanded entity
+   * @param entityType Expanded entity type
+   * @param partitionBy Columns of the expanded entity that link it with the parent
+   * @param orderBy Order requested within the $expand; may be null
+   * @param skip
+   * @param top
+   * @return A where condition that restricts the rows per parent or null if the restriction can not be created. In
+   * the later case all rows are read and the ones not requested are thrown away.
+   * @throws ODataApplicationException
+   */
+  Expression<Boolean> createExpandTopSkipWhereClause(CriteriaBuilder cb, AbstractQuery<?> cq, From<?, ?> target,
+      JPAEntityType entityType, List<JPAPath> partitionBy, OrderByOption orderBy, int skip, int top)
+      throws ODataApplicationException;
+}
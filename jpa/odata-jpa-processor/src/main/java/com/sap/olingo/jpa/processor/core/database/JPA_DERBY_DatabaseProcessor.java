@@ -4,6 +4,7 @@ import java.util.List;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
+import javax.persistence.criteria.AbstractQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Expression;
@@ -12,19 +13,36 @@ import javax.persistence.criteria.From;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
 import org.apache.olingo.server.api.uri.queryoption.SearchOption;
 
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPADataBaseFunction;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAFunction;
-import com.sap.olingo.jpa.processor.core.api.JPAODataDatabaseProcessor;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPADBAdaptorException;
 
-class JPA_DERBY_DatabaseProcessor implements JPAODataDatabaseProcessor {
+class JPA_DERBY_DatabaseProcessor extends JPAAbstractDatabaseProcessor {
   private static final String SELECT_BASE_PATTERN = "SELECT f.* FROM TABLE ($FUNCTIONNAME$($PARAMETER$)) f";
   private static final String FUNC_NAME_PLACEHOLDER = "$FUNCTIONNAME$";
   private static final String PARAMETER_PLACEHOLDER = "$PARAMETER$";
 
+  @Override
+  public Expression<Long> createCountOverExpression(final CriteriaBuilder cb, final AbstractQuery<?> cq) {
+    // Derby supports ROW_NUMBER() as only window function
+    return null;
+  }
+
+  /**
+   * The database does not support ROW_NUMBER() OVER (PARTITION BY ...), so the row number gets emulated.
+   */
+  @Override
+  public Expression<Boolean> createExpandTopSkipWhereClause(final CriteriaBuilder cb, final AbstractQuery<?> cq,
+      final From<?, ?> target, final JPAEntityType entityType, final List<JPAPath> partitionBy,
+      final OrderByOption orderBy, final int skip, final int top) throws ODataApplicationException {
+    return createExpandRowNumberEmulation(cb, cq, target, entityType, partitionBy, orderBy, skip, top);
+  }
+
   @Override
   public Expression<Boolean> createSearchWhereClause(final CriteriaBuilder cb, final CriteriaQuery<?> cq,
       final From<?, ?> root, final JPAEntityType entityType, final SearchOption searchOption)
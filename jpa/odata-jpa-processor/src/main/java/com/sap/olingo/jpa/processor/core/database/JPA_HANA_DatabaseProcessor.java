@@ -4,6 +4,7 @@ import java.util.List;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
+import javax.persistence.criteria.AbstractQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Expression;
@@ -21,6 +22,7 @@ import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.uri.UriParameter;
 import org.apache.olingo.server.api.uri.UriResource;
 import org.apache.olingo.server.api.uri.UriResourceFunction;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
 import org.apache.olingo.server.api.uri.queryoption.SearchOption;
 import org.apache.olingo.server.api.uri.queryoption.search.SearchTerm;
 
@@ -30,14 +32,14 @@ import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAParameter;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
-import com.sap.olingo.jpa.processor.core.api.JPAODataDatabaseProcessor;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPADBAdaptorException;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAProcessorException;
 
-final class JPA_HANA_DatabaseProcessor implements JPAODataDatabaseProcessor {
+final class JPA_HANA_DatabaseProcessor extends JPAAbstractDatabaseProcessor {
   private static final String SELECT_BASE_PATTERN = "SELECT * FROM $FUNCTIONNAME$($PARAMETER$)";
   private static final String FUNC_NAME_PLACEHOLDER = "$FUNCTIONNAME$";
   private static final String PARAMETER_PLACEHOLDER = "$PARAMETER$";
+  private static final String ECLIPSELINK_PACKAGE = "org.eclipse.persistence.";
 
   @SuppressWarnings("unchecked")
   @Override
@@ -63,6 +65,37 @@ final class JPA_HANA_DatabaseProcessor implements JPAODataDatabaseProcessor {
     return functionQuery.getResultList();
   }
 
+  /**
+   * The criteria builder does not know window functions. The column is created as function without parameter, which
+   * EclipseLink renders unchecked as name followed by (), so the function name COUNT(*) OVER results in
+   * COUNT(*) OVER(). Other JPA providers may validate or quote the name, therefore the column is only provided for
+   * EclipseLink. TestJPA_HANA_DatabaseProcessor checks the generated SQL, so a change of this behavior gets noticed
+   * with the next EclipseLink upgrade.
+   */
+  @Override
+  public Expression<Long> createCountOverExpression(final CriteriaBuilder cb, final AbstractQuery<?> cq) {
+    // A window function is evaluated before DISTINCT, so it would count duplicates as well
+    if (cq.isDistinct() || !isEclipseLink(cb))
+      return null;
+    // As the window is evaluated before LIMIT and OFFSET, the column contains the number of all rows also in case of
+    // $top and $skip
+    return cb.function("COUNT(*) OVER", Long.class);
+  }
+
+  /**
+   * Restricts the expanded rows by ROW_NUMBER() OVER (PARTITION BY ... ORDER BY ...). The window function is added
+   * as native SQL, which is only possible with EclipseLink. For other JPA providers, as well as for entity types that
+   * are not stored in exactly one table, all rows are read.
+   */
+  @Override
+  public Expression<Boolean> createExpandTopSkipWhereClause(final CriteriaBuilder cb, final AbstractQuery<?> cq,
+      final From<?, ?> target, final JPAEntityType entityType, final List<JPAPath> partitionBy,
+      final OrderByOption orderBy, final int skip, final int top) throws ODataApplicationException {
+    if (!isEclipseLink(cb))
+      return null;
+    return new JPAExpandWindowFunctionRestriction(cb, target, entityType).createWhere(partitionBy, orderBy, skip, top);
+  }
+
   @Override
   public Expression<Boolean> createSearchWhereClause(final CriteriaBuilder cb, final CriteriaQuery<?> cq,
       final From<?, ?> root, final JPAEntityType entityType, final SearchOption searchOption)
@@ -106,6 +139,10 @@ final class JPA_HANA_DatabaseProcessor implements JPAODataDatabaseProcessor {
     return null;
   }
 
+  private boolean isEclipseLink(final CriteriaBuilder cb) {
+    return cb.getClass().getName().startsWith(ECLIPSELINK_PACKAGE);
+  }
+
   private String generateQueryString(final JPADataBaseFunction jpaFunction) throws ODataJPAProcessorException {
     final StringBuffer parameterList = new StringBuffer();
     String queryString = SELECT_BASE_PATTERN;
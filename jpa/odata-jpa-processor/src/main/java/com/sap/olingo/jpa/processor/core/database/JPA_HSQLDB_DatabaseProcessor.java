@@ -4,6 +4,7 @@ import java.util.List;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
+import javax.persistence.criteria.AbstractQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Expression;
@@ -18,17 +19,18 @@ import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.uri.UriParameter;
 import org.apache.olingo.server.api.uri.UriResource;
 import org.apache.olingo.server.api.uri.UriResourceFunction;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
 import org.apache.olingo.server.api.uri.queryoption.SearchOption;
 
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPADataBaseFunction;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAParameter;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
-import com.sap.olingo.jpa.processor.core.api.JPAODataDatabaseProcessor;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPADBAdaptorException;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAProcessorException;
 
-class JPA_HSQLDB_DatabaseProcessor implements JPAODataDatabaseProcessor {
+class JPA_HSQLDB_DatabaseProcessor extends JPAAbstractDatabaseProcessor {
   private final static String SELECT_BASE_PATTERN = "SELECT * FROM TABLE ($FUNCTIONNAME$($PARAMETER$))";
   private final static String FUNC_NAME_PLACEHOLDER = "$FUNCTIONNAME$";
   private final static String PARAMETER_PLACEHOLDER = "$PARAMETER$";
@@ -100,6 +102,22 @@ class JPA_HSQLDB_DatabaseProcessor implements JPAODataDatabaseProcessor {
     }
   }
 
+  @Override
+  public Expression<Long> createCountOverExpression(final CriteriaBuilder cb, final AbstractQuery<?> cq) {
+    // HSQLDB does not support window functions
+    return null;
+  }
+
+  /**
+   * The database does not support ROW_NUMBER() OVER (PARTITION BY ...), so the row number gets emulated.
+   */
+  @Override
+  public Expression<Boolean> createExpandTopSkipWhereClause(final CriteriaBuilder cb, final AbstractQuery<?> cq,
+      final From<?, ?> target, final JPAEntityType entityType, final List<JPAPath> partitionBy,
+      final OrderByOption orderBy, final int skip, final int top) throws ODataApplicationException {
+    return createExpandRowNumberEmulation(cb, cq, target, entityType, partitionBy, orderBy, skip, top);
+  }
+
   @Override
   public Expression<Boolean> createSearchWhereClause(final CriteriaBuilder cb, final CriteriaQuery<?> cq,
       final From<?, ?> root, final JPAEntityType entityType, final SearchOption searchOption)
@@ -1,6 +1,8 @@
 package com.sap.olingo.jpa.processor.core.exception;
 
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Locale;
 
 import org.apache.olingo.commons.api.http.HttpStatusCode;
@@ -16,7 +18,7 @@ public abstract class ODataJPAProcessException extends ODataApplicationException
    */
   private static final long          serialVersionUID = -3178033271311091314L;
   private static final String        UNKNOWN_MESSAGE  = "No message text found";
-  private static Enumeration<Locale> locales;
+  private static final ThreadLocal<List<Locale>> locales = new ThreadLocal<>();
 
   protected final String   id;
   protected final String[] parameter;
@@ -73,7 +75,7 @@ public abstract class ODataJPAProcessException extends ODataApplicationException
 
   protected ODataJPAMessageTextBuffer getTextBundle() {
     if (getBundleName() != null)
-      return new ODataJPAMessageTextBuffer(getBundleName(), locales);
+      return new ODataJPAMessageTextBuffer(getBundleName(), getLocales());
     else
       return null;
   }
@@ -109,12 +111,23 @@ public abstract class ODataJPAProcessException extends ODataApplicationException
     return id;
   }
 
+  /**
+   * @return A new enumeration of the locales of the request processed by the current thread or null if none are set
+   */
   public static Enumeration<Locale> getLocales() {
-    return locales;
+    final List<Locale> requestLocales = locales.get();
+    return requestLocales == null ? null : Collections.enumeration(requestLocales);
   }
 
+  /**
+   * Sets the locales of the request processed by the current thread. Passing null removes them.
+   * @param locales
+   */
   public static void setLocales(final Enumeration<Locale> locales) {
-    ODataJPAProcessException.locales = locales;
+    if (locales == null)
+      ODataJPAProcessException.locales.remove();
+    else
+      ODataJPAProcessException.locales.set(Collections.list(locales));
   }
 
   protected abstract String getBundleName();
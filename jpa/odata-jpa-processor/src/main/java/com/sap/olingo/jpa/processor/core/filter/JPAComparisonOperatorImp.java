@@ -5,6 +5,8 @@ import javax.persistence.criteria.Expression;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.uri.queryoption.expression.BinaryOperatorKind;
 
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
+
 //
 public class JPAComparisonOperatorImp<T extends Comparable<T>> implements JPAComparisonOperator<T> {
   private final JPAOperationConverter converter;
@@ -93,6 +95,19 @@ public class JPAComparisonOperatorImp<T extends Comparable<T>> implements JPACom
     return (Comparable<T>) right.get();
   }
 
+  /**
+   * @return Attribute the literal operand gets converted for by {@link #getRightAsComparable()} or null if it is
+   * converted based on the type of the literal
+   * @throws ODataApplicationException
+   */
+  JPAAttribute determineAttribute() throws ODataApplicationException {
+    if (left instanceof JPALiteralOperator && right instanceof JPAMemberOperator)
+      return ((JPAMemberOperator) right).determineAttribute();
+    if (right instanceof JPALiteralOperator && left instanceof JPAMemberOperator)
+      return ((JPAMemberOperator) left).determineAttribute();
+    return null;
+  }
+
   /*
    * (non-Javadoc)
    * 
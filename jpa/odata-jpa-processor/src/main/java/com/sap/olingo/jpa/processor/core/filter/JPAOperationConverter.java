@@ -9,18 +9,32 @@ import javax.persistence.criteria.Expression;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.uri.queryoption.expression.UnaryOperatorKind;
 
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
 import com.sap.olingo.jpa.processor.core.database.JPAODataDatabaseOperations;
+import com.sap.olingo.jpa.processor.core.query.JPAQueryParameters;
 
 public class JPAOperationConverter {
 
   protected final CriteriaBuilder cb;
   private final JPAODataDatabaseOperations dbConverter;
+  private final JPAQueryParameters parameters;
 
   public JPAOperationConverter(final CriteriaBuilder cb, final JPAODataDatabaseOperations converterExtension) {
+    this(cb, converterExtension, null);
+  }
+
+  /**
+   * @param cb
+   * @param converterExtension
+   * @param parameters Replaces literals compared with other operands by query parameters. Null embeds the literals
+   */
+  public JPAOperationConverter(final CriteriaBuilder cb, final JPAODataDatabaseOperations converterExtension,
+      final JPAQueryParameters parameters) {
     super();
     this.cb = cb;
     this.dbConverter = converterExtension;
     this.dbConverter.setCriterialBuilder(cb);
+    this.parameters = parameters;
   }
 
   public final Expression<Long> convert(final JPAAggregationOperationImp jpaOperator) throws ODataApplicationException {
@@ -91,14 +105,16 @@ public class JPAOperationConverter {
           jpaOperator);
     case GE:
       return comparisonExpression((l, r) -> (cb.greaterThanOrEqualTo(l, r)), (l, r) -> (cb.greaterThanOrEqualTo(l, r)),
-          jpaOperator);
+          jpaOperator, jpaOperator.determineAttribute());
     case GT:
-      return comparisonExpression((l, r) -> (cb.greaterThan(l, r)), (l, r) -> (cb.greaterThan(l, r)), jpaOperator);
+      return comparisonExpression((l, r) -> (cb.greaterThan(l, r)), (l, r) -> (cb.greaterThan(l, r)), jpaOperator,
+          jpaOperator.determineAttribute());
     case LT:
-      return comparisonExpression((l, r) -> (cb.lessThan(l, r)), (l, r) -> (cb.lessThan(l, r)), jpaOperator);
+      return comparisonExpression((l, r) -> (cb.lessThan(l, r)), (l, r) -> (cb.lessThan(l, r)), jpaOperator,
+          jpaOperator.determineAttribute());
     case LE:
       return comparisonExpression((l, r) -> (cb.lessThanOrEqualTo(l, r)), (l, r) -> (cb.lessThanOrEqualTo(l, r)),
-          jpaOperator);
+          jpaOperator, jpaOperator.determineAttribute());
     default:
       return dbConverter.convert(jpaOperator);
     }
@@ -199,14 +215,28 @@ public class JPAOperationConverter {
   private <Y extends Comparable<? super Y>> Expression<Boolean> comparisonExpression(
       final BiFunction<Expression<? extends Y>, Expression<? extends Y>, Expression<Boolean>> allExpressionFunction,
       final BiFunction<Expression<? extends Y>, Y, Expression<Boolean>> expressionObjectFunction,
-      final JPAComparisonOperator<? extends Y> jpaOperator) throws ODataApplicationException {
+      final JPAComparisonOperator<? extends Y> jpaOperator, final JPAAttribute attribute)
+      throws ODataApplicationException {
 
-    if (jpaOperator.getRight() instanceof JPAPrimitiveTypeOperator)
-      return expressionObjectFunction.apply(jpaOperator.getLeft(), (Y) jpaOperator.getRightAsComparable());
-    else
+    if (jpaOperator.getRight() instanceof JPAPrimitiveTypeOperator) {
+      final Y value = (Y) jpaOperator.getRightAsComparable();
+      final Expression<? extends Y> parameter = createParameter(jpaOperator.getRight(), attribute, value);
+      if (parameter != null)
+        return allExpressionFunction.apply(jpaOperator.getLeft(), parameter);
+      return expressionObjectFunction.apply(jpaOperator.getLeft(), value);
+    } else
       return allExpressionFunction.apply(jpaOperator.getLeft(), jpaOperator.getRightAsExpression());
   }
 
+  /**
+   * @return Parameter replacing the literal or null if the literal shall be embedded
+   */
+  private <T> Expression<T> createParameter(final Object operand, final JPAAttribute attribute, final T value) {
+    if (parameters == null || !(operand instanceof JPALiteralOperator))
+      return null;
+    return parameters.createParameter(((JPALiteralOperator) operand).getLiteral(), attribute, value);
+  }
+
   @SuppressWarnings("unchecked")
   private Expression<Integer> convertLiteralToExpression(final JPAMethodCall jpaFunction, final int parameterIndex,
       final int offset) throws ODataApplicationException {
@@ -229,8 +259,13 @@ public class JPAOperationConverter {
     if (jpaOperator.getRight() instanceof JPAPrimitiveTypeOperator)
       if (((JPAPrimitiveTypeOperator) jpaOperator.getRight()).isNull())
         return nullFunction.apply(jpaOperator.getLeft());
-      else
-        return expressionObjectFunction.apply(jpaOperator.getLeft(), ((JPAOperator) jpaOperator.getRight()).get());
+      else {
+        final Object value = ((JPAOperator) jpaOperator.getRight()).get();
+        final Expression<?> parameter = createParameter(jpaOperator.getRight(), null, value);
+        if (parameter != null)
+          return allExpressionFunction.apply(jpaOperator.getLeft(), parameter);
+        return expressionObjectFunction.apply(jpaOperator.getLeft(), value);
+      }
     else
       return allExpressionFunction.apply(jpaOperator.getLeft(), jpaOperator.getRightAsExpression());
   }
@@ -59,7 +59,7 @@ public class JPAConversionHelper {
    * Creates a map of attribute name and the return value of there getter method. <p>
    * It is assumed that the method name is composed from <i>get</> and the
    * name of the attribute and that the attribute name starts with a lower case
-   * letter.
+   * letter. For boolean attributes also <i>is</i> is accepted, in case no <i>get</i> method exists.
    * @param instance
    * @return
    * @throws ODataJPAProcessorException
@@ -73,8 +73,12 @@ public class JPAConversionHelper {
         Method[] methods = instance.getClass().getMethods();
         for (Method meth : methods) {
           String methodName = meth.getName();
-          if (methodName.substring(0, 3).equals("get") && methodName.length() > 3) {
-            String attributeName = methodName.substring(3, 4).toLowerCase() + methodName.substring(4);
+          final int prefixLength = getterPrefixLength(meth);
+          if (prefixLength > 0) {
+            String attributeName = methodName.substring(prefixLength, prefixLength + 1).toLowerCase() + methodName
+                .substring(prefixLength + 1);
+            if (prefixLength == 2 && getterMap.containsKey(attributeName))
+              continue;
             try {
               Object value = meth.invoke(instance);
               getterMap.put(attributeName, value);
@@ -91,6 +95,18 @@ public class JPAConversionHelper {
       throw new ODataJPAProcessorException(MessageKeys.PARAMETER_NULL, HttpStatusCode.INTERNAL_SERVER_ERROR);
   }
 
+  private int getterPrefixLength(final Method meth) {
+    final String methodName = meth.getName();
+    if (meth.getParameterCount() != 0)
+      return 0;
+    if (methodName.startsWith("get") && methodName.length() > 3)
+      return 3;
+    if (methodName.startsWith("is") && methodName.length() > 2
+        && (meth.getReturnType() == boolean.class || meth.getReturnType() == Boolean.class))
+      return 2;
+    return 0;
+  }
+
   /**
    * Converts the payload of a request into the corresponding odata entity
    * @param odata
@@ -12,6 +12,7 @@ import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import com.sap.olingo.jpa.processor.core.converter.JPAExpandResult;
+import com.sap.olingo.jpa.processor.core.converter.JPAJoinKey;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAProcessorException;
 import com.sap.olingo.jpa.processor.core.query.ExpressionUtil;
 
@@ -46,7 +47,7 @@ abstract class JPACreateResult implements JPAExpandResult {
   }
 
   @Override
-  public Long getCount(final String key) {
+  public Long getCount(final JPAJoinKey key) {
     return null;
   }
 
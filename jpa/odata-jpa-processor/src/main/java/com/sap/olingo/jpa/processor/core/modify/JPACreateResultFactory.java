@@ -19,4 +19,19 @@ public final class JPACreateResultFactory {
     else
       return new JPAEntityResult(et, result, requestHeaders);
   }
+
+  /**
+   * Provides a read entity as result. Other than for a created entity the related entities are not part of the result.
+   * @param et
+   * @param result
+   * @param requestHeaders
+   * @return
+   * @throws ODataJPAProcessorException
+   * @throws ODataJPAModelException
+   */
+  public JPAExpandResult getJPAEntityResult(JPAEntityType et, Object result, Map<String, List<String>> requestHeaders)
+      throws ODataJPAProcessorException, ODataJPAModelException {
+
+    return new JPAEntityResult(et, result, requestHeaders, false);
+  }
 }
@@ -10,6 +10,7 @@ import javax.persistence.Tuple;
 
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import com.sap.olingo.jpa.processor.core.converter.JPAJoinKey;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAProcessorException;
 
 final class JPAEntityNavigationLinkResult extends JPACreateResult {
@@ -21,18 +22,18 @@ final class JPAEntityNavigationLinkResult extends JPACreateResult {
 
     result = new ArrayList<>();
     for (Object v : value) {
-      result.add(new JPAEntityResult(et, v, requestHeaders).getResult("root").get(0));
+      result.add(new JPAEntityResult(et, v, requestHeaders).getResult(ROOT_RESULT_KEY).get(0));
     }
   }
 
   @Override
-  public List<Tuple> getResult(String key) {
+  public List<Tuple> getResult(JPAJoinKey key) {
     return result;
   }
 
   @Override
-  public Map<String, List<Tuple>> getResults() {
-    final Map<String, List<Tuple>> results = new HashMap<>(1);
+  public Map<JPAJoinKey, List<Tuple>> getResults() {
+    final Map<JPAJoinKey, List<Tuple>> results = new HashMap<>(1);
     results.put(ROOT_RESULT_KEY, result);
     return results;
   }
@@ -12,6 +12,7 @@ import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationPath;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import com.sap.olingo.jpa.processor.core.converter.JPAJoinKey;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAProcessorException;
 
 /**
@@ -27,22 +28,39 @@ final class JPAEntityResult extends JPACreateResult {
   JPAEntityResult(JPAEntityType et, Object jpaEntity, Map<String, List<String>> requestHeaders)
       throws ODataJPAModelException, ODataJPAProcessorException {
 
+    this(et, jpaEntity, requestHeaders, true);
+  }
+
+  /**
+   * 
+   * @param et
+   * @param jpaEntity
+   * @param requestHeaders
+   * @param withChildren If false, the related entities are not taken into account. This prevents that related
+   * entities, which have not been read yet, are loaded and returned.
+   * @throws ODataJPAModelException
+   * @throws ODataJPAProcessorException
+   */
+  JPAEntityResult(JPAEntityType et, Object jpaEntity, Map<String, List<String>> requestHeaders,
+      final boolean withChildren) throws ODataJPAModelException, ODataJPAProcessorException {
+
     super(et, requestHeaders);
 
     this.getterMap = helper.buildGetterMap(jpaEntity);
     this.result = createResult();
 
-    createChildren();
+    if (withChildren)
+      createChildren();
   }
 
   @Override
-  public List<Tuple> getResult(final String key) {
+  public List<Tuple> getResult(final JPAJoinKey key) {
     return result;
   }
 
   @Override
-  public Map<String, List<Tuple>> getResults() {
-    final Map<String, List<Tuple>> results = new HashMap<>(1);
+  public Map<JPAJoinKey, List<Tuple>> getResults() {
+    final Map<JPAJoinKey, List<Tuple>> results = new HashMap<>(1);
     results.put(ROOT_RESULT_KEY, result);
     return results;
   }
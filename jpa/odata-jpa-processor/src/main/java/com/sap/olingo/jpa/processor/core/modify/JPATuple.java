@@ -12,17 +12,23 @@ final class JPATuple implements Tuple {
 
   private List<TupleElement<?>> elements = new ArrayList<TupleElement<?>>();
   private Map<String, Object> values = new HashMap<String, Object>();
+  private List<Object> valueList = new ArrayList<Object>();
 
   public void addElement(String alias, Class<?> javaType, Object value) {
     elements.add(new JPATupleElement<Object>(alias, javaType));
     values.put(alias, value);
-
+    valueList.add(value);
   }
 
+  /**
+   * Get the value of the element at the specified
+   * position in the result tuple. The first position is 0.
+   * @param i position in result tuple
+   * @return value of the tuple element
+   */
   @Override
-  public Object get(int arg0) {
-    assert 1 == 2;
-    return null;
+  public Object get(int i) {
+    return valueList.get(i);
   }
 
   @Override
@@ -63,7 +69,7 @@ final class JPATuple implements Tuple {
 
   @Override
   public Object[] toArray() {
-    return null;
+    return valueList.toArray();
   }
 
   private class JPATupleElement<X> implements TupleElement<X> {
@@ -10,9 +10,11 @@ import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.serializer.SerializerResult;
+import org.apache.olingo.server.api.serializer.SerializerStreamResult;
 import org.apache.olingo.server.api.uri.UriInfo;
 
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAServiceDocument;
+import com.sap.olingo.jpa.processor.core.api.JPAODataMetrics;
 import com.sap.olingo.jpa.processor.core.api.JPAODataRequestContextAccess;
 import com.sap.olingo.jpa.processor.core.api.JPAODataSessionContextAccess;
 import com.sap.olingo.jpa.processor.core.api.JPAServiceDebugger;
@@ -29,6 +31,7 @@ abstract class JPAAbstractRequestProcessor {
   protected final JPASerializer serializer;
   protected final OData odata;
   protected final JPAServiceDebugger debugger;
+  protected final JPAODataMetrics metrics;
   protected int successStatusCode = HttpStatusCode.OK.getStatusCode();
 
   public JPAAbstractRequestProcessor(final OData odata, final JPAODataSessionContextAccess context,
@@ -42,6 +45,7 @@ abstract class JPAAbstractRequestProcessor {
     this.serializer = requestContext.getSerializer();
     this.odata = odata;
     this.debugger = context.getDebugger();
+    this.metrics = context.getMetrics();
   }
 
   protected final void createSuccessResponce(final ODataResponse response, final ContentType responseFormat,
@@ -51,4 +55,12 @@ abstract class JPAAbstractRequestProcessor {
     response.setStatusCode(successStatusCode);
     response.setHeader(HttpHeader.CONTENT_TYPE, responseFormat.toContentTypeString());
   }
+
+  protected final void createSuccessResponce(final ODataResponse response, final ContentType responseFormat,
+      final SerializerStreamResult serializerResult) {
+
+    response.setODataContent(serializerResult.getODataContent());
+    response.setStatusCode(successStatusCode);
+    response.setHeader(HttpHeader.CONTENT_TYPE, responseFormat.toContentTypeString());
+  }
 }
@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
@@ -39,6 +40,7 @@ import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAStructuredType;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import com.sap.olingo.jpa.processor.core.api.JPACUDRequestHandler;
 import com.sap.olingo.jpa.processor.core.api.JPAODataRequestContextAccess;
+import com.sap.olingo.jpa.processor.core.api.JPAODataResponseCache;
 import com.sap.olingo.jpa.processor.core.api.JPAODataSessionContextAccess;
 import com.sap.olingo.jpa.processor.core.converter.JPATupleChildConverter;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAProcessException;
@@ -95,8 +97,10 @@ public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
       debugger.stopRuntimeMeasurement(handle);
       throw new ODataJPAProcessorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
     }
-    if (!foreignTransation)
+    if (!foreignTransation) {
       em.getTransaction().commit();
+      invalidateResponseCache();
+    }
     debugger.stopRuntimeMeasurement(handle);
     response.setStatusCode(HttpStatusCode.NO_CONTENT.getStatusCode());
   }
@@ -144,8 +148,10 @@ public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
           .getClass().toString(), requestEntity.getEntityType().getTypeClass().toString());
     }
 
-    if (!foreignTransation)
+    if (!foreignTransation) {
       em.getTransaction().commit();
+      invalidateResponseCache();
+    }
 
     createCreateResponse(request, response, responseFormat, requestEntity, edmEntitySet, result);
     debugger.stopRuntimeMeasurement(handle);
@@ -203,8 +209,10 @@ public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
       debugger.stopRuntimeMeasurement(handle);
       throw new ODataJPAProcessorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
     }
-    if (!foreignTransation)
+    if (!foreignTransation) {
       em.getTransaction().commit();
+      invalidateResponseCache();
+    }
 
     // 4. configure the response object
     response.setStatusCode(HttpStatusCode.NO_CONTENT.getStatusCode());
@@ -278,8 +286,10 @@ public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
           updateResult.getModifyedEntity().getClass().toString(), requestEntity.getEntityType().getTypeClass()
               .toString());
     }
-    if (!foreignTransation)
+    if (!foreignTransation) {
       em.getTransaction().commit();
+      invalidateResponseCache();
+    }
 
     if (updateResult.wasCreate()) {
       createCreateResponse(request, response, responseFormat, requestEntity.getEntityType(), edmEntitySetInfo
@@ -292,6 +302,27 @@ public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
 
   }
 
+  /**
+   * Removes the cached responses that may be outdated by the change. Changes made within a foreign transaction, e.g.
+   * of a change set, are handled by the owner of the transaction after the commit.
+   */
+  private void invalidateResponseCache() {
+    final JPAODataResponseCache cache = sessionContext.getResponseCache();
+    if (cache != null) {
+      Set<String> entitySets;
+      try {
+        entitySets = JPAResponseCacheUtil.determineChangedEntitySets(uriInfo.getUriResourceParts(), sessionContext
+            .getEdmProvider().getServiceDocument());
+      } catch (ODataException e) {
+        entitySets = null;
+      }
+      if (entitySets == null)
+        cache.clear();
+      else
+        cache.invalidate(entitySets);
+    }
+  }
+
   final JPARequestEntity createRequestEntity(EdmEntitySetInfo edmEntitySetInfo, Entity odataEntity,
       Map<String, List<String>> headers) throws ODataJPAProcessorException {
 
@@ -1,8 +1,20 @@
 package com.sap.olingo.jpa.processor.core.processor;
 
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.persistence.EntityManager;
 
 import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.Entity;
@@ -10,23 +22,37 @@ import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.data.Property;
 import org.apache.olingo.commons.api.ex.ODataException;
 import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.prefer.PreferencesApplied;
 import org.apache.olingo.server.api.serializer.SerializerResult;
+import org.apache.olingo.server.api.serializer.SerializerStreamResult;
 import org.apache.olingo.server.api.uri.UriInfoResource;
 import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceEntitySet;
 import org.apache.olingo.server.api.uri.UriResourceKind;
+import org.apache.olingo.server.api.uri.UriResourcePartTyped;
 import org.apache.olingo.server.api.uri.queryoption.CountOption;
+import org.apache.olingo.server.api.uri.queryoption.SelectOption;
 
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import com.sap.olingo.jpa.processor.core.api.JPAODataMetrics.Phase;
 import com.sap.olingo.jpa.processor.core.api.JPAODataRequestContextAccess;
 import com.sap.olingo.jpa.processor.core.api.JPAODataSessionContextAccess;
+import com.sap.olingo.jpa.processor.core.converter.JPAExpandResult;
 import com.sap.olingo.jpa.processor.core.converter.JPATupleChildConverter;
+import com.sap.olingo.jpa.processor.core.exception.ODataJPAProcessException;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAProcessorException;
+import com.sap.olingo.jpa.processor.core.modify.JPAConversionHelper;
+import com.sap.olingo.jpa.processor.core.modify.JPACreateResultFactory;
 import com.sap.olingo.jpa.processor.core.query.JPAExpandItemInfo;
 import com.sap.olingo.jpa.processor.core.query.JPAExpandItemInfoFactory;
 import com.sap.olingo.jpa.processor.core.query.JPAExpandJoinQuery;
@@ -34,10 +60,20 @@ import com.sap.olingo.jpa.processor.core.query.JPAExpandQueryResult;
 import com.sap.olingo.jpa.processor.core.query.JPAJoinQuery;
 import com.sap.olingo.jpa.processor.core.query.JPANavigationProptertyInfo;
 import com.sap.olingo.jpa.processor.core.query.Util;
+import com.sap.olingo.jpa.processor.core.serializer.JPAStreamSerializer;
 
 public final class JPANavigationRequestProcessor extends JPAAbstractGetRequestProcessor {
+  private static final String SKIPTOKEN = "$skiptoken";
+  private static final String SKIPTOKEN_ESCAPED = "%24skiptoken";
+  // The metrics of an expand item are tagged by its association. The tags are buffered weakly, so they get removed
+  // together with the associations of an outdated model version
+  private static final Map<JPAAssociationPath, String> ASSOCIATION_TAGS = Collections.synchronizedMap(
+      new WeakHashMap<>());
   private final ServiceMetadata serviceMetadata;
   private final UriResource lastItem;
+  private final String requestKind;
+  private final String entitySetName;
+  private Integer preferredPageSizeApplied;
 
   public JPANavigationRequestProcessor(final OData odata, final ServiceMetadata serviceMetadata,
       final JPAODataSessionContextAccess context, final JPAODataRequestContextAccess requestContext)
@@ -46,6 +82,8 @@ public final class JPANavigationRequestProcessor extends JPAAbstractGetRequestPr
     this.serviceMetadata = serviceMetadata;
     final List<UriResource> resourceParts = uriInfo.getUriResourceParts();
     this.lastItem = resourceParts.get(resourceParts.size() - 1);
+    this.requestKind = Util.determineRequestKind(resourceParts);
+    this.entitySetName = Util.determineTargetEntitySet(resourceParts).getName();
   }
 
   @Override
@@ -54,6 +92,17 @@ public final class JPANavigationRequestProcessor extends JPAAbstractGetRequestPr
 
     final int handle = debugger.startRuntimeMeasurement(this, "retrieveData");
 
+    if (isStreamingPossible(request)) {
+      retrieveDataStreamed(request, response, responseFormat);
+      debugger.stopRuntimeMeasurement(handle);
+      return;
+    }
+    final Object primaryKey = determinePrimaryKey();
+    if (primaryKey != null) {
+      retrieveDataByKey(request, response, responseFormat, primaryKey);
+      debugger.stopRuntimeMeasurement(handle);
+      return;
+    }
     // Create a JPQL Query and execute it
     JPAJoinQuery query = null;
     try {
@@ -64,15 +113,20 @@ public final class JPANavigationRequestProcessor extends JPAAbstractGetRequestPr
           HttpStatusCode.INTERNAL_SERVER_ERROR, e);
     }
 
+    query.setMaxPageSize(determineMaxPageSize(request));
     final JPAExpandQueryResult result = query.execute();
-    result.putChildren(readExpandEntities(request.getAllHeaders(), query.getNavigationInfo(), uriInfo));
+    result.putChildren(readExpandEntities(em, request.getAllHeaders(), query.getNavigationInfo(), uriInfo, result));
+    // The conversion releases the rows, so they have to be counted before
+    final long rows = result.getRowsFetched();
     // Convert tuple result into an OData Result
     final int converterHandle = debugger.startRuntimeMeasurement(this, "convertResult");
+    final long converterStart = System.nanoTime();
     EntityCollection entityCollection;
     try {
 
       entityCollection = result.asEntityCollection(new JPATupleChildConverter(sd, odata.createUriHelper(),
-          serviceMetadata)).get("root");
+          serviceMetadata)).get(JPAExpandResult.ROOT_RESULT_KEY);
+      metrics.recordDuration(Phase.CONVERT, requestKind, entitySetName, System.nanoTime() - converterStart);
       debugger.stopRuntimeMeasurement(converterHandle);
     } catch (ODataApplicationException e) {
       debugger.stopRuntimeMeasurement(converterHandle);
@@ -81,11 +135,15 @@ public final class JPANavigationRequestProcessor extends JPAAbstractGetRequestPr
           HttpStatusCode.INTERNAL_SERVER_ERROR, e);
     }
 
-    // Count results if requested
+    if (query.getNextSkipToken() != null)
+      entityCollection.setNext(buildNextLink(request, query.getNextSkipToken()));
+
+    // Count results if requested. The database may have provided it already together with the result
     final CountOption countOption = uriInfo.getCountOption();
     if (countOption != null && countOption.getValue())
-      entityCollection.setCount(new JPAJoinQuery(odata, sessionContext, em, request.getAllHeaders(), uriInfo)
-          .countResults().intValue());
+      entityCollection.setCount(result.getCount(JPAExpandResult.ROOT_RESULT_KEY) != null ? result.getCount(
+          JPAExpandResult.ROOT_RESULT_KEY).intValue()
+          : new JPAJoinQuery(odata, sessionContext, em, request.getAllHeaders(), uriInfo).countResults().intValue());
 
     // 404 Not Found indicates that the resource specified by the request URL does not exist. The response body MAY
     // provide additional information.
@@ -95,18 +153,189 @@ public final class JPANavigationRequestProcessor extends JPAAbstractGetRequestPr
       response.setStatusCode(HttpStatusCode.NOT_FOUND.getStatusCode());
     // 200 OK indicates that either a result was found or that the a Entity Collection query had no result
     else if (entityCollection.getEntities() != null) {
-      final int serializerHandle = debugger.startRuntimeMeasurement(serializer, "serialize");
-      final SerializerResult serializerResult = serializer.serialize(request, entityCollection);
-      debugger.stopRuntimeMeasurement(serializerHandle);
+      final SerializerResult serializerResult = serialize(request, entityCollection);
       createSuccessResponce(response, responseFormat, serializerResult);
+      if (preferredPageSizeApplied != null)
+        response.setHeader(HttpHeader.PREFERENCE_APPLIED, PreferencesApplied.with()
+            .maxPageSize(preferredPageSizeApplied).build().toValueString());
     } else
       // A request returns 204 No Content if the requested resource has the null value, or if the service applies a
       // return=minimal preference. In this case, the response body MUST be empty.
       response.setStatusCode(HttpStatusCode.NO_CONTENT.getStatusCode());
 
+    metrics.recordResultSize(requestKind, entitySetName, rows, entityCollection.getEntities().size());
+    debugger.stopRuntimeMeasurement(handle);
+  }
+
+  private SerializerResult serialize(final ODataRequest request, final EntityCollection entityCollection)
+      throws ODataException {
+    final int serializerHandle = debugger.startRuntimeMeasurement(serializer, "serialize");
+    final long start = System.nanoTime();
+    final SerializerResult serializerResult = serializer.serialize(request, entityCollection);
+    metrics.recordDuration(Phase.SERIALIZE, requestKind, entitySetName, System.nanoTime() - start);
+    debugger.stopRuntimeMeasurement(serializerHandle);
+    return serializerResult;
+  }
+
+  /**
+   * Streams the entities of a collection. The entities are read chunk by chunk while the response content is written.
+   * Only the first chunk is read here, as it is needed to decide on the response status.
+   */
+  private void retrieveDataStreamed(final ODataRequest request, final ODataResponse response,
+      final ContentType responseFormat) throws ODataException {
+
+    final JPAStreamedEntityIterator entities = new JPAStreamedEntityIterator(odata, sessionContext, em, request
+        .getAllHeaders(), uriInfo, new JPATupleChildConverter(sd, odata.createUriHelper(), serviceMetadata),
+        sessionContext.getStreamingFetchSize(), requestKind, entitySetName);
+
+    if (entities.isEmpty() && isResultEmpty(Collections.emptyList()))
+      response.setStatusCode(HttpStatusCode.NOT_FOUND.getStatusCode());
+    else {
+      final int serializerHandle = debugger.startRuntimeMeasurement(serializer, "serialize");
+      final SerializerStreamResult serializerResult = ((JPAStreamSerializer) serializer).serialize(request,
+          entities);
+      debugger.stopRuntimeMeasurement(serializerHandle);
+      createSuccessResponce(response, responseFormat, serializerResult);
+    }
+  }
+
+  /**
+   * Reads a single entity, e.g. ../Organizations('3'), via {@link EntityManager#find(Class, Object)}. This bypasses the
+   * criteria query, so the JPA provider is able to answer the request from its persistence context or shared cache.
+   * The found entity is converted the same way as a created one.
+   */
+  private void retrieveDataByKey(final ODataRequest request, final ODataResponse response,
+      final ContentType responseFormat, final Object primaryKey) throws ODataException {
+
+    final int handle = debugger.startRuntimeMeasurement(this, "retrieveDataByKey");
+    final EntityCollection entityCollection;
+    try {
+      final JPAEntityType et = sd.getEntity(((UriResourceEntitySet) lastItem).getEntitySet().getName());
+      final long start = System.nanoTime();
+      final Object entity = em.find(et.getTypeClass(), primaryKey);
+      final long converterStart = System.nanoTime();
+      metrics.recordDuration(Phase.DB_EXECUTE, requestKind, entitySetName, converterStart - start);
+      entityCollection = entity == null ? new EntityCollection()
+          : new JPATupleChildConverter(sd, odata.createUriHelper(), serviceMetadata).getResult(
+              new JPACreateResultFactory().getJPAEntityResult(et, entity, request.getAllHeaders())).get(
+                  JPAExpandResult.ROOT_RESULT_KEY);
+      metrics.recordDuration(Phase.CONVERT, requestKind, entitySetName, System.nanoTime() - converterStart);
+    } catch (ODataJPAModelException e) {
+      debugger.stopRuntimeMeasurement(handle);
+      throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.QUERY_RESULT_CONV_ERROR,
+          HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+    }
+
+    if (isResultEmpty(entityCollection.getEntities()))
+      response.setStatusCode(HttpStatusCode.NOT_FOUND.getStatusCode());
+    else
+      createSuccessResponce(response, responseFormat, serialize(request, entityCollection));
+    metrics.recordResultSize(requestKind, entitySetName, entityCollection.getEntities().size(), entityCollection
+        .getEntities().size());
     debugger.stopRuntimeMeasurement(handle);
   }
 
+  /**
+   * A single entity can be read by its key, if the request addresses it directly via its entity set and neither
+   * restricts the properties nor asks for related entities. In addition the entity type has to support it, see
+   * {@link JPAPrimaryKeyBuilder#isSupported()}.
+   * @return The primary key as expected by the entity manager or null if the entity has to be read by a query
+   * @throws ODataException
+   */
+  private Object determinePrimaryKey() throws ODataException {
+    if (uriInfo.getUriResourceParts().size() != 1 || lastItem.getKind() != UriResourceKind.entitySet)
+      return null;
+    final UriResourceEntitySet entitySet = (UriResourceEntitySet) lastItem;
+    final SelectOption select = uriInfo.getSelectOption();
+    if (entitySet.getKeyPredicates().isEmpty()
+        || entitySet.getTypeFilterOnEntry() != null
+        || entitySet.getTypeFilterOnCollection() != null
+        || uriInfo.getExpandOption() != null
+        || uriInfo.getFilterOption() != null
+        || uriInfo.getSearchOption() != null
+        || (select != null && !select.getSelectItems().isEmpty() && !select.getSelectItems().get(0).isStar()))
+      return null;
+    try {
+      final JPAEntityType et = sd.getEntity(entitySet.getEntitySet().getName());
+      final JPAPrimaryKeyBuilder keyBuilder = JPAPrimaryKeyBuilder.of(et, em.getMetamodel());
+      if (!keyBuilder.isSupported())
+        return null;
+      return keyBuilder.createPrimaryKey(new JPAConversionHelper().convertUriKeys(odata, et, entitySet
+          .getKeyPredicates()));
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.QUERY_PREPARATION_ERROR,
+          HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+    } catch (ReflectiveOperationException | IllegalArgumentException e) {
+      // Key could not be created, so the entity is read by a query
+      return null;
+    }
+  }
+
+  /**
+   * Streaming is used for collections of entities, if it is switched on and neither $expand nor $count is requested.
+   * With server-driven paging the number of entities is anyhow restricted, so in this case streaming is not used
+   * either.
+   */
+  private boolean isStreamingPossible(final ODataRequest request) {
+    final CountOption countOption = uriInfo.getCountOption();
+    return sessionContext.getStreamingFetchSize() != null
+        && serializer instanceof JPAStreamSerializer
+        && (lastItem.getKind() == UriResourceKind.entitySet || lastItem.getKind() == UriResourceKind.navigationProperty)
+        && ((UriResourcePartTyped) lastItem).isCollection()
+        && uriInfo.getExpandOption() == null
+        && (countOption == null || !countOption.getValue())
+        && uriInfo.getSkipTokenOption() == null
+        && determineMaxPageSize(request) == null;
+  }
+
+  /**
+   * Creates the next link of a page. The next link repeats the request, but with a new $skiptoken.
+   */
+  private URI buildNextLink(final ODataRequest request, final String skipToken) throws ODataJPAProcessorException {
+    final StringBuilder nextLink = new StringBuilder(request.getRawBaseUri());
+    nextLink.append(request.getRawODataPath()).append('?');
+    if (request.getRawQueryPath() != null) {
+      for (final String queryOption : request.getRawQueryPath().split("&")) {
+        if (!queryOption.isEmpty()
+            && !queryOption.startsWith(SKIPTOKEN + "=")
+            && !queryOption.startsWith(SKIPTOKEN_ESCAPED + "="))
+          nextLink.append(queryOption).append('&');
+      }
+    }
+    nextLink.append(SKIPTOKEN).append('=').append(skipToken);
+    try {
+      return new URI(nextLink.toString());
+    } catch (URISyntaxException e) {
+      throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.QUERY_RESULT_URI_ERROR,
+          HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+    }
+  }
+
+  /**
+   * Server-driven paging is used for requests on collections of entities. The page size is given by the maximum page
+   * size set for the entity set and the page size requested by the client via <code>Prefer: odata.maxpagesize</code>.
+   * See:
+   * <a href=
+   * "http://docs.oasis-open.org/odata/odata/v4.0/errata03/os/complete/part1-protocol/odata-v4.0-errata03-os-part1-protocol-complete.html#_Toc453752234"
+   * >OData Version 4.0 Part 1 - 8.2.8.5 Preference odata.maxpagesize</a>
+   * @param request
+   * @return Page size or null if all entities shall be returned
+   */
+  private Integer determineMaxPageSize(final ODataRequest request) {
+    if (!(lastItem.getKind() == UriResourceKind.entitySet || lastItem.getKind() == UriResourceKind.navigationProperty)
+        || !((UriResourcePartTyped) lastItem).isCollection())
+      return null;
+
+    final Integer maxPageSize = sessionContext.getMaxPageSize(Util.determineTargetEntitySet(uriInfo
+        .getUriResourceParts()).getName());
+    final Integer preferredPageSize = odata.createPreferences(request.getHeaders(HttpHeader.PREFER))
+        .getMaxPageSize();
+    if (preferredPageSize == null || preferredPageSize <= 0)
+      return maxPageSize;
+    preferredPageSizeApplied = maxPageSize == null ? preferredPageSize : Math.min(preferredPageSize, maxPageSize);
+    return preferredPageSizeApplied;
+  }
+
   private boolean isResultEmpty(List<Entity> entities) throws ODataApplicationException {
 
     if (entities.isEmpty()
@@ -164,16 +393,22 @@ public final class JPANavigationRequestProcessor extends JPAAbstractGetRequestPr
    * <a href=
    * "http://docs.oasis-open.org/odata/odata/v4.0/errata02/os/complete/part2-url-conventions/odata-v4.0-errata02-os-part2-url-conventions-complete.html#_Toc406398162"
    * >OData Version 4.0 Part 2 - 5.1.2 System Query Option $expand</a>
+   * <p>
+   * In case an executor is provided via the session context, sibling expand items are read in parallel, each with an
+   * own entity manager. The next level of an expand item is read by the same task as the item itself, so the response
+   * time is given by the slowest branch.
+   * @param em Entity manager used for expand items read by the current thread
    * @param headers
    * @param naviStartEdmEntitySet
    * @param parentHops
    * @param uriResourceInfo
-   * @param parentWhere
+   * @param parentResult Result of the parent, which may provide the join column values for the expand queries
    * @return
    * @throws ODataException
    */
-  private Map<JPAAssociationPath, JPAExpandQueryResult> readExpandEntities(final Map<String, List<String>> headers,
-      final List<JPANavigationProptertyInfo> parentHops, final UriInfoResource uriResourceInfo) throws ODataException {
+  private Map<JPAAssociationPath, JPAExpandQueryResult> readExpandEntities(final EntityManager em,
+      final Map<String, List<String>> headers, final List<JPANavigationProptertyInfo> parentHops,
+      final UriInfoResource uriResourceInfo, final JPAExpandQueryResult parentResult) throws ODataException {
 
     final int handle = debugger.startRuntimeMeasurement(this, "readExpandEntities");
 
@@ -189,16 +424,104 @@ public final class JPANavigationRequestProcessor extends JPAAbstractGetRequestPr
 
     final List<JPAExpandItemInfo> itemInfoList = new JPAExpandItemInfoFactory()
         .buildExpandItemInfo(sd, uriResourceInfo, parentHops);
-    for (final JPAExpandItemInfo item : itemInfoList) {
-      final JPAExpandJoinQuery expandQuery = new JPAExpandJoinQuery(odata, sessionContext, em, item, headers);
-      final JPAExpandQueryResult expandResult = expandQuery.execute();
-      if (expandResult.getNoResults() > 0)
-        // Only go the next hop if the current one has a result
-        expandResult.putChildren(readExpandEntities(headers, item.getHops(), item.getUriInfo()));
-      allExpResults.put(item.getExpandAssociation(), expandResult);
+    if (itemInfoList.size() > 1 && isParallelExpandPossible()) {
+      final Map<JPAAssociationPath, FutureTask<JPAExpandQueryResult>> tasks = new LinkedHashMap<>();
+      // The request locales are held per thread, so they have to be handed over to the threads reading the items
+      final List<Locale> locales = getRequestLocales();
+      for (final JPAExpandItemInfo item : itemInfoList) {
+        final FutureTask<JPAExpandQueryResult> task = new FutureTask<>(() -> readExpandItemIsolated(em, headers,
+            item, parentResult, locales));
+        tasks.put(item.getExpandAssociation(), task);
+        try {
+          sessionContext.getExpandExecutor().execute(task);
+        } catch (RejectedExecutionException e) {
+          // Task is executed by the current thread
+        }
+      }
+      for (final Map.Entry<JPAAssociationPath, FutureTask<JPAExpandQueryResult>> task : tasks.entrySet()) {
+        // Tasks not started yet are executed by the current thread. This prevents that all threads of a pool are
+        // waiting for tasks, which can not be started.
+        task.getValue().run();
+        allExpResults.put(task.getKey(), getExpandResult(task.getValue()));
+      }
+    } else {
+      for (final JPAExpandItemInfo item : itemInfoList)
+        allExpResults.put(item.getExpandAssociation(), readExpandItem(em, headers, item, parentResult));
     }
 
     debugger.stopRuntimeMeasurement(handle);
     return allExpResults;
   }
+
+  private JPAExpandQueryResult readExpandItem(final EntityManager em, final Map<String, List<String>> headers,
+      final JPAExpandItemInfo item, final JPAExpandQueryResult parentResult) throws ODataException {
+
+    final long start = System.nanoTime();
+    final JPAExpandJoinQuery expandQuery = new JPAExpandJoinQuery(odata, sessionContext, em, item, headers,
+        parentResult);
+    final JPAExpandQueryResult expandResult = expandQuery.execute();
+    final String association = ASSOCIATION_TAGS.computeIfAbsent(item.getExpandAssociation(), path -> path
+        .getSourceType().getExternalName() + JPAPath.PATH_SEPERATOR + path.getAlias());
+    metrics.recordDuration(Phase.EXPAND, requestKind, association, System.nanoTime() - start);
+    metrics.recordResultSize(requestKind, association, expandResult.getRowsFetched(), expandResult
+        .getNoResultsDeep());
+    if (expandResult.getNoResults() > 0)
+      // Only go the next hop if the current one has a result
+      expandResult.putChildren(readExpandEntities(em, headers, item.getHops(), item.getUriInfo(), expandResult));
+    return expandResult;
+  }
+
+  /**
+   * An entity manager must not be used by more than one thread at a time, so an expand item read in parallel gets its
+   * own one. The item is read with the locales of the request. Afterwards the locales the thread had before are
+   * restored, as the task may also be executed by the thread processing the request.
+   */
+  private JPAExpandQueryResult readExpandItemIsolated(final EntityManager em, final Map<String, List<String>> headers,
+      final JPAExpandItemInfo item, final JPAExpandQueryResult parentResult, final List<Locale> locales)
+      throws ODataException {
+
+    final Enumeration<Locale> modelLocales = ODataJPAModelException.getLocales();
+    final Enumeration<Locale> processLocales = ODataJPAProcessException.getLocales();
+    ODataJPAModelException.setLocales(locales == null ? null : Collections.enumeration(locales));
+    ODataJPAProcessException.setLocales(locales == null ? null : Collections.enumeration(locales));
+    final EntityManager isolatedEm = em.getEntityManagerFactory().createEntityManager();
+    try {
+      return readExpandItem(isolatedEm, headers, item, parentResult);
+    } finally {
+      isolatedEm.close();
+      ODataJPAModelException.setLocales(modelLocales);
+      ODataJPAProcessException.setLocales(processLocales);
+    }
+  }
+
+  private static List<Locale> getRequestLocales() {
+    final Enumeration<Locale> locales = ODataJPAModelException.getLocales();
+    return locales == null ? null : Collections.list(locales);
+  }
+
+  private JPAExpandQueryResult getExpandResult(final FutureTask<JPAExpandQueryResult> task) throws ODataException {
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.QUERY_PREPARATION_ERROR,
+          HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof ODataException)
+        throw (ODataException) e.getCause();
+      if (e.getCause() instanceof RuntimeException)
+        throw (RuntimeException) e.getCause();
+      throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.QUERY_PREPARATION_ERROR,
+          HttpStatusCode.INTERNAL_SERVER_ERROR, e.getCause());
+    }
+  }
+
+  /**
+   * Expand items are only read in parallel if an executor is provided. Entity managers created for the parallel reads
+   * would not see changes of an open transaction, so in this case the expand items are read sequentially.
+   */
+  private boolean isParallelExpandPossible() {
+    return sessionContext.getExpandExecutor() != null && uriInfo.getExpandOption() != null
+        && !em.isJoinedToTransaction();
+  }
 }
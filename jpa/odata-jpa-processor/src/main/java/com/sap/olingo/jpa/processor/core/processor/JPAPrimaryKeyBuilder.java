@@ -0,0 +1,158 @@
+package com.sap.olingo.jpa.processor.core.processor;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.WeakHashMap;
+
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.Type.PersistenceType;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPADescriptionAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAStructuredType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+
+/**
+ * Creates the primary key of an entity type as expected by the entity manager to find an entity. Whether an entity
+ * type can be read this way and how its key is created requires reflection, so it is determined once per entity type.
+ * The builders are buffered weakly, so they get removed together with the entity types of an outdated model version.
+ * @author Oliver Grande
+ *
+ */
+final class JPAPrimaryKeyBuilder {
+  private static final Map<JPAEntityType, JPAPrimaryKeyBuilder> BUFFER = Collections.synchronizedMap(
+      new WeakHashMap<>());
+  private static final JPAPrimaryKeyBuilder NOT_SUPPORTED = new JPAPrimaryKeyBuilder(false, null, Collections
+      .emptyMap());
+
+  private final boolean supported;
+  private final Constructor<?> keyConstructor;
+  private final Map<String, Field> keyFields;
+
+  private JPAPrimaryKeyBuilder(final boolean supported, final Constructor<?> keyConstructor,
+      final Map<String, Field> keyFields) {
+    super();
+    this.supported = supported;
+    this.keyConstructor = keyConstructor;
+    this.keyFields = keyFields;
+  }
+
+  /**
+   * @param et
+   * @param metamodel Metamodel of the entity manager used to find the entity
+   * @return The buffered builder of the entity type
+   * @throws ODataJPAModelException
+   */
+  static JPAPrimaryKeyBuilder of(final JPAEntityType et, final Metamodel metamodel) throws ODataJPAModelException {
+    JPAPrimaryKeyBuilder builder = BUFFER.get(et);
+    if (builder == null) {
+      builder = create(et, metamodel);
+      BUFFER.put(et, builder);
+    }
+    return builder;
+  }
+
+  /**
+   * An entity can be found by its key, if the entity type has no description properties, as the descriptions would
+   * have to be loaded for all languages, and all properties have getters, as the found entity is converted using them.
+   * In addition an id class or embedded id must be instantiable.
+   */
+  boolean isSupported() {
+    return supported;
+  }
+
+  /**
+   * @param keys Values of the key attributes by their internal name
+   * @return The primary key
+   * @throws ReflectiveOperationException
+   */
+  Object createPrimaryKey(final Map<String, Object> keys) throws ReflectiveOperationException {
+    if (keyConstructor == null)
+      return keys.values().iterator().next();
+    final Object primaryKey = keyConstructor.newInstance();
+    for (final Entry<String, Object> key : keys.entrySet())
+      keyFields.get(key.getKey()).set(primaryKey, key.getValue());
+    return primaryKey;
+  }
+
+  private static JPAPrimaryKeyBuilder create(final JPAEntityType et, final Metamodel metamodel)
+      throws ODataJPAModelException {
+    for (final JPAPath path : et.getPathList()) {
+      if (path.getLeaf() instanceof JPADescriptionAttribute)
+        return NOT_SUPPORTED;
+    }
+    if (!hasGetters(et))
+      return NOT_SUPPORTED;
+    final EntityType<?> jpaType = metamodel.entity(et.getTypeClass());
+    if (jpaType.hasSingleIdAttribute() && jpaType.getIdType().getPersistenceType() == PersistenceType.BASIC)
+      return new JPAPrimaryKeyBuilder(true, null, Collections.emptyMap());
+    // Id class or embedded id: the key attributes are fields of the key class
+    try {
+      final Constructor<?> keyConstructor = jpaType.getIdType().getJavaType().getDeclaredConstructor();
+      keyConstructor.setAccessible(true);
+      keyConstructor.newInstance();
+      final Map<String, Field> keyFields = new HashMap<>();
+      for (final JPAPath keyPath : et.getKeyPath()) {
+        final String fieldName = keyPath.getLeaf().getInternalName();
+        final Field field = findField(keyConstructor.getDeclaringClass(), fieldName);
+        field.setAccessible(true);
+        keyFields.put(fieldName, field);
+      }
+      return new JPAPrimaryKeyBuilder(true, keyConstructor, keyFields);
+    } catch (NoSuchMethodException | NoSuchFieldException | InstantiationException | IllegalAccessException
+        | InvocationTargetException | SecurityException e) {
+      // Key class not accessible, so the entity is read by a query
+      return NOT_SUPPORTED;
+    }
+  }
+
+  /**
+   * The found entity is converted using its getter methods, so all properties must have one. Boolean properties may
+   * also have an <i>is</i> getter.
+   */
+  private static boolean hasGetters(final JPAStructuredType st) throws ODataJPAModelException {
+    for (final JPAAttribute attribute : st.getAttributes()) {
+      if (attribute.isAssociation())
+        continue;
+      final String internalName = attribute.getInternalName();
+      final String name = internalName.substring(0, 1).toUpperCase() + internalName.substring(1);
+      if (!hasMethod(st.getTypeClass(), "get" + name)
+          && !(isBoolean(attribute.getType()) && hasMethod(st.getTypeClass(), "is" + name)))
+        return false;
+      if (attribute.isComplex() && !hasGetters(attribute.getStructuredType()))
+        return false;
+    }
+    return true;
+  }
+
+  private static boolean hasMethod(final Class<?> clazz, final String methodName) {
+    try {
+      clazz.getMethod(methodName);
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private static boolean isBoolean(final Class<?> type) {
+    return type == boolean.class || type == Boolean.class;
+  }
+
+  private static Field findField(final Class<?> keyClass, final String fieldName) throws NoSuchFieldException {
+    try {
+      return keyClass.getDeclaredField(fieldName);
+    } catch (NoSuchFieldException e) {
+      if (keyClass.getSuperclass() == null)
+        throw e;
+      return findField(keyClass.getSuperclass(), fieldName);
+    }
+  }
+}
@@ -0,0 +1,270 @@
+package com.sap.olingo.jpa.processor.core.processor;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.persistence.Entity;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmBindingTarget;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edm.EdmNavigationPropertyBinding;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntitySet;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceComplexProperty;
+import org.apache.olingo.server.api.uri.UriResourceEntitySet;
+import org.apache.olingo.server.api.uri.UriResourceNavigation;
+import org.apache.olingo.server.api.uri.queryoption.ExpandItem;
+import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPADescriptionAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAServiceDocument;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import com.sap.olingo.jpa.processor.core.api.JPAODataResponseCache;
+
+/**
+ * Determines keys and entity set dependencies for a {@link JPAODataResponseCache}.
+ * @author Oliver Grande
+ *
+ */
+public final class JPAResponseCacheUtil {
+  private static final String SEPERATOR = "|";
+
+  private JPAResponseCacheUtil() {
+    // suppress instance creation
+  }
+
+  /**
+   * Creates the key of a response. The query options are sorted, so e.g. ?$top=2&$skip=4 and ?$skip=4&$top=2 share
+   * one response. The locale is taken into account, as it determines the language of description properties. The
+   * model version is taken into account as well, so responses of requests that were in-flight during a reload of the
+   * metadata are not returned for requests on the new model.
+   * @param modelVersion
+   * @param request
+   * @param responseFormat
+   * @return
+   */
+  public static String determineKey(final long modelVersion, final ODataRequest request,
+      final ContentType responseFormat) {
+    final StringBuilder key = new StringBuilder();
+    key.append(modelVersion).append(SEPERATOR).append(request.getRawBaseUri());
+    key.append(request.getRawODataPath());
+    if (request.getRawQueryPath() != null && !request.getRawQueryPath().isEmpty()) {
+      final String[] queryOptions = request.getRawQueryPath().split("&");
+      Arrays.sort(queryOptions);
+      key.append('?').append(String.join("&", queryOptions));
+    }
+    key.append(SEPERATOR).append(responseFormat == null ? "" : responseFormat.toContentTypeString());
+    appendHeader(key, request.getHeaders(HttpHeader.ACCEPT_LANGUAGE));
+    appendHeader(key, request.getHeaders(HttpHeader.PREFER));
+    return key.toString();
+  }
+
+  /**
+   * Determines the entity sets a read request depends on. These are the entity sets of the resource path and of the
+   * $expand option. If a $filter or $orderby is given, which may refer to navigation properties, all entity sets
+   * reachable from the target entity set are taken into account.
+   * @param uriInfo
+   * @param sd
+   * @return External names of the entity sets or null if the response must not be cached. This is the case for
+   * functions and for entity types with description properties, as the descriptions are not linked by navigation
+   * properties.
+   * @throws ODataJPAModelException
+   */
+  public static Set<String> determineReadDependencies(final UriInfoResource uriInfo, final JPAServiceDocument sd)
+      throws ODataJPAModelException {
+    final Set<String> entitySets = new HashSet<>();
+    final EdmBindingTarget target = addResourcePath(entitySets, null, uriInfo.getUriResourceParts());
+    if (target == null || !addExpand(entitySets, target, uriInfo.getExpandOption()))
+      return null;
+    if (uriInfo.getFilterOption() != null || uriInfo.getOrderByOption() != null || uriInfo.getSearchOption() != null)
+      addReachable(entitySets, target);
+    for (final String entitySet : entitySets) {
+      for (final JPAPath path : sd.getEntity(entitySet).getPathList()) {
+        if (path.getLeaf() instanceof JPADescriptionAttribute)
+          return null;
+      }
+    }
+    return entitySets;
+  }
+
+  /**
+   * Determines the entity sets that may have been changed by a create, update or delete request. Besides the entity
+   * sets of the resource path these are the entity sets directly reachable by navigation, as e.g. a deep insert
+   * creates entities there, and the entity sets stored in the same table, see
+   * {@link #addEntitySetsOfSameTable(Set, JPAServiceDocument)}.
+   * @param resourceParts
+   * @param sd
+   * @return External names of the entity sets or null if they can not be determined
+   * @throws ODataJPAModelException
+   */
+  public static Set<String> determineChangedEntitySets(final List<UriResource> resourceParts,
+      final JPAServiceDocument sd) throws ODataJPAModelException {
+    final Set<String> entitySets = new HashSet<>();
+    EdmBindingTarget current = null;
+    for (int i = 1; i <= resourceParts.size(); i++) {
+      final EdmBindingTarget target = addResourcePath(entitySets, null, resourceParts.subList(0, i));
+      if (target == null)
+        return null;
+      if (target != current)
+        addNavigationTargets(entitySets, target);
+      current = target;
+    }
+    return addEntitySetsOfSameTable(entitySets, sd);
+  }
+
+  /**
+   * Determines the entity sets that may have been changed by a create, update or delete request of a batch change
+   * set. The request is not parsed again, so only requests addressing an entity set or an entity are supported.
+   * @param edm
+   * @param request
+   * @param sd
+   * @return External names of the entity sets or null if they can not be determined, e.g. because the request
+   * refers to a content id or navigates
+   * @throws ODataJPAModelException
+   */
+  public static Set<String> determineChangedEntitySets(final Edm edm, final ODataRequest request,
+      final JPAServiceDocument sd) throws ODataJPAModelException {
+    String path = request.getRawODataPath();
+    if (path == null)
+      return null;
+    if (path.startsWith("/"))
+      path = path.substring(1);
+    final int keyStart = path.indexOf('(');
+    final int segmentEnd = path.indexOf('/');
+    final int nameEnd = keyStart >= 0 && (segmentEnd < 0 || keyStart < segmentEnd) ? keyStart : segmentEnd;
+    final EdmEntitySet entitySet = edm.getEntityContainer().getEntitySet(nameEnd >= 0 ? path.substring(0, nameEnd)
+        : path);
+    // More than one segment after the entity set may navigate beyond the directly reachable entity sets
+    if (entitySet == null || segmentEnd >= 0 && path.indexOf('/', segmentEnd + 1) >= 0)
+      return null;
+    final Set<String> entitySets = new HashSet<>();
+    entitySets.add(entitySet.getName());
+    addNavigationTargets(entitySets, entitySet);
+    return addEntitySetsOfSameTable(entitySets, sd);
+  }
+
+  /**
+   * Adds the entity sets whose entity type belongs to the same inheritance hierarchy or is mapped to the same table as
+   * the entity type of one of the given entity sets. E.g. Organizations and Persons are stored in the table of
+   * BusinessPartners, so a change of an organization changes the result of BusinessPartners as well.
+   */
+  private static Set<String> addEntitySetsOfSameTable(final Set<String> entitySets, final JPAServiceDocument sd)
+      throws ODataJPAModelException {
+    final Set<Class<?>> hierarchies = new HashSet<>();
+    final Set<String> tables = new HashSet<>();
+    for (final String entitySet : entitySets) {
+      final JPAEntityType et = sd.getEntity(entitySet);
+      if (et == null)
+        return null;
+      hierarchies.add(determineHierarchyRoot(et.getTypeClass()));
+      tables.add(et.getTableName());
+    }
+    for (final CsdlEntitySet entitySet : sd.getEdmEntityContainer().getEntitySets()) {
+      final JPAEntityType et = sd.getEntity(entitySet.getTypeFQN());
+      if (et != null && (hierarchies.contains(determineHierarchyRoot(et.getTypeClass()))
+          || tables.contains(et.getTableName())))
+        entitySets.add(entitySet.getName());
+    }
+    return entitySets;
+  }
+
+  private static boolean addExpand(final Set<String> entitySets, final EdmBindingTarget source,
+      final ExpandOption expand) {
+    if (expand != null) {
+      for (final ExpandItem item : expand.getExpandItems()) {
+        if (item.isStar())
+          addNavigationTargets(entitySets, source);
+        else if (item.getResourcePath() != null) {
+          final EdmBindingTarget target = addResourcePath(entitySets, source, item.getResourcePath()
+              .getUriResourceParts());
+          if (target == null || !addExpand(entitySets, target, item.getExpandOption()))
+            return false;
+          if (item.getFilterOption() != null || item.getOrderByOption() != null)
+            addReachable(entitySets, target);
+        }
+      }
+    }
+    return true;
+  }
+
+  private static void addNavigationTargets(final Set<String> entitySets, final EdmBindingTarget source) {
+    if (source.getNavigationPropertyBindings() != null) {
+      for (final EdmNavigationPropertyBinding binding : source.getNavigationPropertyBindings())
+        entitySets.add(binding.getTarget());
+    }
+  }
+
+  private static void addReachable(final Set<String> entitySets, final EdmBindingTarget source) {
+    if (source.getNavigationPropertyBindings() == null)
+      return;
+    for (final EdmNavigationPropertyBinding binding : source.getNavigationPropertyBindings()) {
+      if (entitySets.add(binding.getTarget())) {
+        final EdmBindingTarget target = source.getRelatedBindingTarget(binding.getPath());
+        if (target != null)
+          addReachable(entitySets, target);
+      }
+    }
+  }
+
+  /**
+   * @return The last binding target of the path or null, if the path contains a segment that is not supported, like a
+   * function
+   */
+  private static EdmBindingTarget addResourcePath(final Set<String> entitySets, final EdmBindingTarget start,
+      final List<UriResource> resourceParts) {
+    EdmBindingTarget current = start;
+    StringBuilder naviPropertyName = new StringBuilder();
+    for (final UriResource part : resourceParts) {
+      switch (part.getKind()) {
+        case entitySet:
+          current = ((UriResourceEntitySet) part).getEntitySet();
+          entitySets.add(current.getName());
+          break;
+        case complexProperty:
+          naviPropertyName.append(((UriResourceComplexProperty) part).getProperty().getName());
+          naviPropertyName.append(JPAPath.PATH_SEPERATOR);
+          break;
+        case navigationProperty:
+          if (current == null)
+            return null;
+          naviPropertyName.append(((UriResourceNavigation) part).getProperty().getName());
+          current = current.getRelatedBindingTarget(naviPropertyName.toString());
+          if (current == null)
+            return null;
+          entitySets.add(current.getName());
+          naviPropertyName = new StringBuilder();
+          break;
+        case primitiveProperty:
+        case value:
+        case count:
+        case ref:
+          break;
+        default:
+          return null;
+      }
+    }
+    return current;
+  }
+
+  private static Class<?> determineHierarchyRoot(final Class<?> typeClass) {
+    Class<?> root = typeClass;
+    while (root.getSuperclass() != null && root.getSuperclass().isAnnotationPresent(Entity.class))
+      root = root.getSuperclass();
+    return root;
+  }
+
+  private static void appendHeader(final StringBuilder key, final List<String> values) {
+    key.append(SEPERATOR);
+    if (values != null)
+      key.append(String.join(",", values));
+  }
+}
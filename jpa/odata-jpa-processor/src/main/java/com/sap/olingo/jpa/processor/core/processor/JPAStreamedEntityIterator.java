@@ -0,0 +1,144 @@
+package com.sap.olingo.jpa.processor.core.processor;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import javax.persistence.EntityManager;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityIterator;
+import org.apache.olingo.commons.api.ex.ODataException;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.uri.UriInfo;
+
+import com.sap.olingo.jpa.processor.core.api.JPAODataMetrics;
+import com.sap.olingo.jpa.processor.core.api.JPAODataMetrics.Phase;
+import com.sap.olingo.jpa.processor.core.api.JPAODataSessionContextAccess;
+import com.sap.olingo.jpa.processor.core.api.JPAServiceDebugger;
+import com.sap.olingo.jpa.processor.core.converter.JPAExpandResult;
+import com.sap.olingo.jpa.processor.core.converter.JPATupleChildConverter;
+import com.sap.olingo.jpa.processor.core.query.JPAExpandQueryResult;
+import com.sap.olingo.jpa.processor.core.query.JPAJoinQuery;
+
+/**
+ * Provides the entities of a collection request chunk by chunk. A chunk is read not before the entities of the
+ * previous chunk have been consumed, so only one chunk is kept in memory.<p>
+ * JPA 2.1 does not provide a way to stream a query result. Therefore each chunk is read by an own query, which
+ * continues behind the last entity of the previous chunk. This is done the same way as server-driven paging does it,
+ * so in most cases a keyset condition is used and the rows of previous chunks need not to be skipped by the database.
+ * <p>
+ * The conversion is recorded per chunk, the result size once all chunks have been read. The serialization is not
+ * recorded, as it is interleaved with the reading of the chunks.
+ * @author Oliver Grande
+ *
+ */
+final class JPAStreamedEntityIterator extends EntityIterator {
+  private final OData odata;
+  private final JPAODataSessionContextAccess sessionContext;
+  private final EntityManager em;
+  private final Map<String, List<String>> headers;
+  private final UriInfo uriInfo;
+  private final JPATupleChildConverter converter;
+  private final int fetchSize;
+  private final JPAServiceDebugger debugger;
+  private final JPAODataMetrics metrics;
+  private final String requestKind;
+  private final String entitySetName;
+  private Iterator<Entity> chunk = Collections.emptyIterator();
+  private String nextSkipToken;
+  private boolean lastChunkRead = false;
+  private boolean resultSizeRecorded = false;
+  private long rows;
+  private long entities;
+
+  JPAStreamedEntityIterator(final OData odata, final JPAODataSessionContextAccess sessionContext,
+      final EntityManager em, final Map<String, List<String>> headers, final UriInfo uriInfo,
+      final JPATupleChildConverter converter, final int fetchSize, final String requestKind,
+      final String entitySetName) {
+    super();
+    this.odata = odata;
+    this.sessionContext = sessionContext;
+    this.em = em;
+    this.headers = headers;
+    this.uriInfo = uriInfo;
+    this.converter = converter;
+    this.fetchSize = fetchSize;
+    this.debugger = sessionContext.getDebugger();
+    this.metrics = sessionContext.getMetrics();
+    this.requestKind = requestKind;
+    this.entitySetName = entitySetName;
+  }
+
+  @Override
+  public boolean hasNext() {
+    try {
+      return !isEmpty();
+    } catch (ODataException e) {
+      // Iterator does not allow checked exceptions. In case the first chunk has already been read via isEmpty(), this
+      // only happens if the database fails in between
+      throw new ODataRuntimeException(e);
+    }
+  }
+
+  @Override
+  public Entity next() {
+    if (!hasNext())
+      throw new NoSuchElementException();
+    return chunk.next();
+  }
+
+  /**
+   * No next link is provided, as all entities are returned.
+   */
+  @Override
+  public URI getNext() {
+    return null;
+  }
+
+  /**
+   * No count is provided, as $count is not supported while streaming.
+   */
+  @Override
+  public Integer getCount() {
+    return null;
+  }
+
+  /**
+   * Reads the next chunk if all entities of the current chunk have been consumed.
+   * @return true if no further entity exists
+   * @throws ODataException
+   */
+  boolean isEmpty() throws ODataException {
+    while (!chunk.hasNext() && !lastChunkRead)
+      readNextChunk();
+    if (!chunk.hasNext() && !resultSizeRecorded) {
+      resultSizeRecorded = true;
+      metrics.recordResultSize(requestKind, entitySetName, rows, entities);
+    }
+    return !chunk.hasNext();
+  }
+
+  private void readNextChunk() throws ODataException {
+    final int handle = debugger.startRuntimeMeasurement(this, "readNextChunk");
+    final JPAJoinQuery query = new JPAJoinQuery(odata, sessionContext, em, headers, uriInfo);
+    query.setMaxPageSize(fetchSize);
+    query.setSkipToken(nextSkipToken);
+    final JPAExpandQueryResult result = query.execute();
+    // The conversion releases the rows, so they have to be counted before
+    rows += result.getRowsFetched();
+    final long converterStart = System.nanoTime();
+    final List<Entity> chunkEntities = result.asEntityCollection(converter).get(JPAExpandResult.ROOT_RESULT_KEY)
+        .getEntities();
+    metrics.recordDuration(Phase.CONVERT, requestKind, entitySetName, System.nanoTime() - converterStart);
+    entities += chunkEntities.size();
+    chunk = chunkEntities.iterator();
+    nextSkipToken = query.getNextSkipToken();
+    lastChunkRead = nextSkipToken == null;
+    debugger.stopRuntimeMeasurement(handle);
+  }
+}
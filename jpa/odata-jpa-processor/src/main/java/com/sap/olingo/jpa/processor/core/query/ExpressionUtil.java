@@ -39,12 +39,25 @@ public final class ExpressionUtil {
   public static Expression<Boolean> createEQExpression(final OData odata, CriteriaBuilder cb, From<?, ?> root,
       JPAEntityType jpaEntity, UriParameter keyPredicate) throws ODataJPAFilterException, ODataJPAModelException {
 
-    JPAPath path = jpaEntity.getPath(keyPredicate.getName());
-    JPAAttribute attribute = path.getLeaf();
-
-    return cb.equal(convertToCriteriaPath(root, path.getPath()), convertValueOnAttribute(odata, attribute, keyPredicate
-        .getText()));
+    return createEQExpression(odata, cb, root, jpaEntity, keyPredicate, null);
+  }
 
+  /**
+   * Creates the condition for a key predicate.
+   * @param parameters Replaces the key value by a query parameter. Null embeds the value
+   */
+  public static Expression<Boolean> createEQExpression(final OData odata, final CriteriaBuilder cb,
+      final From<?, ?> root, final JPAEntityType jpaEntity, final UriParameter keyPredicate,
+      final JPAQueryParameters parameters) throws ODataJPAFilterException, ODataJPAModelException {
+
+    final JPAPath path = jpaEntity.getPath(keyPredicate.getName());
+    final JPAAttribute attribute = path.getLeaf();
+    final Object value = convertValueOnAttribute(odata, attribute, keyPredicate.getText());
+    final Expression<Object> parameter = parameters != null ? parameters.createParameter(keyPredicate, attribute,
+        value) : null;
+    if (parameter != null)
+      return cb.equal(convertToCriteriaPath(root, path.getPath()), parameter);
+    return cb.equal(convertToCriteriaPath(root, path.getPath()), value);
   }
 
   /**
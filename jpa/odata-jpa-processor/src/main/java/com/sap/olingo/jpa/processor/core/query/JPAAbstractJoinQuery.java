@@ -57,6 +57,7 @@ import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAStructuredType;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import com.sap.olingo.jpa.processor.core.api.JPAODataMetrics;
 import com.sap.olingo.jpa.processor.core.api.JPAODataSessionContextAccess;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAQueryException;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAQueryException.MessageKeys;
@@ -71,7 +72,10 @@ public abstract class JPAAbstractJoinQuery extends JPAAbstractQuery {
   protected From<?, ?> target;
 //  protected final JPAFilterComplier filter;
   protected final JPAODataSessionContextAccess context;
+  protected final JPAODataMetrics metrics;
   protected List<JPANavigationProptertyInfo> navigationInfo;
+  /** Replaces literals by query parameters, if the query shall be cached. Null embeds the literals */
+  protected JPAQueryParameters parameters;
 
   public JPAAbstractJoinQuery(final OData odata, final JPAODataSessionContextAccess context,
       final JPAEntityType jpaEntityType, final EntityManager em, final Map<String, List<String>> requestHeaders,
@@ -84,6 +88,7 @@ public abstract class JPAAbstractJoinQuery extends JPAAbstractQuery {
 //    this.filter = new JPAFilterCrossComplier(odata, sd, em, jpaEntity, new JPAOperationConverter(cb, context
 //        .getOperationConverter()), uriResource, this);
     this.context = context;
+    this.metrics = context.getMetrics();
   }
 
   @Override
@@ -215,7 +220,7 @@ public abstract class JPAAbstractJoinQuery extends JPAAbstractQuery {
       buildSelectionAddExpandSelection(uriResource, jpaPathList);
     } catch (ODataJPAModelException e) {
       throw new ODataApplicationException(e.getLocalizedMessage(), HttpStatusCode.INTERNAL_SERVER_ERROR
-          .getStatusCode(), ODataJPAModelException.getLocales().nextElement(), e);
+          .getStatusCode(), getLocale(), e);
     }
     return jpaPathList;
   }
@@ -271,7 +276,7 @@ public abstract class JPAAbstractJoinQuery extends JPAAbstractQuery {
     this.navigationInfo.get(this.navigationInfo.size() - 1).setFromClause(target);
     this.navigationInfo.get(this.navigationInfo.size() - 1).setFilterCompiler(
         new JPAFilterCrossComplier(odata, sd, em, jpaEntity, new JPAOperationConverter(cb,
-            context.getOperationConverter()), uriResource, this));
+            context.getOperationConverter(), parameters), uriResource, this));
 
     // 2. OrderBy navigation property
     for (final JPAAssociationAttribute orderBy : orderByTarget) {
@@ -303,7 +308,7 @@ public abstract class JPAAbstractJoinQuery extends JPAAbstractQuery {
 
           final From<?, ?> f = naviInfo.getFromClause();
           final List<UriParameter> keyPredicates = naviInfo.getKeyPredicates();
-          whereCondition = createWhereByKey(f, whereCondition, keyPredicates, et);
+          whereCondition = createWhereByKey(f, whereCondition, keyPredicates, et, parameters);
         } catch (ODataJPAModelException e) {
           throw new ODataJPAQueryException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
         }
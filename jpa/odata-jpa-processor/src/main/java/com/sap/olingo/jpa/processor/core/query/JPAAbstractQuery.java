@@ -30,6 +30,7 @@ import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAServiceDocument;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import com.sap.olingo.jpa.processor.core.api.JPAODataSessionContextAccess;
+import com.sap.olingo.jpa.processor.core.api.JPAODataSlowRequest;
 import com.sap.olingo.jpa.processor.core.api.JPAServiceDebugger;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAQueryException;
 
@@ -87,6 +88,15 @@ public abstract class JPAAbstractQuery {
       final javax.persistence.criteria.Expression<Boolean> whereCondition, final List<UriParameter> keyPredicates,
       JPAEntityType et)
       throws ODataApplicationException {
+    return createWhereByKey(root, whereCondition, keyPredicates, et, null);
+  }
+
+  /**
+   * @param parameters Replaces the key values by query parameters. Null embeds the values
+   */
+  protected javax.persistence.criteria.Expression<Boolean> createWhereByKey(final From<?, ?> root,
+      final javax.persistence.criteria.Expression<Boolean> whereCondition, final List<UriParameter> keyPredicates,
+      final JPAEntityType et, final JPAQueryParameters parameters) throws ODataApplicationException {
     // .../Organizations('3')
     // .../BusinessPartnerRoles(BusinessPartnerID='6',RoleCategory='C')
     javax.persistence.criteria.Expression<Boolean> compundCondition = whereCondition;
@@ -95,7 +105,7 @@ public abstract class JPAAbstractQuery {
       for (final UriParameter keyPredicate : keyPredicates) {
         javax.persistence.criteria.Expression<Boolean> equalCondition;
         try {
-          equalCondition = ExpressionUtil.createEQExpression(odata, cb, root, et, keyPredicate);
+          equalCondition = ExpressionUtil.createEQExpression(odata, cb, root, et, keyPredicate, parameters);
         } catch (ODataJPAModelException e) {
           throw new ODataJPAQueryException(e, HttpStatusCode.BAD_REQUEST);
         }
@@ -205,5 +215,15 @@ public abstract class JPAAbstractQuery {
       return new ArrayList<>();
     }
 
+    @Override
+    public void recordQuery(final Object query, final long rowsFetched, final long rowsReturned) {
+      // not needed
+    }
+
+    @Override
+    public Collection<JPAODataSlowRequest.Query> getQueries() {
+      return new ArrayList<>();
+    }
+
   }
 }
\ No newline at end of file
@@ -1,11 +1,12 @@
 package com.sap.olingo.jpa.processor.core.query;
 
-import static java.util.stream.Collectors.joining;
-
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Tuple;
@@ -14,6 +15,7 @@ import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.From;
 import javax.persistence.criteria.Order;
+import javax.persistence.criteria.ParameterExpression;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Selection;
 
@@ -34,6 +36,8 @@ import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAOnConditionItem;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import com.sap.olingo.jpa.processor.core.api.JPAODataSessionContextAccess;
+import com.sap.olingo.jpa.processor.core.converter.JPAExpandResult;
+import com.sap.olingo.jpa.processor.core.converter.JPAJoinKey;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAQueryException;
 
 /**
@@ -53,14 +57,46 @@ import com.sap.olingo.jpa.processor.core.exception.ODataJPAQueryException;
  */
 public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
   static final String ALIAS_SEPERATOR = ".";
+  static final int MAX_IN_LIST_CHUNKS = 10;
   private final JPAAssociationPath assoziation;
+  private boolean topSkipRestricted;
+  private List<List<Object>> parentKeys;
+  private List<List<ParameterExpression<Object>>> parentKeyParameter;
 
   public JPAExpandJoinQuery(final OData odata, final JPAODataSessionContextAccess context, final EntityManager em,
       final JPAExpandItemInfo item, final Map<String, List<String>> requestHeaders) throws ODataException {
 
+    this(odata, context, em, item, requestHeaders, null);
+  }
+
+  /**
+   * Creates an expand query that may restrict the expanded entities by the join column values of the already read
+   * parent entities, instead of repeating the navigation, filter and key conditions of the parent query. This
+   * <i>IN-list strategy</i> is used if a chunk size is provided by the session context, the association does not use
+   * a join table and the number of parents does not exceed {@value #MAX_IN_LIST_CHUNKS} chunks. In case more parents
+   * exist, one query with joins is expected to be cheaper than the many round trips.
+   * @param odata
+   * @param context
+   * @param em
+   * @param item
+   * @param requestHeaders
+   * @param parentResult Result of the parent query. If null, the parent conditions are always repeated
+   * @throws ODataException
+   */
+  public JPAExpandJoinQuery(final OData odata, final JPAODataSessionContextAccess context, final EntityManager em,
+      final JPAExpandItemInfo item, final Map<String, List<String>> requestHeaders,
+      final JPAExpandResult parentResult) throws ODataException {
+
     super(odata, context, item.getEntityType(), em, requestHeaders, item.getUriInfo());
     this.assoziation = item.getExpandAssociation();
-    this.navigationInfo = item.getHops();
+    this.parentKeys = determineParentKeys(parentResult);
+    if (parentKeys != null) {
+      final List<JPANavigationProptertyInfo> hops = item.getHops();
+      this.navigationInfo = Collections.singletonList(item.getUriInfo().getUriResourceParts().isEmpty()
+          ? new JPANavigationProptertyInfo(sd, assoziation, item.getUriInfo(), item.getEntityType())
+          : new JPANavigationProptertyInfo(hops.get(hops.size() - 1)));
+    } else
+      this.navigationInfo = item.getHops();
   }
 
   /**
@@ -118,8 +154,7 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
   }
 
   /**
-   * Splits up a expand results, so it is returned as a map that uses a concatenation of the field values know by the
-   * parent.
+   * Splits up a expand results, so it is returned as a map that uses the join column values know by the parent as key.
    * @param intermediateResult
    * @param associationPath
    * @param skip
@@ -127,21 +162,17 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
    * @return
    * @throws ODataApplicationException
    */
-  Map<String, List<Tuple>> convertResult(final List<Tuple> intermediateResult, final JPAAssociationPath associationPath,
-      final long skip, final long top) throws ODataApplicationException {
-    String joinKey = "";
+  Map<JPAJoinKey, List<Tuple>> convertResult(final List<Tuple> intermediateResult,
+      final JPAAssociationPath associationPath, final long skip, final long top) throws ODataApplicationException {
+    JPAJoinKey joinKey = null;
     long skiped = 0;
     long taken = 0;
 
     List<Tuple> subResult = null;
-    final Map<String, List<Tuple>> convertedResult = new HashMap<>();
+    final Map<JPAJoinKey, List<Tuple>> convertedResult = new HashMap<>();
+    final List<String> joinKeyAliases = determineJoinKeyAliases(associationPath);
     for (final Tuple row : intermediateResult) {
-      String actuallKey;
-      try {
-        actuallKey = buildConcatenatedKey(row, associationPath);
-      } catch (ODataJPAModelException e) {
-        throw new ODataJPAQueryException(e, HttpStatusCode.BAD_REQUEST);
-      }
+      final JPAJoinKey actuallKey = new JPAJoinKey(row, joinKeyAliases);
 
       if (!actuallKey.equals(joinKey)) {
         subResult = new ArrayList<>();
@@ -158,20 +189,130 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
     return convertedResult;
   }
 
-  private String buildConcatenatedKey(final Tuple row, final JPAAssociationPath associationPath)
-      throws ODataJPAModelException {
-
-    if (associationPath.getJoinTable() == null) {
-      final List<JPAPath> joinColumns = associationPath.getRightColumnsList();
-      return joinColumns.stream()
-          .map(c -> (row.get(c.getAlias())).toString())
-          .collect(joining(JPAPath.PATH_SEPERATOR));
-    } else {
+  private List<String> determineJoinKeyAliases(final JPAAssociationPath associationPath)
+      throws ODataJPAQueryException {
+    try {
+      if (associationPath.getJoinTable() == null)
+        return JPAJoinKey.determineAliases(associationPath.getRightColumnsList());
       final List<JPAPath> joinColumns = associationPath.getLeftColumnsList();
-      return joinColumns.stream()
-          .map(c -> (row.get(assoziation.getAlias() + ALIAS_SEPERATOR + c.getAlias())).toString())
-          .collect(joining(JPAPath.PATH_SEPERATOR));
+      final List<String> aliases = new ArrayList<>(joinColumns.size());
+      for (final JPAPath column : joinColumns)
+        aliases.add(assoziation.getAlias() + ALIAS_SEPERATOR + column.getAlias());
+      return aliases;
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAQueryException(e, HttpStatusCode.BAD_REQUEST);
+    }
+  }
+
+  /**
+   * Collects the distinct join column values of the parent entities.
+   * @return Join column values or null if the IN-list strategy shall not be used
+   * @throws ODataJPAQueryException
+   */
+  private List<List<Object>> determineParentKeys(final JPAExpandResult parentResult) throws ODataJPAQueryException {
+    final Integer chunkSize = context.getExpandInListChunkSize();
+    if (parentResult == null || chunkSize == null || assoziation.getJoinTable() != null)
+      return null;
+    try {
+      final List<JPAPath> leftColumns = assoziation.getLeftColumnsList();
+      final Set<List<Object>> keys = new LinkedHashSet<>();
+      for (final List<Tuple> rows : parentResult.getResults().values()) {
+        for (final Tuple row : rows) {
+          final List<Object> key = new ArrayList<>(leftColumns.size());
+          for (final JPAPath column : leftColumns)
+            key.add(row.get(column.getAlias()));
+          // A parent without join column value has no expanded entity
+          if (!key.contains(null))
+            keys.add(key);
+          if (keys.size() > (long) chunkSize * MAX_IN_LIST_CHUNKS)
+            return null;
+        }
+      }
+      return new ArrayList<>(keys);
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAQueryException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+    } catch (IllegalArgumentException e) {
+      // Join columns not selected by the parent query
+      return null;
+    }
+  }
+
+  /**
+   * Creates a condition that restricts the expanded entities to the given parents: c IN (:p1, :p2, ...) or in case of
+   * multiple join columns (c1 = :p11 AND c2 = :p12) OR (c1 = :p21 AND c2 = :p22) ... , as not all databases support
+   * tuples within IN. Parameters are used, so the same query can be executed for each chunk of parents.
+   * @throws ODataJPAQueryException
+   */
+  @SuppressWarnings("unchecked")
+  private Expression<Boolean> createParentKeyWhere() throws ODataJPAQueryException {
+    final int noParameter = Math.min(context.getExpandInListChunkSize(), parentKeys.size());
+    parentKeyParameter = new ArrayList<>(noParameter);
+    try {
+      final List<JPAPath> rightColumns = assoziation.getRightColumnsList();
+      final List<Path<Object>> columnPath = new ArrayList<>(rightColumns.size());
+      for (final JPAPath column : rightColumns)
+        columnPath.add((Path<Object>) ExpressionUtil.convertToCriteriaPath(target, column.getPath()));
+
+      Expression<Boolean> parentKeyWhere = null;
+      if (columnPath.size() == 1) {
+        final List<Expression<?>> inList = new ArrayList<>(noParameter);
+        for (int i = 0; i < noParameter; i++) {
+          final ParameterExpression<Object> parameter = createParameter(rightColumns.get(0));
+          parentKeyParameter.add(Collections.singletonList(parameter));
+          inList.add(parameter);
+        }
+        parentKeyWhere = columnPath.get(0).in(inList.toArray(new Expression<?>[inList.size()]));
+      } else {
+        for (int i = 0; i < noParameter; i++) {
+          final List<ParameterExpression<Object>> keyParameter = new ArrayList<>(columnPath.size());
+          Expression<Boolean> keyCondition = null;
+          for (int j = 0; j < columnPath.size(); j++) {
+            final ParameterExpression<Object> parameter = createParameter(rightColumns.get(j));
+            keyParameter.add(parameter);
+            keyCondition = addWhereClause(keyCondition, cb.equal(columnPath.get(j), parameter));
+          }
+          parentKeyParameter.add(keyParameter);
+          parentKeyWhere = parentKeyWhere == null ? keyCondition : cb.or(parentKeyWhere, keyCondition);
+        }
+      }
+      return parentKeyWhere;
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAQueryException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  /**
+   * The parameter gets the type of the join column of the expanded entity, as the type of the parent's join column
+   * may differ from it.
+   */
+  @SuppressWarnings("unchecked")
+  private ParameterExpression<Object> createParameter(final JPAPath column) {
+    return (ParameterExpression<Object>) cb.parameter(column.getLeaf().getType());
+  }
+
+  /**
+   * Executes the query. In case the IN-list strategy is used, the query is executed once per chunk of parents. The last
+   * chunk is filled up with the last parent, so all parameters are set. As the parents of the chunks are disjoint and
+   * the rows are ordered by the join columns, the rows of one parent stay together.
+   */
+  private List<Tuple> getResultList(final TypedQuery<Tuple> tupleQuery) {
+    final int resultHandle = debugger.startRuntimeMeasurement(tupleQuery, "getResultList");
+    final List<Tuple> result;
+    if (parentKeys == null)
+      result = tupleQuery.getResultList();
+    else {
+      result = new ArrayList<>();
+      for (int start = 0; start < parentKeys.size(); start += parentKeyParameter.size()) {
+        for (int i = 0; i < parentKeyParameter.size(); i++) {
+          final List<Object> key = parentKeys.get(Math.min(start + i, parentKeys.size() - 1));
+          for (int j = 0; j < key.size(); j++)
+            tupleQuery.setParameter(parentKeyParameter.get(i).get(j), key.get(j));
+        }
+        result.addAll(tupleQuery.getResultList());
+      }
     }
+    debugger.stopRuntimeMeasurement(resultHandle);
+    return result;
   }
 
   private List<Expression<?>> buildExpandCountGroupBy() throws ODataJPAQueryException {
@@ -203,21 +344,24 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
     return selections;
   }
 
-  private Map<String, Long> convertCountResult(List<Tuple> intermediateResult) throws ODataJPAQueryException {
-    final Map<String, Long> result = new HashMap<>();
+  private Map<JPAJoinKey, Long> convertCountResult(List<Tuple> intermediateResult) throws ODataJPAQueryException {
+    final Map<JPAJoinKey, Long> result = new HashMap<>();
+    final List<String> joinKeyAliases = determineJoinKeyAliases(assoziation);
     for (Tuple row : intermediateResult) {
-      try {
-        final String actuallKey = buildConcatenatedKey(row, assoziation);
-        final Long count = (Long) row.get("$count");
-        result.put(actuallKey, count);
-      } catch (ODataJPAModelException e) {
-        throw new ODataJPAQueryException(e, HttpStatusCode.BAD_REQUEST);
-      }
+      final Long count = (Long) row.get("$count");
+      result.put(new JPAJoinKey(row, joinKeyAliases), count);
     }
     return result;
   }
 
-  private Map<String, Long> count() throws ODataApplicationException {
+  private long countRows(final Map<JPAJoinKey, List<Tuple>> result) {
+    long rows = 0;
+    for (final List<Tuple> rowsOfParent : result.values())
+      rows += rowsOfParent.size();
+    return rows;
+  }
+
+  private Map<JPAJoinKey, Long> count() throws ODataApplicationException {
     final int handle = debugger.startRuntimeMeasurement(this, "count");
     final List<UriResource> uriResourceParts = uriResource.getUriResourceParts();
     if (uriResource.getCountOption() != null
@@ -235,12 +379,16 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
       count.alias("$count");
       selectionPath.add(count);
       countQuery.multiselect(selectionPath);
-      final javax.persistence.criteria.Expression<Boolean> whereClause = createWhere();
+      javax.persistence.criteria.Expression<Boolean> whereClause = createWhere();
+      if (parentKeys != null)
+        whereClause = addWhereClause(whereClause, createParentKeyWhere());
       if (whereClause != null)
-        cq.where(whereClause);
+        countQuery.where(whereClause);
       countQuery.groupBy(buildExpandCountGroupBy());
       final TypedQuery<Tuple> query = em.createQuery(countQuery);
-      List<Tuple> intermediateResult = query.getResultList();
+      List<Tuple> intermediateResult = getResultList(query);
+      debugger.recordQuery(query, intermediateResult.size(), intermediateResult.size());
+      debugger.stopRuntimeMeasurement(handle);
       return convertCountResult(intermediateResult);
     }
     debugger.stopRuntimeMeasurement(handle);
@@ -271,6 +419,10 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
   }
 
   private TypedQuery<Tuple> createTupleQuery() throws ODataApplicationException {
+    return createTupleQuery(0, Integer.MAX_VALUE);
+  }
+
+  private TypedQuery<Tuple> createTupleQuery(final int skip, final int top) throws ODataApplicationException {
     final int handle = debugger.startRuntimeMeasurement(this, "createTupleQuery");
 
     final List<JPAPath> selectionPath = buildSelectionPathList(this.uriResource);
@@ -281,7 +433,11 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
     // TODO handle Join Column is ignored
     cq.multiselect(createSelectClause(joinTables, selectionPath, target));
     cq.distinct(true);
-    final javax.persistence.criteria.Expression<Boolean> whereClause = createWhere();
+    javax.persistence.criteria.Expression<Boolean> whereClause = createWhere();
+    if (parentKeys != null)
+      whereClause = addWhereClause(whereClause, createParentKeyWhere());
+    if (skip > 0 || top < Integer.MAX_VALUE)
+      whereClause = addWhereClause(whereClause, createTopSkipWhere(skip, top));
     if (whereClause != null)
       cq.where(whereClause);
 
@@ -323,6 +479,35 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
     return whereCondition;
   }
 
+  /**
+   * Tries to push $top and $skip down to the database, so only the requested rows per parent are read. This is not
+   * possible for associations using a join table, as the parent is not known by the expanded entity, and in case the
+   * $expand contains a $filter or $search, as these restrict the rows that have to be taken into account when numbering
+   * them.
+   * @param skip
+   * @param top
+   * @return Restriction or null, if the database processor is not able to provide one
+   * @throws ODataApplicationException
+   */
+  private Expression<Boolean> createTopSkipWhere(final int skip, final int top) throws ODataApplicationException {
+    topSkipRestricted = false;
+    if (assoziation.getJoinTable() != null
+        || uriResource.getFilterOption() != null
+        || uriResource.getSearchOption() != null)
+      return null;
+    final int handle = debugger.startRuntimeMeasurement(this, "createTopSkipWhere");
+    try {
+      final Expression<Boolean> restriction = context.getDatabaseProcessor().createExpandTopSkipWhereClause(cb, cq,
+          target, jpaEntity, assoziation.getRightColumnsList(), uriResource.getOrderByOption(), skip, top);
+      topSkipRestricted = restriction != null;
+      return restriction;
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAQueryException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+    } finally {
+      debugger.stopRuntimeMeasurement(handle);
+    }
+  }
+
   private From<?, ?> determineParentFrom() throws ODataJPAQueryException {
     for (JPANavigationProptertyInfo item : this.navigationInfo) {
       if (item.getAssociationPath() == assoziation)
@@ -338,40 +523,54 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
    * solutions.
    * There is an worth reading blog regards this topic:
    * <a href="http://www.xaprb.com/blog/2006/12/07/how-to-select-the-firstleastmax-row-per-group-in-sql/">How to select
-   * the first/least/max row per group in SQL</a>
+   * the first/least/max row per group in SQL</a><p>
+   * The database processor is asked to restrict the rows per parent, see
+   * {@link com.sap.olingo.jpa.processor.core.database.JPAODataDatabaseExpandTopSkip
+   * JPAODataDatabaseExpandTopSkip}. If it is not able to do so, all rows are read and the ones not requested are thrown
+   * away.
    * @return query result
    * @throws ODataApplicationException
    */
   private JPAExpandQueryResult executeExpandTopSkipQuery() throws ODataApplicationException {
-    // TODO make this replacable e.g. by UNION ALL or use of window functions
     final int handle = debugger.startRuntimeMeasurement(this, "executeExpandTopSkipQuery");
 
-    long skip = 0;
-    long top = Long.MAX_VALUE;
-    final TypedQuery<Tuple> tupleQuery = createTupleQuery();
-    // Simplest solution for the problem. Read all and throw away, what is not requested
-    final List<Tuple> intermediateResult = tupleQuery.getResultList();
+    int skip = 0;
+    int top = Integer.MAX_VALUE;
     if (uriResource.getSkipOption() != null)
       skip = uriResource.getSkipOption().getValue();
     if (uriResource.getTopOption() != null)
       top = uriResource.getTopOption().getValue();
+    if (parentKeys != null && parentKeys.isEmpty()) {
+      debugger.stopRuntimeMeasurement(handle);
+      // No parent has a join column value, so neither entities nor counts exist
+      return new JPAExpandQueryResult(new HashMap<>(1), null, jpaEntity);
+    }
+    final TypedQuery<Tuple> tupleQuery = createTupleQuery(skip, top);
+    final List<Tuple> intermediateResult = getResultList(tupleQuery);
 
-    Map<String, List<Tuple>> result = convertResult(intermediateResult, assoziation, skip, top);
+    final Map<JPAJoinKey, List<Tuple>> result = topSkipRestricted
+        ? convertResult(intermediateResult, assoziation, 0, Long.MAX_VALUE)
+        : convertResult(intermediateResult, assoziation, skip, top);
+    debugger.recordQuery(tupleQuery, intermediateResult.size(), countRows(result));
     debugger.stopRuntimeMeasurement(handle);
-    return new JPAExpandQueryResult(result, count(), jpaEntity);
+    return new JPAExpandQueryResult(result, count(), jpaEntity, intermediateResult.size());
   }
 
   private JPAExpandQueryResult executeStandardQuery() throws ODataApplicationException {
     final int handle = debugger.startRuntimeMeasurement(this, "executeStandradQuery");
 
+    if (parentKeys != null && parentKeys.isEmpty()) {
+      debugger.stopRuntimeMeasurement(handle);
+      // No parent has a join column value, so neither entities nor counts exist
+      return new JPAExpandQueryResult(new HashMap<>(1), null, jpaEntity);
+    }
     final TypedQuery<Tuple> tupleQuery = createTupleQuery();
-    final int resultHandle = debugger.startRuntimeMeasurement(tupleQuery, "getResultList");
-    final List<Tuple> intermediateResult = tupleQuery.getResultList();
-    debugger.stopRuntimeMeasurement(resultHandle);
+    final List<Tuple> intermediateResult = getResultList(tupleQuery);
 
-    Map<String, List<Tuple>> result = convertResult(intermediateResult, assoziation, 0, Long.MAX_VALUE);
+    Map<JPAJoinKey, List<Tuple>> result = convertResult(intermediateResult, assoziation, 0, Long.MAX_VALUE);
+    debugger.recordQuery(tupleQuery, intermediateResult.size(), intermediateResult.size());
 
     debugger.stopRuntimeMeasurement(handle);
-    return new JPAExpandQueryResult(result, count(), jpaEntity);
+    return new JPAExpandQueryResult(result, count(), jpaEntity, intermediateResult.size());
   }
 }
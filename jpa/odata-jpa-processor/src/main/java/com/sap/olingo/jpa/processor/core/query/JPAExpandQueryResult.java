@@ -14,34 +14,50 @@ import org.apache.olingo.server.api.ODataApplicationException;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationPath;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
 import com.sap.olingo.jpa.processor.core.converter.JPAExpandResult;
+import com.sap.olingo.jpa.processor.core.converter.JPAJoinKey;
 import com.sap.olingo.jpa.processor.core.converter.JPATupleChildConverter;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAQueryException;
 
 /**
  * Builds a hierarchy of expand results. One instance contains on the on hand of the result itself, a map which has the
  * join columns values of the parent as its key and on the other hand a map that point the results of the next expand.
- * The join columns are concatenated in the order they are stored in the corresponding Association Path.
+ * The key is made of the join column values in the order they are stored in the corresponding Association Path, see
+ * {@link JPAJoinKey}.
  * @author Oliver Grande
  *
  */
 public final class JPAExpandQueryResult implements JPAExpandResult {
   private final Map<JPAAssociationPath, JPAExpandResult> childrenResult;
-  private final Map<String, List<Tuple>> jpaResult;
-  private Map<String, EntityCollection> odataResult;
-  private final Map<String, Long> counts;
+  private final Map<JPAJoinKey, List<Tuple>> jpaResult;
+  private Map<JPAJoinKey, EntityCollection> odataResult;
+  private final Map<JPAJoinKey, Long> counts;
   private final JPAEntityType jpaEntityType;
+  private final long rowsFetched;
 
-  public JPAExpandQueryResult(final Map<String, List<Tuple>> result, final Map<String, Long> counts,
+  public JPAExpandQueryResult(final Map<JPAJoinKey, List<Tuple>> result, final Map<JPAJoinKey, Long> counts,
       final JPAEntityType jpaEntityType) {
+    this(result, counts, jpaEntityType, -1);
+  }
+
+  /**
+   * @param result
+   * @param counts
+   * @param jpaEntityType
+   * @param rowsFetched Number of rows read from the database, which can be larger than the number of rows of the
+   * result, e.g. if rows not requested by $top and $skip were read as well
+   */
+  public JPAExpandQueryResult(final Map<JPAJoinKey, List<Tuple>> result, final Map<JPAJoinKey, Long> counts,
+      final JPAEntityType jpaEntityType, final long rowsFetched) {
     super();
     assertNotNull(jpaEntityType);
     childrenResult = new HashMap<>();
     this.jpaResult = result;
     this.counts = counts;
     this.jpaEntityType = jpaEntityType;
+    this.rowsFetched = rowsFetched;
   }
 
-  public Map<String, EntityCollection> asEntityCollection(JPATupleChildConverter converter)
+  public Map<JPAJoinKey, EntityCollection> asEntityCollection(JPATupleChildConverter converter)
       throws ODataApplicationException {
 
     convert(new JPATupleChildConverter(converter));
@@ -79,7 +95,7 @@ public final class JPAExpandQueryResult implements JPAExpandResult {
    * @see org.apache.org.jpa.processor.core.converter.JPAExpandResult#getCount()
    */
   @Override
-  public Long getCount(final String key) {
+  public Long getCount(final JPAJoinKey key) {
     return counts != null ? counts.get(key) : null;
   }
 
@@ -97,10 +113,17 @@ public final class JPAExpandQueryResult implements JPAExpandResult {
     return jpaResult.size();
   }
 
+  /**
+   * @return Number of rows read from the database. If not known, the number of rows of the result
+   */
+  public long getRowsFetched() {
+    return rowsFetched >= 0 ? rowsFetched : getNoResultsDeep();
+  }
+
   public long getNoResultsDeep() {
     long count = 0;
-    for (String key : jpaResult.keySet()) {
-      count += jpaResult.get(key).size();
+    for (List<Tuple> rows : jpaResult.values()) {
+      count += rows.size();
     }
     return count;
   }
@@ -108,10 +131,10 @@ public final class JPAExpandQueryResult implements JPAExpandResult {
   /*
    * (non-Javadoc)
    * 
-   * @see org.apache.org.jpa.processor.core.converter.JPAExpandResult#getResult(java.lang.String)
+   * @see org.apache.org.jpa.processor.core.converter.JPAExpandResult#getResult(JPAJoinKey)
    */
   @Override
-  public List<Tuple> getResult(final String key) {
+  public List<Tuple> getResult(final JPAJoinKey key) {
     return jpaResult.get(key);
   }
 
@@ -142,7 +165,7 @@ public final class JPAExpandQueryResult implements JPAExpandResult {
   }
 
   @Override
-  public Map<String, List<Tuple>> getResults() {
+  public Map<JPAJoinKey, List<Tuple>> getResults() {
     return jpaResult;
   }
 
@@ -151,7 +174,7 @@ public final class JPAExpandQueryResult implements JPAExpandResult {
    * @param key
    * @return
    */
-  public EntityCollection getEntityCollection(final String key) {
+  public EntityCollection getEntityCollection(final JPAJoinKey key) {
     return odataResult.containsKey(key) ? odataResult.get(key) : new EntityCollection();
   }
 
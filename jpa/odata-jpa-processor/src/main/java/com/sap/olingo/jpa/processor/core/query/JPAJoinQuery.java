@@ -1,6 +1,9 @@
 package com.sap.olingo.jpa.processor.core.query;
 
+import static com.sap.olingo.jpa.processor.core.converter.JPAExpandResult.ROOT_RESULT_KEY;
+
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -11,8 +14,12 @@ import javax.persistence.TypedQuery;
 import javax.persistence.criteria.AbstractQuery;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.From;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Selection;
 
 import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
+import org.apache.olingo.commons.api.edm.provider.CsdlProperty;
 import org.apache.olingo.commons.api.ex.ODataException;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.OData;
@@ -20,19 +27,33 @@ import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.uri.UriInfo;
 import org.apache.olingo.server.api.uri.UriInfoResource;
 import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceComplexProperty;
 import org.apache.olingo.server.api.uri.UriResourceNavigation;
+import org.apache.olingo.server.api.uri.UriResourcePrimitiveProperty;
 import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
 import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
 import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
 import org.apache.olingo.server.api.uri.queryoption.expression.Member;
 
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPADescriptionAttribute;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import com.sap.olingo.jpa.processor.core.api.JPAODataMetrics.Phase;
 import com.sap.olingo.jpa.processor.core.api.JPAODataSessionContextAccess;
+import com.sap.olingo.jpa.processor.core.converter.JPAJoinKey;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAQueryException;
 
 public class JPAJoinQuery extends JPAAbstractJoinQuery implements JPAQuery {
+  private static final String SKIPTOKEN_ALIAS = "$skiptoken";
+  private static final String COUNT_ALIAS = "$count";
+  private Integer maxPageSize;
+  private String nextSkipToken;
+  private String startToken;
+  private final String entitySetName;
+  private List<String> keysetAlias;
+  private boolean withCount;
 
   public JPAJoinQuery(OData odata, JPAODataSessionContextAccess sessionContext, EntityManager em,
       Map<String, List<String>> requestHeaders, UriInfo uriInfo) throws ODataException {
@@ -42,6 +63,7 @@ public class JPAJoinQuery extends JPAAbstractJoinQuery implements JPAQuery {
         em, requestHeaders, uriInfo);
 
     this.navigationInfo = Util.determineNavigationPath(sd, uriInfo.getUriResourceParts(), uriInfo);
+    this.entitySetName = Util.determineTargetEntitySet(uriInfo.getUriResourceParts()).getName();
   }
 
   /**
@@ -60,6 +82,7 @@ public class JPAJoinQuery extends JPAAbstractJoinQuery implements JPAQuery {
      * .../Organizations('3')/Roles/$count
      */
     final int handle = debugger.startRuntimeMeasurement(this, "countResults");
+    final long start = System.nanoTime();
     final CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
     createFromClause(new ArrayList<>(1), new ArrayList<>(1), countQuery);
 
@@ -68,7 +91,12 @@ public class JPAJoinQuery extends JPAAbstractJoinQuery implements JPAQuery {
       countQuery.where(whereClause);
     countQuery.select(cb.count(root));
     debugger.stopRuntimeMeasurement(handle);
-    return em.createQuery(countQuery).getSingleResult();
+    final TypedQuery<Long> tq = em.createQuery(countQuery);
+    final Long count = tq.getSingleResult();
+    debugger.recordQuery(tq, 1, 1);
+    metrics.recordDuration(Phase.COUNT, Util.determineRequestKind(uriResource.getUriResourceParts()), entitySetName,
+        System.nanoTime() - start);
+    return count;
   }
 
   private javax.persistence.criteria.Expression<Boolean> createWhere() throws ODataApplicationException {
@@ -80,39 +108,338 @@ public class JPAJoinQuery extends JPAAbstractJoinQuery implements JPAQuery {
     // Pre-process URI parameter, so they can be used at different places
     // TODO check if Path is also required for OrderBy Attributes, as it is for descriptions
     final int handle = debugger.startRuntimeMeasurement(this, "execute");
+    final long start = System.nanoTime();
+
+    // Server-driven paging
+    final JPASkipToken skipToken = determineSkipToken() != null ? JPASkipToken.parse(determineSkipToken()) : null;
+    final boolean paging = maxPageSize != null || skipToken != null;
+
+    final TypedQuery<Tuple> tq = createQuery(skipToken, paging);
+    addTopSkip(tq);
+    final int pageSize = paging ? addPaging(tq, skipToken) : Integer.MAX_VALUE;
+
+    final HashMap<JPAJoinKey, List<Tuple>> result = new HashMap<>(1);
+    final int resultHandle = debugger.startRuntimeMeasurement(tq, "getResultList");
+    final long executeStart = System.nanoTime();
+    final String requestKind = Util.determineRequestKind(uriResource.getUriResourceParts());
+    metrics.recordDuration(Phase.QUERY_BUILD, requestKind, entitySetName, executeStart - start);
+    List<Tuple> intermediateResult = tq.getResultList();
+    metrics.recordDuration(Phase.DB_EXECUTE, requestKind, entitySetName, System.nanoTime() - executeStart);
+    debugger.stopRuntimeMeasurement(resultHandle);
+    final int rowsFetched = intermediateResult.size();
+    if (intermediateResult.size() > pageSize) {
+      // At least one more page exists
+      final Tuple lastRow = intermediateResult.get(pageSize - 1);
+      final List<Object> lastValues = new ArrayList<>(keysetAlias.size());
+      for (final String alias : keysetAlias)
+        lastValues.add(lastRow.get(alias));
+      final int delivered = skipToken != null ? skipToken.getDelivered() : 0;
+      nextSkipToken = JPASkipToken.create(delivered + pageSize, lastValues).asString();
+      intermediateResult = new ArrayList<>(intermediateResult.subList(0, pageSize));
+    }
+    result.put(ROOT_RESULT_KEY, intermediateResult);
+    debugger.recordQuery(tq, rowsFetched, intermediateResult.size());
+
+    debugger.stopRuntimeMeasurement(handle);
+    return new JPAExpandQueryResult(result, withCount ? determineCount(intermediateResult, skipToken) : null,
+        jpaEntity, rowsFetched);
+  }
+
+  @Override
+  public AbstractQuery<?> getQuery() {
+    return cq;
+  }
+
+  /**
+   * @return $skiptoken to be used to request the next page or null if no further page exists
+   */
+  public String getNextSkipToken() {
+    return nextSkipToken;
+  }
+
+  /**
+   * Activates server-driven paging. At most the given number of entities are returned by
+   * {@link #execute()}. In case more entities exist, {@link #getNextSkipToken()} provides a $skiptoken for the next
+   * page.
+   * @param maxPageSize
+   */
+  public void setMaxPageSize(final Integer maxPageSize) {
+    this.maxPageSize = maxPageSize;
+  }
+
+  /**
+   * Continues reading behind the entity a $skiptoken, provided by {@link #getNextSkipToken()} of a previous query on the
+   * same request, points to. The token takes precedence over a $skiptoken given by the request.
+   * @param skipToken
+   */
+  public void setSkipToken(final String skipToken) {
+    this.startToken = skipToken;
+  }
+
+  /**
+   * Builds the criteria query of the request.
+   */
+  private TypedQuery<Tuple> buildQuery(final JPASkipToken skipToken, final boolean paging)
+      throws ODataApplicationException {
 
     final List<JPAAssociationAttribute> orderByNaviAttributes = extractOrderByNaviAttributes();
     final List<JPAPath> selectionPath = buildSelectionPathList(this.uriResource);
     final List<JPAPath> descriptionAttributes = extractDescriptionAttributes(selectionPath);
     final Map<String, From<?, ?>> joinTables = createFromClause(orderByNaviAttributes, descriptionAttributes, cq);
 
-    cq.multiselect(createSelectClause(joinTables, selectionPath, target));
+    final List<JPAPath> keysetPath = new ArrayList<>();
+    final List<Boolean> keysetDescending = new ArrayList<>();
+    final boolean keyset = paging && orderByNaviAttributes.isEmpty()
+        && determineKeysetOrder(keysetPath, keysetDescending);
 
-    final javax.persistence.criteria.Expression<Boolean> whereClause = createWhere();
+    final List<Selection<?>> selections = createSelectClause(joinTables, selectionPath, target);
+    keysetAlias = keyset ? addKeysetSelection(selections, selectionPath, keysetPath) : Collections.emptyList();
+    final javax.persistence.criteria.Expression<Long> countOver = createCountOver(skipToken);
+    if (countOver != null)
+      selections.add(countOver);
+    withCount = countOver != null;
+    cq.multiselect(selections);
+
+    javax.persistence.criteria.Expression<Boolean> whereClause = createWhere();
+    if (skipToken != null && skipToken.isKeyset())
+      whereClause = addWhereClause(whereClause, createKeysetWhere(skipToken, keyset, keysetPath, keysetDescending));
     if (whereClause != null)
       cq.where(whereClause);
 
-    cq.orderBy(createOrderByList(joinTables, uriResource.getOrderByOption()));
+    final List<Order> orderBy = createOrderByList(joinTables, uriResource.getOrderByOption());
+    if (paging)
+      // A stable order is required to be able to continue with the next page
+      orderBy.addAll(createKeyOrder(keyset ? keysetPath.subList(orderBy.size(), keysetPath.size())
+          : determineKeyPath()));
+    cq.orderBy(orderBy);
 
     if (!orderByNaviAttributes.isEmpty())
       cq.groupBy(createGroupBy(joinTables, selectionPath));
 
     final TypedQuery<Tuple> tq = em.createQuery(cq);
-    addTopSkip(tq);
+    if (parameters != null)
+      parameters.bind(tq);
+    return tq;
+  }
 
-    final HashMap<String, List<Tuple>> result = new HashMap<>(1);
-    final int resultHandle = debugger.startRuntimeMeasurement(tq, "getResultList");
-    final List<Tuple> intermediateResult = tq.getResultList();
-    debugger.stopRuntimeMeasurement(resultHandle);
-    result.put("root", intermediateResult);
+  /**
+   * Takes the query from the query plan cache, if the cache is active and contains a query for the shape of the
+   * request. Otherwise the query is build and, if possible, put into the cache. Requests continuing with a $skiptoken
+   * are not cached, as the keyset condition depends on the token.
+   */
+  private TypedQuery<Tuple> createQuery(final JPASkipToken skipToken, final boolean paging)
+      throws ODataApplicationException {
 
-    debugger.stopRuntimeMeasurement(handle);
-    return new JPAExpandQueryResult(result, null, jpaEntity);
+    final JPAQueryPlanCache planCache = skipToken == null ? context.getQueryPlanCache() : null;
+    final JPAQueryShape shape = planCache != null ? JPAQueryShape.of(uriResource, context.getModelVersion(), locale,
+        paging) : null;
+    if (shape == null || !shape.isCacheable())
+      return buildQuery(skipToken, paging);
+
+    final JPAQueryPlan plan = planCache.get(shape.getKey(), em.getEntityManagerFactory());
+    final Object[] values = plan != null ? plan.convert(odata, shape.getLiterals()) : null;
+    final TypedQuery<Tuple> cachedQuery = values != null ? planCache.createQuery(plan, em) : null;
+    if (cachedQuery != null) {
+      plan.bind(cachedQuery, values);
+      keysetAlias = plan.getKeysetAlias();
+      withCount = plan.hasCount();
+      return cachedQuery;
+    }
+    parameters = new JPAQueryParameters(cb, shape.getLiterals());
+    final TypedQuery<Tuple> tq = buildQuery(skipToken, paging);
+    if (parameters.isComplete())
+      planCache.put(shape.getKey(), em, tq, parameters, keysetAlias, withCount);
+    return tq;
   }
 
-  @Override
-  public AbstractQuery<?> getQuery() {
-    return cq;
+  /**
+   * Adds the order by and key columns, which are not requested, to the select clause, so their values are available
+   * to create a $skiptoken.
+   * @return Alias of the columns
+   */
+  private List<String> addKeysetSelection(final List<Selection<?>> selections, final List<JPAPath> selectionPath,
+      final List<JPAPath> keysetPath) {
+
+    final List<String> keysetAlias = new ArrayList<>(keysetPath.size());
+    for (final JPAPath path : keysetPath) {
+      if (selectionPath.contains(path))
+        keysetAlias.add(path.getAlias());
+      else {
+        final String alias = SKIPTOKEN_ALIAS + keysetAlias.size();
+        final Path<?> p = ExpressionUtil.convertToCriteriaPath(target, path.getPath());
+        p.alias(alias);
+        selections.add(p);
+        keysetAlias.add(alias);
+      }
+    }
+    return keysetAlias;
+  }
+
+  /**
+   * Restricts the number of rows read to the page size. One row more than requested is read to find out if a further
+   * page exists.
+   * @return Page size
+   */
+  private int addPaging(final TypedQuery<Tuple> tq, final JPASkipToken skipToken) {
+    final long skip = uriResource.getSkipOption() != null ? uriResource.getSkipOption().getValue() : 0;
+    final long top = uriResource.getTopOption() != null ? uriResource.getTopOption().getValue() : Long.MAX_VALUE;
+    final long delivered = skipToken != null ? skipToken.getDelivered() : 0;
+    final long remaining = Math.max(top - delivered, 0);
+
+    if (skipToken != null)
+      // In case of a keyset the skipped rows are excluded by the where condition
+      tq.setFirstResult(skipToken.isKeyset() ? 0 : (int) Math.min(skip + delivered, Integer.MAX_VALUE));
+    if (maxPageSize != null && remaining > maxPageSize) {
+      // Keep room for the additional row, otherwise Integer.MAX_VALUE + 1 overflows
+      final int pageSize = Math.min(maxPageSize, Integer.MAX_VALUE - 1);
+      tq.setMaxResults(pageSize + 1);
+      return pageSize;
+    }
+    if (remaining < Integer.MAX_VALUE)
+      tq.setMaxResults((int) remaining);
+    return Integer.MAX_VALUE;
+  }
+
+  /**
+   * Asks the database processor for a column providing the number of all rows, so $count=true can be answered without
+   * a second query. This is not possible in case of a keyset $skiptoken, as the keyset condition excludes the rows
+   * of previous pages.
+   * @return Count column or null if the count has to be determined by {@link #countResults()}
+   * @throws ODataApplicationException
+   */
+  private javax.persistence.criteria.Expression<Long> createCountOver(final JPASkipToken skipToken)
+      throws ODataApplicationException {
+    if (uriResource.getCountOption() == null || !uriResource.getCountOption().getValue()
+        || (skipToken != null && skipToken.isKeyset()))
+      return null;
+    final javax.persistence.criteria.Expression<Long> countOver = context.getDatabaseProcessor()
+        .createCountOverExpression(cb, cq);
+    if (countOver != null)
+      countOver.alias(COUNT_ALIAS);
+    return countOver;
+  }
+
+  /**
+   * Takes the count from the first row. An empty result only allows to conclude that no row exists at all, if no row
+   * has been skipped.
+   */
+  private Map<JPAJoinKey, Long> determineCount(final List<Tuple> intermediateResult, final JPASkipToken skipToken) {
+    final Map<JPAJoinKey, Long> counts = new HashMap<>(1);
+    if (!intermediateResult.isEmpty())
+      counts.put(ROOT_RESULT_KEY, ((Number) intermediateResult.get(0).get(COUNT_ALIAS)).longValue());
+    else if (skipToken == null && uriResource.getSkipOption() == null)
+      counts.put(ROOT_RESULT_KEY, 0L);
+    return counts;
+  }
+
+  private List<Order> createKeyOrder(final List<JPAPath> keyPath) {
+    final List<Order> orders = new ArrayList<>(keyPath.size());
+    for (final JPAPath path : keyPath)
+      orders.add(cb.asc(ExpressionUtil.convertToCriteriaPath(target, path.getPath())));
+    return orders;
+  }
+
+  /**
+   * Creates the keyset condition, which selects the rows following the last row of the previous page: (a &gt; a1) OR
+   * (a = a1 AND b &gt; b1) ...
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private javax.persistence.criteria.Expression<Boolean> createKeysetWhere(final JPASkipToken skipToken,
+      final boolean keyset, final List<JPAPath> keysetPath, final List<Boolean> keysetDescending)
+      throws ODataJPAQueryException {
+
+    final List<Object> values = skipToken.getValues();
+    if (!keyset || values.size() != keysetPath.size())
+      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_INVALID_VALUE,
+          HttpStatusCode.BAD_REQUEST, determineSkipToken(), "$skiptoken");
+
+    javax.persistence.criteria.Expression<Boolean> followingCondition = null;
+    javax.persistence.criteria.Expression<Boolean> equalBefore = null;
+    for (int i = 0; i < keysetPath.size(); i++) {
+      final Path p = ExpressionUtil.convertToCriteriaPath(target, keysetPath.get(i).getPath());
+      final Comparable value = (Comparable) values.get(i);
+      if (!p.getJavaType().isPrimitive() && !p.getJavaType().isInstance(value))
+        throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_INVALID_VALUE,
+            HttpStatusCode.BAD_REQUEST, determineSkipToken(), "$skiptoken");
+      javax.persistence.criteria.Expression<Boolean> following = keysetDescending.get(i)
+          ? cb.lessThan(p, value) : cb.greaterThan(p, value);
+      if (equalBefore != null)
+        following = cb.and(equalBefore, following);
+      followingCondition = followingCondition == null ? following : cb.or(followingCondition, following);
+      equalBefore = equalBefore == null ? cb.equal(p, value) : cb.and(equalBefore, cb.equal(p, value));
+    }
+    return followingCondition;
+  }
+
+  /**
+   * A keyset can only be used if the requested order is based on not nullable properties of the entity. To get a
+   * unique order the key is added.
+   * @return true if a keyset can be used
+   * @throws ODataJPAQueryException
+   */
+  private boolean determineKeysetOrder(final List<JPAPath> keysetPath, final List<Boolean> keysetDescending)
+      throws ODataJPAQueryException {
+
+    try {
+      final OrderByOption orderBy = uriResource.getOrderByOption();
+      if (orderBy != null) {
+        for (final OrderByItem orderByItem : orderBy.getOrders()) {
+          if (!(orderByItem.getExpression() instanceof Member))
+            return false;
+          final JPAPath path = determineOrderByPath((Member) orderByItem.getExpression());
+          if (path == null || !isKeysetAttribute(path.getLeaf()))
+            return false;
+          keysetPath.add(path);
+          keysetDescending.add(orderByItem.isDescending());
+        }
+      }
+      for (final JPAPath keyPath : jpaEntity.getKeyPath()) {
+        if (!keysetPath.contains(keyPath)) {
+          keysetPath.add(keyPath);
+          keysetDescending.add(Boolean.FALSE);
+        }
+      }
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAQueryException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+    }
+    return true;
+  }
+
+  private String determineSkipToken() {
+    if (startToken != null)
+      return startToken;
+    return uriResource.getSkipTokenOption() != null ? uriResource.getSkipTokenOption().getValue() : null;
+  }
+
+  private List<JPAPath> determineKeyPath() throws ODataJPAQueryException {
+    try {
+      return jpaEntity.getKeyPath();
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAQueryException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  private JPAPath determineOrderByPath(final Member member) throws ODataJPAModelException {
+    final StringBuilder externalPath = new StringBuilder();
+    for (final UriResource uriResourceItem : member.getResourcePath().getUriResourceParts()) {
+      if (uriResourceItem instanceof UriResourcePrimitiveProperty
+          || uriResourceItem instanceof UriResourceComplexProperty) {
+        if (externalPath.length() > 0)
+          externalPath.append(JPAPath.PATH_SEPERATOR);
+        externalPath.append(uriResourceItem.getSegmentValue());
+      } else
+        return null;
+    }
+    return jpaEntity.getPath(externalPath.toString());
+  }
+
+  private boolean isKeysetAttribute(final JPAAttribute attribute) throws ODataJPAModelException {
+    if (attribute.isKey())
+      return true;
+    if (attribute.isComplex() || attribute instanceof JPADescriptionAttribute)
+      return false;
+    final Object property = attribute.getProperty();
+    return property instanceof CsdlProperty && !((CsdlProperty) property).isNullable();
   }
 
   private List<javax.persistence.criteria.Expression<?>> createGroupBy(final Map<String, From<?, ?>> joinTables,
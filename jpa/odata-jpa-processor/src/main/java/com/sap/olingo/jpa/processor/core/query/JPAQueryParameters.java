@@ -0,0 +1,104 @@
+package com.sap.olingo.jpa.processor.core.query;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.Query;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.ParameterExpression;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
+
+/**
+ * Replaces the literals of a request by query parameters, while the query is build for the query plan cache. The
+ * literals to be replaced are determined by {@link JPAQueryShape}. For each parameter the attribute the literal value
+ * was converted for is recorded, so the values of a later request with the same shape can be converted the same way.
+ * <p>
+ * A query can only be cached, if each literal has been replaced exactly once. This is not the case, if a literal
+ * ended up in a sub-query, which is build without parameters.
+ * @author Oliver Grande
+ *
+ */
+public final class JPAQueryParameters {
+  private static final String NAME_PREFIX = "p";
+  private final CriteriaBuilder cb;
+  private final Map<Object, Integer> slots;
+  private final JPAAttribute[] attributes;
+  private final Class<?>[] types;
+  private final Object[] values;
+  private boolean unique;
+
+  JPAQueryParameters(final CriteriaBuilder cb, final List<Object> literals) {
+    super();
+    this.cb = cb;
+    this.slots = new IdentityHashMap<>(literals.size());
+    for (int i = 0; i < literals.size(); i++)
+      slots.put(literals.get(i), i);
+    this.attributes = new JPAAttribute[literals.size()];
+    this.types = new Class<?>[literals.size()];
+    this.values = new Object[literals.size()];
+    this.unique = true;
+  }
+
+  static String determineName(final int slot) {
+    return NAME_PREFIX + slot;
+  }
+
+  /**
+   * Creates a parameter for a literal of the request.
+   * @param literal {@link org.apache.olingo.server.api.uri.queryoption.expression.Literal} of the $filter or
+   * {@link org.apache.olingo.server.api.uri.UriParameter} of the resource path
+   * @param attribute Attribute the value was converted for or null if it was converted based on the type of the
+   * literal
+   * @param value Converted value of the literal
+   * @return Parameter or null if the literal shall be used as value
+   */
+  @SuppressWarnings("unchecked")
+  public <T> ParameterExpression<T> createParameter(final Object literal, final JPAAttribute attribute,
+      final T value) {
+    final Integer slot = slots.get(literal);
+    if (slot == null || value == null)
+      return null;
+    if (types[slot] != null) {
+      unique = false;
+      return null;
+    }
+    attributes[slot] = attribute;
+    types[slot] = value.getClass();
+    values[slot] = value;
+    return cb.parameter((Class<T>) value.getClass(), determineName(slot));
+  }
+
+  /**
+   * Binds the values of the parameters created so far.
+   */
+  void bind(final Query query) {
+    for (int i = 0; i < values.length; i++) {
+      if (types[i] != null)
+        query.setParameter(determineName(i), values[i]);
+    }
+  }
+
+  List<JPAAttribute> getAttributes() {
+    return Arrays.asList(attributes);
+  }
+
+  List<Class<?>> getTypes() {
+    return Arrays.asList(types);
+  }
+
+  /**
+   * @return True if each literal has been replaced exactly once
+   */
+  boolean isComplete() {
+    if (!unique)
+      return false;
+    for (final Class<?> type : types) {
+      if (type == null)
+        return false;
+    }
+    return true;
+  }
+}
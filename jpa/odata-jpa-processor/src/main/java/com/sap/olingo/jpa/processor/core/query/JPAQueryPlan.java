@@ -0,0 +1,98 @@
+package com.sap.olingo.jpa.processor.core.query;
+
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.UriParameter;
+import org.apache.olingo.server.api.uri.queryoption.expression.Literal;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAttribute;
+import com.sap.olingo.jpa.processor.core.filter.JPALiteralOperator;
+
+/**
+ * A prepared query of the {@link JPAQueryPlanCache}. The query itself is registered as named query at the entity
+ * manager factory. The plan describes how the literals of a request are converted into the values of the parameters
+ * and provides the information needed to process the result.
+ * @author Oliver Grande
+ *
+ */
+final class JPAQueryPlan {
+  private final String key;
+  private final String name;
+  private final EntityManagerFactory emf;
+  private final List<JPAAttribute> attributes;
+  private final List<Class<?>> types;
+  private final List<String> keysetAlias;
+  private final boolean count;
+
+  JPAQueryPlan(final String key, final String name, final EntityManagerFactory emf,
+      final JPAQueryParameters parameters, final List<String> keysetAlias, final boolean count) {
+    super();
+    this.key = key;
+    this.name = name;
+    this.emf = emf;
+    this.attributes = parameters.getAttributes();
+    this.types = parameters.getTypes();
+    this.keysetAlias = keysetAlias;
+    this.count = count;
+  }
+
+  /**
+   * Binds the values to the parameters of a query created from this plan.
+   */
+  void bind(final Query query, final Object[] values) {
+    for (int i = 0; i < values.length; i++)
+      query.setParameter(JPAQueryParameters.determineName(i), values[i]);
+  }
+
+  /**
+   * Converts the literals of a request the same way the literals of the request were converted the plan was build
+   * for.
+   * @param odata
+   * @param literals Literals of the request as determined by {@link JPAQueryShape}
+   * @return Values of the parameters or null if a value does not fit to its parameter
+   * @throws ODataApplicationException
+   */
+  Object[] convert(final OData odata, final List<Object> literals) throws ODataApplicationException {
+    final Object[] values = new Object[literals.size()];
+    for (int i = 0; i < values.length; i++) {
+      final Object literal = literals.get(i);
+      final String text = literal instanceof UriParameter ? ((UriParameter) literal).getText()
+          : ((Literal) literal).getText();
+      if (attributes.get(i) != null)
+        values[i] = ExpressionUtil.convertValueOnAttribute(odata, attributes.get(i), text);
+      else
+        values[i] = new JPALiteralOperator(odata, (Literal) literal).get();
+      if (!types.get(i).isInstance(values[i]))
+        return null;
+    }
+    return values;
+  }
+
+  EntityManagerFactory getEntityManagerFactory() {
+    return emf;
+  }
+
+  String getKey() {
+    return key;
+  }
+
+  List<String> getKeysetAlias() {
+    return keysetAlias;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  /**
+   * @return True if the query provides the number of all rows
+   */
+  boolean hasCount() {
+    return count;
+  }
+}
@@ -0,0 +1,131 @@
+package com.sap.olingo.jpa.processor.core.query;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+
+/**
+ * Cache of prepared queries. Read requests that only differ in their literals, see {@link JPAQueryShape}, share one
+ * query. The query is created once from the criteria query, with parameters instead of the literals, and registered
+ * as named query at the entity manager factory. Later requests with the same shape create their query from the named
+ * query and only bind the values of their literals. This saves building the criteria query and the translation into
+ * SQL by the JPA provider.<p>
+ * The cache is bounded and evicts the least recently used query. The name of an evicted query is reused for the next
+ * one, so at most as many named queries get registered as the cache can hold. It is shared by all requests of a
+ * service, so access is synchronized.
+ * @author Oliver Grande
+ *
+ */
+public final class JPAQueryPlanCache {
+  private static final String NAME_PREFIX = "com.sap.olingo.jpa.QueryPlan.";
+  private static final AtomicInteger INSTANCES = new AtomicInteger();
+  private final String namePrefix;
+  private final int maxSize;
+  private final LinkedHashMap<String, JPAQueryPlan> plans;
+  private final Deque<String> freeNames;
+  private int names;
+  private long hits;
+  private long misses;
+
+  /**
+   * @param maxSize Maximum number of cached queries
+   */
+  public JPAQueryPlanCache(final int maxSize) {
+    super();
+    this.namePrefix = NAME_PREFIX + INSTANCES.incrementAndGet() + ".";
+    this.maxSize = maxSize;
+    this.plans = new LinkedHashMap<>(16, 0.75f, true);
+    this.freeNames = new ArrayDeque<>();
+  }
+
+  /**
+   * Removes all queries, e.g. after the metadata have been changed. The counters are not reset.
+   */
+  public synchronized void clear() {
+    for (final JPAQueryPlan plan : plans.values())
+      freeNames.push(plan.getName());
+    plans.clear();
+  }
+
+  /**
+   * @return Number of requests that could use a cached query
+   */
+  public synchronized long getHitCount() {
+    return hits;
+  }
+
+  /**
+   * @return Number of requests for which the query had to be build
+   */
+  public synchronized long getMissCount() {
+    return misses;
+  }
+
+  public synchronized int size() {
+    return plans.size();
+  }
+
+  /**
+   * Creates a query from a plan. The plan may have been evicted since it was found, so the query is created under
+   * the lock of the cache.
+   * @return Query or null if the plan is not cached any longer
+   */
+  synchronized TypedQuery<Tuple> createQuery(final JPAQueryPlan plan, final EntityManager em) {
+    if (plans.get(plan.getKey()) != plan)
+      return null;
+    return em.createNamedQuery(plan.getName(), Tuple.class);
+  }
+
+  /**
+   * Looks up the plan of a shape and counts the hit or miss.
+   * @param key Key of the shape
+   * @param emf Factory of the entity manager the query shall be executed with
+   * @return Plan or null if no plan for the shape has been prepared at the factory
+   */
+  synchronized JPAQueryPlan get(final String key, final EntityManagerFactory emf) {
+    final JPAQueryPlan plan = plans.get(key);
+    if (plan != null && plan.getEntityManagerFactory() == emf) {
+      hits++;
+      return plan;
+    }
+    misses++;
+    return null;
+  }
+
+  /**
+   * Registers a query as named query and caches its plan. This has to be done before the query gets restricted by
+   * $top or $skip, as the named query keeps these settings.
+   * @param key Key of the shape
+   * @param em Entity manager the query was created with
+   * @param query Query with parameters
+   * @param parameters Parameters of the query
+   * @param keysetAlias Alias of the columns providing the values of a keyset $skiptoken
+   * @param count True if the query provides the number of all rows
+   */
+  synchronized void put(final String key, final EntityManager em, final TypedQuery<Tuple> query,
+      final JPAQueryParameters parameters, final List<String> keysetAlias, final boolean count) {
+
+    final JPAQueryPlan previous = plans.remove(key);
+    final String name;
+    if (previous != null)
+      name = previous.getName();
+    else if (!plans.isEmpty() && plans.size() >= maxSize) {
+      final Iterator<JPAQueryPlan> eldest = plans.values().iterator();
+      name = eldest.next().getName();
+      eldest.remove();
+    } else if (!freeNames.isEmpty())
+      name = freeNames.pop();
+    else
+      name = namePrefix + names++;
+    em.getEntityManagerFactory().addNamedQuery(name, query);
+    plans.put(key, new JPAQueryPlan(key, name, em.getEntityManagerFactory(), parameters, keysetAlias, count));
+  }
+}
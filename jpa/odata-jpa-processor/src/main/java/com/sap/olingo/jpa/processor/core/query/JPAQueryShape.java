@@ -0,0 +1,292 @@
+package com.sap.olingo.jpa.processor.core.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.UriParameter;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceEntitySet;
+import org.apache.olingo.server.api.uri.UriResourceFunction;
+import org.apache.olingo.server.api.uri.UriResourceLambdaAll;
+import org.apache.olingo.server.api.uri.UriResourceLambdaAny;
+import org.apache.olingo.server.api.uri.UriResourceNavigation;
+import org.apache.olingo.server.api.uri.UriResourcePartTyped;
+import org.apache.olingo.server.api.uri.queryoption.ExpandItem;
+import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
+import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.SelectItem;
+import org.apache.olingo.server.api.uri.queryoption.SelectOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.Binary;
+import org.apache.olingo.server.api.uri.queryoption.expression.BinaryOperatorKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.Enumeration;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.api.uri.queryoption.expression.LambdaRef;
+import org.apache.olingo.server.api.uri.queryoption.expression.Literal;
+import org.apache.olingo.server.api.uri.queryoption.expression.Member;
+import org.apache.olingo.server.api.uri.queryoption.expression.Method;
+import org.apache.olingo.server.api.uri.queryoption.expression.TypeLiteral;
+import org.apache.olingo.server.api.uri.queryoption.expression.Unary;
+
+/**
+ * The <i>shape</i> of a read request is the request without the literals, which are replaced by query parameters.
+ * Requests like <code>Organizations('1')/Roles?$filter=RoleCategory eq 'A'</code> and
+ * <code>Organizations('2')/Roles?$filter=RoleCategory eq 'C'</code> have the same shape, so they can share one
+ * prepared query.<p>
+ * Parameters are used for the key values of the resource path and for literals that are compared directly with an
+ * operand, which is not a literal, by eq, ne, gt, ge, lt or le. All other literals, e.g. the ones of a method call,
+ * stay part of the shape. The parameters are collected in the order they appear in the request, so two requests of
+ * the same shape provide their values in the same order.
+ * @author Oliver Grande
+ *
+ */
+final class JPAQueryShape {
+  private static final String SEPERATOR = "|";
+  private final StringBuilder key;
+  private final List<Object> literals;
+  private boolean cacheable;
+
+  private JPAQueryShape() {
+    super();
+    this.key = new StringBuilder();
+    this.literals = new ArrayList<>();
+    this.cacheable = true;
+  }
+
+  /**
+   * @param uriResource Request
+   * @param modelVersion Version of the metadata model the request is processed with
+   * @param locale Locale used to read descriptions
+   * @param paging True if the query has to provide the data for server-driven paging
+   */
+  static JPAQueryShape of(final UriInfoResource uriResource, final long modelVersion, final Locale locale,
+      final boolean paging) {
+    final JPAQueryShape shape = new JPAQueryShape();
+    shape.key.append(modelVersion).append(SEPERATOR).append(locale).append(SEPERATOR).append(paging);
+    shape.key.append(SEPERATOR);
+    shape.appendResourcePath(uriResource.getUriResourceParts());
+    shape.key.append(SEPERATOR);
+    shape.appendSelect(uriResource.getSelectOption());
+    shape.key.append(SEPERATOR);
+    shape.appendExpand(uriResource.getExpandOption());
+    shape.key.append(SEPERATOR);
+    shape.appendOrderBy(uriResource.getOrderByOption());
+    shape.key.append(SEPERATOR);
+    if (uriResource.getFilterOption() != null)
+      shape.appendExpression(uriResource.getFilterOption().getExpression(), true);
+    shape.key.append(SEPERATOR);
+    shape.key.append(uriResource.getCountOption() != null && uriResource.getCountOption().getValue());
+    if (uriResource.getSearchOption() != null)
+      shape.cacheable = false;
+    return shape;
+  }
+
+  String getKey() {
+    return key.toString();
+  }
+
+  /**
+   * @return The literals replaced by parameters. These are {@link Literal}s of the $filter or {@link UriParameter}s of
+   * the resource path
+   */
+  List<Object> getLiterals() {
+    return Collections.unmodifiableList(literals);
+  }
+
+  /**
+   * @return False if the request contains parts that are not supported by the cache, like $search
+   */
+  boolean isCacheable() {
+    return cacheable;
+  }
+
+  private void appendExpand(final ExpandOption expand) {
+    if (expand != null) {
+      for (final ExpandItem item : expand.getExpandItems()) {
+        if (item.isStar())
+          key.append('*');
+        else if (item.getResourcePath() != null)
+          appendMemberPath(item.getResourcePath().getUriResourceParts());
+        if (item.getLevelsOption() != null)
+          key.append("($levels=").append(item.getLevelsOption().isMax() ? "max"
+              : Integer.toString(item.getLevelsOption().getValue())).append(')');
+        key.append(',');
+      }
+    }
+  }
+
+  private void appendExpression(final Expression expression, final boolean parameterAllowed) {
+    if (expression instanceof Binary) {
+      final Binary binary = (Binary) expression;
+      final boolean comparison = isComparison(binary.getOperator());
+      key.append('(');
+      appendOperand(binary.getLeftOperand(), parameterAllowed && comparison && isParameter(binary.getLeftOperand(),
+          binary.getRightOperand()));
+      key.append(' ').append(binary.getOperator()).append(' ');
+      appendOperand(binary.getRightOperand(), parameterAllowed && comparison && isParameter(binary
+          .getRightOperand(), binary.getLeftOperand()));
+      key.append(')');
+    } else if (expression instanceof Unary) {
+      key.append(((Unary) expression).getOperator()).append('(');
+      appendExpression(((Unary) expression).getOperand(), parameterAllowed);
+      key.append(')');
+    } else if (expression instanceof Method) {
+      key.append(((Method) expression).getMethod()).append('(');
+      for (final Expression parameter : ((Method) expression).getParameters()) {
+        appendExpression(parameter, parameterAllowed);
+        key.append(',');
+      }
+      key.append(')');
+    } else if (expression instanceof Literal) {
+      key.append(((Literal) expression).getText());
+    } else if (expression instanceof Member) {
+      if (((Member) expression).getStartTypeFilter() != null)
+        key.append(((Member) expression).getStartTypeFilter().getFullQualifiedName()
+            .getFullQualifiedNameAsString()).append('/');
+      appendMemberPath(((Member) expression).getResourcePath().getUriResourceParts());
+    } else if (expression instanceof Enumeration) {
+      key.append(((Enumeration) expression).getType().getFullQualifiedName().getFullQualifiedNameAsString())
+          .append(((Enumeration) expression).getValues());
+    } else if (expression instanceof TypeLiteral) {
+      key.append(((TypeLiteral) expression).getType().getFullQualifiedName().getFullQualifiedNameAsString());
+    } else if (expression instanceof LambdaRef) {
+      key.append(((LambdaRef) expression).getVariableName());
+    } else
+      // E.g. an alias, whose value is not part of the expression
+      cacheable = false;
+  }
+
+  /**
+   * The parameters of a function are passed to the database function, so their literals are kept.
+   */
+  private void appendFunctionParameters(final List<UriParameter> functionParameters) {
+    key.append('(');
+    for (final UriParameter parameter : functionParameters) {
+      key.append(parameter.getName()).append('=');
+      if (parameter.getExpression() != null)
+        appendExpression(parameter.getExpression(), false);
+      else if (parameter.getText() != null)
+        key.append(parameter.getText());
+      else
+        cacheable = false;
+      key.append(',');
+    }
+    key.append(')');
+  }
+
+  /**
+   * Lambda expressions are converted into sub-queries, so their literals are kept.
+   */
+  private void appendMemberPath(final List<UriResource> resourceParts) {
+    for (final UriResource part : resourceParts) {
+      key.append('/');
+      if (part instanceof UriResourceLambdaAny) {
+        key.append("any(").append(((UriResourceLambdaAny) part).getLambdaVariable()).append(':');
+        appendExpression(((UriResourceLambdaAny) part).getExpression(), false);
+        key.append(')');
+      } else if (part instanceof UriResourceLambdaAll) {
+        key.append("all(").append(((UriResourceLambdaAll) part).getLambdaVariable()).append(':');
+        appendExpression(((UriResourceLambdaAll) part).getExpression(), false);
+        key.append(')');
+      } else if (part instanceof UriResourcePartTyped) {
+        key.append(((UriResourcePartTyped) part).getSegmentValue(true));
+        if (part instanceof UriResourceFunction)
+          appendFunctionParameters(((UriResourceFunction) part).getParameters());
+        if (part instanceof UriResourceNavigation && !((UriResourceNavigation) part).getKeyPredicates().isEmpty())
+          cacheable = false;
+      } else
+        key.append(part.getSegmentValue());
+    }
+  }
+
+  private void appendOperand(final Expression operand, final boolean parameter) {
+    if (parameter) {
+      key.append("?").append(((EdmPrimitiveType) ((Literal) operand).getType()).getFullQualifiedName()
+          .getFullQualifiedNameAsString());
+      literals.add(operand);
+    } else
+      appendExpression(operand, true);
+  }
+
+  private void appendOrderBy(final OrderByOption orderBy) {
+    if (orderBy != null) {
+      for (final OrderByItem item : orderBy.getOrders()) {
+        appendExpression(item.getExpression(), false);
+        key.append(item.isDescending() ? " desc" : " asc").append(',');
+      }
+    }
+  }
+
+  private void appendKeyPredicates(final List<UriParameter> keyPredicates) {
+    if (!keyPredicates.isEmpty()) {
+      key.append('(');
+      for (final UriParameter keyPredicate : keyPredicates) {
+        if (keyPredicate.getText() == null)
+          cacheable = false;
+        key.append(keyPredicate.getName()).append("=?,");
+        literals.add(keyPredicate);
+      }
+      key.append(')');
+    }
+  }
+
+  private void appendResourcePath(final List<UriResource> resourceParts) {
+    for (final UriResource part : resourceParts) {
+      key.append('/');
+      if (part instanceof UriResourcePartTyped)
+        key.append(((UriResourcePartTyped) part).getSegmentValue(true));
+      else
+        key.append(part.getSegmentValue());
+      if (part instanceof UriResourceEntitySet)
+        appendKeyPredicates(((UriResourceEntitySet) part).getKeyPredicates());
+      else if (part instanceof UriResourceNavigation)
+        appendKeyPredicates(((UriResourceNavigation) part).getKeyPredicates());
+    }
+  }
+
+  private void appendSelect(final SelectOption select) {
+    if (select != null) {
+      for (final SelectItem item : select.getSelectItems()) {
+        if (item.isStar())
+          key.append('*');
+        else if (item.isAllOperationsInSchema())
+          key.append(item.getAllOperationsInSchemaNameSpace()).append(".*");
+        else if (item.getResourcePath() != null)
+          appendMemberPath(item.getResourcePath().getUriResourceParts());
+        key.append(',');
+      }
+    }
+  }
+
+  private boolean isComparison(final BinaryOperatorKind operator) {
+    return operator == BinaryOperatorKind.EQ
+        || operator == BinaryOperatorKind.NE
+        || operator == BinaryOperatorKind.GE
+        || operator == BinaryOperatorKind.GT
+        || operator == BinaryOperatorKind.LT
+        || operator == BinaryOperatorKind.LE;
+  }
+
+  /**
+   * A literal becomes a parameter, if it is compared with an operand of the same query. Comparisons with members
+   * containing a navigation are converted into sub-queries.
+   */
+  private boolean isParameter(final Expression operand, final Expression otherOperand) {
+    if (!(operand instanceof Literal)
+        || !(((Literal) operand).getType() instanceof EdmPrimitiveType)
+        || "null".equals(((Literal) operand).getText())
+        || otherOperand instanceof Literal)
+      return false;
+    if (otherOperand instanceof Member) {
+      for (final UriResource part : ((Member) otherOperand).getResourcePath().getUriResourceParts()) {
+        if (part instanceof UriResourceNavigation)
+          return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,158 @@
+package com.sap.olingo.jpa.processor.core.query;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+
+import com.sap.olingo.jpa.processor.core.exception.ODataJPAQueryException;
+
+/**
+ * Opaque $skiptoken used for server-driven paging. See
+ * <a href=
+ * "http://docs.oasis-open.org/odata/odata/v4.0/errata03/os/complete/part1-protocol/odata-v4.0-errata03-os-part1-protocol-complete.html#_Toc453752288"
+ * >OData Version 4.0 Part 1 - 11.2.5.7 Server-Driven Paging</a><p>
+ * The token contains the number of entities already delivered, which is needed to respect a $top, and the order by and
+ * key values of the last entity of the page. The later are used to create a keyset condition, so the next page can be
+ * read without skipping all the rows read before. In case a value can not be put into the token, the token contains no
+ * values and the next page is read via an offset.<p>
+ * The token is encoded as Base64 URL, so it can be used without escaping.
+ * @author Oliver Grande
+ *
+ */
+final class JPASkipToken {
+  private static final int MAX_VALUES = 255;
+  private static final int MAX_STRING_LENGTH = 8192;
+  private static final Map<Class<?>, Character> TYPE_CODES = new HashMap<>();
+  private static final Map<Character, Function<String, Object>> PARSER = new HashMap<>();
+
+  static {
+    register(String.class, 'S', s -> s);
+    register(Character.class, 'c', s -> s.charAt(0));
+    register(Boolean.class, 'Z', Boolean::valueOf);
+    register(Byte.class, 'B', Byte::valueOf);
+    register(Short.class, 'H', Short::valueOf);
+    register(Integer.class, 'I', Integer::valueOf);
+    register(Long.class, 'J', Long::valueOf);
+    register(Float.class, 'F', Float::valueOf);
+    register(Double.class, 'D', Double::valueOf);
+    register(BigInteger.class, 'N', BigInteger::new);
+    register(BigDecimal.class, 'M', BigDecimal::new);
+    register(java.sql.Date.class, 'd', java.sql.Date::valueOf);
+    register(Time.class, 'T', Time::valueOf);
+    register(Timestamp.class, 't', Timestamp::valueOf);
+    register(LocalDate.class, 'l', LocalDate::parse);
+    register(LocalTime.class, 'm', LocalTime::parse);
+    register(LocalDateTime.class, 'n', LocalDateTime::parse);
+    register(UUID.class, 'U', UUID::fromString);
+    TYPE_CODES.put(Date.class, 'j');
+    PARSER.put('j', s -> new Date(Long.parseLong(s)));
+  }
+
+  private final int delivered;
+  private final List<Object> values;
+
+  JPASkipToken(final int delivered, final List<Object> values) {
+    super();
+    this.delivered = delivered;
+    this.values = values == null ? Collections.emptyList() : values;
+  }
+
+  /**
+   * Creates a token. If one of the values can not be put into the token, an offset based token is created.
+   * @param delivered Number of entities delivered including the current page
+   * @param values Order by and key values of the last entity of the current page
+   * @return
+   */
+  static JPASkipToken create(final int delivered, final List<Object> values) {
+    if (values.size() > MAX_VALUES)
+      return new JPASkipToken(delivered, null);
+    for (final Object value : values) {
+      if (value == null || !TYPE_CODES.containsKey(value.getClass())
+          || value.toString().length() > MAX_STRING_LENGTH)
+        return new JPASkipToken(delivered, null);
+    }
+    return new JPASkipToken(delivered, values);
+  }
+
+  static JPASkipToken parse(final String token) throws ODataJPAQueryException {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+      final int delivered = in.readInt();
+      final int noValues = in.readUnsignedByte();
+      final List<Object> values = new ArrayList<>(noValues);
+      for (int i = 0; i < noValues; i++) {
+        final Function<String, Object> parser = PARSER.get(in.readChar());
+        if (parser == null)
+          throw new IllegalArgumentException();
+        values.add(parser.apply(in.readUTF()));
+      }
+      if (delivered < 0 || in.available() > 0)
+        throw new IllegalArgumentException();
+      return new JPASkipToken(delivered, values);
+    } catch (IOException | IllegalArgumentException | IndexOutOfBoundsException | DateTimeException e) {
+      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_INVALID_VALUE,
+          HttpStatusCode.BAD_REQUEST, e, token, "$skiptoken");
+    }
+  }
+
+  private static void register(final Class<?> type, final char code, final Function<String, Object> parser) {
+    TYPE_CODES.put(type, code);
+    PARSER.put(code, parser);
+  }
+
+  /**
+   * @return Number of entities delivered by the previous pages
+   */
+  int getDelivered() {
+    return delivered;
+  }
+
+  /**
+   * @return Order by and key values of the last entity of the previous page. If empty, the next page has to be
+   * determined via an offset
+   */
+  List<Object> getValues() {
+    return values;
+  }
+
+  boolean isKeyset() {
+    return !values.isEmpty();
+  }
+
+  String asString() throws ODataJPAQueryException {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(buffer)) {
+      out.writeInt(delivered);
+      out.writeByte(values.size());
+      for (final Object value : values) {
+        final Character code = TYPE_CODES.get(value.getClass());
+        out.writeChar(code);
+        out.writeUTF(code == 'j' ? Long.toString(((Date) value).getTime()) : value.toString());
+      }
+    } catch (IOException e) {
+      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_ERROR,
+          HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.toByteArray());
+  }
+}
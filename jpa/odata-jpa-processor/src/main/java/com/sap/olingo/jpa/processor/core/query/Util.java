@@ -41,6 +41,13 @@ public final class Util {
 
   public static final String VALUE_RESOURCE = "$VALUE";
 
+  /**
+   * @return Kind of the last resource of a request, e.g. entitySet or count. Used to tag metrics.
+   */
+  public static String determineRequestKind(final List<UriResource> resources) {
+    return resources.get(resources.size() - 1).getKind().name();
+  }
+
   public static EdmEntitySet determineTargetEntitySet(final List<UriResource> resources) {
     return determineTargetEntitySetAndKeys(resources).getEdmEntitySet();
   }
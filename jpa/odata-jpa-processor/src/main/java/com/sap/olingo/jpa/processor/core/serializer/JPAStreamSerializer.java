@@ -0,0 +1,17 @@
+package com.sap.olingo.jpa.processor.core.serializer;
+
+import org.apache.olingo.commons.api.data.EntityIterator;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.serializer.SerializerStreamResult;
+
+/**
+ * Serializer that is able to write entities while they are read. The entities are taken from the iterator not before
+ * the response content is written.
+ * @author Oliver Grande
+ *
+ */
+public interface JPAStreamSerializer extends JPASerializer {
+  public SerializerStreamResult serialize(final ODataRequest request, final EntityIterator result)
+      throws SerializerException;
+}
@@ -4,29 +4,43 @@ import static org.junit.Assert.fail;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import javax.sql.DataSource;
 
 import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.commons.api.ex.ODataException;
 import org.apache.olingo.server.api.debug.DebugSupport;
 
 import com.sap.olingo.jpa.metadata.api.JPAEdmProvider;
-import com.sap.olingo.jpa.processor.core.database.JPADefaultDatabaseProcessor;
 import com.sap.olingo.jpa.processor.core.database.JPAODataDatabaseOperations;
 import com.sap.olingo.jpa.processor.core.database.JPAODataDatabaseProcessorFactory;
+import com.sap.olingo.jpa.processor.core.query.JPAQueryPlanCache;
 
+/**
+ * Session context of a test that takes the metadata from the given edm provider. All other settings are taken from a
+ * service context, which a test can configure via {@link #getServiceContext()} the same way a service does it. The
+ * queries executed are recorded by the debugger.
+ */
 public class JPAODataContextAccessDouble implements JPAODataSessionContextAccess {
+  private static final String PUNIT_NAME = "com.sap.olingo.jpa";
   private final JPAEdmProvider edmProvider;
-  private final DataSource ds;
-  private final JPAODataDatabaseOperations context;
+  private final JPAODataContextImpl serviceContext;
   private final String[] packageNames;
+  private final JPAServiceDebugger debugger = new JPACoreDeugger();
 
   public JPAODataContextAccessDouble(final JPAEdmProvider edmProvider, final DataSource ds, final String... packages) {
     super();
     this.edmProvider = edmProvider;
-    this.ds = ds;
-    this.context = new JPADefaultDatabaseProcessor();
     this.packageNames = packages;
+    this.serviceContext = createServiceContext(ds);
+  }
+
+  /**
+   * Gives access to the settings of the context.
+   */
+  public JPAODataGetContext getServiceContext() {
+    return serviceContext;
   }
 
   @Override
@@ -43,7 +57,7 @@ public class JPAODataContextAccessDouble implements JPAODataSessionContextAccess
 
   @Override
   public JPAODataDatabaseOperations getOperationConverter() {
-    return context;
+    return serviceContext.getOperationConverter();
   }
 
   @Override
@@ -51,19 +65,19 @@ public class JPAODataContextAccessDouble implements JPAODataSessionContextAccess
     return edmProvider;
   }
 
+  @Override
+  public long getModelVersion() {
+    return 1;
+  }
+
   @Override
   public JPAODataDatabaseProcessor getDatabaseProcessor() {
-    try {
-      return new JPAODataDatabaseProcessorFactory().create(ds);
-    } catch (SQLException e) {
-      fail();
-    }
-    return null;
+    return serviceContext.getDatabaseProcessor();
   }
 
   @Override
   public JPAServiceDebugger getDebugger() {
-    return new JPAEmptyDebugger();
+    return debugger;
   }
 
   @Override
@@ -77,4 +91,50 @@ public class JPAODataContextAccessDouble implements JPAODataSessionContextAccess
     return packageNames;
   }
 
+  @Override
+  public Integer getMaxPageSize(final String entitySetName) {
+    return serviceContext.getMaxPageSize(entitySetName);
+  }
+
+  @Override
+  public JPAODataMetrics getMetrics() {
+    return serviceContext.getMetrics();
+  }
+
+  @Override
+  public Integer getStreamingFetchSize() {
+    return serviceContext.getStreamingFetchSize();
+  }
+
+  @Override
+  public Executor getExpandExecutor() {
+    return serviceContext.getExpandExecutor();
+  }
+
+  @Override
+  public Integer getExpandInListChunkSize() {
+    return serviceContext.getExpandInListChunkSize();
+  }
+
+  @Override
+  public JPAODataResponseCache getResponseCache() {
+    return serviceContext.getResponseCache();
+  }
+
+  @Override
+  public JPAQueryPlanCache getQueryPlanCache() {
+    return serviceContext.getQueryPlanCache();
+  }
+
+  private static JPAODataContextImpl createServiceContext(final DataSource ds) {
+    try {
+      final JPAODataContextImpl serviceContext = (JPAODataContextImpl) new JPAODataGetHandler(PUNIT_NAME)
+          .getJPAODataContext();
+      serviceContext.setDatabaseProcessor(new JPAODataDatabaseProcessorFactory().create(ds));
+      return serviceContext;
+    } catch (ODataException | SQLException e) {
+      fail();
+    }
+    return null;
+  }
 }
@@ -0,0 +1,102 @@
+package com.sap.olingo.jpa.processor.core.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sap.olingo.jpa.processor.core.api.JPADefaultMetrics.Histogram;
+import com.sap.olingo.jpa.processor.core.api.JPAODataMetrics.Phase;
+
+public class TestJPADefaultMetrics {
+  private JPADefaultMetrics cut;
+
+  @Before
+  public void setup() {
+    cut = new JPADefaultMetrics();
+  }
+
+  @Test
+  public void checkBucketOfDuration() {
+    assertEquals(0, Histogram.determineBucket(500));
+    assertEquals(1, Histogram.determineBucket(TimeUnit.MICROSECONDS.toNanos(1)));
+    assertEquals(2, Histogram.determineBucket(TimeUnit.MICROSECONDS.toNanos(3)));
+    assertEquals(10, Histogram.determineBucket(TimeUnit.MILLISECONDS.toNanos(1)));
+    assertEquals(JPADefaultMetrics.BUCKETS - 1, Histogram.determineBucket(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void checkDurationsCountedPerPhaseKindAndEntitySet() {
+    cut.recordDuration(Phase.DB_EXECUTE, "entitySet", "Organizations", 1000);
+    cut.recordDuration(Phase.DB_EXECUTE, "entitySet", "Organizations", 2000);
+    cut.recordDuration(Phase.CONVERT, "entitySet", "Organizations", 2000);
+    cut.recordDuration(Phase.DB_EXECUTE, "count", "Organizations", 2000);
+
+    assertEquals(2, cut.getCount(Phase.DB_EXECUTE, "entitySet", "Organizations"));
+    assertEquals(1, cut.getCount(Phase.CONVERT, "entitySet", "Organizations"));
+    assertEquals(1, cut.getCount(Phase.DB_EXECUTE, "count", "Organizations"));
+    assertEquals(0, cut.getCount(Phase.SERIALIZE, "entitySet", "Organizations"));
+    assertEquals(0, cut.getCount(Phase.DB_EXECUTE, "entitySet", "Persons"));
+  }
+
+  @Test
+  public void checkResultSizeSummedUp() {
+    cut.recordResultSize("entitySet", "Organizations", 10, 10);
+    cut.recordResultSize("entitySet", "Organizations", 12, 3);
+
+    assertEquals(22, cut.getRows("entitySet", "Organizations"));
+    assertEquals(13, cut.getEntities("entitySet", "Organizations"));
+  }
+
+  @Test
+  public void checkResetRemovesMetrics() {
+    cut.recordResultSize("entitySet", "Organizations", 10, 10);
+    cut.reset();
+
+    assertEquals(0, cut.getRows("entitySet", "Organizations"));
+  }
+
+  @Test
+  public void checkJsonContainsSeriesAndNonEmptyBuckets() {
+    cut.recordDuration(Phase.DB_EXECUTE, "entitySet", "Organizations", TimeUnit.MICROSECONDS.toNanos(3));
+    cut.recordResultSize("entitySet", "Organizations", 10, 10);
+
+    assertEquals("{\"metrics\":[{\"requestKind\":\"entitySet\",\"entitySet\":\"Organizations\",\"results\":1,"
+        + "\"rows\":10,\"entities\":10,\"phases\":{\"DB_EXECUTE\":{\"count\":1,\"sumMicros\":3,\"maxMicros\":3,"
+        + "\"buckets\":{\"4\":1}}}}]}", cut.toJson());
+  }
+
+  @Test
+  public void checkJsonEscapesNames() {
+    cut.recordResultSize("entitySet", "A\"B", 1, 1);
+
+    assertTrue(cut.toJson().contains("\"entitySet\":\"A\\\"B\""));
+  }
+
+  @Test
+  public void checkParallelRecordsCounted() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(executor.submit(() -> {
+          for (int j = 0; j < 10000; j++)
+            cut.recordDuration(Phase.SERIALIZE, "entitySet", "Organizations", j);
+        }));
+      }
+      for (final Future<?> result : results)
+        result.get();
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(80000, cut.getCount(Phase.SERIALIZE, "entitySet", "Organizations"));
+  }
+}
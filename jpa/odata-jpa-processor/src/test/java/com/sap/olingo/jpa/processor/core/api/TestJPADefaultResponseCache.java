@@ -0,0 +1,154 @@
+package com.sap.olingo.jpa.processor.core.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.olingo.commons.api.ex.ODataException;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sap.olingo.jpa.processor.core.util.IntegrationTestHelper;
+import com.sap.olingo.jpa.processor.core.util.TestBase;
+
+public class TestJPADefaultResponseCache extends TestBase {
+  private JPADefaultResponseCache cut;
+
+  @Before
+  public void setup() {
+    cut = new JPADefaultResponseCache(10);
+  }
+
+  @Test
+  public void testGetReturnsStoredResponse() {
+    cut.put("A", Arrays.asList("Countries"), createResponse(4));
+
+    assertNotNull(cut.get("A"));
+    assertNull(cut.get("B"));
+    assertEquals(1, cut.getHitCount());
+    assertEquals(1, cut.getMissCount());
+  }
+
+  @Test
+  public void testEvictLeastRecentlyUsedIfFull() {
+    cut.put("A", Arrays.asList("Countries"), createResponse(4));
+    cut.put("B", Arrays.asList("Countries"), createResponse(4));
+    cut.get("A");
+    cut.put("C", Arrays.asList("Countries"), createResponse(4));
+
+    assertEquals(2, cut.size());
+    assertEquals(8, cut.getUsedBytes());
+    assertNotNull(cut.get("A"));
+    assertNull(cut.get("B"));
+  }
+
+  @Test
+  public void testResponseLargerLimitNotStored() {
+    cut.put("A", Arrays.asList("Countries"), createResponse(11));
+
+    assertEquals(0, cut.size());
+  }
+
+  @Test
+  public void testInvalidateRemovesDependentResponses() {
+    cut.put("A", Arrays.asList("Organizations", "BusinessPartnerRoles"), createResponse(2));
+    cut.put("B", Arrays.asList("Countries"), createResponse(2));
+    cut.put("C", Arrays.asList("BusinessPartnerRoles"), createResponse(2));
+    cut.invalidate(Arrays.asList("BusinessPartnerRoles"));
+
+    assertEquals(1, cut.size());
+    assertEquals(2, cut.getUsedBytes());
+    assertNotNull(cut.get("B"));
+  }
+
+  @Test
+  public void testResponseReadBeforeInvalidationNotStored() {
+    assertNull(cut.get("A"));
+    cut.invalidate(Arrays.asList("Countries"));
+    cut.put("A", Arrays.asList("Countries"), createResponse(2));
+
+    assertEquals(0, cut.size());
+  }
+
+  @Test
+  public void testSecondReadTakenFromCache() throws IOException, ODataException {
+    final String url = "AdministrativeDivisions?$filter=CodeID eq 'NUTS1'&$orderby=DivisionCode";
+    final IntegrationTestHelper first = request(cut(1000000), url, null);
+    final IntegrationTestHelper second = request(cut, url, null);
+    first.assertStatus(200);
+    second.assertStatus(200);
+
+    assertEquals(1, cut.getHitCount());
+    assertEquals(first.getRawResult(), second.getRawResult());
+  }
+
+  @Test
+  public void testOrderOfQueryOptionsIgnored() throws IOException, ODataException {
+    request(cut(1000000), "AdministrativeDivisions?$top=2&$skip=1", null);
+    final IntegrationTestHelper second = request(cut, "AdministrativeDivisions?$skip=1&$top=2", null);
+    second.assertStatus(200);
+
+    assertEquals(1, cut.getHitCount());
+  }
+
+  @Test
+  public void testLocaleSeparatesResponses() throws IOException, ODataException {
+    final Map<String, List<String>> headers = new HashMap<>();
+    headers.put("Accept-Language", Arrays.asList("de-DE"));
+    request(cut(1000000), "AdministrativeDivisions?$top=2", null);
+    request(cut, "AdministrativeDivisions?$top=2", headers);
+
+    assertEquals(0, cut.getHitCount());
+    assertEquals(2, cut.size());
+  }
+
+  @Test
+  public void testDescriptionPropertiesNotCached() throws IOException, ODataException {
+    final IntegrationTestHelper helper = request(cut(1000000), "Organizations('3')", null);
+    helper.assertStatus(200);
+
+    assertEquals(0, cut.size());
+  }
+
+  @Test
+  public void testNotFoundNotCached() throws IOException, ODataException {
+    final IntegrationTestHelper helper = request(cut(1000000),
+        "AdministrativeDivisions(DivisionCode='XX1',CodeID='NUTS1',CodePublisher='Eurostat')", null);
+    helper.assertStatus(404);
+
+    assertEquals(0, cut.size());
+  }
+
+  @Test
+  public void testReadAfterInvalidationNotFromCache() throws IOException, ODataException {
+    request(cut(1000000), "AdministrativeDivisions?$expand=Children", null);
+    cut.invalidate(Collections.singletonList("AdministrativeDivisions"));
+    request(cut, "AdministrativeDivisions?$expand=Children", null);
+
+    assertEquals(0, cut.getHitCount());
+    assertEquals(1, cut.size());
+  }
+
+  private IntegrationTestHelper request(final JPAODataResponseCache responseCache, final String url,
+      final Map<String, List<String>> headers) throws IOException, ODataException {
+    final JPAODataContextAccessDouble context = IntegrationTestHelper.createContext(emf);
+    context.getServiceContext().setResponseCache(responseCache);
+    return new IntegrationTestHelper(emf, context, url, null, headers);
+  }
+
+  private JPADefaultResponseCache cut(final long maxBytes) {
+    cut = new JPADefaultResponseCache(maxBytes);
+    return cut;
+  }
+
+  private JPAODataCachedResponse createResponse(final int size) {
+    return new JPAODataCachedResponse(200, Collections.emptyMap(), new byte[size]);
+  }
+}
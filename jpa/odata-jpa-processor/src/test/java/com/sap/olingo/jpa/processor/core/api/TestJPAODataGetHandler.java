@@ -0,0 +1,500 @@
+package com.sap.olingo.jpa.processor.core.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.persistence.EntityManager;
+
+import org.apache.olingo.commons.api.ex.ODataException;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sap.olingo.jpa.metadata.api.JPAEdmMetadataPostProcessor;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.extention.IntermediateEntityTypeAccess;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.extention.IntermediateNavigationPropertyAccess;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.extention.IntermediatePropertyAccess;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.extention.IntermediateReferenceList;
+import com.sap.olingo.jpa.processor.core.api.JPAODataMetrics.Phase;
+import com.sap.olingo.jpa.processor.core.processor.JPARequestEntity;
+import com.sap.olingo.jpa.processor.core.util.HttpServletRequestDouble;
+import com.sap.olingo.jpa.processor.core.util.HttpServletResponseDouble;
+import com.sap.olingo.jpa.processor.core.util.TestBase;
+
+public class TestJPAODataGetHandler extends TestBase {
+  private static final String URI_PREFIX = "http://localhost:8080/Test/Olingo.svc/";
+  private static final String COUNT_REQUEST = "Organizations/$count";
+  private JPAODataGetHandler cut;
+
+  @Before
+  public void setup() throws ODataException {
+    cut = new JPAODataGetHandler(PUNIT_NAME, ds);
+    cut.getJPAODataContext().setTypePackage(enumPackages);
+  }
+
+  @Test
+  public void testCountRequest() throws IOException, ODataException {
+    final HttpServletResponseDouble response = process(COUNT_REQUEST);
+
+    assertEquals(200, response.getStatus());
+    assertEquals("10", read(response));
+  }
+
+  @Test
+  public void testServiceMetadataReusedBetweenRequests() throws IOException, ODataException {
+    process(COUNT_REQUEST);
+    final ServiceMetadata exp = cut.getServiceMetadata();
+    process("Organizations('3')");
+
+    assertSame(exp, cut.getServiceMetadata());
+  }
+
+  @Test
+  public void testServiceMetadataRecreatedAfterPostProcessorSet() throws IOException, ODataException {
+    process(COUNT_REQUEST);
+    final ServiceMetadata first = cut.getServiceMetadata();
+    cut.getJPAODataContext().setMetadataPostProcessor(new PostProcessor());
+    final HttpServletResponseDouble response = process(COUNT_REQUEST);
+
+    assertNotSame(first, cut.getServiceMetadata());
+    assertEquals(200, response.getStatus());
+  }
+
+  @Test
+  public void testMetadataProvidedWithETag() throws IOException, ODataException {
+    final HttpServletResponseDouble first = process("$metadata");
+    final HttpServletResponseDouble second = process("$metadata");
+
+    assertEquals(200, first.getStatus());
+    assertNotNull(first.getHeader(HttpHeader.ETAG));
+    assertEquals(first.getHeader(HttpHeader.ETAG), second.getHeader(HttpHeader.ETAG));
+    assertEquals(read(first), read(second));
+  }
+
+  @Test
+  public void testMetadataNotModifiedIfETagMatches() throws IOException, ODataException {
+    final String eTag = process("$metadata").getHeader(HttpHeader.ETAG);
+    final HttpServletResponseDouble response = process("$metadata", HttpHeader.IF_NONE_MATCH, eTag);
+
+    assertEquals(304, response.getStatus());
+    assertEquals(eTag, response.getHeader(HttpHeader.ETAG));
+  }
+
+  @Test
+  public void testMetadataProvidedIfETagDoesNotMatch() throws IOException, ODataException {
+    final HttpServletResponseDouble response = process("$metadata", HttpHeader.IF_NONE_MATCH, "\"0\"");
+
+    assertEquals(200, response.getStatus());
+    assertTrue(read(response).contains("EntityType Name=\"Organization\""));
+  }
+
+  @Test
+  public void testServiceDocumentNotModifiedIfETagMatches() throws IOException, ODataException {
+    final HttpServletResponseDouble first = process("");
+    final String eTag = first.getHeader(HttpHeader.ETAG);
+    final HttpServletResponseDouble response = process("", HttpHeader.IF_NONE_MATCH, eTag);
+
+    assertEquals(200, first.getStatus());
+    assertTrue(read(first).contains("Organizations"));
+    assertEquals(304, response.getStatus());
+  }
+
+  @Test
+  public void testMetadataETagChangesWithModel() throws IOException, ODataException {
+    final String eTag = process("$metadata").getHeader(HttpHeader.ETAG);
+    cut.getJPAODataContext().setMetadataPostProcessor(new RenamingPostProcessor());
+
+    assertNotEquals(eTag, process("$metadata").getHeader(HttpHeader.ETAG));
+  }
+
+  @Test
+  public void testReloadCreatesNewModelVersion() throws IOException, ODataException, InterruptedException,
+      ExecutionException {
+    final String eTag = process("$metadata").getHeader(HttpHeader.ETAG);
+    final long version = cut.getJPAODataContext().reloadMetadata(null, new RenamingPostProcessor()).get();
+    final HttpServletResponseDouble response = process("$metadata");
+
+    assertEquals(2, version);
+    assertNotEquals(eTag, response.getHeader(HttpHeader.ETAG));
+    assertTrue(read(response).contains("Property Name=\"FirstName\""));
+  }
+
+  @Test
+  public void testRequestKeepsModelVersionDuringReload() throws Exception {
+    process(COUNT_REQUEST);
+    final JPAODataContextImpl context = (JPAODataContextImpl) cut.getJPAODataContext();
+    final JPAODataModelVersion inFlight = context.getModel();
+    context.reloadMetadata(null, new RenamingPostProcessor()).get();
+
+    assertEquals(inFlight.getVersion() + 1, context.getModelVersion());
+    assertNotSame(inFlight.getEdmProvider(), context.getEdmProvider());
+    assertNotNull(inFlight.getEdmProvider().getServiceDocument().getEntity("Organizations").getPath("Name1"));
+    assertNotNull(context.getEdmProvider().getServiceDocument().getEntity("Organizations").getPath("FirstName"));
+  }
+
+  @Test
+  public void testOverlappingReloadsExecutedOneAfterTheOther() throws Exception {
+    final JPAODataContextImpl context = (JPAODataContextImpl) cut.getJPAODataContext();
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final CompletableFuture<Long> first = context.reloadMetadata(null, new BlockingPostProcessor(started, release));
+    started.await();
+    final CompletableFuture<Long> second = context.reloadMetadata(null, new RenamingPostProcessor());
+    Thread.sleep(100);
+    assertFalse(second.isDone());
+    release.countDown();
+
+    assertEquals(first.get() + 1, second.get().longValue());
+    assertEquals(second.get().longValue(), context.getModelVersion());
+    assertNotNull(context.getEdmProvider().getServiceDocument().getEntity("Organizations").getPath("FirstName"));
+  }
+
+  @Test
+  public void testPostProcessorSetAfterRunningReload() throws Exception {
+    final JPAODataContextImpl context = (JPAODataContextImpl) cut.getJPAODataContext();
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final CompletableFuture<Long> reload = context.reloadMetadata(null, new BlockingPostProcessor(started, release));
+    started.await();
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Future<?> set = executor.submit(() -> {
+        context.setMetadataPostProcessor(new RenamingPostProcessor());
+        return null;
+      });
+      Thread.sleep(100);
+      assertFalse(set.isDone());
+      release.countDown();
+      set.get();
+
+      assertEquals(reload.get() + 1, context.getModelVersion());
+      assertNotNull(context.getEdmProvider().getServiceDocument().getEntity("Organizations").getPath("FirstName"));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testReloadClearsResponseCache() throws Exception {
+    final JPADefaultResponseCache responseCache = new JPADefaultResponseCache(1000000);
+    cut.getJPAODataContext().setResponseCache(responseCache);
+    process("AdministrativeDivisions?$top=2");
+    assertEquals(1, responseCache.size());
+    cut.getJPAODataContext().reloadMetadata(null, null).get();
+
+    assertEquals(0, responseCache.size());
+    assertEquals(200, process("AdministrativeDivisions?$top=2").getStatus());
+  }
+
+  @Test
+  public void testChangeOfSubtypeInvalidatesResponsesOfSupertype() throws IOException, ODataException {
+    final JPADefaultResponseCache responseCache = new JPADefaultResponseCache(1000000);
+    final JPAODataContextImpl context = (JPAODataContextImpl) cut.getJPAODataContext();
+    context.setResponseCache(responseCache);
+    context.setCUDRequestHandler(new JPAAbstractCUDRequestHandler() {
+      @Override
+      public void deleteEntity(final JPARequestEntity requestEntity, final EntityManager em) {
+        // Nothing to delete
+      }
+    });
+    // Business partners have description properties, so their responses are not cached by the processor itself
+    responseCache.put("BusinessPartners", Collections.singletonList("BusinessPartners"), new JPAODataCachedResponse(
+        200, Collections.emptyMap(), new byte[1]));
+    final StringBuffer requestBody = new StringBuffer("--abc123\r\n");
+    requestBody.append("Content-Type: multipart/mixed;boundary=changeset_1\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("--changeset_1\r\n");
+    requestBody.append("Content-Type: application/http\r\n");
+    requestBody.append("Content-Transfer-Encoding: binary\r\n");
+    requestBody.append("Content-ID: 1\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("DELETE Organizations('1') HTTP/1.1\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("--changeset_1--\r\n");
+    requestBody.append("--abc123--");
+    final HttpServletResponseDouble response = new HttpServletResponseDouble();
+    cut.process(new RequestDouble(URI_PREFIX + "$batch", requestBody), response);
+
+    assertEquals(202, response.getStatus());
+    assertEquals(0, responseCache.size());
+  }
+
+  @Test
+  public void testFailedReloadKeepsModel() throws IOException, ODataException, InterruptedException {
+    process(COUNT_REQUEST);
+    final JPAODataContextImpl context = (JPAODataContextImpl) cut.getJPAODataContext();
+    final JPAODataModelVersion current = context.getModel();
+    try {
+      context.reloadMetadata(null, new FailingPostProcessor()).get();
+      fail();
+    } catch (ExecutionException e) {
+      assertSame(current, context.getModel());
+      assertEquals(200, process(COUNT_REQUEST).getStatus());
+    }
+  }
+
+  @Test
+  public void testMetricsRecordedIfRequested() throws IOException, ODataException {
+    final JPADefaultMetrics metrics = new JPADefaultMetrics();
+    cut.getJPAODataContext().setMetrics(metrics);
+    process("Organizations?$expand=Roles");
+    process(COUNT_REQUEST);
+
+    assertEquals(1, metrics.getCount(Phase.QUERY_BUILD, "entitySet", "Organizations"));
+    assertEquals(1, metrics.getCount(Phase.DB_EXECUTE, "entitySet", "Organizations"));
+    assertEquals(1, metrics.getCount(Phase.CONVERT, "entitySet", "Organizations"));
+    assertEquals(1, metrics.getCount(Phase.SERIALIZE, "entitySet", "Organizations"));
+    assertEquals(1, metrics.getCount(Phase.EXPAND, "entitySet", "Organization/Roles"));
+    assertEquals(1, metrics.getCount(Phase.COUNT, "count", "Organizations"));
+    assertEquals(10, metrics.getRows("entitySet", "Organizations"));
+    assertEquals(10, metrics.getEntities("entitySet", "Organizations"));
+    assertTrue(metrics.getRows("entitySet", "Organization/Roles") > 0);
+  }
+
+  @Test
+  public void testMetricsRecordRowsFetchedForExpandWithTop() throws IOException, ODataException {
+    final JPADefaultMetrics metrics = new JPADefaultMetrics();
+    cut.getJPAODataContext().setMetrics(metrics);
+    // The filter prevents the restriction of $top by the database, so the roles are reduced after they are read
+    process("Organizations?$expand=Roles($filter=RoleCategory ne 'X';$top=1)");
+
+    assertTrue(metrics.getRows("entitySet", "Organization/Roles") > metrics.getEntities("entitySet",
+        "Organization/Roles"));
+  }
+
+  @Test
+  public void testMetricsRecordedForStreamedRequest() throws IOException, ODataException {
+    final JPADefaultMetrics metrics = new JPADefaultMetrics();
+    cut.getJPAODataContext().setMetrics(metrics);
+    cut.getJPAODataContext().setStreamingFetchSize(4);
+    assertEquals(200, process("Organizations").getStatus());
+
+    assertEquals(3, metrics.getCount(Phase.CONVERT, "entitySet", "Organizations"));
+    // Each full chunk reads one additional row to detect that a further chunk exists
+    assertEquals(12, metrics.getRows("entitySet", "Organizations"));
+    assertEquals(10, metrics.getEntities("entitySet", "Organizations"));
+  }
+
+  @Test
+  public void testSlowRequestLogged() throws IOException, ODataException {
+    final List<JPAODataSlowRequest> slowRequests = new ArrayList<>();
+    cut.getJPAODataContext().setSlowRequestLog(0, slowRequests::add);
+    process("Organizations?$expand=Roles");
+
+    assertEquals(1, slowRequests.size());
+    final JPAODataSlowRequest act = slowRequests.get(0);
+    assertEquals("GET", act.getMethod());
+    assertTrue(act.getUrl().endsWith("Organizations?$expand=Roles"));
+    assertEquals(2, act.getQueries().size());
+    assertEquals(10, act.getQueries().get(0).getRowsFetched());
+    assertEquals(10, act.getQueries().get(0).getRowsReturned());
+    assertTrue(act.getQueries().get(1).getRowsReturned() > 0);
+    assertTrue(act.getPhases().size() > 0);
+  }
+
+  @Test
+  public void testSlowRequestLoggedWithoutLiterals() throws IOException, ODataException {
+    final List<JPAODataSlowRequest> slowRequests = new ArrayList<>();
+    cut.getJPAODataContext().setSlowRequestLog(0, slowRequests::add);
+    process("Organizations('3')/Roles?$filter=RoleCategory eq 'A' or BusinessPartnerID eq 'O''3'&$top=10");
+
+    assertTrue(slowRequests.get(0).getUrl(), slowRequests.get(0).getUrl().endsWith(
+        "Organizations(?)/Roles?$filter=RoleCategory eq ? or BusinessPartnerID eq ?&$top=?"));
+  }
+
+  @Test
+  public void testFailedRequestLogged() throws IOException, ODataException {
+    final List<JPAODataSlowRequest> slowRequests = new ArrayList<>();
+    cut.getJPAODataContext().setSlowRequestLog(0, slowRequests::add);
+    final EntityManager em = emf.createEntityManager();
+    em.close();
+    try {
+      cut.process(new RequestDouble(URI_PREFIX + "Organizations"), new HttpServletResponseDouble(), em);
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals(1, slowRequests.size());
+      assertTrue(slowRequests.get(0).getUrl().endsWith("Organizations"));
+    }
+  }
+
+  @Test
+  public void testFastRequestNotLogged() throws IOException, ODataException {
+    final List<JPAODataSlowRequest> slowRequests = new ArrayList<>();
+    cut.getJPAODataContext().setSlowRequestLog(60000, slowRequests::add);
+    process(COUNT_REQUEST);
+
+    assertTrue(slowRequests.isEmpty());
+  }
+
+  @Test
+  public void testParallelRequestsProcessedByOneHandler() throws InterruptedException, ExecutionException {
+    final int threads = 8;
+    final int requests = 200;
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final List<Future<String>> results = new ArrayList<>(requests);
+      for (int i = 0; i < requests; i++) {
+        final String path;
+        final String exp;
+        switch (i % 3) {
+        case 0:
+          path = COUNT_REQUEST;
+          exp = "10";
+          break;
+        case 1:
+          path = "Organizations('" + (i % 9 + 1) + "')";
+          exp = "\"ID\":\"" + (i % 9 + 1) + "\"";
+          break;
+        default:
+          path = "Organizations('3')?$expand=Roles";
+          exp = "\"RoleCategory\":\"C\"";
+          break;
+        }
+        results.add(executor.submit(new Callable<String>() {
+          @Override
+          public String call() throws Exception {
+            final HttpServletResponseDouble response = process(path);
+            assertEquals(path, 200, response.getStatus());
+            final String act = read(response);
+            assertTrue(path + ": " + act, act.contains(exp));
+            return act;
+          }
+        }));
+      }
+      for (final Future<String> result : results)
+        result.get();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private HttpServletResponseDouble process(final String path) throws IOException, ODataException {
+    final HttpServletResponseDouble response = new HttpServletResponseDouble();
+    cut.process(new RequestDouble(URI_PREFIX + path), response);
+    return response;
+  }
+
+  private HttpServletResponseDouble process(final String path, final String headerName, final String headerValue)
+      throws IOException, ODataException {
+    final HttpServletResponseDouble response = new HttpServletResponseDouble();
+    final Map<String, List<String>> headers = new HashMap<>();
+    headers.put(headerName, Collections.singletonList(headerValue));
+    cut.process(new RequestDouble(URI_PREFIX + path, headers), response);
+    return response;
+  }
+
+  private String read(final HttpServletResponseDouble response) throws IOException {
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.getInputStream()))) {
+      final StringBuilder content = new StringBuilder();
+      String line;
+      while ((line = reader.readLine()) != null)
+        content.append(line);
+      return content.toString();
+    }
+  }
+
+  private static class RequestDouble extends HttpServletRequestDouble {
+
+    RequestDouble(final String uri) throws IOException {
+      super(uri);
+    }
+
+    RequestDouble(final String uri, final Map<String, List<String>> headers) throws IOException {
+      super(uri, null, headers);
+    }
+
+    RequestDouble(final String uri, final StringBuffer body) throws IOException {
+      super(uri, body);
+    }
+
+    @Override
+    public String getParameter(final String name) {
+      return null;
+    }
+
+    @Override
+    public Enumeration<?> getLocales() {
+      return Collections.enumeration(Collections.singletonList(Locale.ENGLISH));
+    }
+  }
+
+  private class PostProcessor extends JPAEdmMetadataPostProcessor {
+
+    @Override
+    public void processEntityType(final IntermediateEntityTypeAccess entityType) {}
+
+    @Override
+    public void processNavigationProperty(final IntermediateNavigationPropertyAccess property,
+        final String jpaManagedTypeClassName) {}
+
+    @Override
+    public void processProperty(final IntermediatePropertyAccess property, final String jpaManagedTypeClassName) {}
+
+    @Override
+    public void provideReferences(final IntermediateReferenceList references) throws ODataJPAModelException {}
+  }
+
+  private class FailingPostProcessor extends PostProcessor {
+
+    @Override
+    public void processEntityType(final IntermediateEntityTypeAccess entityType) {
+      throw new IllegalStateException();
+    }
+  }
+
+  private class BlockingPostProcessor extends PostProcessor {
+    private final CountDownLatch started;
+    private final CountDownLatch release;
+
+    BlockingPostProcessor(final CountDownLatch started, final CountDownLatch release) {
+      this.started = started;
+      this.release = release;
+    }
+
+    @Override
+    public void processEntityType(final IntermediateEntityTypeAccess entityType) {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private class RenamingPostProcessor extends PostProcessor {
+
+    @Override
+    public void processProperty(final IntermediatePropertyAccess property, final String jpaManagedTypeClassName) {
+      if ("name1".equals(property.getInternalName()))
+        property.setExternalName("FirstName");
+    }
+  }
+}
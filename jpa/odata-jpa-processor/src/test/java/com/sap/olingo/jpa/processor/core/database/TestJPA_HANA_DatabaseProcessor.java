@@ -0,0 +1,167 @@
+package com.sap.olingo.jpa.processor.core.database;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.Collections;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Root;
+
+import org.apache.olingo.commons.api.ex.ODataException;
+import org.eclipse.persistence.jpa.JpaEntityManager;
+import org.eclipse.persistence.jpa.JpaQuery;
+import org.eclipse.persistence.queries.ReadQuery;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.processor.core.testmodel.BusinessPartnerRole;
+import com.sap.olingo.jpa.processor.core.testmodel.Organization;
+import com.sap.olingo.jpa.processor.core.util.TestBase;
+import com.sap.olingo.jpa.processor.core.util.TestHelper;
+
+/**
+ * The test database does not support window functions, so the SQL statement generated for HANA is checked instead of
+ * executing it.
+ */
+public class TestJPA_HANA_DatabaseProcessor extends TestBase {
+  private JPA_HANA_DatabaseProcessor cut;
+  private EntityManager em;
+  private CriteriaBuilder cb;
+  private CriteriaQuery<Tuple> cq;
+  private Root<Organization> root;
+
+  @Before
+  public void setup() throws ODataException {
+    helper = new TestHelper(emf, PUNIT_NAME);
+    cut = new JPA_HANA_DatabaseProcessor();
+    em = emf.createEntityManager();
+    cb = em.getCriteriaBuilder();
+    cq = cb.createTupleQuery();
+    root = cq.from(Organization.class);
+  }
+
+  @After
+  public void teardown() {
+    em.close();
+  }
+
+  @Test
+  public void testCountOverRenderedAsWindowFunction() {
+    final String sql = createSQL(0);
+
+    assertTrue(sql, sql.contains("COUNT(*) OVER()"));
+  }
+
+  @Test
+  public void testCountOverRenderedWithTop() {
+    final String sql = createSQL(2);
+
+    assertTrue(sql, sql.contains("COUNT(*) OVER()"));
+    assertTrue(sql, sql.contains("FETCH"));
+  }
+
+  @Test
+  public void testCountOverNotProvidedForDistinct() {
+    cq.distinct(true);
+
+    assertNull(cut.createCountOverExpression(cb, cq));
+  }
+
+  @Test
+  public void testCountOverNotProvidedForOtherProvider() {
+    assertNull(cut.createCountOverExpression(mock(CriteriaBuilder.class), cq));
+  }
+
+  @Test
+  public void testExpandTopSkipRenderedAsWindowFunction() throws ODataException {
+    final CriteriaQuery<Tuple> roleQuery = cb.createTupleQuery();
+    final Root<BusinessPartnerRole> role = roleQuery.from(BusinessPartnerRole.class);
+    roleQuery.where(createExpandTopSkipWhereClause(roleQuery, role, 1, 2));
+
+    final String sql = createSQL(roleQuery, role);
+    assertTrue(sql, sql.contains("ROW_NUMBER() OVER (PARTITION BY \"BusinessPartnerID\" "
+        + "ORDER BY \"BusinessPartnerID\", \"BusinessPartnerRole\") AS ROW_NO "
+        + "FROM \"OLINGO\".\"BusinessPartnerRole\")"));
+    assertTrue(sql, sql.contains("WHERE R.ROW_KEY_1 = \"BusinessPartnerID\" AND R.ROW_KEY_2 = \"BusinessPartnerRole\")"
+        + " BETWEEN ? AND ?"));
+  }
+
+  @Test
+  public void testExpandTopSkipRenderedWithoutTop() throws ODataException {
+    final CriteriaQuery<Tuple> roleQuery = cb.createTupleQuery();
+    final Root<BusinessPartnerRole> role = roleQuery.from(BusinessPartnerRole.class);
+    roleQuery.where(createExpandTopSkipWhereClause(roleQuery, role, 1, Integer.MAX_VALUE));
+
+    final String sql = createSQL(roleQuery, role);
+    assertTrue(sql, sql.contains("R.ROW_KEY_2 = \"BusinessPartnerRole\") > ?"));
+  }
+
+  @Test
+  public void testExpandTopSkipCombinedWithOtherCondition() throws ODataException {
+    final CriteriaQuery<Tuple> roleQuery = cb.createTupleQuery();
+    final Root<BusinessPartnerRole> role = roleQuery.from(BusinessPartnerRole.class);
+    roleQuery.where(cb.and(cb.notEqual(role.get("roleCategory"), "A"),
+        createExpandTopSkipWhereClause(roleQuery, role, 0, 2)));
+
+    final String sql = createSQL(roleQuery, role);
+    assertTrue(sql, sql.contains("ROW_NUMBER() OVER (PARTITION BY"));
+    assertTrue(sql, sql.contains("\"BusinessPartnerRole\" <> ?"));
+  }
+
+  @Test
+  public void testExpandTopSkipNotProvidedForInheritance() throws ODataException {
+    final JPAEntityType et = helper.getJPAEntityType("Organizations");
+
+    assertNull(cut.createExpandTopSkipWhereClause(cb, cq, root, et, Collections.singletonList(et.getPath("Country")),
+        null, 0, 2));
+  }
+
+  @Test
+  public void testExpandTopSkipNotProvidedForOtherProvider() throws ODataException {
+    final JPAEntityType et = helper.getJPAEntityType("BusinessPartnerRoles");
+
+    assertNull(cut.createExpandTopSkipWhereClause(mock(CriteriaBuilder.class), cq, root, et, Collections
+        .singletonList(et.getPath("BusinessPartnerID")), null, 0, 2));
+  }
+
+  private Expression<Boolean> createExpandTopSkipWhereClause(final CriteriaQuery<Tuple> roleQuery,
+      final Root<BusinessPartnerRole> role, final int skip, final int top) throws ODataException {
+    final JPAEntityType et = helper.getJPAEntityType("BusinessPartnerRoles");
+    final Expression<Boolean> restriction = cut.createExpandTopSkipWhereClause(cb, roleQuery, role, et, Collections
+        .singletonList(et.getPath("BusinessPartnerID")), null, skip, top);
+    assertNotNull(restriction);
+    return restriction;
+  }
+
+  private String createSQL(final CriteriaQuery<Tuple> roleQuery, final Root<BusinessPartnerRole> role) {
+    roleQuery.multiselect(role.get("businessPartnerID"), role.get("roleCategory"));
+    return prepareSQL(em.createQuery(roleQuery), 0);
+  }
+
+  private String createSQL(final int top) {
+    final Expression<Long> countOver = cut.createCountOverExpression(cb, cq);
+    countOver.alias("count");
+    cq.multiselect(root.get("iD"), countOver);
+    return prepareSQL(em.createQuery(cq), top);
+  }
+
+  private String prepareSQL(final TypedQuery<Tuple> tq, final int top) {
+    final ReadQuery query = (ReadQuery) tq.unwrap(JpaQuery.class).getDatabaseQuery();
+    // The maximal number of results of a JPA query is handed over to the database query not before execution
+    if (top > 0)
+      query.setMaxRows(top);
+    query.prepareCall(em.unwrap(JpaEntityManager.class).getActiveSession(), new DatabaseRecord());
+    return query.getSQLString();
+  }
+}
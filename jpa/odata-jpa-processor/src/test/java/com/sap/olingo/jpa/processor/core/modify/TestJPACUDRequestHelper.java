@@ -93,6 +93,14 @@ public class TestJPACUDRequestHelper {
     assertEquals("ID", act.get("businessPartnerID"));
   }
 
+  @Test
+  public void testInstanceWithIsGetter() throws ODataJPAProcessorException {
+    Map<String, Object> act = cut.buildGetterMap(new IsGetter());
+    assertEquals(Boolean.TRUE, act.get("active"));
+    assertEquals("Value", act.get("given"));
+    assertFalse(act.containsKey("notBoolean"));
+  }
+
   @Test
   public void testSameInstanceWhenReadingTwice() throws ODataJPAProcessorException {
     BusinessPartnerRole role = new BusinessPartnerRole();
@@ -379,6 +387,24 @@ public class TestJPACUDRequestHelper {
     assertTrue(act.get("address") instanceof Map<?, ?>);
   }
 
+  public static class IsGetter {
+    public boolean isActive() {
+      return true;
+    }
+
+    public boolean isGiven() {
+      return false;
+    }
+
+    public String getGiven() {
+      return "Value";
+    }
+
+    public String isNotBoolean() {
+      return "Value";
+    }
+  }
+
   // AdministrativeDivisionDescription
 
 }
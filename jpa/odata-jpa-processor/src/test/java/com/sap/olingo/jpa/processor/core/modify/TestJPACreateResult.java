@@ -1,5 +1,6 @@
 package com.sap.olingo.jpa.processor.core.modify;
 
+import static com.sap.olingo.jpa.processor.core.converter.JPAExpandResult.ROOT_RESULT_KEY;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
@@ -14,6 +15,7 @@ import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAAssociationPath;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import com.sap.olingo.jpa.processor.core.converter.JPAExpandResult;
+import com.sap.olingo.jpa.processor.core.converter.JPAJoinKey;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAProcessException;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAProcessorException;
 import com.sap.olingo.jpa.processor.core.util.TestBase;
@@ -44,7 +46,7 @@ public abstract class TestJPACreateResult extends TestBase {
 
     createCutGetResultSimpleEntity();
 
-    List<Tuple> act = cut.getResult("root");
+    List<Tuple> act = cut.getResult(ROOT_RESULT_KEY);
 
     assertNotNull(act);
     assertEquals(1, act.size());
@@ -57,7 +59,7 @@ public abstract class TestJPACreateResult extends TestBase {
 
     createCutGetResultWithOneLevelEmbedded();
 
-    List<Tuple> act = cut.getResult("root");
+    List<Tuple> act = cut.getResult(ROOT_RESULT_KEY);
 
     assertNotNull(act);
     assertEquals(1, act.size());
@@ -70,7 +72,7 @@ public abstract class TestJPACreateResult extends TestBase {
 
     createCutGetResultWithTwoLevelEmbedded();
 
-    List<Tuple> act = cut.getResult("root");
+    List<Tuple> act = cut.getResult(ROOT_RESULT_KEY);
     assertNotNull(act);
     assertEquals(1, act.size());
     assertEquals("01", act.get(0).get("ID"));
@@ -85,7 +87,7 @@ public abstract class TestJPACreateResult extends TestBase {
     assertEquals(1, act.size());
     for (JPAAssociationPath actPath : act.keySet()) {
       assertEquals("Children", actPath.getAlias());
-      List<Tuple> subResult = act.get(actPath).getResult("Eurostat/NUTS1/BE2");
+      List<Tuple> subResult = act.get(actPath).getResult(new JPAJoinKey("Eurostat", "NUTS1", "BE2"));
       assertEquals(1, subResult.size());
     }
 
@@ -100,7 +102,7 @@ public abstract class TestJPACreateResult extends TestBase {
     assertEquals(1, act.size());
     for (JPAAssociationPath actPath : act.keySet()) {
       assertEquals("Children", actPath.getAlias());
-      List<Tuple> subResult = act.get(actPath).getResult("Eurostat/NUTS1/BE2");
+      List<Tuple> subResult = act.get(actPath).getResult(new JPAJoinKey("Eurostat", "NUTS1", "BE2"));
       assertEquals(2, subResult.size());
     }
   }
@@ -15,6 +15,7 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -24,6 +25,7 @@ import javax.persistence.EntityTransaction;
 import javax.sql.DataSource;
 
 import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edm.EdmNavigationPropertyBinding;
 import org.apache.olingo.commons.api.ex.ODataException;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.OData;
@@ -36,6 +38,7 @@ import org.apache.olingo.server.api.uri.UriInfo;
 import org.apache.olingo.server.api.uri.UriParameter;
 import org.apache.olingo.server.api.uri.UriResource;
 import org.apache.olingo.server.api.uri.UriResourceEntitySet;
+import org.apache.olingo.server.api.uri.UriResourceKind;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -47,6 +50,7 @@ import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
 import com.sap.olingo.jpa.processor.core.api.JPAAbstractCUDRequestHandler;
 import com.sap.olingo.jpa.processor.core.api.JPACUDRequestHandler;
 import com.sap.olingo.jpa.processor.core.api.JPAODataRequestContextAccess;
+import com.sap.olingo.jpa.processor.core.api.JPAODataResponseCache;
 import com.sap.olingo.jpa.processor.core.api.JPAODataSessionContextAccess;
 import com.sap.olingo.jpa.processor.core.api.JPAServiceDebugger;
 import com.sap.olingo.jpa.processor.core.exception.ODataJPAProcessException;
@@ -325,6 +329,24 @@ public class TestJPADeleteProcessor {
     fail();
   }
 
+  @Test
+  public void testResponseCacheInvalidatedAfterCommit() throws ODataApplicationException {
+    final ODataResponse response = new ODataResponse();
+    final ODataRequest request = mock(ODataRequest.class);
+    final JPAODataResponseCache cache = mock(JPAODataResponseCache.class);
+    final EdmNavigationPropertyBinding binding = mock(EdmNavigationPropertyBinding.class);
+    when(sessionContext.getCUDRequestHandler()).thenReturn(new RequestHandleSpy());
+    when(sessionContext.getResponseCache()).thenReturn(cache);
+    when(uriEts.getKind()).thenReturn(UriResourceKind.entitySet);
+    when(ets.getNavigationPropertyBindings()).thenReturn(Arrays.asList(binding));
+    when(binding.getTarget()).thenReturn("BusinessPartnerRoles");
+
+    processor.deleteEntity(request, response);
+    // Organizations share the table with the other business partners
+    verify(cache, times(1)).invalidate(new HashSet<>(Arrays.asList("Organizations", "BusinessPartnerRoles",
+        "BusinessPartners", "Persons", "BestOrganizations")));
+  }
+
   class RequestHandleSpy extends JPAAbstractCUDRequestHandler {
     public int noValidateCalls;
     public Map<String, Object> keyPredicates;
@@ -0,0 +1,53 @@
+package com.sap.olingo.jpa.processor.core.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.olingo.commons.api.ex.ODataException;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.processor.core.testmodel.AdministrativeDivisionKey;
+import com.sap.olingo.jpa.processor.core.util.TestBase;
+import com.sap.olingo.jpa.processor.core.util.TestHelper;
+
+public class TestJPAPrimaryKeyBuilder extends TestBase {
+
+  @Before
+  public void setup() throws ODataException {
+    helper = new TestHelper(emf, PUNIT_NAME);
+  }
+
+  @Test
+  public void testBuilderCreatedOncePerEntityType() throws ODataException {
+    final JPAEntityType et = helper.getJPAEntityType("AdministrativeDivisions");
+
+    assertSame(JPAPrimaryKeyBuilder.of(et, emf.getMetamodel()), JPAPrimaryKeyBuilder.of(et, emf.getMetamodel()));
+  }
+
+  @Test
+  public void testNotSupportedForDescriptionProperties() throws ODataException {
+    final JPAEntityType et = helper.getJPAEntityType("Organizations");
+
+    assertFalse(JPAPrimaryKeyBuilder.of(et, emf.getMetamodel()).isSupported());
+  }
+
+  @Test
+  public void testCreateIdClassKey() throws ODataException, ReflectiveOperationException {
+    final JPAPrimaryKeyBuilder cut = JPAPrimaryKeyBuilder.of(helper.getJPAEntityType("AdministrativeDivisions"), emf
+        .getMetamodel());
+    final Map<String, Object> keys = new HashMap<>();
+    keys.put("codePublisher", "Eurostat");
+    keys.put("codeID", "NUTS1");
+    keys.put("divisionCode", "BE1");
+
+    assertTrue(cut.isSupported());
+    assertEquals(new AdministrativeDivisionKey("Eurostat", "NUTS1", "BE1"), cut.createPrimaryKey(keys));
+  }
+}
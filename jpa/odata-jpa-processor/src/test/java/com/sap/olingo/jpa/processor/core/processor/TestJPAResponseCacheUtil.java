@@ -0,0 +1,126 @@
+package com.sap.olingo.jpa.processor.core.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.ex.ODataException;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sap.olingo.jpa.metadata.api.JPAEdmProvider;
+import com.sap.olingo.jpa.processor.core.util.TestBase;
+
+public class TestJPAResponseCacheUtil extends TestBase {
+  private OData odata;
+  private Edm edm;
+  private JPAEdmProvider edmProvider;
+
+  @Before
+  public void setup() throws ODataException {
+    edmProvider = new JPAEdmProvider(PUNIT_NAME, emf, null, TestBase.enumPackages);
+    odata = OData.newInstance();
+    edm = odata.createServiceMetadata(edmProvider, new ArrayList<>()).getEdm();
+  }
+
+  @Test
+  public void testKeyIgnoresOrderOfQueryOptions() {
+    assertEquals(JPAResponseCacheUtil.determineKey(1, createRequest("Countries", "$top=2&$skip=1"), ContentType.JSON),
+        JPAResponseCacheUtil.determineKey(1, createRequest("Countries", "$skip=1&$top=2"), ContentType.JSON));
+  }
+
+  @Test
+  public void testKeyDependsOnFormat() {
+    assertTrue(!JPAResponseCacheUtil.determineKey(1, createRequest("Countries", null), ContentType.JSON).equals(
+        JPAResponseCacheUtil.determineKey(1, createRequest("Countries", null), ContentType.APPLICATION_XML)));
+  }
+
+  @Test
+  public void testKeyDependsOnModelVersion() {
+    assertTrue(!JPAResponseCacheUtil.determineKey(1, createRequest("Countries", null), ContentType.JSON).equals(
+        JPAResponseCacheUtil.determineKey(2, createRequest("Countries", null), ContentType.JSON)));
+  }
+
+  @Test
+  public void testReadDependsOnEntitySet() throws ODataException {
+    assertEquals(new HashSet<>(Arrays.asList("AdministrativeDivisions")), readDependencies(
+        "AdministrativeDivisions(DivisionCode='BE1',CodeID='NUTS1',CodePublisher='Eurostat')/Children", null));
+  }
+
+  @Test
+  public void testReadNotCachedForExpandedDescriptionProperties() throws ODataException {
+    assertNull(readDependencies("BusinessPartnerRoles", "$expand=BusinessPartner"));
+  }
+
+  @Test
+  public void testReadNotCachedForDescriptionProperties() throws ODataException {
+    assertNull(readDependencies("Organizations", null));
+  }
+
+  @Test
+  public void testReadNotCachedForFunction() throws ODataException {
+    assertNull(readDependencies("Siblings(DivisionCode='BE25',CodeID='NUTS2',CodePublisher='Eurostat')", null));
+  }
+
+  @Test
+  public void testChangeOnEntitySetIncludesNavigationTargets() throws ODataException {
+    final Set<String> act = JPAResponseCacheUtil.determineChangedEntitySets(edm, createRequest(
+        "BusinessPartnerRoles(BusinessPartnerID='1',RoleCategory='A')", null), edmProvider.getServiceDocument());
+
+    assertEquals(new HashSet<>(Arrays.asList("BusinessPartnerRoles", "BusinessPartners", "Organizations", "Persons",
+        "BestOrganizations")), act);
+  }
+
+  @Test
+  public void testChangeUnknownForContentId() throws ODataException {
+    assertNull(JPAResponseCacheUtil.determineChangedEntitySets(edm, createRequest("$1/Roles", null),
+        edmProvider.getServiceDocument()));
+  }
+
+  @Test
+  public void testChangeUnknownForNestedNavigation() throws ODataException {
+    assertNull(JPAResponseCacheUtil.determineChangedEntitySets(edm, createRequest(
+        "Organizations('1')/Roles(BusinessPartnerID='1',RoleCategory='A')/BusinessPartner", null), edmProvider
+        .getServiceDocument()));
+  }
+
+  @Test
+  public void testChangeOnSubtypeIncludesEntitySetsOfHierarchy() throws ODataException {
+    final Set<String> act = JPAResponseCacheUtil.determineChangedEntitySets(edm, createRequest("Organizations('1')",
+        null), edmProvider.getServiceDocument());
+
+    assertTrue(act.contains("Organizations"));
+    assertTrue(act.contains("BusinessPartners"));
+    assertTrue(act.contains("Persons"));
+    assertFalse(act.contains("Countries"));
+  }
+
+  private ODataRequest createRequest(final String path, final String query) {
+    final ODataRequest request = mock(ODataRequest.class);
+    when(request.getRawBaseUri()).thenReturn("http://localhost:8080/Test/Olingo.svc");
+    when(request.getRawODataPath()).thenReturn("/" + path);
+    when(request.getRawQueryPath()).thenReturn(query);
+    when(request.getHeaders(HttpHeader.ACCEPT_LANGUAGE)).thenReturn(Arrays.asList("en"));
+    return request;
+  }
+
+  private Set<String> readDependencies(final String path, final String query) throws ODataException {
+    final UriInfo uriInfo = new Parser(edm, odata).parseUri(path, query, null, "http://localhost:8080/Test/Olingo.svc");
+    return JPAResponseCacheUtil.determineReadDependencies(uriInfo, edmProvider.getServiceDocument());
+  }
+}
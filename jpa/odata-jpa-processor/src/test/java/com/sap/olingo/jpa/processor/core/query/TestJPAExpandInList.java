@@ -0,0 +1,90 @@
+package com.sap.olingo.jpa.processor.core.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.apache.olingo.commons.api.ex.ODataException;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.sap.olingo.jpa.processor.core.api.JPAODataContextAccessDouble;
+import com.sap.olingo.jpa.processor.core.util.IntegrationTestHelper;
+import com.sap.olingo.jpa.processor.core.util.TestBase;
+
+public class TestJPAExpandInList extends TestBase {
+
+  @Test
+  public void testSingleJoinColumnInChunks() throws IOException, ODataException {
+    final ArrayNode act = assertSameAsDefault("Organizations?$orderby=ID&$expand=Roles($orderby=RoleCategory)", 3);
+
+    assertEquals(10, act.size());
+    assertEquals(1, act.get(0).get("Roles").size());
+    assertEquals(3, act.get(3).get("Roles").size());
+  }
+
+  @Test
+  public void testCompoundJoinColumnsInChunks() throws IOException, ODataException {
+    final ArrayNode act = assertSameAsDefault(
+        "AdministrativeDivisions?$filter=CodeID eq 'NUTS1'&$orderby=DivisionCode"
+            + "&$expand=Children($orderby=DivisionCode;$expand=Children($orderby=DivisionCode))", 2);
+
+    assertEquals("BE1", act.get(0).get("DivisionCode").asText());
+    assertEquals(1, act.get(0).get("Children").size());
+  }
+
+  @Test
+  public void testParentWithoutJoinColumnValue() throws IOException, ODataException {
+    final ArrayNode act = assertSameAsDefault(
+        "AdministrativeDivisions?$filter=CodeID eq 'NUTS1'&$orderby=DivisionCode&$expand=Parent", 5);
+
+    assertTrue(act.get(0).get("Parent").isNull());
+  }
+
+  @Test
+  public void testParentRestrictedByTop() throws IOException, ODataException {
+    final ArrayNode act = assertSameAsDefault(
+        "Organizations?$orderby=ID desc&$top=8&$expand=Roles($top=1;$orderby=RoleCategory desc)", 2);
+
+    assertEquals(8, act.size());
+    assertEquals("C", act.get(6).get("Roles").get(0).get("RoleCategory").asText());
+  }
+
+  @Test
+  public void testManyParentsUseDefault() throws IOException, ODataException {
+    final ArrayNode act = assertSameAsDefault(
+        "AdministrativeDivisions?$filter=CodeID eq 'NUTS3'&$orderby=DivisionCode&$expand=Parent", 1);
+
+    assertEquals("BE1", act.get(0).get("Parent").get("DivisionCode").asText().substring(0, 3));
+  }
+
+  @Test
+  public void testExpandWithCount() throws IOException, ODataException {
+    final ArrayNode act = assertSameAsDefault("Organizations?$orderby=ID&$expand=Roles($count=true;$orderby=RoleCategory)", 4);
+
+    assertEquals(3, act.get(3).get("Roles@odata.count").asInt());
+  }
+
+  @Test
+  public void testExpandWithCountAndFilter() throws IOException, ODataException {
+    final ArrayNode act = assertSameAsDefault(
+        "Organizations?$orderby=ID&$expand=Roles($count=true;$filter=RoleCategory ne 'A';$orderby=RoleCategory)", 4);
+
+    assertEquals(2, act.get(3).get("Roles").size());
+    assertEquals(2, act.get(3).get("Roles@odata.count").asInt());
+  }
+
+  private ArrayNode assertSameAsDefault(final String url, final int chunkSize) throws IOException,
+      ODataException {
+    final JPAODataContextAccessDouble context = IntegrationTestHelper.createContext(emf);
+    context.getServiceContext().setExpandInListChunkSize(chunkSize);
+    final IntegrationTestHelper inList = new IntegrationTestHelper(emf, context, url, null, null);
+    final IntegrationTestHelper standard = new IntegrationTestHelper(emf, url);
+    inList.assertStatus(200);
+
+    final ArrayNode act = inList.getValues();
+    assertEquals(standard.getValues(), act);
+    return act;
+  }
+}
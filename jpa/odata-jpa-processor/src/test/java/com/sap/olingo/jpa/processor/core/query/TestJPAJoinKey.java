@@ -0,0 +1,67 @@
+package com.sap.olingo.jpa.processor.core.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.junit.Test;
+
+import com.sap.olingo.jpa.processor.core.converter.JPAJoinKey;
+import com.sap.olingo.jpa.processor.core.util.TupleDouble;
+
+public class TestJPAJoinKey {
+
+  @Test
+  public void checkEqualForSameValues() {
+    assertEquals(new JPAJoinKey("NUTS", "2", "BE25"), new JPAJoinKey("NUTS", "2", "BE25"));
+    assertEquals(new JPAJoinKey("NUTS", "2", "BE25").hashCode(), new JPAJoinKey("NUTS", "2", "BE25").hashCode());
+  }
+
+  @Test
+  public void checkNotEqualForDifferentOrder() {
+    assertNotEquals(new JPAJoinKey("NUTS", "BE25"), new JPAJoinKey("BE25", "NUTS"));
+  }
+
+  @Test
+  public void checkNotEqualIfConcatenationIsEqual() {
+    assertNotEquals(new JPAJoinKey("A/B", "C"), new JPAJoinKey("A", "B/C"));
+  }
+
+  @Test
+  public void checkEqualForIntegralNumbersOfDifferentType() {
+    assertEquals(new JPAJoinKey(Long.valueOf(5)), new JPAJoinKey(Integer.valueOf(5)));
+    assertEquals(new JPAJoinKey(Long.valueOf(5)).hashCode(), new JPAJoinKey(Short.valueOf((short) 5)).hashCode());
+  }
+
+  @Test
+  public void checkEqualWithNullValue() {
+    assertEquals(new JPAJoinKey("1", null), new JPAJoinKey("1", null));
+  }
+
+  @Test
+  public void checkCreatedFromRow() {
+    final HashMap<String, Object> row = new HashMap<>();
+    row.put("CodePublisher", "NUTS");
+    row.put("DivisionCode", "BE25");
+    row.put("CodeID", "2");
+
+    assertEquals(new JPAJoinKey("NUTS", "2", "BE25"), new JPAJoinKey(new TupleDouble(row), Arrays.asList(
+        "CodePublisher", "CodeID", "DivisionCode")));
+  }
+
+  @Test
+  public void checkNotChangedByArgumentArray() {
+    final Object[] values = new Object[] { "1" };
+    final JPAJoinKey cut = new JPAJoinKey(values);
+    values[0] = "2";
+
+    assertEquals(new JPAJoinKey("1"), cut);
+  }
+
+  @Test
+  public void checkToStringConcatenatesValues() {
+    assertEquals("NUTS/2/BE25", new JPAJoinKey("NUTS", "2", "BE25").toString());
+  }
+}
@@ -0,0 +1,130 @@
+package com.sap.olingo.jpa.processor.core.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+
+import org.apache.olingo.commons.api.ex.ODataException;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sap.olingo.jpa.processor.core.util.IntegrationTestHelper;
+import com.sap.olingo.jpa.processor.core.util.TestBase;
+
+public class TestJPAKeyAccess extends TestBase {
+
+  @Test
+  public void testEntityWithoutGettersUsesQuery() throws IOException, ODataException {
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, "Teams('B')");
+    helper.assertStatus(200);
+
+    final ObjectNode team = helper.getValue();
+    assertEquals("B", team.get("ID").asText());
+    assertEquals("Team Scala", team.get("Name").asText());
+  }
+
+  @Test
+  public void testSingleKeySameResultAsQuery() throws IOException, ODataException {
+    final IntegrationTestHelper byKey = new IntegrationTestHelper(emf, "Teams('C')");
+    final IntegrationTestHelper byQuery = new IntegrationTestHelper(emf, "Teams?$filter=ID eq 'C'");
+    byKey.assertStatus(200);
+
+    final ObjectNode exp = (ObjectNode) byQuery.getValues().get(0);
+    final ObjectNode act = byKey.getValue();
+    assertEquals(exp.get("ID"), act.get("ID"));
+    assertEquals(exp.get("Name"), act.get("Name"));
+  }
+
+  @Test
+  public void testSingleKeyNotFound() throws IOException, ODataException {
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, "Teams('X')");
+    helper.assertStatus(404);
+  }
+
+  @Test
+  public void testSelectStarWithoutGettersUsesQuery() throws IOException, ODataException {
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, "Teams('A')?$select=*");
+    helper.assertStatus(200);
+
+    assertEquals("Team Java", helper.getValue().get("Name").asText());
+  }
+
+  @Test
+  public void testIdClassReadByKey() throws IOException, ODataException {
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
+        "AdministrativeDivisions(DivisionCode='BE21',CodeID='NUTS2',CodePublisher='Eurostat')");
+    helper.assertStatus(200);
+
+    final ObjectNode division = helper.getValue();
+    assertEquals("BE21", division.get("DivisionCode").asText());
+    assertEquals("NUTS2", division.get("CodeID").asText());
+    assertEquals("BE2", division.get("ParentDivisionCode").asText());
+    assertEquals("NUTS1", division.get("ParentCodeID").asText());
+  }
+
+  @Test
+  public void testIdClassSameResultAsQuery() throws IOException, ODataException {
+    final IntegrationTestHelper byKey = new IntegrationTestHelper(emf,
+        "AdministrativeDivisions(DivisionCode='BE1',CodeID='NUTS1',CodePublisher='Eurostat')");
+    final IntegrationTestHelper byQuery = new IntegrationTestHelper(emf,
+        "AdministrativeDivisions?$filter=DivisionCode eq 'BE1' and CodeID eq 'NUTS1' and CodePublisher eq 'Eurostat'");
+    byKey.assertStatus(200);
+
+    final ObjectNode exp = (ObjectNode) byQuery.getValues().get(0);
+    final ObjectNode act = byKey.getValue();
+    exp.fieldNames().forEachRemaining(name -> {
+      if (!name.startsWith("@"))
+        assertEquals(name, exp.get(name), act.get(name));
+    });
+  }
+
+  @Test
+  public void testIdClassNotFound() throws IOException, ODataException {
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
+        "AdministrativeDivisions(DivisionCode='XX1',CodeID='NUTS1',CodePublisher='Eurostat')");
+    helper.assertStatus(404);
+  }
+
+  @Test
+  public void testIdClassWithNavigationKeyProperties() throws IOException, ODataException {
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
+        "BusinessPartnerRoles(BusinessPartnerID='1',RoleCategory='A')");
+    helper.assertStatus(200);
+
+    final ObjectNode role = helper.getValue();
+    assertEquals("1", role.get("BusinessPartnerID").asText());
+    assertEquals("A", role.get("RoleCategory").asText());
+  }
+
+  @Test
+  public void testSelectUsesQuery() throws IOException, ODataException {
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
+        "AdministrativeDivisions(DivisionCode='BE1',CodeID='NUTS1',CodePublisher='Eurostat')?$select=CodeID");
+    helper.assertStatus(200);
+
+    final ObjectNode division = helper.getValue();
+    assertEquals("NUTS1", division.get("CodeID").asText());
+    assertNull(division.get("ParentCodeID"));
+  }
+
+  @Test
+  public void testExpandUsesQuery() throws IOException, ODataException {
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
+        "AdministrativeDivisions(DivisionCode='BE2',CodeID='NUTS1',CodePublisher='Eurostat')?$expand=Children");
+    helper.assertStatus(200);
+
+    final ArrayNode children = (ArrayNode) helper.getValue().get("Children");
+    assertFalse(children.size() == 0);
+  }
+
+  @Test
+  public void testDescriptionPropertyUsesQuery() throws IOException, ODataException {
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, "Organizations('3')");
+    helper.assertStatus(200);
+
+    assertEquals("Vereinigte Staaten von Amerika", helper.getValue().get("LocationName").asText());
+  }
+}
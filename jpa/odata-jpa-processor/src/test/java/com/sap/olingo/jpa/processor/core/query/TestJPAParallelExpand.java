@@ -0,0 +1,93 @@
+package com.sap.olingo.jpa.processor.core.query;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.olingo.commons.api.ex.ODataException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sap.olingo.jpa.processor.core.api.JPAODataContextAccessDouble;
+import com.sap.olingo.jpa.processor.core.util.IntegrationTestHelper;
+import com.sap.olingo.jpa.processor.core.util.TestBase;
+
+public class TestJPAParallelExpand extends TestBase {
+  private ExecutorService executor;
+
+  @Before
+  public void setup() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void teardown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testSiblingExpandSameResultAsSequential() throws IOException, ODataException {
+    final String url =
+        "AdministrativeDivisions(DivisionCode='BE32',CodeID='NUTS2',CodePublisher='Eurostat')?$expand=Parent,Children";
+    final IntegrationTestHelper parallel = parallel(url, executor);
+    final IntegrationTestHelper sequential = new IntegrationTestHelper(emf, url);
+    parallel.assertStatus(200);
+
+    final ObjectNode act = parallel.getValue();
+    assertEquals("BE3", act.get("Parent").get("DivisionCode").asText());
+    assertEquals(7, ((ArrayNode) act.get("Children")).size());
+    assertEquals(sequential.getValue(), act);
+  }
+
+  @Test
+  public void testNestedExpandSameResultAsSequential() throws IOException, ODataException {
+    final String url = "AdministrativeDivisions?$filter=CodeID eq 'NUTS2'&$orderby=DivisionCode"
+        + "&$expand=Parent($expand=Children($orderby=DivisionCode)),Children($orderby=DivisionCode;$expand=Children)";
+    final IntegrationTestHelper parallel = parallel(url, executor);
+    final IntegrationTestHelper sequential = new IntegrationTestHelper(emf, url);
+    parallel.assertStatus(200);
+
+    assertEquals(sequential.getValues(), parallel.getValues());
+  }
+
+  @Test
+  public void testNestedExpandWithOneThread() throws IOException, ODataException {
+    executor.shutdownNow();
+    executor = Executors.newFixedThreadPool(1);
+    final String url = "AdministrativeDivisions(DivisionCode='BE32',CodeID='NUTS2',CodePublisher='Eurostat')"
+        + "?$expand=Parent($expand=Parent,Children),Children($expand=Parent,Children)";
+    final IntegrationTestHelper parallel = parallel(url, executor);
+    final IntegrationTestHelper sequential = new IntegrationTestHelper(emf, url);
+    parallel.assertStatus(200);
+
+    assertEquals(sequential.getValue(), parallel.getValue());
+  }
+
+  @Test
+  public void testRejectedTasksExecutedByRequestThread() throws IOException, ODataException {
+    final String url =
+        "AdministrativeDivisions(DivisionCode='BE32',CodeID='NUTS2',CodePublisher='Eurostat')?$expand=Parent,Children";
+    final IntegrationTestHelper parallel = parallel(url, command -> {
+      throw new RejectedExecutionException();
+    });
+    parallel.assertStatus(200);
+
+    final ObjectNode act = parallel.getValue();
+    assertEquals("BE3", act.get("Parent").get("DivisionCode").asText());
+    assertEquals(7, ((ArrayNode) act.get("Children")).size());
+  }
+
+  private IntegrationTestHelper parallel(final String url, final Executor expandExecutor) throws IOException,
+      ODataException {
+    final JPAODataContextAccessDouble context = IntegrationTestHelper.createContext(emf);
+    context.getServiceContext().setExpandExecutor(expandExecutor);
+    return new IntegrationTestHelper(emf, context, url, null, null);
+  }
+}
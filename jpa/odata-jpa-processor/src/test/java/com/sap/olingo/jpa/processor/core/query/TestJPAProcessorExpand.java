@@ -5,8 +5,18 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.criteria.AbstractQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.From;
 
 import org.apache.olingo.commons.api.ex.ODataException;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -15,6 +25,11 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAEntityType;
+import com.sap.olingo.jpa.metadata.core.edm.mapper.api.JPAPath;
+import com.sap.olingo.jpa.processor.core.api.JPAODataContextAccessDouble;
+import com.sap.olingo.jpa.processor.core.api.JPAODataSlowRequest.Query;
+import com.sap.olingo.jpa.processor.core.database.JPADefaultDatabaseProcessor;
 import com.sap.olingo.jpa.processor.core.util.IntegrationTestHelper;
 import com.sap.olingo.jpa.processor.core.util.TestBase;
 
@@ -333,6 +348,84 @@ public class TestJPAProcessorExpand extends TestBase {
     assertEquals("BE23", children.get(0).get("DivisionCode").asText());
   }
 
+  @Test
+  public void testExpandWithTopSkipOneEntity() throws IOException, ODataException {
+    final JPAODataContextAccessDouble context = createContextWithRowNumberEmulation();
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, context,
+        "Organizations('3')?$expand=Roles($top=1;$skip=1)", null, null);
+    helper.assertStatus(200);
+
+    final ObjectNode org = helper.getValue();
+    final ArrayNode roles = (ArrayNode) org.get("Roles");
+    assertEquals(1, roles.size());
+    assertEquals("B", roles.get(0).get("RoleCategory").asText());
+    // Only the requested role is read
+    assertEquals(Arrays.asList(1L, 1L), rowsFetched(context));
+  }
+
+  @Test
+  public void testExpandWithOrderByDescTopSkipPerParent() throws IOException, ODataException {
+    final JPAODataContextAccessDouble context = createContextWithRowNumberEmulation();
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, context,
+        "Organizations?$filter=ID eq '2' or ID eq '3'&$orderby=ID"
+            + "&$expand=Roles($top=1;$skip=1;$orderby=RoleCategory desc)", null, null);
+    helper.assertStatus(200);
+
+    final ArrayNode orgs = helper.getValues();
+    assertEquals(2, orgs.size());
+    ArrayNode roles = (ArrayNode) orgs.get(0).get("Roles");
+    assertEquals(1, roles.size());
+    assertEquals("A", roles.get(0).get("RoleCategory").asText());
+    roles = (ArrayNode) orgs.get(1).get("Roles");
+    assertEquals(1, roles.size());
+    assertEquals("B", roles.get(0).get("RoleCategory").asText());
+    // One role per organization is read
+    assertEquals(Arrays.asList(2L, 2L), rowsFetched(context));
+  }
+
+  @Test
+  public void testExpandWithSkipBeyondResult() throws IOException, ODataException {
+    final JPAODataContextAccessDouble context = createContextWithRowNumberEmulation();
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, context,
+        "Organizations('2')?$expand=Roles($skip=2)", null, null);
+    helper.assertStatus(200);
+
+    final ObjectNode org = helper.getValue();
+    final ArrayNode roles = (ArrayNode) org.get("Roles");
+    assertEquals(0, roles.size());
+    assertEquals(Arrays.asList(1L, 0L), rowsFetched(context));
+  }
+
+  @Test
+  public void testExpandWithTopSkipRestrictedInMemory() throws IOException, ODataException {
+    // Without data source the default database processor is used, which does not restrict the expanded rows
+    final JPAODataContextAccessDouble context = IntegrationTestHelper.createContext(emf);
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, context,
+        "Organizations('3')?$expand=Roles($top=1;$skip=1)", null, null);
+    helper.assertStatus(200);
+
+    final ObjectNode org = helper.getValue();
+    final ArrayNode roles = (ArrayNode) org.get("Roles");
+    assertEquals(1, roles.size());
+    assertEquals("B", roles.get(0).get("RoleCategory").asText());
+    assertEquals(Arrays.asList(1L, 3L), rowsFetched(context));
+  }
+
+  @Test
+  public void testExpandWithFilterTop() throws IOException, ODataException {
+    final JPAODataContextAccessDouble context = IntegrationTestHelper.createContext(emf);
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, context,
+        "Organizations('3')?$expand=Roles($filter=RoleCategory ne 'A';$top=1)", null, null);
+    helper.assertStatus(200);
+
+    final ObjectNode org = helper.getValue();
+    final ArrayNode roles = (ArrayNode) org.get("Roles");
+    assertEquals(1, roles.size());
+    assertEquals("B", roles.get(0).get("RoleCategory").asText());
+    // $filter prevents the restriction per parent, so all matching roles are read and $top is applied in memory
+    assertEquals(Arrays.asList(1L, 2L), rowsFetched(context));
+  }
+
   @Test
   public void testExpandWithCount() throws IOException, ODataException {
     final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
@@ -384,6 +477,17 @@ public class TestJPAProcessorExpand extends TestBase {
     assertEquals(3, org.get("Roles@odata.count").asInt());
   }
 
+  @Test
+  public void testExpandWithCountAndFilter() throws IOException, ODataException {
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
+        "Organizations('3')?$expand=Roles($count=true;$filter=RoleCategory ne 'A')");
+    helper.assertStatus(200);
+
+    final ObjectNode org = helper.getValue();
+    assertEquals(2, org.get("Roles").size());
+    assertEquals(2, org.get("Roles@odata.count").asInt());
+  }
+
   @Test
   public void testExpandWithOrderByDescTopSkipAndExternalOrderBy() throws IOException, ODataException {
     final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
@@ -637,4 +741,25 @@ public class TestJPAProcessorExpand extends TestBase {
     ArrayNode oneToMany = (ArrayNode) org.get("OneToManyHidden");
     assertEquals(2, oneToMany.size());
   }
+
+  private List<Long> rowsFetched(final JPAODataContextAccessDouble context) {
+    return context.getDebugger().getQueries().stream().map(Query::getRowsFetched).collect(Collectors.toList());
+  }
+
+  /**
+   * The factory does not provide a database processor for the test database, so a processor is set that opts in to
+   * the row number emulation.
+   */
+  private JPAODataContextAccessDouble createContextWithRowNumberEmulation() throws ODataException {
+    final JPAODataContextAccessDouble context = IntegrationTestHelper.createContext(emf);
+    context.getServiceContext().setDatabaseProcessor(new JPADefaultDatabaseProcessor() {
+      @Override
+      public Expression<Boolean> createExpandTopSkipWhereClause(final CriteriaBuilder cb, final AbstractQuery<?> cq,
+          final From<?, ?> target, final JPAEntityType entityType, final List<JPAPath> partitionBy,
+          final OrderByOption orderBy, final int skip, final int top) throws ODataApplicationException {
+        return createExpandRowNumberEmulation(cb, cq, target, entityType, partitionBy, orderBy, skip, top);
+      }
+    });
+    return context;
+  }
 }
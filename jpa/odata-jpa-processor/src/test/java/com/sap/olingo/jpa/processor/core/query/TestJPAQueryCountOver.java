@@ -0,0 +1,85 @@
+package com.sap.olingo.jpa.processor.core.query;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import javax.persistence.criteria.AbstractQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+
+import org.apache.olingo.commons.api.ex.ODataException;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sap.olingo.jpa.processor.core.api.JPAODataContextAccessDouble;
+import com.sap.olingo.jpa.processor.core.api.JPAODataDatabaseProcessor;
+import com.sap.olingo.jpa.processor.core.database.JPADefaultDatabaseProcessor;
+import com.sap.olingo.jpa.processor.core.util.IntegrationTestHelper;
+import com.sap.olingo.jpa.processor.core.util.TestBase;
+
+public class TestJPAQueryCountOver extends TestBase {
+  // Derby does not support COUNT(*) OVER(), so a constant column is used to see where the count comes from
+  private static final long COLUMN_COUNT = 4711L;
+
+  @Test
+  public void testCountTakenFromCountColumn() throws IOException, ODataException {
+    final IntegrationTestHelper helper = request("Organizations?$count=true&$top=2",
+        new CountColumnDatabaseProcessor());
+    helper.assertStatus(200);
+
+    final ObjectNode act = helper.getValue();
+    assertEquals(COLUMN_COUNT, act.get("@odata.count").asLong());
+    assertEquals(2, act.get("value").size());
+  }
+
+  @Test
+  public void testCountColumnNotReturnedAsProperty() throws IOException, ODataException {
+    final String url = "Organizations?$count=true&$orderby=ID&$select=ID,Name1";
+    final IntegrationTestHelper withColumn = request(url, new CountColumnDatabaseProcessor());
+    final IntegrationTestHelper withQuery = new IntegrationTestHelper(emf, url);
+    withColumn.assertStatus(200);
+
+    assertEquals(withQuery.getValue().get("value"), withColumn.getValue().get("value"));
+  }
+
+  @Test
+  public void testCountZeroIfNoRowFound() throws IOException, ODataException {
+    final IntegrationTestHelper helper = request(
+        "Organizations?$count=true&$filter=ID eq 'XX'", new CountColumnDatabaseProcessor());
+    helper.assertStatus(200);
+
+    assertEquals(0, helper.getValue().get("@odata.count").asLong());
+  }
+
+  @Test
+  public void testCountQueryIfAllRowsSkipped() throws IOException, ODataException {
+    final IntegrationTestHelper helper = request("Organizations?$count=true&$skip=20",
+        new CountColumnDatabaseProcessor());
+    helper.assertStatus(200);
+
+    assertEquals(10, helper.getValue().get("@odata.count").asLong());
+  }
+
+  @Test
+  public void testCountQueryIfNotSupportedByDatabase() throws IOException, ODataException {
+    final IntegrationTestHelper helper = request("Organizations?$count=true&$top=2", new JPADefaultDatabaseProcessor());
+    helper.assertStatus(200);
+
+    assertEquals(10, helper.getValue().get("@odata.count").asLong());
+  }
+
+  private IntegrationTestHelper request(final String url, final JPAODataDatabaseProcessor databaseProcessor)
+      throws IOException, ODataException {
+    final JPAODataContextAccessDouble context = IntegrationTestHelper.createContext(emf);
+    context.getServiceContext().setDatabaseProcessor(databaseProcessor);
+    return new IntegrationTestHelper(emf, context, url, null, null);
+  }
+
+  private static class CountColumnDatabaseProcessor extends JPADefaultDatabaseProcessor {
+    @Override
+    public Expression<Long> createCountOverExpression(final CriteriaBuilder cb, final AbstractQuery<?> cq) {
+      return cb.literal(COLUMN_COUNT);
+    }
+  }
+}
@@ -0,0 +1,208 @@
+package com.sap.olingo.jpa.processor.core.query;
+
+import static com.sap.olingo.jpa.processor.core.converter.JPAExpandResult.ROOT_RESULT_KEY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.persistence.Tuple;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.ex.ODataException;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sap.olingo.jpa.metadata.api.JPAEdmProvider;
+import com.sap.olingo.jpa.processor.core.api.JPAODataContextAccessDouble;
+import com.sap.olingo.jpa.processor.core.util.TestBase;
+
+public class TestJPAQueryPlanCache extends TestBase {
+  private OData odata;
+  private Edm edm;
+  private JPAODataContextAccessDouble context;
+
+  @Before
+  public void setup() throws ODataException {
+    final JPAEdmProvider edmProvider = new JPAEdmProvider(PUNIT_NAME, emf, null, TestBase.enumPackages);
+    odata = OData.newInstance();
+    edm = odata.createServiceMetadata(edmProvider, new ArrayList<>()).getEdm();
+    context = new JPAODataContextAccessDouble(edmProvider, ds);
+    context.getServiceContext().setQueryPlanCacheSize(2);
+    createHeaders();
+  }
+
+  @Test
+  public void testShapeIgnoresKeyValues() throws ODataException {
+    final JPAQueryShape first = shape("Organizations('1')/Roles", null);
+    final JPAQueryShape second = shape("Organizations('3')/Roles", null);
+
+    assertEquals(first.getKey(), second.getKey());
+    assertEquals(1, second.getLiterals().size());
+  }
+
+  @Test
+  public void testShapeIgnoresComparedLiteralsTopSkip() throws ODataException {
+    assertEquals(shape("Organizations", "$filter=Country eq 'USA' and ID gt '2'&$top=2").getKey(),
+        shape("Organizations", "$filter=Country eq 'DEU' and ID gt '5'&$skip=4").getKey());
+  }
+
+  @Test
+  public void testShapeKeepsLiteralsOfMethods() throws ODataException {
+    assertNotEquals(shape("Organizations", "$filter=contains(Name1,'Org')").getKey(),
+        shape("Organizations", "$filter=contains(Name1,'Third')").getKey());
+  }
+
+  @Test
+  public void testShapeKeepsLiteralsOfFunctionParameters() throws ODataException {
+    assertNotEquals(shape("AdministrativeDivisions",
+        "$filter=com.sap.olingo.jpa.PopulationDensity(Area=Area,Population=Population) gt 1").getKey(),
+        shape("AdministrativeDivisions",
+            "$filter=com.sap.olingo.jpa.PopulationDensity(Area=13079087,Population=Population) gt 1").getKey());
+  }
+
+  @Test
+  public void testShapeKeepsNullLiteral() throws ODataException {
+    assertNotEquals(shape("Organizations", "$filter=Name2 eq null").getKey(),
+        shape("Organizations", "$filter=Name2 eq 'A'").getKey());
+  }
+
+  @Test
+  public void testShapeDiffersForKeyAccess() throws ODataException {
+    assertNotEquals(shape("Organizations", null).getKey(), shape("Organizations('1')", null).getKey());
+  }
+
+  @Test
+  public void testShapeDiffersForSelect() throws ODataException {
+    assertNotEquals(shape("Organizations", "$select=ID").getKey(), shape("Organizations", "$select=ID,Name1")
+        .getKey());
+  }
+
+  @Test
+  public void testShapeDiffersForExpand() throws ODataException {
+    assertNotEquals(shape("Organizations", "$expand=Roles").getKey(), shape("Organizations", null).getKey());
+  }
+
+  @Test
+  public void testShapeDiffersForOrderBy() throws ODataException {
+    assertNotEquals(shape("Organizations", "$orderby=Name1").getKey(), shape("Organizations", "$orderby=Name1 desc")
+        .getKey());
+  }
+
+  @Test
+  public void testShapeNotCacheableWithSearch() throws ODataException {
+    assertFalse(shape("Organizations", "$search=Third").isCacheable());
+    assertTrue(shape("Organizations", null).isCacheable());
+  }
+
+  @Test
+  public void testQueryReusedForOtherFilterValue() throws ODataException {
+    final List<Tuple> first = execute("Organizations", "$filter=Country eq 'USA'&$orderby=ID");
+    final List<Tuple> second = execute("Organizations", "$filter=Country eq 'DEU'&$orderby=ID");
+
+    assertEquals(1, context.getQueryPlanCache().getMissCount());
+    assertEquals(1, context.getQueryPlanCache().getHitCount());
+    assertEquals(9, first.size());
+    assertEquals(1, second.size());
+    assertEquals("10", second.get(0).get("ID"));
+  }
+
+  @Test
+  public void testQueryReusedForOtherComparedValue() throws ODataException {
+    final List<Tuple> first = execute("Organizations", "$filter=ID gt '5'");
+    final List<Tuple> second = execute("Organizations", "$filter=ID gt '8'");
+
+    assertEquals(1, context.getQueryPlanCache().getHitCount());
+    assertEquals(4, first.size());
+    assertEquals(1, second.size());
+    assertEquals("9", second.get(0).get("ID"));
+  }
+
+  @Test
+  public void testQueryReusedForOtherKey() throws ODataException {
+    final List<Tuple> first = execute("Organizations('3')/Roles", null);
+    final List<Tuple> second = execute("Organizations('4')/Roles", null);
+
+    assertEquals(1, context.getQueryPlanCache().getHitCount());
+    assertEquals(3, first.size());
+    assertEquals(0, second.size());
+  }
+
+  @Test
+  public void testQueryRespectsTopSkipOfEachRequest() throws ODataException {
+    execute("Organizations", "$orderby=ID&$top=2");
+    final List<Tuple> act = execute("Organizations", "$orderby=ID&$skip=8");
+
+    assertEquals(1, context.getQueryPlanCache().getHitCount());
+    assertEquals(2, act.size());
+    assertEquals("8", act.get(0).get("ID"));
+  }
+
+  @Test
+  public void testQueryKeepsLiteralOfLambda() throws ODataException {
+    execute("Organizations", "$filter=Roles/any(d:d/RoleCategory eq 'A')");
+    execute("Organizations", "$filter=Roles/any(d:d/RoleCategory eq 'C')");
+
+    assertEquals(2, context.getQueryPlanCache().size());
+    assertEquals(2, context.getQueryPlanCache().getMissCount());
+  }
+
+  @Test
+  public void testQueryWithCacheSameResultAsWithout() throws ODataException {
+    final String query = "$select=ID,Name1,LocationName&$filter=Country ne 'USA'&$orderby=Name1 desc";
+    execute("Organizations", query);
+    final List<Tuple> act = execute("Organizations", query);
+    context.getServiceContext().setQueryPlanCacheSize(0);
+    final List<Tuple> exp = execute("Organizations", query);
+
+    assertEquals(exp.size(), act.size());
+    for (int i = 0; i < exp.size(); i++) {
+      assertEquals(exp.get(i).getElements().size(), act.get(i).getElements().size());
+      assertEquals(exp.get(i).get("ID"), act.get(i).get("ID"));
+      assertEquals(exp.get(i).get("LocationName"), act.get(i).get("LocationName"));
+    }
+  }
+
+  @Test
+  public void testCacheEvictsLeastRecentlyUsed() throws ODataException {
+    execute("Organizations", "$select=ID");
+    execute("Organizations", "$select=Name1");
+    execute("Organizations", "$select=ID");
+    execute("Organizations", "$select=Country");
+    execute("Organizations", "$select=ID");
+    execute("Organizations", "$select=Name1");
+
+    assertEquals(2, context.getQueryPlanCache().size());
+    assertEquals(2, context.getQueryPlanCache().getHitCount());
+    assertEquals(4, context.getQueryPlanCache().getMissCount());
+  }
+
+  @Test
+  public void testCacheClearedOnNewDatabaseProcessor() throws ODataException {
+    execute("Organizations", "$select=ID");
+    context.getServiceContext().setDatabaseProcessor(context.getDatabaseProcessor());
+
+    assertEquals(0, context.getQueryPlanCache().size());
+  }
+
+  private List<Tuple> execute(final String path, final String query) throws ODataException {
+    final JPAJoinQuery cut = new JPAJoinQuery(odata, context, emf.createEntityManager(), headers,
+        parse(path, query));
+    return cut.execute().getResult(ROOT_RESULT_KEY);
+  }
+
+  private UriInfo parse(final String path, final String query) throws ODataException {
+    return new Parser(edm, odata).parseUri(path, query, null, "http://localhost:8080/Test/Olingo.svc");
+  }
+
+  private JPAQueryShape shape(final String path, final String query) throws ODataException {
+    return JPAQueryShape.of(parse(path, query), 1, Locale.ENGLISH, false);
+  }
+}
@@ -0,0 +1,201 @@
+package com.sap.olingo.jpa.processor.core.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.olingo.commons.api.ex.ODataException;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sap.olingo.jpa.processor.core.api.JPAODataContextAccessDouble;
+import com.sap.olingo.jpa.processor.core.util.IntegrationTestHelper;
+import com.sap.olingo.jpa.processor.core.util.TestBase;
+
+public class TestJPAServerDrivenPaging extends TestBase {
+  private static final String SERVICE_ROOT = "http://localhost:8080/Test/Olingo.svc/";
+  private Map<String, Integer> maxPageSizes;
+
+  @Before
+  public void setup() {
+    maxPageSizes = new HashMap<>();
+    maxPageSizes.put("Organizations", 3);
+  }
+
+  @Test
+  public void testFirstPageContainsNextLink() throws IOException, ODataException {
+    final IntegrationTestHelper helper = page("Organizations?$orderby=ID", null, maxPageSizes);
+    helper.assertStatus(200);
+
+    final ObjectNode page = helper.getValue();
+    final ArrayNode orgs = (ArrayNode) page.get("value");
+    assertEquals(3, orgs.size());
+    assertEquals("1", orgs.get(0).get("ID").asText());
+    assertEquals("10", orgs.get(1).get("ID").asText());
+    assertEquals("2", orgs.get(2).get("ID").asText());
+    assertNotNull(page.get("@odata.nextLink"));
+    assertTrue(page.get("@odata.nextLink").asText().startsWith(SERVICE_ROOT + "Organizations?$orderby=ID&$skiptoken="));
+  }
+
+  @Test
+  public void testReadAllPagesOrderByKey() throws IOException, ODataException {
+    final List<String> ids = readAllPages("Organizations?$orderby=ID", null);
+    assertEquals(Arrays.asList("1", "10", "2", "3", "4", "5", "6", "7", "8", "9"), ids);
+  }
+
+  @Test
+  public void testReadAllPagesOrderByKeyDesc() throws IOException, ODataException {
+    final List<String> ids = readAllPages("Organizations?$orderby=ID%20desc", null);
+    assertEquals(Arrays.asList("9", "8", "7", "6", "5", "4", "3", "2", "10", "1"), ids);
+  }
+
+  @Test
+  public void testReadAllPagesWithoutOrderBy() throws IOException, ODataException {
+    final List<String> ids = readAllPages("Organizations", null);
+    assertEquals(Arrays.asList("1", "10", "2", "3", "4", "5", "6", "7", "8", "9"), ids);
+  }
+
+  @Test
+  public void testReadAllPagesOrderByNavigationUsesOffset() throws IOException, ODataException {
+    final List<String> ids = readAllPages("Organizations?$orderby=Roles/$count%20desc", null);
+    assertEquals(10, ids.size());
+    assertEquals("3", ids.get(0));
+    assertEquals(10, ids.stream().distinct().count());
+  }
+
+  @Test
+  public void testReadAllPagesRespectsTop() throws IOException, ODataException {
+    final List<String> ids = readAllPages("Organizations?$orderby=ID&$top=5", null);
+    assertEquals(Arrays.asList("1", "10", "2", "3", "4"), ids);
+  }
+
+  @Test
+  public void testReadAllPagesRespectsSkip() throws IOException, ODataException {
+    final List<String> ids = readAllPages("Organizations?$orderby=ID&$skip=2", null);
+    assertEquals(Arrays.asList("2", "3", "4", "5", "6", "7", "8", "9"), ids);
+  }
+
+  @Test
+  public void testNoNextLinkIfTopNotGreaterPageSize() throws IOException, ODataException {
+    final IntegrationTestHelper helper = page("Organizations?$top=3", null, maxPageSizes);
+    helper.assertStatus(200);
+
+    final ObjectNode page = helper.getValue();
+    assertEquals(3, page.get("value").size());
+    assertNull(page.get("@odata.nextLink"));
+  }
+
+  @Test
+  public void testPreferMaxPageSize() throws IOException, ODataException {
+    final IntegrationTestHelper helper = page("Organizations", createPreferHeader(4), null);
+    helper.assertStatus(200);
+
+    final ObjectNode page = helper.getValue();
+    assertEquals(4, page.get("value").size());
+    assertNotNull(page.get("@odata.nextLink"));
+    assertEquals("odata.maxpagesize=4", helper.getResponce().getHeader("Preference-Applied"));
+  }
+
+  @Test
+  public void testPreferMaxPageSizeLimitedByServer() throws IOException, ODataException {
+    final List<String> ids = readAllPages("Organizations", createPreferHeader(5));
+    assertEquals(10, ids.size());
+
+    final IntegrationTestHelper helper = page("Organizations", createPreferHeader(5), maxPageSizes);
+    assertEquals(3, helper.getValue().get("value").size());
+    assertEquals("odata.maxpagesize=3", helper.getResponce().getHeader("Preference-Applied"));
+  }
+
+  @Test
+  public void testNoPagingWithoutPageSize() throws IOException, ODataException {
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, "Organizations");
+    helper.assertStatus(200);
+
+    final ObjectNode page = helper.getValue();
+    assertEquals(10, page.get("value").size());
+    assertNull(page.get("@odata.nextLink"));
+  }
+
+  @Test
+  public void testMaximalPageSizeReadsAllEntities() throws IOException, ODataException {
+    maxPageSizes.put("Organizations", Integer.MAX_VALUE);
+    final IntegrationTestHelper helper = page("Organizations", null, maxPageSizes);
+    helper.assertStatus(200);
+
+    final ObjectNode page = helper.getValue();
+    assertEquals(10, page.get("value").size());
+    assertNull(page.get("@odata.nextLink"));
+  }
+
+  @Test
+  public void testNoPagingForSingleEntity() throws IOException, ODataException {
+    final IntegrationTestHelper helper = page("Organizations('3')", null, maxPageSizes);
+    helper.assertStatus(200);
+
+    assertEquals("3", helper.getValue().get("ID").asText());
+  }
+
+  @Test
+  public void testCountNotRestrictedByPage() throws IOException, ODataException {
+    final IntegrationTestHelper helper = page("Organizations?$count=true", null, maxPageSizes);
+    helper.assertStatus(200);
+
+    final ObjectNode page = helper.getValue();
+    assertEquals(3, page.get("value").size());
+    assertEquals(10, page.get("@odata.count").asInt());
+  }
+
+  @Test
+  public void testInvalidSkipTokenRejected() throws IOException, ODataException {
+    final IntegrationTestHelper helper = page("Organizations?$skiptoken=abc", null, maxPageSizes);
+    helper.assertStatus(400);
+  }
+
+  private IntegrationTestHelper page(final String url, final Map<String, List<String>> headers,
+      final Map<String, Integer> maxPageSizes) throws IOException, ODataException {
+    final JPAODataContextAccessDouble context = IntegrationTestHelper.createContext(emf);
+    if (maxPageSizes != null)
+      maxPageSizes.forEach(context.getServiceContext()::setMaxPageSize);
+    return new IntegrationTestHelper(emf, context, url, null, headers);
+  }
+
+  private Map<String, List<String>> createPreferHeader(final int maxPageSize) {
+    final Map<String, List<String>> headers = new HashMap<>();
+    headers.put("Prefer", Arrays.asList("odata.maxpagesize=" + maxPageSize));
+    return headers;
+  }
+
+  private List<String> readAllPages(final String firstPage, final Map<String, List<String>> headers)
+      throws IOException, ODataException {
+
+    final List<String> ids = new ArrayList<>();
+    String url = firstPage;
+    int noPages = 0;
+    while (url != null) {
+      final IntegrationTestHelper helper = page(url, headers, maxPageSizes);
+      helper.assertStatus(200);
+      final ObjectNode page = helper.getValue();
+      final ArrayNode orgs = (ArrayNode) page.get("value");
+      assertFalse(orgs.size() > 3);
+      for (final JsonNode org : orgs)
+        ids.add(org.get("ID").asText());
+      final JsonNode nextLink = page.get("@odata.nextLink");
+      url = nextLink != null ? nextLink.asText().substring(SERVICE_ROOT.length()) : null;
+      noPages++;
+      assertTrue(noPages < 10);
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,63 @@
+package com.sap.olingo.jpa.processor.core.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.sap.olingo.jpa.processor.core.exception.ODataJPAQueryException;
+
+public class TestJPASkipToken {
+
+  @Test
+  public void checkRoundTripKeepsValuesAndTypes() throws ODataJPAQueryException {
+    final List<Object> values = Arrays.asList("Test/&=?", Integer.valueOf(5), Long.valueOf(-7), new BigDecimal(
+        "12.50"), Timestamp.valueOf("2016-01-20 09:21:23.123456789"), LocalDate.of(2017, 3, 4), new Date(42),
+        Boolean.TRUE);
+
+    final JPASkipToken act = JPASkipToken.parse(JPASkipToken.create(20, values).asString());
+    assertEquals(20, act.getDelivered());
+    assertTrue(act.isKeyset());
+    assertEquals(values, act.getValues());
+  }
+
+  @Test
+  public void checkTokenIsUrlSafe() throws ODataJPAQueryException {
+    final String act = JPASkipToken.create(3, Arrays.asList("???>>>~~~", "äöü")).asString();
+    assertTrue(act.matches("[A-Za-z0-9_-]+"));
+  }
+
+  @Test
+  public void checkUnsupportedTypeCreatesOffsetToken() throws ODataJPAQueryException {
+    final JPASkipToken act = JPASkipToken.parse(JPASkipToken.create(6, Arrays.asList("1", Calendar.getInstance()))
+        .asString());
+    assertEquals(6, act.getDelivered());
+    assertFalse(act.isKeyset());
+  }
+
+  @Test
+  public void checkNullValueCreatesOffsetToken() throws ODataJPAQueryException {
+    final JPASkipToken act = JPASkipToken.create(6, Collections.singletonList(null));
+    assertFalse(act.isKeyset());
+  }
+
+  @Test(expected = ODataJPAQueryException.class)
+  public void checkInvalidTokenThrowsException() throws ODataJPAQueryException {
+    JPASkipToken.parse("abc");
+  }
+
+  @Test(expected = ODataJPAQueryException.class)
+  public void checkTokenWithTrailingDataThrowsException() throws ODataJPAQueryException {
+    JPASkipToken.parse(JPASkipToken.create(1, Arrays.asList("A")).asString() + "AAAA");
+  }
+}
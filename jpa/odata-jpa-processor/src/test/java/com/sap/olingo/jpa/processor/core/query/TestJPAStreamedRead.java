@@ -0,0 +1,133 @@
+package com.sap.olingo.jpa.processor.core.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.olingo.commons.api.ex.ODataException;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sap.olingo.jpa.processor.core.api.JPAODataContextAccessDouble;
+import com.sap.olingo.jpa.processor.core.util.IntegrationTestHelper;
+import com.sap.olingo.jpa.processor.core.util.TestBase;
+
+public class TestJPAStreamedRead extends TestBase {
+  private static final int FETCH_SIZE = 3;
+
+  @Test
+  public void testStreamedReadReturnsAllEntities() throws IOException, ODataException {
+    final IntegrationTestHelper helper = streamed("Organizations?$orderby=ID", null, FETCH_SIZE);
+    helper.assertStatus(200);
+
+    final ObjectNode act = helper.getValue();
+    assertEquals(Arrays.asList("1", "10", "2", "3", "4", "5", "6", "7", "8", "9"), collectIds(act));
+    assertNull(act.get("@odata.nextLink"));
+  }
+
+  @Test
+  public void testStreamedReadSameResultAsNotStreamed() throws IOException, ODataException {
+    final String url = "Organizations?$select=ID,Name1&$filter=Country%20eq%20'USA'&$orderby=Name1%20desc";
+    final IntegrationTestHelper streamed = streamed(url, null, FETCH_SIZE);
+    final IntegrationTestHelper notStreamed = new IntegrationTestHelper(emf, url);
+    streamed.assertStatus(200);
+
+    assertEquals(notStreamed.getValue().get("value"), streamed.getValue().get("value"));
+  }
+
+  @Test
+  public void testStreamedReadRespectsTopSkip() throws IOException, ODataException {
+    final IntegrationTestHelper helper = streamed("Organizations?$orderby=ID%20desc&$skip=1&$top=5", null, FETCH_SIZE);
+    helper.assertStatus(200);
+
+    assertEquals(Arrays.asList("8", "7", "6", "5", "4"), collectIds(helper.getValue()));
+  }
+
+  @Test
+  public void testStreamedReadOrderByNavigation() throws IOException, ODataException {
+    final IntegrationTestHelper helper = streamed("Organizations?$orderby=Roles/$count%20desc", null, FETCH_SIZE);
+    helper.assertStatus(200);
+
+    final List<String> act = collectIds(helper.getValue());
+    assertEquals(10, act.size());
+    assertEquals("3", act.get(0));
+    assertEquals(10, act.stream().distinct().count());
+  }
+
+  @Test
+  public void testStreamedReadNavigation() throws IOException, ODataException {
+    final IntegrationTestHelper helper = streamed("Organizations('3')/Roles", null, 2);
+    helper.assertStatus(200);
+
+    assertEquals(3, helper.getValues().size());
+  }
+
+  @Test
+  public void testStreamedReadEmptyEntitySet() throws IOException, ODataException {
+    final IntegrationTestHelper helper = streamed("Organizations?$filter=ID%20eq%20'XX'", null, FETCH_SIZE);
+    helper.assertStatus(200);
+
+    assertEquals(0, helper.getValues().size());
+  }
+
+  @Test
+  public void testStreamedReadEmptyNavigation() throws IOException, ODataException {
+    final IntegrationTestHelper helper = streamed("Organizations('4')/Roles", null, FETCH_SIZE);
+    helper.assertStatus(404);
+  }
+
+  @Test
+  public void testStreamedReadWithinBatch() throws IOException, ODataException {
+    final StringBuffer requestBody = new StringBuffer("--abc123\r\n");
+    requestBody.append("Content-Type: application/http\r\n");
+    requestBody.append("Content-Transfer-Encoding: binary\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("GET Organizations?$orderby=ID HTTP/1.1\r\n");
+    requestBody.append("Content-Type: application/json\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("--abc123--");
+
+    final IntegrationTestHelper helper = streamed("$batch", requestBody, FETCH_SIZE);
+    assertEquals(200, helper.getBatchResultStatus(1));
+    assertEquals(10, helper.getBatchResult(1).get("value").size());
+  }
+
+  @Test
+  public void testExpandNotStreamed() throws IOException, ODataException {
+    final IntegrationTestHelper helper = streamed("Organizations?$orderby=ID&$expand=Roles", null, FETCH_SIZE);
+    helper.assertStatus(200);
+
+    final ArrayNode act = helper.getValues();
+    assertEquals(10, act.size());
+    assertEquals(3, act.get(3).get("Roles").size());
+  }
+
+  @Test
+  public void testCountNotStreamed() throws IOException, ODataException {
+    final IntegrationTestHelper helper = streamed("Organizations?$count=true", null, FETCH_SIZE);
+    helper.assertStatus(200);
+
+    assertEquals(10, helper.getValue().get("@odata.count").asInt());
+  }
+
+  private IntegrationTestHelper streamed(final String url, final StringBuffer requestBody, final int fetchSize)
+      throws IOException, ODataException {
+    final JPAODataContextAccessDouble context = IntegrationTestHelper.createContext(emf);
+    context.getServiceContext().setStreamingFetchSize(fetchSize);
+    return new IntegrationTestHelper(emf, context, url, requestBody, null);
+  }
+
+  private List<String> collectIds(final ObjectNode page) {
+    final List<String> ids = new ArrayList<>();
+    for (final JsonNode org : page.get("value"))
+      ids.add(org.get("ID").asText());
+    return ids;
+  }
+}
@@ -3,6 +3,7 @@ package com.sap.olingo.jpa.processor.core.query;
 import static com.sap.olingo.jpa.processor.core.query.JPAExpandQueryResult.ROOT_RESULT_KEY;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -20,6 +21,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import com.sap.olingo.jpa.processor.core.converter.JPAJoinKey;
 import com.sap.olingo.jpa.processor.core.converter.JPATupleChildConverter;
 import com.sap.olingo.jpa.processor.core.util.ServiceMetadataDouble;
 import com.sap.olingo.jpa.processor.core.util.TestBase;
@@ -34,7 +36,7 @@ public class TestJPATupleChildConverter extends TestBase {
   private List<Tuple> jpaQueryResult;
   private UriHelperDouble uriHelper;
   private Map<String, String> keyPredicates;
-  private HashMap<String, List<Tuple>> queryResult = new HashMap<>(1);
+  private HashMap<JPAJoinKey, List<Tuple>> queryResult = new HashMap<>(1);
 
   @Before
   public void setup() throws ODataException {
@@ -125,6 +127,33 @@ public class TestJPATupleChildConverter extends TestBase {
     assertEquals("Willi", act.getEntities().get(0).getProperty("Name1").getValue().toString());
   }
 
+  @Test
+  public void checkConvertsTwoResultsDifferentElements() throws ODataApplicationException, ODataJPAModelException {
+    HashMap<String, Object> result;
+
+    result = new HashMap<>();
+    result.put("ID", new String("1"));
+    result.put("Name1", new String("Willi"));
+    jpaQueryResult.add(new TupleDouble(result));
+
+    result = new HashMap<>();
+    result.put("ID", new String("5"));
+    result.put("Address/Region", new String("CA"));
+    jpaQueryResult.add(new TupleDouble(result));
+
+    keyPredicates.put("1", "Organizations('1')");
+    keyPredicates.put("5", "Organizations('5')");
+
+    EntityCollection act = cut.getResult(new JPAExpandQueryResult(queryResult, null, helper.getJPAEntityType(
+        "Organizations"))).get(ROOT_RESULT_KEY);
+    assertEquals(2, act.getEntities().size());
+    assertEquals("Willi", act.getEntities().get(0).getProperty("Name1").getValue().toString());
+    assertNull(act.getEntities().get(0).getProperty("Address"));
+    assertNull(act.getEntities().get(1).getProperty("Name1"));
+    assertEquals("CA", ((ComplexValue) act.getEntities().get(1).getProperty("Address").getValue()).getValue().get(0)
+        .getValue().toString());
+  }
+
   @Test
   public void checkConvertsOneResultsOneComplexElement() throws ODataApplicationException, ODataJPAModelException {
     HashMap<String, Object> result;
@@ -204,8 +233,8 @@ public class TestJPATupleChildConverter extends TestBase {
   public void checkConvertMediaStreamStaticMime() throws ODataJPAModelException, NumberFormatException,
       ODataApplicationException {
 
-    HashMap<String, List<Tuple>> result = new HashMap<>(1);
-    result.put("root", jpaQueryResult);
+    HashMap<JPAJoinKey, List<Tuple>> result = new HashMap<>(1);
+    result.put(ROOT_RESULT_KEY, jpaQueryResult);
 
     cut = new JPATupleChildConverter(helper.sd, uriHelper, new ServiceMetadataDouble(nameBuilder, "PersonImage"));
 
@@ -226,8 +255,8 @@ public class TestJPATupleChildConverter extends TestBase {
   public void checkConvertMediaStreamDynamicMime() throws ODataJPAModelException, NumberFormatException,
       ODataApplicationException {
 
-    HashMap<String, List<Tuple>> result = new HashMap<>(1);
-    result.put("root", jpaQueryResult);
+    HashMap<JPAJoinKey, List<Tuple>> result = new HashMap<>(1);
+    result.put(ROOT_RESULT_KEY, jpaQueryResult);
 
     cut = new JPATupleChildConverter(helper.sd, uriHelper, new ServiceMetadataDouble(nameBuilder,
         "OrganizationImage"));
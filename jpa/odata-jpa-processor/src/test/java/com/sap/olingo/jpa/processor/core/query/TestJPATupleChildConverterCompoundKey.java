@@ -17,6 +17,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.sap.olingo.jpa.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import com.sap.olingo.jpa.processor.core.converter.JPAJoinKey;
 import com.sap.olingo.jpa.processor.core.converter.JPATupleChildConverter;
 import com.sap.olingo.jpa.processor.core.testmodel.AdministrativeDivisionDescriptionKey;
 import com.sap.olingo.jpa.processor.core.util.ServiceMetadataDouble;
@@ -45,8 +46,8 @@ public class TestJPATupleChildConverterCompoundKey extends TestBase {
   public void checkConvertsOneResultsTwoKeys() throws ODataApplicationException, ODataJPAModelException {
     // .../BusinessPartnerRoles(BusinessPartnerID='3',RoleCategory='C')
 
-    HashMap<String, List<Tuple>> resultContainer = new HashMap<>(1);
-    resultContainer.put("root", jpaQueryResult);
+    HashMap<JPAJoinKey, List<Tuple>> resultContainer = new HashMap<>(1);
+    resultContainer.put(ROOT_RESULT_KEY, jpaQueryResult);
 
     cut = new JPATupleChildConverter(helper.sd, uriHelper, new ServiceMetadataDouble(nameBuilder,
         "BusinessPartnerRole"));
@@ -76,8 +77,8 @@ public class TestJPATupleChildConverterCompoundKey extends TestBase {
   public void checkConvertsOneResultsEmbeddedKey() throws ODataApplicationException, ODataJPAModelException {
     // .../AdministrativeDivisionDescriptions(CodePublisher='ISO', CodeID='3166-1', DivisionCode='DEU',Language='en')
 
-    HashMap<String, List<Tuple>> resultContainer = new HashMap<>(1);
-    resultContainer.put("root", jpaQueryResult);
+    HashMap<JPAJoinKey, List<Tuple>> resultContainer = new HashMap<>(1);
+    resultContainer.put(ROOT_RESULT_KEY, jpaQueryResult);
 
     cut = new JPATupleChildConverter(helper.sd, uriHelper, new ServiceMetadataDouble(nameBuilder,
         "AdministrativeDivisionDescription"));
@@ -5,6 +5,7 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class HttpRequestHeaderDouble {
@@ -48,6 +49,11 @@ public class HttpRequestHeaderDouble {
     return new headerItem(headers.get(headerName));
   }
 
+  public void setHeaders(Map<String, List<String>> additionalHeaders) {
+    if (additionalHeaders != null)
+      headers.putAll(additionalHeaders);
+  }
+
   public void setBatchRequest() {
     List<String> headerValue = new ArrayList<String>();
     headerValue.add("multipart/mixed;boundary=abc123");
@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.security.Principal;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -29,8 +30,14 @@ public class HttpServletRequestDouble implements HttpServletRequest {
   }
 
   public HttpServletRequestDouble(final String uri, StringBuffer body) throws IOException {
+    this(uri, body, null);
+  }
+
+  public HttpServletRequestDouble(final String uri, StringBuffer body, Map<String, List<String>> headers)
+      throws IOException {
     super();
     this.reqHeader = new HttpRequestHeaderDouble();
+    this.reqHeader.setHeaders(headers);
     String[] uriParts = uri.split("\\?");
     this.url = new StringBuffer(uriParts[0]);
     if (uriParts.length == 2)
@@ -6,9 +6,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.Cookie;
@@ -18,6 +20,7 @@ public class HttpServletResponseDouble implements HttpServletResponse {
 
   private int setStatus;
   private ServletOutputStream outputStream = new OutPutStream();
+  private final Map<String, String> headers = new HashMap<>();
 
   @Override
   public String getCharacterEncoding() {
@@ -181,7 +184,11 @@ public class HttpServletResponseDouble implements HttpServletResponse {
 
   @Override
   public void addHeader(String name, String value) {
-    // TODO
+    headers.put(name, value);
+  }
+
+  public String getHeader(String name) {
+    return headers.get(name);
   }
 
   @Override
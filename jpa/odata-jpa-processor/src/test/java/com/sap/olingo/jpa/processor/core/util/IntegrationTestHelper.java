@@ -9,6 +9,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -29,7 +30,6 @@ import com.sap.olingo.jpa.metadata.api.JPAEdmProvider;
 import com.sap.olingo.jpa.processor.core.api.JPAODataBatchProcessor;
 import com.sap.olingo.jpa.processor.core.api.JPAODataContextAccessDouble;
 import com.sap.olingo.jpa.processor.core.api.JPAODataRequestProcessor;
-import com.sap.olingo.jpa.processor.core.api.JPAODataSessionContextAccess;
 
 public class IntegrationTestHelper {
   public final HttpServletRequestDouble req;
@@ -39,7 +39,7 @@ public class IntegrationTestHelper {
 
   public IntegrationTestHelper(EntityManagerFactory localEmf, String urlPath) throws IOException,
       ODataException {
-    this(localEmf, null, urlPath, null, null);
+    this(localEmf, createContext(localEmf), urlPath, null, null);
   }
 
   public IntegrationTestHelper(EntityManagerFactory localEmf, DataSource ds, String urlPath) throws IOException,
@@ -49,7 +49,7 @@ public class IntegrationTestHelper {
 
   public IntegrationTestHelper(EntityManagerFactory localEmf, String urlPath, StringBuffer requestBody)
       throws IOException, ODataException {
-    this(localEmf, null, urlPath, requestBody, null);
+    this(localEmf, createContext(localEmf), urlPath, requestBody, null);
   }
 
   public IntegrationTestHelper(EntityManagerFactory localEmf, DataSource ds, String urlPath, String functionPackage)
@@ -64,18 +64,21 @@ public class IntegrationTestHelper {
 
   public IntegrationTestHelper(EntityManagerFactory localEmf, DataSource ds, String urlPath, StringBuffer requestBody,
       String functionPackage) throws IOException, ODataException {
+    this(localEmf, createContext(localEmf, ds, functionPackage), urlPath, requestBody, null);
+  }
+
+  /**
+   * Processes a request with a context, which has been created via {@link #createContext(EntityManagerFactory)} and
+   * configured by the test.
+   */
+  public IntegrationTestHelper(EntityManagerFactory localEmf, JPAODataContextAccessDouble context, String urlPath,
+      StringBuffer requestBody, Map<String, List<String>> headers) throws IOException, ODataException {
 
     super();
     EntityManager em = localEmf.createEntityManager();
-    this.req = new HttpServletRequestDouble(uriPrefix + urlPath, requestBody);
+    this.req = new HttpServletRequestDouble(uriPrefix + urlPath, requestBody, headers);
     this.resp = new HttpServletResponseDouble();
     OData odata = OData.newInstance();
-    String[] packages = TestBase.enumPackages;
-    if (functionPackage != null)
-      packages = ArrayUtils.add(packages, functionPackage);
-
-    JPAODataSessionContextAccess context = new JPAODataContextAccessDouble(new JPAEdmProvider(PUNIT_NAME, localEmf,
-        null, packages), ds, functionPackage);
 
     ODataHttpHandler handler = odata.createHandler(odata.createServiceMetadata(context.getEdmProvider(),
         new ArrayList<EdmxReference>()));
@@ -86,6 +89,19 @@ public class IntegrationTestHelper {
 
   }
 
+  public static JPAODataContextAccessDouble createContext(EntityManagerFactory localEmf) throws ODataException {
+    return createContext(localEmf, null, null);
+  }
+
+  public static JPAODataContextAccessDouble createContext(EntityManagerFactory localEmf, DataSource ds,
+      String functionPackage) throws ODataException {
+    String[] packages = TestBase.enumPackages;
+    if (functionPackage != null)
+      packages = ArrayUtils.add(packages, functionPackage);
+    return new JPAODataContextAccessDouble(new JPAEdmProvider(PUNIT_NAME, localEmf, null, packages), ds,
+        functionPackage);
+  }
+
   public HttpServletResponseDouble getResponce() {
     return resp;
   }
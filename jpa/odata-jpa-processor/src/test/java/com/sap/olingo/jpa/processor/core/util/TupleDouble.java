@@ -27,6 +27,11 @@ public class TupleDouble implements Tuple {
 
   @Override
   public Object get(int i) {
+    int index = 0;
+    for (String alias : elementMap.keySet()) {
+      if (index++ == i)
+        return elementMap.get(alias);
+    }
     return null;
   }
 